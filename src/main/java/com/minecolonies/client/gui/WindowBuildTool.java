@@ -8,6 +8,7 @@ import com.minecolonies.lib.Constants;
 import com.minecolonies.network.messages.BuildToolPlaceMessage;
 import com.minecolonies.util.LanguageHandler;
 import com.structures.helpers.Settings;
+import com.structures.helpers.StructureLoader;
 import net.minecraft.block.Block;
 import net.minecraft.entity.player.InventoryPlayer;
 import net.minecraft.item.ItemStack;
@@ -356,17 +357,68 @@ public class WindowBuildTool extends AbstractWindowSkeleton
 
     /**
      * Changes the current schematic.
-     * Set to button position at that time
+     * Set to button position at that time.
+     * The structure is loaded in the background, the neighbouring styles and levels are prefetched
+     * so cycling through them shows the preview at once.
      */
     private void changeSchematic()
     {
         String labelHutDec = findPaneOfTypeByID(BUTTON_HUT_DEC_ID, Button.class).getLabel();
         String labelHutStyle = findPaneOfTypeByID(BUTTON_STYLE_ID, Button.class).getLabel();
 
-        Structure structure = new Structure(null,
-                labelHutStyle + '/' + labelHutDec + (Settings.instance.isInHutMode() ? (level + 1) : ""),
+        Settings.instance.loadSchematic(getStructureName(labelHutStyle, labelHutDec, level),
                 new PlacementSettings().setMirror(Mirror.NONE));
-        Settings.instance.setActiveSchematic(structure);
+        prefetchNeighbours();
+    }
+
+    /**
+     * Queues the structures the next style, level or hut/decoration click would show.
+     */
+    private void prefetchNeighbours()
+    {
+        final List<String> names = new ArrayList<>();
+        final String current = hutDec.get(hutDecIndex);
+        final List<String> styles = getStyles();
+
+        if (styles.size() > 1)
+        {
+            names.add(getStructureName(styles.get((styleIndex + 1) % styles.size()), current, level));
+        }
+
+        if (Settings.instance.isInHutMode())
+        {
+            final int maxLevel = Structures.getMaxLevelForHut(current);
+            if (maxLevel > 1)
+            {
+                names.add(getStructureName(styles.get(styleIndex), current, (level + 1) % maxLevel));
+            }
+        }
+
+        if (hutDec.size() > 1)
+        {
+            final String next = hutDec.get((hutDecIndex + 1) % hutDec.size());
+            final List<String> nextStyles = Settings.instance.isInHutMode() ? Structures.getStylesForHut(next) : Structures.getStylesForDecoration(next);
+            if (nextStyles != null && !nextStyles.isEmpty())
+            {
+                names.add(getStructureName(nextStyles.get(0), next, level));
+            }
+        }
+
+        StructureLoader.prefetch(names);
+    }
+
+    /**
+     * Builds the name of a structure.
+     *
+     * @param style  the style.
+     * @param hutDec the hut or decoration.
+     * @param level  the level minus 1, ignored for decorations.
+     * @return the structure name.
+     */
+    @NotNull
+    private static String getStructureName(@NotNull final String style, @NotNull final String hutDec, final int level)
+    {
+        return style + '/' + hutDec + (Settings.instance.isInHutMode() ? (level + 1) : "");
     }
 
     /*
@@ -1,7 +1,10 @@
 package com.minecolonies.client.gui;
 
+import com.blockout.controls.Label;
+import com.minecolonies.colony.WorkOrderView;
 import com.minecolonies.colony.buildings.BuildingBuilder;
 import com.minecolonies.lib.Constants;
+import com.minecolonies.util.LanguageHandler;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -14,6 +17,11 @@ public class WindowHutBuilder extends AbstractWindowWorkerBuilding<BuildingBuild
      */
     private static final String HUT_BUILDER_RESOURCE_SUFFIX = ":gui/windowHutBuilder.xml";
 
+    /**
+     * Id of the label with the progress of the current build.
+     */
+    private static final String LABEL_PROGRESS = "progress";
+
     /**
      * Constructor for window builder hut
      *
@@ -35,4 +43,28 @@ public class WindowHutBuilder extends AbstractWindowWorkerBuilding<BuildingBuild
     {
         return "com.minecolonies.gui.workerHuts.buildersHut";
     }
+
+    /**
+     * Called when the GUI has been opened.
+     * Shows how much of the structure the builder is working on is done.
+     */
+    @Override
+    public void onOpened()
+    {
+        super.onOpened();
+
+        String progress = "";
+        if (building.getWorkerId() != 0)
+        {
+            for (@NotNull final WorkOrderView workOrder : building.getColony().getWorkOrders())
+            {
+                if (workOrder.getClaimedBy() == building.getWorkerId() && workOrder.getProgress() >= 0)
+                {
+                    progress = LanguageHandler.format("com.minecolonies.gui.workerHuts.builderProgress", workOrder.getProgress());
+                    break;
+                }
+            }
+        }
+        findPaneOfTypeByID(LABEL_PROGRESS, Label.class).setLabelText(progress);
+    }
 }
@@ -199,6 +199,11 @@ public class WindowTownHall extends AbstractWindowBuilding<BuildingTownHall.View
      */
     private static final String WORK_LABEL = "work";
 
+    /**
+     * Id of the remaining materials label in the GUI.
+     */
+    private static final String MATERIALS_LABEL = "materials";
+
     /**
      * Id of the hidden workorder id in the GUI.
      */
@@ -549,6 +554,10 @@ public class WindowTownHall extends AbstractWindowBuilding<BuildingTownHall.View
 
                 rowPane.findPaneOfTypeByID(WORK_LABEL, Label.class).setLabelText(workOrder.getValue());
                 rowPane.findPaneOfTypeByID(ASSIGNEE_LABEL, Label.class).setLabelText(claimingCitizen);
+                rowPane.findPaneOfTypeByID(MATERIALS_LABEL, Label.class).setLabelText(workOrder.getMaterials().isEmpty()
+                                                                                         ? ""
+                                                                                         : LanguageHandler.format("com.minecolonies.gui.townHall.materialsLeft",
+                                                                                           workOrder.getMaterialCount()));
                 rowPane.findPaneOfTypeByID(HIDDEN_WORKORDER_ID, Label.class).setLabelText(Integer.toString(workOrder.getId()));
             }
         });
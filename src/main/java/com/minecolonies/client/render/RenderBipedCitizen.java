@@ -2,6 +2,7 @@ package com.minecolonies.client.render;
 
 import com.minecolonies.client.model.*;
 import com.minecolonies.entity.EntityCitizen;
+import com.minecolonies.lib.Constants;
 import net.minecraft.client.model.ModelBiped;
 import net.minecraft.client.renderer.entity.RenderBiped;
 import net.minecraft.client.renderer.entity.RenderManager;
@@ -102,11 +103,93 @@ public class RenderBipedCitizen extends RenderBiped<EntityCitizen>
          * Amount of different textures available for the renderer
          */
         public final int    numTextures;
+        /**
+         * Texture locations by gender (male first), texture and metadata ordinal, built once.
+         */
+        private final ResourceLocation[][][] textures;
+        private static final Model[] VALUES = values();
 
         Model(String textureBase, int numTextures)
         {
             this.textureBase = textureBase;
             this.numTextures = numTextures;
+
+            final Metadata[] metadata = Metadata.values();
+            textures = new ResourceLocation[2][numTextures][metadata.length];
+            for (int gender = 0; gender < 2; gender++)
+            {
+                final String base = "textures/entity/" + textureBase + (gender == 0 ? "Male" : "Female");
+                for (int texture = 0; texture < numTextures; texture++)
+                {
+                    for (@NotNull final Metadata meta : metadata)
+                    {
+                        textures[gender][texture][meta.ordinal()] =
+                          new ResourceLocation(Constants.MOD_ID, base + (texture + 1) + meta.textureSuffix + ".png");
+                    }
+                }
+            }
+        }
+
+        /**
+         * Get the model for its ordinal, as sent to the client.
+         *
+         * @param ordinal the ordinal.
+         * @return the model, SETTLER if the ordinal is unknown.
+         */
+        @NotNull
+        public static Model byOrdinal(final int ordinal)
+        {
+            return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : SETTLER;
+        }
+
+        /**
+         * Get the texture of a citizen without building its name.
+         *
+         * @param female    true for the female texture.
+         * @param textureId the texture id of the citizen, any positive number.
+         * @param metadata  what the citizen carries.
+         * @return the texture location.
+         */
+        @NotNull
+        public ResourceLocation getTexture(final boolean female, final int textureId, @NotNull final Metadata metadata)
+        {
+            return textures[female ? 1 : 0][textureId % numTextures][metadata.ordinal()];
+        }
+    }
+
+    /**
+     * What a citizen carries, shown by a texture variant.
+     */
+    public enum Metadata
+    {
+        NONE(""),
+        TORCH("Torch"),
+        LOGS("Logs"),
+        FISH("Fish"),
+        ROD("Rod"),
+        ROD_FISH("RodFish");
+
+        /**
+         * Appended to the texture name of the model.
+         */
+        public final String textureSuffix;
+        private static final Metadata[] VALUES = values();
+
+        Metadata(String textureSuffix)
+        {
+            this.textureSuffix = textureSuffix;
+        }
+
+        /**
+         * Get the metadata for its ordinal, as sent to the client.
+         *
+         * @param ordinal the ordinal.
+         * @return the metadata, NONE if the ordinal is unknown.
+         */
+        @NotNull
+        public static Metadata byOrdinal(final int ordinal)
+        {
+            return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : NONE;
         }
     }
 }
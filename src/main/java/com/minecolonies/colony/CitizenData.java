@@ -165,6 +165,7 @@ public class CitizenData
     public void setCitizenEntity(EntityCitizen citizen)
     {
         entity = citizen;
+        colony.onCitizenEntityChanged(this);
         markDirty();
     }
 
@@ -437,6 +438,7 @@ public class CitizenData
         else if (workBuilding != building)
         {
             workBuilding = building;
+            colony.onCitizenJobChanged(this);
 
             if (workBuilding != null)
             {
@@ -470,6 +472,7 @@ public class CitizenData
     public void clearCitizenEntity()
     {
         entity = null;
+        colony.onCitizenEntityChanged(this);
     }
 
     /**
@@ -490,6 +493,8 @@ public class CitizenData
     public void setJob(AbstractJob job)
     {
         this.job = job;
+        colony.getWorkManager().onWorkerChanged(this);
+        colony.onCitizenJobChanged(this);
 
         @Nullable EntityCitizen localEntity = getCitizenEntity();
         if (localEntity != null)
@@ -0,0 +1,171 @@
+package com.minecolonies.colony;
+
+import com.minecolonies.colony.buildings.AbstractBuildingWorker;
+import com.minecolonies.colony.jobs.AbstractJob;
+import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Finds the citizens of a colony by their job and their work building without looking at every citizen.
+ * <p>
+ * Kept up to date by the colony whenever the job or the work building of a citizen changes and when a citizen is added or removed.
+ */
+public class CitizenJobIndex
+{
+    /**
+     * Citizens by the exact class of their job.
+     */
+    @NotNull
+    private final Map<Class<? extends AbstractJob>, Set<CitizenData>> byJob             = new HashMap<>();
+    /**
+     * Citizens by the location of their work building.
+     */
+    @NotNull
+    private final Map<BlockPos, Set<CitizenData>>                      byWorkBuilding    = new HashMap<>();
+    /**
+     * Citizens without a work building, in the order they became unemployed.
+     */
+    @NotNull
+    private final Set<CitizenData>                                     unemployed        = new LinkedHashSet<>();
+    /**
+     * The keys each citizen is stored under, to remove it again when they change.
+     */
+    @NotNull
+    private final Map<CitizenData, Class<? extends AbstractJob>>       jobOfCitizen      = new HashMap<>();
+    @NotNull
+    private final Map<CitizenData, BlockPos>                           buildingOfCitizen = new HashMap<>();
+
+    /**
+     * Files a citizen under its current job and work building, moving it if they changed.
+     *
+     * @param citizen the citizen.
+     */
+    public void update(@NotNull final CitizenData citizen)
+    {
+        final Class<? extends AbstractJob> job = citizen.getJob() == null ? null : citizen.getJob().getClass();
+        final AbstractBuildingWorker workBuilding = citizen.getWorkBuilding();
+        final BlockPos building = workBuilding == null ? null : workBuilding.getLocation();
+
+        final boolean filed = unemployed.contains(citizen) || buildingOfCitizen.containsKey(citizen);
+        if (filed && Objects.equals(job, jobOfCitizen.get(citizen)) && Objects.equals(building, buildingOfCitizen.get(citizen)))
+        {
+            return;
+        }
+
+        remove(citizen);
+
+        if (job != null)
+        {
+            byJob.computeIfAbsent(job, type -> new LinkedHashSet<>()).add(citizen);
+            jobOfCitizen.put(citizen, job);
+        }
+
+        if (building == null)
+        {
+            unemployed.add(citizen);
+        }
+        else
+        {
+            byWorkBuilding.computeIfAbsent(building, pos -> new LinkedHashSet<>()).add(citizen);
+            buildingOfCitizen.put(citizen, building);
+        }
+    }
+
+    /**
+     * Forgets a citizen, for example because it died.
+     *
+     * @param citizen the citizen.
+     */
+    public void remove(@NotNull final CitizenData citizen)
+    {
+        unemployed.remove(citizen);
+
+        final Class<? extends AbstractJob> job = jobOfCitizen.remove(citizen);
+        if (job != null)
+        {
+            removeFrom(byJob, job, citizen);
+        }
+
+        final BlockPos building = buildingOfCitizen.remove(citizen);
+        if (building != null)
+        {
+            removeFrom(byWorkBuilding, building, citizen);
+        }
+    }
+
+    /**
+     * Get the citizens with a job of exactly this type.
+     *
+     * @param type the job class.
+     * @return the citizens, don't change them.
+     */
+    @NotNull
+    public Collection<CitizenData> getCitizensWithJob(@NotNull final Class<? extends AbstractJob> type)
+    {
+        final Set<CitizenData> citizens = byJob.get(type);
+        return citizens == null ? Collections.emptySet() : Collections.unmodifiableSet(citizens);
+    }
+
+    /**
+     * Get the citizens working in a building.
+     *
+     * @param location the location of the work building.
+     * @return the citizens, don't change them.
+     */
+    @NotNull
+    public Collection<CitizenData> getWorkers(@NotNull final BlockPos location)
+    {
+        final Set<CitizenData> citizens = byWorkBuilding.get(location);
+        return citizens == null ? Collections.emptySet() : Collections.unmodifiableSet(citizens);
+    }
+
+    /**
+     * Get all citizens with a work building.
+     *
+     * @return the citizens, don't change them.
+     */
+    @NotNull
+    public Collection<CitizenData> getEmployed()
+    {
+        return Collections.unmodifiableSet(buildingOfCitizen.keySet());
+    }
+
+    /**
+     * Get the citizen which is unemployed for the longest time.
+     *
+     * @return the citizen or null if all are employed.
+     */
+    @Nullable
+    public CitizenData getFirstUnemployed()
+    {
+        final Iterator<CitizenData> iterator = unemployed.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * Get the citizens without a work building.
+     *
+     * @return the citizens, don't change them.
+     */
+    @NotNull
+    public Collection<CitizenData> getUnemployed()
+    {
+        return Collections.unmodifiableSet(unemployed);
+    }
+
+    private static <K> void removeFrom(@NotNull final Map<K, Set<CitizenData>> index, @NotNull final K key, @NotNull final CitizenData citizen)
+    {
+        final Set<CitizenData> citizens = index.get(key);
+        if (citizens != null)
+        {
+            citizens.remove(citizen);
+            if (citizens.isEmpty())
+            {
+                index.remove(key);
+            }
+        }
+    }
+}
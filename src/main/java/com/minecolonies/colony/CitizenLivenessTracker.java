@@ -0,0 +1,151 @@
+package com.minecolonies.colony;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Keeps track of which citizens have no entity in the world and if all chunks around a colony are loaded.
+ * <p>
+ * Both are updated by events, entities added and removed and chunks loaded and unloaded,
+ * so checking them is cheap. A citizen is AWOL if it has no entity while all chunks it could be in are loaded.
+ */
+public class CitizenLivenessTracker
+{
+    /**
+     * Blocks around the working range which have to be loaded, 3 chunks plus one to round up.
+     */
+    private static final int CHUNK_MARGIN = 48 + 15;
+
+    /**
+     * Ids of the citizens which have no entity.
+     */
+    @NotNull
+    private final Set<Integer> missingCitizens = new HashSet<>();
+
+    private int minChunkX;
+    private int maxChunkX;
+    private int minChunkZ;
+    private int maxChunkZ;
+    private int requiredChunks = 0;
+    private int loadedChunks   = 0;
+
+    /**
+     * Sets the area of the colony and counts its loaded chunks.
+     *
+     * @param world  the colony world.
+     * @param center the colony center.
+     * @param range  the working range of the town hall.
+     */
+    public void init(@NotNull final World world, @NotNull final BlockPos center, final int range)
+    {
+        final int distance = range + CHUNK_MARGIN;
+        minChunkX = (center.getX() - distance) >> 4;
+        maxChunkX = (center.getX() + distance) >> 4;
+        minChunkZ = (center.getZ() - distance) >> 4;
+        maxChunkZ = (center.getZ() + distance) >> 4;
+        requiredChunks = (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+
+        loadedChunks = 0;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++)
+        {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++)
+            {
+                if (world.getChunkProvider().getLoadedChunk(chunkX, chunkZ) != null)
+                {
+                    loadedChunks++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts a loaded chunk if it is in the colony area.
+     *
+     * @param chunkX the chunk x coordinate.
+     * @param chunkZ the chunk z coordinate.
+     */
+    public void onChunkLoad(final int chunkX, final int chunkZ)
+    {
+        if (isInArea(chunkX, chunkZ))
+        {
+            loadedChunks++;
+        }
+    }
+
+    /**
+     * Counts an unloaded chunk if it is in the colony area.
+     *
+     * @param chunkX the chunk x coordinate.
+     * @param chunkZ the chunk z coordinate.
+     */
+    public void onChunkUnload(final int chunkX, final int chunkZ)
+    {
+        if (isInArea(chunkX, chunkZ) && loadedChunks > 0)
+        {
+            loadedChunks--;
+        }
+    }
+
+    /**
+     * @return true if all chunks of the colony area are loaded, so all citizens should have an entity.
+     */
+    public boolean areAllChunksLoaded()
+    {
+        return requiredChunks > 0 && loadedChunks >= requiredChunks;
+    }
+
+    /**
+     * Updates the citizens without an entity.
+     *
+     * @param citizenId the citizen.
+     * @param hasEntity true if the citizen has an entity now.
+     */
+    public void onCitizenEntityChanged(final int citizenId, final boolean hasEntity)
+    {
+        if (hasEntity)
+        {
+            missingCitizens.remove(citizenId);
+        }
+        else
+        {
+            missingCitizens.add(citizenId);
+        }
+    }
+
+    /**
+     * Forgets a citizen, for example because it died.
+     *
+     * @param citizenId the citizen.
+     */
+    public void removeCitizen(final int citizenId)
+    {
+        missingCitizens.remove(citizenId);
+    }
+
+    /**
+     * @return true if a citizen has no entity.
+     */
+    public boolean hasMissingCitizens()
+    {
+        return !missingCitizens.isEmpty();
+    }
+
+    /**
+     * @return the ids of the citizens without an entity.
+     */
+    @NotNull
+    public Set<Integer> getMissingCitizens()
+    {
+        return Collections.unmodifiableSet(missingCitizens);
+    }
+
+    private boolean isInArea(final int chunkX, final int chunkZ)
+    {
+        return chunkX >= minChunkX && chunkX <= maxChunkX && chunkZ >= minChunkZ && chunkZ <= maxChunkZ;
+    }
+}
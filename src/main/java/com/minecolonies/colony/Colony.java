@@ -6,12 +6,15 @@ import com.minecolonies.colony.buildings.AbstractBuilding;
 import com.minecolonies.colony.buildings.BuildingFarmer;
 import com.minecolonies.colony.buildings.BuildingHome;
 import com.minecolonies.colony.buildings.BuildingTownHall;
+import com.minecolonies.colony.jobs.AbstractJob;
+import com.minecolonies.colony.materials.ItemAvailabilityIndex;
 import com.minecolonies.colony.materials.MaterialSystem;
 import com.minecolonies.colony.permissions.Permissions;
 import com.minecolonies.colony.workorders.AbstractWorkOrder;
 import com.minecolonies.configuration.Configurations;
 import com.minecolonies.entity.EntityCitizen;
 import com.minecolonies.entity.ai.citizen.farmer.Field;
+import com.minecolonies.inventory.InventoryField;
 import com.minecolonies.network.messages.*;
 import com.minecolonies.permissions.ColonyPermissionEventHandler;
 import com.minecolonies.tileentities.ScarecrowTileEntity;
@@ -26,6 +29,7 @@ import net.minecraft.nbt.NBTTagList;
 import net.minecraft.stats.Achievement;
 import net.minecraft.stats.StatBase;
 import net.minecraft.stats.StatList;
+import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraftforge.common.MinecraftForge;
@@ -44,6 +48,14 @@ public class Colony implements IColony
 {
     //  Settings
     private static final int    CITIZEN_CLEANUP_TICK_INCREMENT = 5 * 20;
+    /**
+     * Ticks between two checks of all buildings and fields, changes are usually noticed by block updates.
+     */
+    private static final int    FULL_VALIDATION_INTERVAL       = 5 * 60 * 20;
+    /**
+     * Ticks between two hand outs of the experience orbs to the citizens collecting them.
+     */
+    private static final int    XP_COLLECTION_INTERVAL         = 10;
     private static final String TAG_ID                         = "id";
     private static final String TAG_NAME                       = "name";
     private static final String TAG_DIMENSION                  = "dimension";
@@ -73,6 +85,8 @@ public class Colony implements IColony
     //  Workload and Jobs
     private final WorkManager         workManager      = new WorkManager(this);
     private final MaterialSystem      materialSystem   = new MaterialSystem();
+    //  Items stored in the building chests and fields
+    private final ItemAvailabilityIndex itemIndex      = new ItemAvailabilityIndex();
     //  Runtime Data
     @Nullable
     private       World               world            = null;
@@ -93,6 +107,31 @@ public class Colony implements IColony
     private BuildingTownHall townHall;
     @NotNull
     private Map<BlockPos, AbstractBuilding> buildings    = new HashMap<>();
+    /**
+     * Buildings and fields whose block changed or whose chunk has been loaded, they are checked in the next world tick.
+     */
+    @NotNull
+    private final Set<BlockPos>             pendingValidation = new HashSet<>();
+    /**
+     * Citizens without an entity and the loaded chunks around the colony.
+     */
+    @NotNull
+    private final CitizenLivenessTracker    liveness          = new CitizenLivenessTracker();
+    /**
+     * Citizens by their job and work building.
+     */
+    @NotNull
+    private final CitizenJobIndex           jobIndex          = new CitizenJobIndex();
+    /**
+     * The dropped items around the colony.
+     */
+    @NotNull
+    private final ColonyItemIndex           droppedItems      = new ColonyItemIndex();
+    /**
+     * The experience orbs around the colony.
+     */
+    @NotNull
+    private final ColonyXpCollector         xpCollector       = new ColonyXpCollector();
     //  Citizenry
     @NotNull
     private Map<Integer, CitizenData>       citizens     = new HashMap<>();
@@ -113,6 +152,9 @@ public class Colony implements IColony
         center = c;
         world = w;
         this.permissions = new Permissions(this);
+        liveness.init(w, c, Configurations.workingRangeTownHall);
+        droppedItems.init(c, Configurations.workingRangeTownHall);
+        xpCollector.init(w, c, Configurations.workingRangeTownHall);
     }
 
     /**
@@ -173,6 +215,8 @@ public class Colony implements IColony
             final CitizenData data = CitizenData.createFromNBT(citizenCompound, this);
             citizens.put(data.getId(), data);
             topCitizenId = Math.max(topCitizenId, data.getId());
+            liveness.onCitizenEntityChanged(data.getId(), false);
+            jobIndex.update(data);
         }
 
         //  Buildings
@@ -224,6 +268,7 @@ public class Colony implements IColony
     private void addBuilding(@NotNull AbstractBuilding building)
     {
         buildings.put(building.getID(), building);
+        pendingValidation.add(building.getID());
         building.markDirty();
 
         //  Limit 1 town hall
@@ -241,13 +286,7 @@ public class Colony implements IColony
     private void addField(@NotNull Field field)
     {
         fields.put(field.getID(), field);
-    }
-
-    private static boolean isCitizenMissingFromWorld(@NotNull CitizenData citizen)
-    {
-        EntityCitizen entity = citizen.getCitizenEntity();
-
-        return entity != null && entity.worldObj.getEntityByID(entity.getEntityId()) != entity;
+        pendingValidation.add(field.getID());
     }
 
     /**
@@ -471,6 +510,12 @@ public class Colony implements IColony
         if (w.provider.getDimension() == dimensionId)
         {
             world = w;
+            if (center != null)
+            {
+                liveness.init(w, center, Configurations.workingRangeTownHall);
+                droppedItems.init(center, Configurations.workingRangeTownHall);
+                xpCollector.init(w, center, Configurations.workingRangeTownHall);
+            }
         }
     }
 
@@ -496,100 +541,136 @@ public class Colony implements IColony
      */
     public void onServerTick(@NotNull TickEvent.ServerTickEvent event)
     {
-        for (@NotNull AbstractBuilding b : buildings.values())
+        TickProfiler.push(TickProfiler.COLONY, id);
+        TickProfiler.push(TickProfiler.SERVER_TICK, event.phase);
+        try
         {
-            b.onServerTick(event);
+            for (@NotNull AbstractBuilding b : buildings.values())
+            {
+                TickProfiler.push(TickProfiler.BUILDING, b.getClass());
+                try
+                {
+                    b.onServerTick(event);
+                }
+                finally
+                {
+                    TickProfiler.pop();
+                }
+            }
         }
-
-        if (event.phase == TickEvent.Phase.END)
+        finally
         {
-            updateSubscribers();
+            TickProfiler.pop();
+            TickProfiler.pop();
         }
     }
 
     /**
-     * Update Subscribers with Colony, Citizen, and AbstractBuilding Views.
+     * Compute phase of the subscriber sync: finds the subscribers and serializes the changed views for them.
+     * Only reads this colony and the players, so colonies may run it in parallel while the server thread waits.
+     * The result is sent by {@link #applySubscriberUpdate(SubscriberUpdate)}.
+     *
+     * @param players the players online on the server.
+     * @return the update to apply.
      */
-    public void updateSubscribers()
+    @NotNull
+    SubscriberUpdate prepareSubscriberUpdate(@NotNull final List<EntityPlayerMP> players)
     {
-        //  Recompute subscribers every frame (for now)
-        //  Subscribers = Owners + Players within (double working town hall range)
-        @NotNull Set<EntityPlayerMP> oldSubscribers = subscribers;
-        subscribers = new HashSet<>();
-
-        // Add owners
-        subscribers.addAll(
-          this.getWorld().getMinecraftServer().getPlayerList().getPlayerList()
-            .stream()
-            .filter(permissions::isSubscriber)
-            .collect(Collectors.toList()));
-
-        //  Add nearby players
-        if (world != null)
+        TickProfiler.push(TickProfiler.COLONY, id);
+        TickProfiler.push(TickProfiler.SUBSCRIBERS);
+        try
         {
-            for (EntityPlayer o : world.playerEntities)
+            //  Recompute subscribers every frame (for now)
+            //  Subscribers = Owners + Players within (double working town hall range)
+            @NotNull final Set<EntityPlayerMP> newSubscribers = new HashSet<>();
+            for (@NotNull final EntityPlayerMP player : players)
             {
-                if (o instanceof EntityPlayerMP)
+                if (permissions.isSubscriber(player))
+                {
+                    newSubscribers.add(player);
+                }
+                else if (world != null && player.worldObj == world)
                 {
-                    @NotNull EntityPlayerMP player = (EntityPlayerMP) o;
-
-                    if (subscribers.contains(player))
-                    {
-                        //  Already a subscriber
-                        continue;
-                    }
-
                     double distance = player.getDistanceSq(center);
                     if (distance < MathUtils.square(Configurations.workingRangeTownHall + 16D) ||
-                          (oldSubscribers.contains(player) && distance < MathUtils.square(Configurations.workingRangeTownHall * 2D)))
+                          (subscribers.contains(player) && distance < MathUtils.square(Configurations.workingRangeTownHall * 2D)))
                     {
                         // Players become subscribers if they come within 16 blocks of the edge of the colony
                         // Players remain subscribers while they remain within double the colony's radius
-                        subscribers.add(player);
+                        newSubscribers.add(player);
                     }
                 }
             }
-        }
 
-        if (!subscribers.isEmpty())
-        {
-            //  Determine if any new subscribers were added this pass
-            boolean hasNewSubscribers = hasNewSubscribers(oldSubscribers, subscribers);
+            @NotNull final SubscriberUpdate update = new SubscriberUpdate(newSubscribers);
+            if (!newSubscribers.isEmpty())
+            {
+                //  Determine if any new subscribers were added this pass
+                boolean hasNewSubscribers = hasNewSubscribers(subscribers, newSubscribers);
 
-            //  Send each type of update packet as appropriate:
-            //      - To Subscribers if the data changes
-            //      - To New Subscribers even if it hasn't changed
+                //  Queue each type of update packet as appropriate:
+                //      - To Subscribers if the data changes
+                //      - To New Subscribers even if it hasn't changed
 
-            //ColonyView
-            sendColonyViewPackets(oldSubscribers, hasNewSubscribers);
+                //ColonyView
+                addColonyViewMessages(update, hasNewSubscribers);
 
-            //Permissions
-            sendPermissionsPackets(oldSubscribers, hasNewSubscribers);
+                //Permissions
+                addPermissionsMessages(update, hasNewSubscribers);
 
-            //WorkOrders
-            sendWorkOrderPackets(oldSubscribers, hasNewSubscribers);
+                //WorkOrders
+                addWorkOrderMessages(update, hasNewSubscribers);
 
-            //Citizens
-            sendCitizenPackets(oldSubscribers, hasNewSubscribers);
+                //Citizens
+                addCitizenMessages(update, hasNewSubscribers);
 
-            //Buildings
-            sendBuildingPackets(oldSubscribers, hasNewSubscribers);
+                //Buildings
+                addBuildingMessages(update, hasNewSubscribers);
 
-            //Fields
-            if (!isBuildingsDirty)
-            {
-                sendFieldPackets(oldSubscribers, hasNewSubscribers);
+                //Fields
+                if (!isBuildingsDirty)
+                {
+                    addFieldMessages(update, hasNewSubscribers);
+                }
             }
+            return update;
         }
+        finally
+        {
+            TickProfiler.pop();
+            TickProfiler.pop();
+        }
+    }
 
-        isFieldsDirty = false;
-        isDirty = false;
-        isCitizensDirty = false;
-        isBuildingsDirty = false;
-        permissions.clearDirty();
-
-        buildings.values().forEach(AbstractBuilding::clearDirty);
-        citizens.values().forEach(CitizenData::clearDirty);
+    /**
+     * Apply phase of the subscriber sync, on the server thread: sends the prepared messages and clears the dirty flags.
+     *
+     * @param update the update made by {@link #prepareSubscriberUpdate(List)} this tick.
+     */
+    void applySubscriberUpdate(@NotNull final SubscriberUpdate update)
+    {
+        TickProfiler.push(TickProfiler.COLONY, id);
+        TickProfiler.push(TickProfiler.SUBSCRIBERS);
+        try
+        {
+            subscribers = update.getSubscribers();
+            update.send();
+
+            isFieldsDirty = false;
+            isDirty = false;
+            isCitizensDirty = false;
+            isBuildingsDirty = false;
+            permissions.clearDirty();
+            workManager.setDirty(false);
+
+            buildings.values().forEach(AbstractBuilding::clearDirty);
+            citizens.values().forEach(CitizenData::clearDirty);
+        }
+        finally
+        {
+            TickProfiler.pop();
+            TickProfiler.pop();
+        }
     }
 
     private static boolean hasNewSubscribers(@NotNull Set<EntityPlayerMP> oldSubscribers, @NotNull Set<EntityPlayerMP> subscribers)
@@ -604,68 +685,72 @@ public class Colony implements IColony
         return false;
     }
 
-    private void sendColonyViewPackets(@NotNull Set<EntityPlayerMP> oldSubscribers, boolean hasNewSubscribers)
+    /**
+     * Queues messages to update the colony view.
+     *
+     * @param update            the update of this tick.
+     * @param hasNewSubscribers if there are new subscribers.
+     */
+    private void addColonyViewMessages(@NotNull SubscriberUpdate update, boolean hasNewSubscribers)
     {
         if (isDirty || hasNewSubscribers)
         {
-            for (EntityPlayerMP player : subscribers)
+            for (EntityPlayerMP player : update.getSubscribers())
             {
-                boolean isNewSubscriber = !oldSubscribers.contains(player);
+                boolean isNewSubscriber = !subscribers.contains(player);
                 if (isDirty || isNewSubscriber)
                 {
-                    MineColonies.getNetwork().sendTo(new ColonyViewMessage(this, isNewSubscriber), player);
+                    update.add(player, new ColonyViewMessage(this, isNewSubscriber));
                 }
             }
         }
     }
 
     /**
-     * Sends packages to update the permissions.
+     * Queues messages to update the permissions.
      *
-     * @param oldSubscribers    the existing subscribers.
-     * @param hasNewSubscribers the new subscribers.
+     * @param update            the update of this tick.
+     * @param hasNewSubscribers if there are new subscribers.
      */
-    private void sendPermissionsPackets(@NotNull Set<EntityPlayerMP> oldSubscribers, boolean hasNewSubscribers)
+    private void addPermissionsMessages(@NotNull SubscriberUpdate update, boolean hasNewSubscribers)
     {
         if (permissions.isDirty() || hasNewSubscribers)
         {
-            subscribers
+            update.getSubscribers()
               .stream()
-              .filter(player -> permissions.isDirty() || !oldSubscribers.contains(player)).forEach(player ->
+              .filter(player -> permissions.isDirty() || !subscribers.contains(player)).forEach(player ->
             {
                 Permissions.Rank rank = getPermissions().getRank(player);
-                MineColonies.getNetwork().sendTo(new PermissionsMessage.View(this, rank), player);
+                update.add(player, new PermissionsMessage.View(this, rank));
             });
         }
     }
 
     /**
-     * Sends packages to update the workOrders.
+     * Queues messages to update the workOrders.
      *
-     * @param oldSubscribers    the existing subscribers.
-     * @param hasNewSubscribers the new subscribers.
+     * @param update            the update of this tick.
+     * @param hasNewSubscribers if there are new subscribers.
      */
-    private void sendWorkOrderPackets(@NotNull Set<EntityPlayerMP> oldSubscribers, boolean hasNewSubscribers)
+    private void addWorkOrderMessages(@NotNull SubscriberUpdate update, boolean hasNewSubscribers)
     {
         if (getWorkManager().isDirty() || hasNewSubscribers)
         {
             for (AbstractWorkOrder workOrder : getWorkManager().getWorkOrders().values())
             {
-                subscribers.stream().filter(player -> workManager.isDirty() || !oldSubscribers.contains(player))
-                  .forEach(player -> MineColonies.getNetwork().sendTo(new ColonyViewWorkOrderMessage(this, workOrder), player));
+                update.getSubscribers().stream().filter(player -> workManager.isDirty() || !subscribers.contains(player))
+                  .forEach(player -> update.add(player, new ColonyViewWorkOrderMessage(this, workOrder)));
             }
-
-            getWorkManager().setDirty(false);
         }
     }
 
     /**
-     * Sends packages to update the citizens.
+     * Queues messages to update the citizens.
      *
-     * @param oldSubscribers    the existing subscribers.
-     * @param hasNewSubscribers the new subscribers.
+     * @param update            the update of this tick.
+     * @param hasNewSubscribers if there are new subscribers.
      */
-    private void sendCitizenPackets(@NotNull Set<EntityPlayerMP> oldSubscribers, boolean hasNewSubscribers)
+    private void addCitizenMessages(@NotNull SubscriberUpdate update, boolean hasNewSubscribers)
     {
         if (isCitizensDirty || hasNewSubscribers)
         {
@@ -673,21 +758,21 @@ public class Colony implements IColony
             {
                 if (citizen.isDirty() || hasNewSubscribers)
                 {
-                    subscribers.stream()
-                      .filter(player -> citizen.isDirty() || !oldSubscribers.contains(player))
-                      .forEach(player -> MineColonies.getNetwork().sendTo(new ColonyViewCitizenViewMessage(this, citizen), player));
+                    update.getSubscribers().stream()
+                      .filter(player -> citizen.isDirty() || !subscribers.contains(player))
+                      .forEach(player -> update.add(player, new ColonyViewCitizenViewMessage(this, citizen)));
                 }
             }
         }
     }
 
     /**
-     * Sends packages to update the buildings.
+     * Queues messages to update the buildings.
      *
-     * @param oldSubscribers    the existing subscribers.
-     * @param hasNewSubscribers the new subscribers.
+     * @param update            the update of this tick.
+     * @param hasNewSubscribers if there are new subscribers.
      */
-    private void sendBuildingPackets(@NotNull Set<EntityPlayerMP> oldSubscribers, boolean hasNewSubscribers)
+    private void addBuildingMessages(@NotNull SubscriberUpdate update, boolean hasNewSubscribers)
     {
         if (isBuildingsDirty || hasNewSubscribers)
         {
@@ -695,21 +780,21 @@ public class Colony implements IColony
             {
                 if (building.isDirty() || hasNewSubscribers)
                 {
-                    subscribers.stream()
-                      .filter(player -> building.isDirty() || !oldSubscribers.contains(player))
-                      .forEach(player -> MineColonies.getNetwork().sendTo(new ColonyViewBuildingViewMessage(building), player));
+                    update.getSubscribers().stream()
+                      .filter(player -> building.isDirty() || !subscribers.contains(player))
+                      .forEach(player -> update.add(player, new ColonyViewBuildingViewMessage(building)));
                 }
             }
         }
     }
 
     /**
-     * Sends packages to update the fields.
+     * Queues messages to update the fields.
      *
-     * @param oldSubscribers    the existing subscribers.
-     * @param hasNewSubscribers the new subscribers.
+     * @param update            the update of this tick.
+     * @param hasNewSubscribers if there are new subscribers.
      */
-    private void sendFieldPackets(Set<EntityPlayerMP> oldSubscribers, boolean hasNewSubscribers)
+    private void addFieldMessages(@NotNull SubscriberUpdate update, boolean hasNewSubscribers)
     {
         if (isFieldsDirty && !isBuildingsDirty || hasNewSubscribers)
         {
@@ -717,7 +802,7 @@ public class Colony implements IColony
             {
                 if (building instanceof BuildingFarmer)
                 {
-                    subscribers.forEach(player -> MineColonies.getNetwork().sendTo(new ColonyViewBuildingViewMessage(building), player));
+                    update.getSubscribers().forEach(player -> update.add(player, new ColonyViewBuildingViewMessage(building)));
                 }
             }
         }
@@ -748,109 +833,285 @@ public class Colony implements IColony
             throw new IllegalStateException("Colony's world does not match the event.");
         }
 
-        if (event.phase == TickEvent.Phase.START)
+        TickProfiler.push(TickProfiler.COLONY, id);
+        TickProfiler.push(TickProfiler.WORLD_TICK, event.phase);
+        try
         {
-            //  Detect CitizenData whose EntityCitizen no longer exist in world, and clear the mapping
-            //  Consider handing this in an ChunkUnload Event instead?
-            citizens.values()
-              .stream()
-              .filter(Colony::isCitizenMissingFromWorld)
-              .forEach(CitizenData::clearCitizenEntity);
+            if (event.phase == TickEvent.Phase.START)
+            {
+                onWorldTickStart(event.world);
+            }
 
-            //  Cleanup disappeared citizens
-            //  It would be really nice if we didn't have to do this... but Citizens can disappear without dying!
-            //  Every CITIZEN_CLEANUP_TICK_INCREMENT, cleanup any 'lost' citizens
-            if ((event.world.getWorldTime() % CITIZEN_CLEANUP_TICK_INCREMENT) == 0 && areAllColonyChunksLoaded(event))
+            //  Tick Buildings
+            for (@NotNull AbstractBuilding building : buildings.values())
             {
-                //  All chunks within a good range of the colony should be loaded, so all citizens should be loaded
-                //  If we don't have any references to them, destroy the citizen
-                citizens.values().stream().filter(citizen -> citizen.getCitizenEntity() == null)
-                  .forEach(citizen ->
-                  {
-                      Log.getLogger().warn(String.format("Citizen #%d:%d has gone AWOL, respawning them!", getID(), citizen.getId()));
-                      spawnCitizen(citizen);
-                  });
+                TickProfiler.push(TickProfiler.BUILDING, building.getClass());
+                try
+                {
+                    building.onWorldTick(event);
+                }
+                finally
+                {
+                    TickProfiler.pop();
+                }
             }
 
-            //  Cleanup Buildings whose Blocks have gone AWOL
-            cleanUpBuildings(event);
+            TickProfiler.push(TickProfiler.WORK_ORDERS);
+            try
+            {
+                workManager.onWorldTick(event);
+            }
+            finally
+            {
+                TickProfiler.pop();
+            }
+        }
+        finally
+        {
+            TickProfiler.pop();
+            TickProfiler.pop();
+        }
+    }
 
-            //  Spawn Citizens
-            if (townHall != null && citizens.size() < maxCitizens)
+    /**
+     * Colony wide work done at the start of a world tick, before the buildings are ticked.
+     *
+     * @param world the colony world.
+     */
+    private void onWorldTickStart(@NotNull final World world)
+    {
+        TickProfiler.push(TickProfiler.CLEANUP);
+        try
+        {
+            //  Citizens can disappear without dying, respawn the ones without an entity once all chunks they could be in are loaded.
+            //  Every CITIZEN_CLEANUP_TICK_INCREMENT, cleanup any 'lost' citizens
+            if (liveness.hasMissingCitizens()
+                  && (world.getTotalWorldTime() % CITIZEN_CLEANUP_TICK_INCREMENT) == 0
+                  && liveness.areAllChunksLoaded())
             {
-                int respawnInterval = Configurations.citizenRespawnInterval * 20;
-                respawnInterval -= (60 * townHall.getBuildingLevel());
+                respawnMissingCitizens();
+            }
 
-                if (event.world.getWorldTime() % respawnInterval == 0)
-                {
-                    spawnCitizen();
-                }
+            //  Check the buildings and fields whose blocks changed, and all of them once in a while
+            if (world.getTotalWorldTime() % FULL_VALIDATION_INTERVAL == 0)
+            {
+                pendingValidation.addAll(buildings.keySet());
+                pendingValidation.addAll(fields.keySet());
             }
+            if (!pendingValidation.isEmpty())
+            {
+                validateBuildingsAndFields(world);
+            }
+        }
+        finally
+        {
+            TickProfiler.pop();
         }
 
-        //  Tick Buildings
-        for (@NotNull AbstractBuilding building : buildings.values())
+        if (world.getTotalWorldTime() % XP_COLLECTION_INTERVAL == 0)
         {
-            building.onWorldTick(event);
+            TickProfiler.push(TickProfiler.XP_COLLECTION);
+            try
+            {
+                xpCollector.collect();
+            }
+            finally
+            {
+                TickProfiler.pop();
+            }
         }
 
-        workManager.onWorldTick(event);
+        //  Spawn Citizens
+        if (townHall != null && citizens.size() < maxCitizens)
+        {
+            int respawnInterval = Configurations.citizenRespawnInterval * 20;
+            respawnInterval -= (60 * townHall.getBuildingLevel());
+
+            if (world.getTotalWorldTime() % respawnInterval == 0)
+            {
+                spawnCitizen();
+            }
+        }
     }
 
-    private boolean areAllColonyChunksLoaded(@NotNull TickEvent.WorldTickEvent event)
+    /**
+     * Called when a block of the colony world changes its type.
+     * Remembers buildings and fields at the position, they are checked in the next world tick.
+     *
+     * @param pos the changed position.
+     */
+    void onBlockChanged(@NotNull final BlockPos pos)
     {
-        int distanceFromCenter = Configurations.workingRangeTownHall + 48 /* 3 chunks */ + 15 /* round up a chunk */;
-        for (int x = -distanceFromCenter; x <= distanceFromCenter; x += 16)
+        if (buildings.containsKey(pos) || fields.containsKey(pos))
         {
-            for (int z = -distanceFromCenter; z <= distanceFromCenter; z += 16)
+            pendingValidation.add(pos);
+        }
+    }
+
+    /**
+     * Called when a chunk of the colony world has been loaded.
+     * The buildings and fields in it may have changed while it was unloaded, so they are checked.
+     * The chunk is counted if it is near the colony.
+     *
+     * @param chunkX the chunk x coordinate.
+     * @param chunkZ the chunk z coordinate.
+     */
+    void onChunkLoad(final int chunkX, final int chunkZ)
+    {
+        liveness.onChunkLoad(chunkX, chunkZ);
+        for (@NotNull final BlockPos pos : buildings.keySet())
+        {
+            if (isInChunk(pos, chunkX, chunkZ))
             {
-                if (!event.world.isBlockLoaded(new BlockPos(getCenter().getX() + x, 128, getCenter().getZ() + z)))
-                {
-                    return false;
-                }
+                pendingValidation.add(pos);
             }
         }
-        return true;
+        for (@NotNull final BlockPos pos : fields.keySet())
+        {
+            if (isInChunk(pos, chunkX, chunkZ))
+            {
+                pendingValidation.add(pos);
+            }
+        }
+    }
+
+    /**
+     * Called when a chunk of the colony world has been unloaded.
+     * Its buildings and fields can't be checked now, they are checked again when it is loaded.
+     * The chunk is no longer counted if it is near the colony.
+     *
+     * @param chunkX the chunk x coordinate.
+     * @param chunkZ the chunk z coordinate.
+     */
+    void onChunkUnload(final int chunkX, final int chunkZ)
+    {
+        liveness.onChunkUnload(chunkX, chunkZ);
+        pendingValidation.removeIf(pos -> isInChunk(pos, chunkX, chunkZ));
     }
 
-    private void cleanUpBuildings(@NotNull TickEvent.WorldTickEvent event)
+    /**
+     * Called when the entity of a citizen is set or cleared, mostly when it is added to or removed from the world.
+     *
+     * @param citizen the citizen.
+     */
+    void onCitizenEntityChanged(@NotNull final CitizenData citizen)
     {
-        @Nullable final List<AbstractBuilding> removedBuildings = new ArrayList<>();
+        liveness.onCitizenEntityChanged(citizen.getId(), citizen.getCitizenEntity() != null);
+    }
 
-        //Need this list, we may enter he while we add a building in the real world.
-        List<AbstractBuilding> tempBuildings = new ArrayList<>(buildings.values());
+    /**
+     * Get the dropped items around the colony.
+     *
+     * @return the item index.
+     */
+    @NotNull
+    public ColonyItemIndex getDroppedItems()
+    {
+        return droppedItems;
+    }
 
-        for (@NotNull AbstractBuilding building : tempBuildings)
+    /**
+     * Get the experience orbs around the colony and the citizens collecting them.
+     *
+     * @return the xp collector.
+     */
+    @NotNull
+    public ColonyXpCollector getXpCollector()
+    {
+        return xpCollector;
+    }
+
+    /**
+     * Respawns the citizens which have no entity although all chunks around the colony are loaded.
+     */
+    private void respawnMissingCitizens()
+    {
+        for (@NotNull final Integer citizenId : new ArrayList<>(liveness.getMissingCitizens()))
         {
-            final BlockPos loc = building.getLocation();
-            if (event.world.isBlockLoaded(loc) && !building.isMatchingBlock(event.world.getBlockState(loc).getBlock()))
+            final CitizenData citizen = citizens.get(citizenId);
+            if (citizen == null)
+            {
+                liveness.removeCitizen(citizenId);
+            }
+            else if (citizen.getCitizenEntity() == null)
+            {
+                Log.getLogger().warn(String.format("Citizen #%d:%d has gone AWOL, respawning them!", getID(), citizen.getId()));
+                spawnCitizen(citizen);
+            }
+        }
+    }
+
+    private static boolean isInChunk(@NotNull final BlockPos pos, final int chunkX, final int chunkZ)
+    {
+        return (pos.getX() >> 4) == chunkX && (pos.getZ() >> 4) == chunkZ;
+    }
+
+    /**
+     * Removes the buildings whose hut block is gone and the fields whose scarecrow is gone,
+     * and takes over changed field inventories. Only the pending positions which are loaded are checked.
+     *
+     * @param world the colony world.
+     */
+    private void validateBuildingsAndFields(@NotNull final World world)
+    {
+        final Iterator<BlockPos> iterator = pendingValidation.iterator();
+        final List<AbstractBuilding> removedBuildings = new ArrayList<>();
+        while (iterator.hasNext())
+        {
+            final BlockPos pos = iterator.next();
+            if (!world.isBlockLoaded(pos))
+            {
+                continue;
+            }
+            iterator.remove();
+
+            final AbstractBuilding building = buildings.get(pos);
+            if (building != null && !building.isMatchingBlock(world.getBlockState(pos).getBlock()))
             {
                 //  Sanity cleanup
                 removedBuildings.add(building);
             }
+
+            final Field field = fields.get(pos);
+            if (field != null)
+            {
+                validateField(world, field);
+            }
         }
 
         removedBuildings.forEach(AbstractBuilding::destroy);
+    }
 
-        @NotNull final ArrayList<Field> tempFields = new ArrayList<>(fields.values());
+    /**
+     * Removes a field whose scarecrow is gone, or takes over its inventory if it changed.
+     * The fields are only sent to the subscribers again if something changed.
+     *
+     * @param world the colony world.
+     * @param field the field.
+     */
+    private void validateField(@NotNull final World world, @NotNull final Field field)
+    {
+        final TileEntity tileEntity = world.getTileEntity(field.getID());
+        if (!(tileEntity instanceof ScarecrowTileEntity))
+        {
+            fields.remove(field.getID());
+            itemIndex.removeStore(field.getID());
+            markFieldsDirty();
+            return;
+        }
 
-        for (@NotNull final Field field : tempFields)
+        final InventoryField inventoryField = ((ScarecrowTileEntity) tileEntity).getInventoryField();
+        final boolean linked = field.getInventoryField() == inventoryField;
+        if (!linked || inventoryField.hasInventoryChanged())
         {
-            if (event.world.isBlockLoaded(field.getLocation()))
+            if (!linked)
             {
-                final ScarecrowTileEntity scarecrow = (ScarecrowTileEntity) event.world.getTileEntity(field.getID());
-                if (scarecrow == null)
-                {
-                    fields.remove(field.getID());
-                }
-                else
-                {
-                    field.setInventoryField(scarecrow.getInventoryField());
-                }
+                inventoryField.setChangeListener(() -> pendingValidation.add(field.getID()));
             }
+            itemIndex.syncStore(field.getID(), inventoryField);
+            field.setInventoryField(inventoryField);
+            markFieldsDirty();
         }
-
-        markFieldsDirty();
     }
 
     /**
@@ -888,6 +1149,7 @@ public class Colony implements IColony
                 citizenData.initializeFromEntity(entity);
 
                 citizens.put(citizenData.getId(), citizenData);
+                jobIndex.update(citizenData);
 
                 if (getMaxCitizens() == getCitizens().size())
                 {
@@ -1158,6 +1420,8 @@ public class Colony implements IColony
             townHall = null;
         }
 
+        itemIndex.removeStore(building.getLocation());
+
         //Allow Citizens to fix up any data that wasn't fixed up by the AbstractBuilding's own onDestroyed
         for (@NotNull CitizenData citizen : citizens.values())
         {
@@ -1221,11 +1485,14 @@ public class Colony implements IColony
     {
         //Remove the Citizen
         citizens.remove(citizen.getId());
+        liveness.removeCitizen(citizen.getId());
+        workManager.removeWorker(citizen);
 
         for (@NotNull AbstractBuilding building : buildings.values())
         {
             building.removeCitizen(citizen);
         }
+        jobIndex.remove(citizen);
 
         workManager.clearWorkForCitizen(citizen);
 
@@ -1269,33 +1536,88 @@ public class Colony implements IColony
     @Nullable
     public CitizenData getJoblessCitizen()
     {
-        for (@NotNull CitizenData citizen : citizens.values())
-        {
-            if (citizen.getWorkBuilding() == null)
-            {
-                return citizen;
-            }
-        }
-
-        return null;
+        return jobIndex.getFirstUnemployed();
     }
 
+    /**
+     * Get the work buildings whose workers miss an item.
+     *
+     * @return the locations of the buildings.
+     */
     public List<BlockPos> getDeliverymanRequired()
     {
-
-        return citizens.values().stream()
-                 .filter(citizen -> citizen.getWorkBuilding() != null && citizen.getJob() != null)
-                 .filter(citizen -> !citizen.getJob().isMissingNeededItem())
+        return jobIndex.getEmployed().stream()
+                 .filter(citizen -> citizen.getJob() != null && citizen.getJob().isMissingNeededItem())
                  .map(citizen -> citizen.getWorkBuilding().getLocation())
                  .collect(Collectors.toList());
     }
 
+    /**
+     * Get the citizens with a job of exactly this type.
+     *
+     * @param type the job class.
+     * @return the citizens, don't change them.
+     */
+    @NotNull
+    public Collection<CitizenData> getCitizensWithJob(@NotNull Class<? extends AbstractJob> type)
+    {
+        return jobIndex.getCitizensWithJob(type);
+    }
+
+    /**
+     * Get the citizens working in a building.
+     *
+     * @param location the location of the work building.
+     * @return the citizens, don't change them.
+     */
+    @NotNull
+    public Collection<CitizenData> getWorkers(@NotNull BlockPos location)
+    {
+        return jobIndex.getWorkers(location);
+    }
+
+    /**
+     * Get all citizens with a work building.
+     *
+     * @return the citizens, don't change them.
+     */
+    @NotNull
+    public Collection<CitizenData> getEmployedCitizens()
+    {
+        return jobIndex.getEmployed();
+    }
+
+    /**
+     * Called when the job or the work building of a citizen changed.
+     *
+     * @param citizen the citizen.
+     */
+    void onCitizenJobChanged(@NotNull CitizenData citizen)
+    {
+        //  Citizens which are still being loaded or were removed are filed when they are added
+        if (citizens.get(citizen.getId()) == citizen)
+        {
+            jobIndex.update(citizen);
+        }
+    }
+
     @NotNull
     public MaterialSystem getMaterialSystem()
     {
         return materialSystem;
     }
 
+    /**
+     * Getter for the index of the items stored in the building chests and fields of the colony.
+     *
+     * @return the ItemAvailabilityIndex.
+     */
+    @NotNull
+    public ItemAvailabilityIndex getItemIndex()
+    {
+        return itemIndex;
+    }
+
     /**
      * Performed when a building of this colony finished his upgrade state.
      *
@@ -1347,5 +1669,6 @@ public class Colony implements IColony
     {
         this.markFieldsDirty();
         fields.remove(pos);
+        itemIndex.removeStore(pos);
     }
 }
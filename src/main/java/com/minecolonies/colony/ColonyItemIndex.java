@@ -0,0 +1,158 @@
+package com.minecolonies.colony;
+
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * The dropped items in and around a colony, bucketed by chunk.
+ * <p>
+ * Items are added and removed when their entities are added to and removed from the world, so citizens can look for
+ * items to pick up without asking the world for all entities around them. Items move, so a query files the items it
+ * sees again under the chunk they are in now and drops the dead ones.
+ */
+public class ColonyItemIndex
+{
+    /**
+     * Blocks around the working range in which items are indexed, 3 chunks plus one to round up.
+     */
+    private static final int CHUNK_MARGIN = 48 + 15;
+
+    /**
+     * Items by the chunk they were filed under.
+     */
+    @NotNull
+    private final Map<Long, Set<EntityItem>> itemsByChunk = new HashMap<>();
+    /**
+     * The chunk each item is filed under, to remove it again.
+     */
+    @NotNull
+    private final Map<EntityItem, Long>      chunkOfItem  = new HashMap<>();
+
+    private int minChunkX;
+    private int maxChunkX;
+    private int minChunkZ;
+    private int maxChunkZ;
+
+    /**
+     * Sets the area of the colony, items outside of it are ignored.
+     *
+     * @param center the colony center.
+     * @param range  the working range of the town hall.
+     */
+    public void init(@NotNull final BlockPos center, final int range)
+    {
+        final int distance = range + CHUNK_MARGIN;
+        minChunkX = (center.getX() - distance) >> 4;
+        maxChunkX = (center.getX() + distance) >> 4;
+        minChunkZ = (center.getZ() - distance) >> 4;
+        maxChunkZ = (center.getZ() + distance) >> 4;
+    }
+
+    /**
+     * Files an item if it is in the colony area.
+     *
+     * @param item the item entity added to the world.
+     */
+    public void add(@NotNull final EntityItem item)
+    {
+        final int chunkX = item.chunkCoordX;
+        final int chunkZ = item.chunkCoordZ;
+        if (chunkX >= minChunkX && chunkX <= maxChunkX && chunkZ >= minChunkZ && chunkZ <= maxChunkZ)
+        {
+            file(item, ChunkPos.chunkXZ2Int(chunkX, chunkZ));
+        }
+    }
+
+    /**
+     * Forgets an item.
+     *
+     * @param item the item entity removed from the world.
+     */
+    public void remove(@NotNull final EntityItem item)
+    {
+        final Long chunk = chunkOfItem.remove(item);
+        if (chunk != null)
+        {
+            final Set<EntityItem> items = itemsByChunk.get(chunk);
+            items.remove(item);
+            if (items.isEmpty())
+            {
+                itemsByChunk.remove(chunk);
+            }
+        }
+    }
+
+    /**
+     * Get the living items whose bounding box intersects a box, like World#getEntitiesWithinAABB.
+     * Items which moved up to a chunk away from where they were filed are found as well.
+     *
+     * @param box the box to search.
+     * @return a new list of the items.
+     */
+    @NotNull
+    public List<EntityItem> getItemsWithin(@NotNull final AxisAlignedBB box)
+    {
+        final List<EntityItem> found = new ArrayList<>();
+        if (chunkOfItem.isEmpty())
+        {
+            return found;
+        }
+
+        final List<EntityItem> moved = new ArrayList<>();
+        final int fromX = (MathHelper.floor_double(box.minX) >> 4) - 1;
+        final int toX = (MathHelper.floor_double(box.maxX) >> 4) + 1;
+        final int fromZ = (MathHelper.floor_double(box.minZ) >> 4) - 1;
+        final int toZ = (MathHelper.floor_double(box.maxZ) >> 4) + 1;
+        for (int chunkX = fromX; chunkX <= toX; chunkX++)
+        {
+            for (int chunkZ = fromZ; chunkZ <= toZ; chunkZ++)
+            {
+                final long chunk = ChunkPos.chunkXZ2Int(chunkX, chunkZ);
+                final Set<EntityItem> items = itemsByChunk.get(chunk);
+                if (items == null)
+                {
+                    continue;
+                }
+
+                for (@NotNull final EntityItem item : items)
+                {
+                    if (item.isDead || ChunkPos.chunkXZ2Int(item.chunkCoordX, item.chunkCoordZ) != chunk)
+                    {
+                        moved.add(item);
+                    }
+                    else if (item.getEntityBoundingBox().intersectsWith(box))
+                    {
+                        found.add(item);
+                    }
+                }
+            }
+        }
+
+        for (@NotNull final EntityItem item : moved)
+        {
+            remove(item);
+            if (!item.isDead)
+            {
+                add(item);
+                if (item.getEntityBoundingBox().intersectsWith(box))
+                {
+                    found.add(item);
+                }
+            }
+        }
+        return found;
+    }
+
+    private void file(@NotNull final EntityItem item, final long chunk)
+    {
+        remove(item);
+        itemsByChunk.computeIfAbsent(chunk, key -> new HashSet<>()).add(item);
+        chunkOfItem.put(item, chunk);
+    }
+}
@@ -6,19 +6,27 @@ import com.minecolonies.colony.buildings.AbstractBuilding;
 import com.minecolonies.colony.permissions.Permissions;
 import com.minecolonies.configuration.Configurations;
 import com.minecolonies.util.AchievementUtils;
+import com.minecolonies.util.BackgroundPool;
 import com.minecolonies.util.LanguageHandler;
 import com.minecolonies.util.Log;
+import com.minecolonies.util.StructurePlacementManager;
 import io.netty.buffer.ByteBuf;
 import net.minecraft.client.Minecraft;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.entity.item.EntityXPOrb;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraft.util.DamageSource;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
 import net.minecraftforge.common.DimensionManager;
 import net.minecraftforge.common.util.Constants.NBT;
+import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import org.jetbrains.annotations.NotNull;
@@ -27,6 +35,7 @@ import org.jetbrains.annotations.Nullable;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Singleton class that links colonies to minecraft.
@@ -478,7 +487,7 @@ public final class ColonyManager
 
     /**
      * On server tick, tick every Colony.
-     * NOTE: Review this for performance
+     * The colony ticks are measured by the {@link com.minecolonies.util.TickProfiler}, see /mc colony profile.
      *
      * @param event {@link net.minecraftforge.fml.common.gameevent.TickEvent.ServerTickEvent}
      */
@@ -489,12 +498,48 @@ public final class ColonyManager
             c.onServerTick(event);
         }
 
+        if (event.phase == TickEvent.Phase.END)
+        {
+            updateSubscribers(FMLCommonHandler.instance().getMinecraftServerInstance().getPlayerList().getPlayerList());
+        }
+
         if (saveNeeded)
         {
             saveColonies();
         }
     }
 
+    /**
+     * Sends the changed colony views to their subscribers.
+     * The subscribers and messages of the colonies are computed in parallel on the {@link BackgroundPool},
+     * then sent one colony after another on the server thread. The colonies themselves are ticked on the server thread.
+     *
+     * @param players the players online on the server.
+     */
+    private static void updateSubscribers(@NotNull final List<EntityPlayerMP> players)
+    {
+        final List<Colony> coloniesToUpdate = getColonies();
+        if (Configurations.backgroundThreads <= 1 || coloniesToUpdate.size() < 2)
+        {
+            for (@NotNull final Colony colony : coloniesToUpdate)
+            {
+                colony.applySubscriberUpdate(colony.prepareSubscriberUpdate(players));
+            }
+            return;
+        }
+
+        final List<EntityPlayerMP> playerSnapshot = new ArrayList<>(players);
+        final List<ForkJoinTask<SubscriberUpdate>> updates = new ArrayList<>(coloniesToUpdate.size());
+        for (@NotNull final Colony colony : coloniesToUpdate)
+        {
+            updates.add(BackgroundPool.get().submit(() -> colony.prepareSubscriberUpdate(playerSnapshot)));
+        }
+        for (int i = 0; i < coloniesToUpdate.size(); i++)
+        {
+            coloniesToUpdate.get(i).applySubscriberUpdate(updates.get(i).join());
+        }
+    }
+
     /**
      * Save all the Colonies
      */
@@ -524,6 +569,7 @@ public final class ColonyManager
             colonyTagList.appendTag(colonyTagCompound);
         }
         compound.setTag(TAG_COLONIES, colonyTagList);
+        StructurePlacementManager.writeToNBT(compound);
     }
 
     /**
@@ -576,18 +622,134 @@ public final class ColonyManager
 
     /**
      * On world tick, tick every Colony in that world.
-     * NOTE: Review this for performance
+     * The colony ticks are measured by the {@link com.minecolonies.util.TickProfiler}, see /mc colony profile.
      *
      * @param event {@link net.minecraftforge.fml.common.gameevent.TickEvent.WorldTickEvent}
      */
     public static void onWorldTick(
                                     @NotNull TickEvent.WorldTickEvent event)
     {
-        final Map<Integer, Colony> coloniesCopy = new HashMap<>(colonies);
+        //  Copy only the colonies of this world, a colony may be deleted while it ticks
+        for (@NotNull final Colony c : new ArrayList<>(getColonies(event.world)))
+        {
+            c.onWorldTick(event);
+        }
+
+        if (event.phase == TickEvent.Phase.END)
+        {
+            StructurePlacementManager.onWorldTick(event.world);
+        }
+    }
+
+    /**
+     * Tells the colonies of a world that a block changed its type, so they check their buildings and fields there.
+     *
+     * @param world    the world.
+     * @param pos      the changed position.
+     * @param oldState the old block state.
+     * @param newState the new block state.
+     */
+    public static void onBlockUpdate(@NotNull final World world, @NotNull final BlockPos pos, @NotNull final IBlockState oldState, @NotNull final IBlockState newState)
+    {
+        if (oldState.getBlock() == newState.getBlock())
+        {
+            return;
+        }
+
+        for (@NotNull final Colony colony : getColonies(world))
+        {
+            colony.onBlockChanged(pos);
+        }
+    }
+
+    /**
+     * Tells the colonies of a world that an item was dropped, so citizens find it without searching the world.
+     *
+     * @param world the world.
+     * @param item  the added item entity.
+     */
+    public static void onItemAdded(@NotNull final World world, @NotNull final EntityItem item)
+    {
+        for (@NotNull final Colony colony : getColonies(world))
+        {
+            colony.getDroppedItems().add(item);
+        }
+    }
 
-        coloniesCopy.values().stream()
-          .filter(c -> c.getDimension() == event.world.provider.getDimension())
-          .forEach(c -> c.onWorldTick(event));
+    /**
+     * Tells the colonies of a world that an item was picked up, despawned or unloaded.
+     *
+     * @param world the world.
+     * @param item  the removed item entity.
+     */
+    public static void onItemRemoved(@NotNull final World world, @NotNull final EntityItem item)
+    {
+        for (@NotNull final Colony colony : getColonies(world))
+        {
+            colony.getDroppedItems().remove(item);
+        }
+    }
+
+    /**
+     * Tells the colonies of a world that an experience orb spawned, so it can be handed to the citizens collecting orbs.
+     *
+     * @param world the world.
+     * @param orb   the added orb entity.
+     */
+    public static void onXpOrbAdded(@NotNull final World world, @NotNull final EntityXPOrb orb)
+    {
+        for (@NotNull final Colony colony : getColonies(world))
+        {
+            colony.getXpCollector().add(orb);
+        }
+    }
+
+    /**
+     * Tells the colonies of a world that an experience orb was collected, despawned or unloaded.
+     *
+     * @param world the world.
+     * @param orb   the removed orb entity.
+     */
+    public static void onXpOrbRemoved(@NotNull final World world, @NotNull final EntityXPOrb orb)
+    {
+        for (@NotNull final Colony colony : getColonies(world))
+        {
+            colony.getXpCollector().remove(orb);
+        }
+    }
+
+    /**
+     * Tells the colonies of a world that a chunk has been loaded.
+     *
+     * @param world the world.
+     * @param chunk the loaded chunk.
+     */
+    public static void onChunkLoad(@NotNull final World world, @NotNull final Chunk chunk)
+    {
+        if (!world.isRemote)
+        {
+            for (@NotNull final Colony colony : getColonies(world))
+            {
+                colony.onChunkLoad(chunk.xPosition, chunk.zPosition);
+            }
+        }
+    }
+
+    /**
+     * Tells the colonies of a world that a chunk has been unloaded.
+     *
+     * @param world the world.
+     * @param chunk the unloaded chunk.
+     */
+    public static void onChunkUnload(@NotNull final World world, @NotNull final Chunk chunk)
+    {
+        if (!world.isRemote)
+        {
+            for (@NotNull final Colony colony : getColonies(world))
+            {
+                colony.onChunkUnload(chunk.xPosition, chunk.zPosition);
+            }
+        }
     }
 
     /**
@@ -668,6 +830,7 @@ public final class ColonyManager
 
             topColonyId = Math.max(topColonyId, colony.getID());
         }
+        StructurePlacementManager.readFromNBT(compound);
 
         Log.getLogger().info(String.format("Loaded %d colonies", colonies.size()));
     }
@@ -710,6 +873,8 @@ public final class ColonyManager
             {
                 colonies.clear();
                 coloniesByWorld.clear();
+                StructurePlacementManager.clear();
+                BackgroundPool.shutdown();
             }
         }
     }
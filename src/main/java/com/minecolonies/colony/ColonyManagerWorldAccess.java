@@ -1,8 +1,11 @@
 package com.minecolonies.colony;
 
 import com.minecolonies.entity.EntityCitizen;
+import com.minecolonies.util.StructureDiff;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.entity.item.EntityXPOrb;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.SoundCategory;
 import net.minecraft.util.SoundEvent;
@@ -11,7 +14,8 @@ import net.minecraft.world.IWorldEventListener;
 import net.minecraft.world.World;
 
 /**
- * Allows us to respond to entity addition and removal events.
+ * Allows us to respond to entity addition and removal events and block updates.
+ * Citizen entities, dropped items and experience orbs are tracked by their colonies.
  */
 public class ColonyManagerWorldAccess implements IWorldEventListener
 {
@@ -19,8 +23,8 @@ public class ColonyManagerWorldAccess implements IWorldEventListener
     @Override
     public void notifyBlockUpdate(World worldIn, BlockPos pos, IBlockState oldState, IBlockState newState, int flags)
     {
-        //Not needed
-
+        StructureDiff.onBlockUpdate(worldIn, pos, newState);
+        ColonyManager.onBlockUpdate(worldIn, pos, oldState, newState);
     }
 
     @Override
@@ -68,6 +72,14 @@ public class ColonyManagerWorldAccess implements IWorldEventListener
         {
             ((EntityCitizen) entity).updateColonyServer();
         }
+        else if (entity instanceof EntityItem)
+        {
+            ColonyManager.onItemAdded(entity.worldObj, (EntityItem) entity);
+        }
+        else if (entity instanceof EntityXPOrb)
+        {
+            ColonyManager.onXpOrbAdded(entity.worldObj, (EntityXPOrb) entity);
+        }
     }
 
     @Override
@@ -80,6 +92,15 @@ public class ColonyManagerWorldAccess implements IWorldEventListener
             {
                 citizen.setCitizenEntity(null);
             }
+            ((EntityCitizen) entity).getInventoryCitizen().destroyMaterialStore();
+        }
+        else if (entity instanceof EntityItem)
+        {
+            ColonyManager.onItemRemoved(entity.worldObj, (EntityItem) entity);
+        }
+        else if (entity instanceof EntityXPOrb)
+        {
+            ColonyManager.onXpOrbRemoved(entity.worldObj, (EntityXPOrb) entity);
         }
     }
 
@@ -0,0 +1,190 @@
+package com.minecolonies.colony;
+
+import com.minecolonies.entity.EntityCitizen;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.item.EntityXPOrb;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * The experience orbs in and around a colony and the citizens collecting them.
+ * <p>
+ * Orbs are added and removed when their entities are added to and removed from the world. Citizens ask to collect
+ * the orbs around them, and once per interval the colony hands every orb to the nearest of these citizens and credits
+ * the experience of each citizen at once, instead of every citizen searching the world for orbs.
+ */
+public class ColonyXpCollector
+{
+    /**
+     * Blocks around the working range in which orbs are indexed, 3 chunks plus one to round up.
+     */
+    private static final int    CHUNK_MARGIN  = 48 + 15;
+    /**
+     * Blocks around a citizen in which it collects orbs.
+     */
+    private static final double COLLECT_RANGE = 2.0D;
+
+    /**
+     * The living orbs in the colony area.
+     */
+    @NotNull
+    private final Set<EntityXPOrb>   orbs       = new HashSet<>();
+    /**
+     * The citizens which asked to collect orbs since the last collection.
+     */
+    @NotNull
+    private final Set<EntityCitizen> collectors = new LinkedHashSet<>();
+
+    private int minChunkX;
+    private int maxChunkX;
+    private int minChunkZ;
+    private int maxChunkZ;
+
+    /**
+     * Sets the area of the colony and indexes the orbs already in it, orbs outside of it are ignored.
+     *
+     * @param world  the colony world.
+     * @param center the colony center.
+     * @param range  the working range of the town hall.
+     */
+    public void init(@NotNull final World world, @NotNull final BlockPos center, final int range)
+    {
+        final int distance = range + CHUNK_MARGIN;
+        minChunkX = (center.getX() - distance) >> 4;
+        maxChunkX = (center.getX() + distance) >> 4;
+        minChunkZ = (center.getZ() - distance) >> 4;
+        maxChunkZ = (center.getZ() + distance) >> 4;
+
+        //The orbs of chunks loaded before the colony were added to the world before it listened.
+        orbs.clear();
+        for (@NotNull final Entity entity : world.loadedEntityList)
+        {
+            if (entity instanceof EntityXPOrb && !entity.isDead)
+            {
+                add((EntityXPOrb) entity);
+            }
+        }
+    }
+
+    /**
+     * Indexes an orb if it spawned in the colony area.
+     *
+     * @param orb the orb entity added to the world.
+     */
+    public void add(@NotNull final EntityXPOrb orb)
+    {
+        final int chunkX = orb.chunkCoordX;
+        final int chunkZ = orb.chunkCoordZ;
+        if (chunkX >= minChunkX && chunkX <= maxChunkX && chunkZ >= minChunkZ && chunkZ <= maxChunkZ)
+        {
+            orbs.add(orb);
+        }
+    }
+
+    /**
+     * Forgets an orb.
+     *
+     * @param orb the orb entity removed from the world.
+     */
+    public void remove(@NotNull final EntityXPOrb orb)
+    {
+        orbs.remove(orb);
+    }
+
+    /**
+     * Lets a citizen collect the orbs around it in the next collection.
+     *
+     * @param citizen the citizen entity.
+     */
+    public void requestCollection(@NotNull final EntityCitizen citizen)
+    {
+        collectors.add(citizen);
+    }
+
+    /**
+     * Hands each orb within reach of a collecting citizen to the nearest of them and credits their experience.
+     * Every citizen has to ask again for the next collection.
+     */
+    public void collect()
+    {
+        if (collectors.isEmpty())
+        {
+            return;
+        }
+
+        final List<EntityCitizen> citizens = new ArrayList<>(collectors.size());
+        final List<AxisAlignedBB> reach = new ArrayList<>(collectors.size());
+        for (@NotNull final EntityCitizen citizen : collectors)
+        {
+            if (!citizen.isDead)
+            {
+                citizens.add(citizen);
+                reach.add(new AxisAlignedBB(citizen.posX - COLLECT_RANGE, citizen.posY - COLLECT_RANGE, citizen.posZ - COLLECT_RANGE,
+                                             citizen.posX + COLLECT_RANGE, citizen.posY + COLLECT_RANGE, citizen.posZ + COLLECT_RANGE));
+            }
+        }
+        collectors.clear();
+
+        final Map<EntityCitizen, Double> earned = new HashMap<>();
+        final Iterator<EntityXPOrb> iterator = orbs.iterator();
+        while (iterator.hasNext())
+        {
+            final EntityXPOrb orb = iterator.next();
+            if (orb.isDead)
+            {
+                iterator.remove();
+                continue;
+            }
+
+            final EntityCitizen nearest = findNearest(orb, citizens, reach);
+            if (nearest != null)
+            {
+                earned.merge(nearest, (double) (orb.getXpValue() / 2), Double::sum);
+                orb.setDead();
+                iterator.remove();
+            }
+        }
+
+        for (@NotNull final Map.Entry<EntityCitizen, Double> entry : earned.entrySet())
+        {
+            entry.getKey().addExperience(entry.getValue());
+        }
+    }
+
+    /**
+     * Get the nearest citizen which can reach an orb.
+     *
+     * @param orb      the orb.
+     * @param citizens the collecting citizens.
+     * @param reach    the area each citizen can collect from.
+     * @return the citizen or null if none can reach the orb.
+     */
+    @Nullable
+    private static EntityCitizen findNearest(
+                                              @NotNull final EntityXPOrb orb,
+                                              @NotNull final List<EntityCitizen> citizens,
+                                              @NotNull final List<AxisAlignedBB> reach)
+    {
+        final AxisAlignedBB box = orb.getEntityBoundingBox();
+        EntityCitizen nearest = null;
+        double nearestDistance = Double.MAX_VALUE;
+        for (int i = 0; i < citizens.size(); i++)
+        {
+            if (reach.get(i).intersectsWith(box))
+            {
+                final double distance = citizens.get(i).getDistanceSqToEntity(orb);
+                if (distance < nearestDistance)
+                {
+                    nearest = citizens.get(i);
+                    nearestDistance = distance;
+                }
+            }
+        }
+        return nearest;
+    }
+}
@@ -0,0 +1,504 @@
+package com.minecolonies.colony;
+
+import com.minecolonies.blocks.AbstractBlockHut;
+import com.minecolonies.lib.Constants;
+import com.minecolonies.util.Log;
+import com.structures.helpers.CompactSchematic;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.nbt.NBTUtil;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.gen.structure.template.Template;
+import net.minecraftforge.common.util.Constants.NBT;
+import net.minecraftforge.fml.common.Loader;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Index of all schematics shipped with the mod, with the metadata of each one.
+ * <p>
+ * The schematics are read once, the result is saved as a manifest in the config directory. As long as
+ * the mod file doesn't change, later launches read the manifest instead of every schematic.
+ * Sizes, hut offsets and the block counts can be looked up without loading the template.
+ */
+public final class SchematicCatalog
+{
+    private static final String SCHEMATIC_EXTENSION   = ".nbt";
+    private static final String SCHEMATICS_ASSET_PATH = "/assets/" + Constants.MOD_ID + "/schematics/";
+    private static final String MANIFEST_FILE         = Constants.MOD_ID + "-schematics.dat";
+
+    /**
+     * Increase when the manifest layout changes, so old manifests are rebuilt.
+     */
+    private static final int MANIFEST_VERSION = 1;
+
+    private static final String TAG_VERSION    = "version";
+    private static final String TAG_STAMP      = "stamp";
+    private static final String TAG_SCHEMATICS = "schematics";
+    private static final String TAG_NAME       = "name";
+    private static final String TAG_SIZE       = "size";
+    private static final String TAG_HUT        = "hut";
+    private static final String TAG_PALETTE    = "palette";
+    private static final String TAG_COUNTS     = "counts";
+
+    /**
+     * Schematic name, like "wooden/Builder1", to its entry.
+     */
+    @NotNull
+    private static Map<String, Entry> entries = Collections.emptyMap();
+    private static boolean            loaded  = false;
+
+    /**
+     * Private constructor to hide the implicit public one.
+     */
+    private SchematicCatalog()
+    {
+        /*
+         * Intentionally left empty.
+         */
+    }
+
+    /**
+     * Loads the catalog from the manifest, or indexes all schematics if the manifest is missing or outdated.
+     */
+    public static void init()
+    {
+        try
+        {
+            @NotNull final URI uri = SchematicCatalog.class.getResource(SCHEMATICS_ASSET_PATH).toURI();
+            final File manifest = new File(Loader.instance().getConfigDir(), MANIFEST_FILE);
+
+            if ("jar".equals(uri.getScheme()))
+            {
+                final String spec = uri.getRawSchemeSpecificPart();
+                final File jar = Paths.get(new URI(spec.substring(0, spec.indexOf("!/")))).toFile();
+                final String stamp = Constants.VERSION + ':' + jar.length() + ':' + jar.lastModified();
+                if (readManifest(manifest, stamp))
+                {
+                    return;
+                }
+
+                try (FileSystem fileSystem = FileSystems.newFileSystem(uri, Collections.emptyMap()))
+                {
+                    index(fileSystem.getPath(SCHEMATICS_ASSET_PATH), manifest, stamp);
+                }
+            }
+            else
+            {
+                final Path basePath = Paths.get(uri);
+                final String stamp = Constants.VERSION + ':' + getDirectoryStamp(basePath);
+                if (!readManifest(manifest, stamp))
+                {
+                    index(basePath, manifest, stamp);
+                }
+            }
+        }
+        catch (@NotNull IOException | URISyntaxException e)
+        {
+            Log.getLogger().error("Error indexing the schematics. Things will break!", e);
+        }
+    }
+
+    /**
+     * @return true once the catalog has been loaded, before that nothing can be looked up.
+     */
+    public static boolean isLoaded()
+    {
+        return loaded;
+    }
+
+    /**
+     * Get the metadata of a schematic.
+     *
+     * @param name the schematic name, like "wooden/Builder1".
+     * @return the entry or null if there is no such schematic.
+     */
+    @Nullable
+    public static Entry get(@NotNull final String name)
+    {
+        return entries.get(name);
+    }
+
+    /**
+     * Checks if a schematic is known not to exist.
+     *
+     * @param name the schematic name.
+     * @return true if the catalog is loaded and doesn't contain it.
+     */
+    public static boolean isMissing(@NotNull final String name)
+    {
+        return loaded && !entries.containsKey(name);
+    }
+
+    /**
+     * @return all schematics.
+     */
+    @NotNull
+    public static Collection<Entry> getEntries()
+    {
+        return entries.values();
+    }
+
+    /**
+     * Reads every schematic below the base path and saves the manifest.
+     *
+     * @param basePath the schematics directory.
+     * @param manifest the manifest file.
+     * @param stamp    identifies the current schematics.
+     * @throws IOException if the schematics can't be listed.
+     */
+    private static void index(@NotNull final Path basePath, @NotNull final File manifest, @NotNull final String stamp) throws IOException
+    {
+        final Map<String, Entry> indexed = new HashMap<>();
+        try (Stream<Path> walk = Files.walk(basePath))
+        {
+            final Iterator<Path> it = walk.iterator();
+            while (it.hasNext())
+            {
+                final Path path = it.next();
+                final String relative = basePath.relativize(path).toString().replace('\\', '/');
+                final boolean compact = relative.endsWith(CompactSchematic.EXTENSION);
+                if (!compact && !relative.endsWith(SCHEMATIC_EXTENSION))
+                {
+                    continue;
+                }
+
+                final String extension = compact ? CompactSchematic.EXTENSION : SCHEMATIC_EXTENSION;
+                final String name = relative.substring(0, relative.length() - extension.length());
+                try (InputStream stream = Files.newInputStream(path))
+                {
+                    final Template template;
+                    if (compact)
+                    {
+                        template = CompactSchematic.read(stream);
+                    }
+                    else
+                    {
+                        template = new Template();
+                        template.read(CompressedStreamTools.readCompressed(stream));
+                    }
+                    indexed.put(name, new Entry(name, template));
+                }
+                catch (IOException e)
+                {
+                    Log.getLogger().warn(String.format("Failed to index schematic %s", name), e);
+                }
+            }
+        }
+
+        entries = indexed;
+        loaded = true;
+        writeManifest(manifest, stamp);
+        Log.getLogger().info(String.format("Indexed %d schematics", entries.size()));
+    }
+
+    /**
+     * Identifies the content of a schematics directory by the names, sizes and times of its files.
+     *
+     * @param basePath the schematics directory.
+     * @return the stamp.
+     * @throws IOException if the directory can't be listed.
+     */
+    @NotNull
+    private static String getDirectoryStamp(@NotNull final Path basePath) throws IOException
+    {
+        long hash = 0;
+        try (Stream<Path> walk = Files.walk(basePath))
+        {
+            final Iterator<Path> it = walk.iterator();
+            while (it.hasNext())
+            {
+                final Path path = it.next();
+                if (Files.isRegularFile(path))
+                {
+                    hash = hash * 31 + path.toString().hashCode();
+                    hash = hash * 31 + Files.size(path);
+                    hash = hash * 31 + Files.getLastModifiedTime(path).toMillis();
+                }
+            }
+        }
+        return Long.toHexString(hash);
+    }
+
+    /**
+     * Loads the catalog from the manifest if it belongs to the current schematics.
+     *
+     * @param manifest the manifest file.
+     * @param stamp    identifies the current schematics.
+     * @return true if the catalog has been loaded.
+     */
+    private static boolean readManifest(@NotNull final File manifest, @NotNull final String stamp)
+    {
+        if (!manifest.exists())
+        {
+            return false;
+        }
+
+        try
+        {
+            final NBTTagCompound compound = CompressedStreamTools.read(manifest);
+            if (compound == null || compound.getInteger(TAG_VERSION) != MANIFEST_VERSION || !stamp.equals(compound.getString(TAG_STAMP)))
+            {
+                return false;
+            }
+
+            final Map<String, Entry> read = new HashMap<>();
+            final NBTTagList list = compound.getTagList(TAG_SCHEMATICS, NBT.TAG_COMPOUND);
+            for (int i = 0; i < list.tagCount(); i++)
+            {
+                final Entry entry = Entry.readFromNBT(list.getCompoundTagAt(i));
+                read.put(entry.getName(), entry);
+            }
+
+            entries = read;
+            loaded = true;
+            return true;
+        }
+        catch (IOException e)
+        {
+            Log.getLogger().warn("Failed to read the schematic manifest, indexing the schematics again.", e);
+            return false;
+        }
+    }
+
+    private static void writeManifest(@NotNull final File manifest, @NotNull final String stamp)
+    {
+        final NBTTagCompound compound = new NBTTagCompound();
+        compound.setInteger(TAG_VERSION, MANIFEST_VERSION);
+        compound.setString(TAG_STAMP, stamp);
+
+        final NBTTagList list = new NBTTagList();
+        for (@NotNull final Entry entry : entries.values())
+        {
+            final NBTTagCompound entryCompound = new NBTTagCompound();
+            entry.writeToNBT(entryCompound);
+            list.appendTag(entryCompound);
+        }
+        compound.setTag(TAG_SCHEMATICS, list);
+
+        try
+        {
+            manifest.getParentFile().mkdirs();
+            CompressedStreamTools.safeWrite(compound, manifest);
+        }
+        catch (IOException e)
+        {
+            Log.getLogger().warn("Failed to save the schematic manifest", e);
+        }
+    }
+
+    /**
+     * Metadata of one schematic, unrotated.
+     */
+    public static final class Entry
+    {
+        @NotNull
+        private final String        name;
+        private final int           width;
+        private final int           height;
+        private final int           length;
+        @Nullable
+        private final BlockPos      hutOffset;
+        @NotNull
+        private final IBlockState[] palette;
+        @NotNull
+        private final int[]         counts;
+
+        private Entry(
+                       @NotNull final String name,
+                       final int width,
+                       final int height,
+                       final int length,
+                       @Nullable final BlockPos hutOffset,
+                       @NotNull final IBlockState[] palette,
+                       @NotNull final int[] counts)
+        {
+            this.name = name;
+            this.width = width;
+            this.height = height;
+            this.length = length;
+            this.hutOffset = hutOffset;
+            this.palette = palette;
+            this.counts = counts;
+        }
+
+        private Entry(@NotNull final String name, @NotNull final Template template)
+        {
+            final Map<IBlockState, Integer> blockCounts = new LinkedHashMap<>();
+            BlockPos hut = null;
+            for (@NotNull final Template.BlockInfo info : template.blocks)
+            {
+                blockCounts.merge(info.blockState, 1, Integer::sum);
+                if (info.blockState.getBlock() instanceof AbstractBlockHut)
+                {
+                    hut = info.pos;
+                }
+            }
+
+            this.name = name;
+            this.width = template.getSize().getX();
+            this.height = template.getSize().getY();
+            this.length = template.getSize().getZ();
+            this.hutOffset = hut;
+            this.palette = blockCounts.keySet().toArray(new IBlockState[blockCounts.size()]);
+            this.counts = new int[palette.length];
+            for (int i = 0; i < palette.length; i++)
+            {
+                counts[i] = blockCounts.get(palette[i]);
+            }
+        }
+
+        /**
+         * @return the name, like "wooden/Builder1".
+         */
+        @NotNull
+        public String getName()
+        {
+            return name;
+        }
+
+        /**
+         * @return the directory the schematic is in, like "wooden", empty for the base directory.
+         */
+        @NotNull
+        public String getStyle()
+        {
+            final int separator = name.lastIndexOf('/');
+            if (separator < 0)
+            {
+                return "";
+            }
+            return name.substring(name.lastIndexOf('/', separator - 1) + 1, separator);
+        }
+
+        /**
+         * @return the file name without directory and extension, like "Builder1".
+         */
+        @NotNull
+        public String getFileName()
+        {
+            return name.substring(name.lastIndexOf('/') + 1);
+        }
+
+        /**
+         * @return the size in x direction.
+         */
+        public int getWidth()
+        {
+            return width;
+        }
+
+        /**
+         * @return the size in y direction.
+         */
+        public int getHeight()
+        {
+            return height;
+        }
+
+        /**
+         * @return the size in z direction.
+         */
+        public int getLength()
+        {
+            return length;
+        }
+
+        /**
+         * @return the position of the hut block inside the schematic, null for decorations.
+         */
+        @Nullable
+        public BlockPos getHutOffset()
+        {
+            return hutOffset;
+        }
+
+        /**
+         * @return the amount of different block states in the schematic.
+         */
+        public int getPaletteSize()
+        {
+            return palette.length;
+        }
+
+        /**
+         * @param index the palette index.
+         * @return the block state.
+         */
+        @NotNull
+        public IBlockState getBlockState(final int index)
+        {
+            return palette[index];
+        }
+
+        /**
+         * @param index the palette index.
+         * @return how often the block state is used in the schematic.
+         */
+        public int getCount(final int index)
+        {
+            return counts[index];
+        }
+
+        /**
+         * @return the amount of blocks in the schematic, air included.
+         */
+        public int getBlockCount()
+        {
+            int total = 0;
+            for (final int count : counts)
+            {
+                total += count;
+            }
+            return total;
+        }
+
+        @NotNull
+        private static Entry readFromNBT(@NotNull final NBTTagCompound compound)
+        {
+            final int[] size = compound.getIntArray(TAG_SIZE);
+            final int[] hut = compound.getIntArray(TAG_HUT);
+            final NBTTagList paletteList = compound.getTagList(TAG_PALETTE, NBT.TAG_COMPOUND);
+            final IBlockState[] palette = new IBlockState[paletteList.tagCount()];
+            for (int i = 0; i < palette.length; i++)
+            {
+                palette[i] = NBTUtil.readBlockState(paletteList.getCompoundTagAt(i));
+            }
+
+            return new Entry(compound.getString(TAG_NAME),
+                              size[0], size[1], size[2],
+                              compound.hasKey(TAG_HUT) ? new BlockPos(hut[0], hut[1], hut[2]) : null,
+                              palette,
+                              compound.getIntArray(TAG_COUNTS));
+        }
+
+        private void writeToNBT(@NotNull final NBTTagCompound compound)
+        {
+            compound.setString(TAG_NAME, name);
+            compound.setIntArray(TAG_SIZE, new int[] {width, height, length});
+            if (hutOffset != null)
+            {
+                compound.setIntArray(TAG_HUT, new int[] {hutOffset.getX(), hutOffset.getY(), hutOffset.getZ()});
+            }
+
+            final NBTTagList paletteList = new NBTTagList();
+            for (@NotNull final IBlockState state : palette)
+            {
+                paletteList.appendTag(NBTUtil.writeBlockState(new NBTTagCompound(), state));
+            }
+            compound.setTag(TAG_PALETTE, paletteList);
+            compound.setIntArray(TAG_COUNTS, counts);
+        }
+    }
+}
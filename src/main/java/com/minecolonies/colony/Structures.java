@@ -1,18 +1,12 @@
 package com.minecolonies.colony;
 
 import com.minecolonies.lib.Constants;
-import com.minecolonies.util.Log;
 import net.minecraft.block.Block;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.file.*;
 import java.util.*;
-import java.util.stream.Stream;
 
 /**
  * Created by chris on 10/19/15.
@@ -21,8 +15,6 @@ import java.util.stream.Stream;
 public final class Structures
 {
     private static final String                    NULL_STYLE            = "schematics";
-    private static final String                    SCHEMATIC_EXTENSION   = ".nbt";
-    private static final String                    SCHEMATICS_ASSET_PATH = "/assets/minecolonies/schematics/";
     //Hut, Styles
     private static       Map<String, List<String>> hutStyleMap           = new HashMap<>();
     //Hut, Levels
@@ -40,79 +32,71 @@ public final class Structures
     }
 
     /**
-     * Calls {@link #loadStyleMaps()}
+     * Loads the {@link SchematicCatalog} and calls {@link #loadStyleMaps()}
      */
     public static void init()
     {
+        SchematicCatalog.init();
         loadStyleMaps();
     }
 
     /**
-     * Loads all styles saved in ["/assets/minecolonies/schematics/"]
+     * Fills the style maps from the schematics in the {@link SchematicCatalog}.
      * Puts these in {@link #hutStyleMap}, with key being the name of the hutDec (E.G. Lumberjack)
      * and the value is a list of styles. Puts decorations in {@link #decorationStyleMap}.
+     * The max level of a hut is the highest level every style of it has.
      */
     private static void loadStyleMaps()
     {
-        try
+        //Hut, Style, highest level in that style
+        final Map<String, Map<String, Integer>> hutStyleLevels = new HashMap<>();
+
+        for (@NotNull final SchematicCatalog.Entry entry : SchematicCatalog.getEntries())
         {
-            @NotNull URI uri = ColonyManager.class.getResource(SCHEMATICS_ASSET_PATH).toURI();
-            Path basePath;
+            final String style = entry.getStyle();
+
+            //Don't treat generic schematics as decorations or huts - ex: supply ship
+            if (style.isEmpty() || NULL_STYLE.equals(style))
+            {
+                continue;
+            }
+
+            final String filename = entry.getFileName();
+            final String hut = filename.split("\\d+")[0];
 
-            if ("jar".equals(uri.getScheme()))
+            if (isSchematicHut(hut))
             {
-                try (FileSystem fileSystem = FileSystems.newFileSystem(uri, Collections.emptyMap()))
-                {
-                    basePath = fileSystem.getPath(SCHEMATICS_ASSET_PATH);
-                    loadStyleMaps(basePath);
-                }
+                addHutStyle(hut, style);
+                hutStyleLevels.computeIfAbsent(hut, key -> new HashMap<>()).merge(style, getLevel(filename, hut), Math::max);
             }
             else
             {
-                basePath = Paths.get(uri);
-                loadStyleMaps(basePath);
+                addDecorationStyle(filename, style);
             }
         }
-        catch (@NotNull IOException | URISyntaxException e)
+
+        for (@NotNull final Map.Entry<String, Map<String, Integer>> hutLevels : hutStyleLevels.entrySet())
         {
-            Log.getLogger().error("Error loading StructureProxy directory. Things will break!", e);
+            hutLevelsMap.put(hutLevels.getKey(), Collections.min(hutLevels.getValue().values()));
         }
     }
 
-    private static void loadStyleMaps(Path basePath) throws IOException
+    /**
+     * Reads the level from a hut schematic name, like 2 for "Builder2".
+     *
+     * @param filename the schematic name.
+     * @param hut      the hut.
+     * @return the level, 0 if there is none.
+     */
+    private static int getLevel(@NotNull final String filename, @NotNull final String hut)
     {
-        try (Stream<Path> walk = Files.walk(basePath))
+        try
         {
-            Iterator<Path> it = walk.iterator();
-
-            while (it.hasNext())
-            {
-                Path path = it.next();
-
-                String style = path.getParent().getFileName().toString();
-
-                //Don't treat generic schematics as decorations or huts - ex: supply ship
-                if (NULL_STYLE.equals(style))
-                {
-                    continue;
-                }
-
-                if (path.toString().endsWith(SCHEMATIC_EXTENSION))
-                {
-                    String filename = path.getFileName().toString().split("\\.nbt")[0];
-                    String hut = filename.split("\\d+")[0];
-
-                    if (isSchematicHut(hut))
-                    {
-                        addHutStyle(hut, style);
-                        incrementHutMaxLevel(hut);
-                    }
-                    else
-                    {
-                        addDecorationStyle(filename, style);
-                    }
-                }
-            }
+            return Integer.parseInt(filename.substring(hut.length()));
+        }
+        catch (NumberFormatException e)
+        {
+            return 0;
         }
     }
 
@@ -134,18 +118,6 @@ public final class Structures
         }
     }
 
-    private static void incrementHutMaxLevel(String hut)
-    {
-        //Only count the number of huts in 1 style.
-        if (getStylesForHut(hut).size() > 1)
-        {
-            return;
-        }
-
-        Integer level = hutLevelsMap.getOrDefault(hut, 0);
-        hutLevelsMap.put(hut, level + 1);
-    }
-
     private static void addDecorationStyle(String decoration, String style)
     {
         if (!decorationStyleMap.containsKey(decoration))
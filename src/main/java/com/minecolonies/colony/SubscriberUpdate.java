@@ -0,0 +1,66 @@
+package com.minecolonies.colony;
+
+import com.minecolonies.MineColonies;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The result of the compute phase of a colony subscriber sync: the new subscribers and the serialized view
+ * messages for them. It is built off the server thread and sent on it.
+ */
+final class SubscriberUpdate
+{
+    @NotNull
+    private final Set<EntityPlayerMP>  subscribers;
+    @NotNull
+    private final List<EntityPlayerMP> receivers = new ArrayList<>();
+    @NotNull
+    private final List<IMessage>       messages  = new ArrayList<>();
+
+    /**
+     * Creates an update without messages.
+     *
+     * @param subscribers the players subscribed to the colony after the update.
+     */
+    SubscriberUpdate(@NotNull final Set<EntityPlayerMP> subscribers)
+    {
+        this.subscribers = subscribers;
+    }
+
+    /**
+     * @return the players subscribed to the colony after the update.
+     */
+    @NotNull
+    Set<EntityPlayerMP> getSubscribers()
+    {
+        return subscribers;
+    }
+
+    /**
+     * Queues a message for a player.
+     *
+     * @param player  the receiver.
+     * @param message the serialized message.
+     */
+    void add(@NotNull final EntityPlayerMP player, @NotNull final IMessage message)
+    {
+        receivers.add(player);
+        messages.add(message);
+    }
+
+    /**
+     * Sends the queued messages in the order they were added, only call it on the server thread.
+     */
+    void send()
+    {
+        for (int i = 0; i < messages.size(); i++)
+        {
+            MineColonies.getNetwork().sendTo(messages.get(i), receivers.get(i));
+        }
+    }
+}
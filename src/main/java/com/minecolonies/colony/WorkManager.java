@@ -1,5 +1,8 @@
 package com.minecolonies.colony;
 
+import com.minecolonies.colony.buildings.AbstractBuilding;
+import com.minecolonies.colony.jobs.AbstractJob;
+import com.minecolonies.colony.jobs.JobBuilder;
 import com.minecolonies.colony.workorders.AbstractWorkOrder;
 import com.minecolonies.util.Log;
 import net.minecraft.nbt.NBTTagCompound;
@@ -9,10 +12,7 @@ import net.minecraftforge.fml.common.gameevent.TickEvent;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -21,8 +21,11 @@ import java.util.stream.Collectors;
 public class WorkManager
 {
     private static final String TAG_WORK_ORDERS              = "workOrders";
-    //  Once a second
-    private static final int    WORK_ORDER_FULFILL_INCREMENT = 1 * 20;
+    /**
+     * Highest priority first, the oldest first if the priority is the same.
+     */
+    private static final Comparator<AbstractWorkOrder> PRIORITY_ORDER =
+      Comparator.comparingInt(AbstractWorkOrder::getPriority).reversed().thenComparingInt(AbstractWorkOrder::getID);
     /**
      * The Colony the workManager takes part of.
      */
@@ -34,6 +37,31 @@ public class WorkManager
      * Checks if there has been changes.
      */
     private boolean                         dirty          = false;
+    /**
+     * All work orders by their type.
+     */
+    @NotNull
+    private final Map<Class<? extends AbstractWorkOrder>, Set<AbstractWorkOrder>>          ordersByType    = new HashMap<>();
+    /**
+     * The unclaimed work orders by the job type working on them, ordered by {@link #PRIORITY_ORDER}.
+     */
+    @NotNull
+    private final Map<Class<? extends AbstractJob>, NavigableSet<AbstractWorkOrder>>       unclaimedOrders = new HashMap<>();
+    /**
+     * Workers which can claim a work order but have none, by their job type.
+     */
+    @NotNull
+    private final Map<Class<? extends AbstractJob>, Set<CitizenData>>                      idleWorkers     = new HashMap<>();
+    /**
+     * Orders which became unclaimed since the last tick, they are offered to the idle workers in the next tick.
+     */
+    @NotNull
+    private final Set<AbstractWorkOrder>                                                   pendingOrders   = new LinkedHashSet<>();
+    /**
+     * Idle workers which may be able to claim a queued order since the last tick, they look for one in the next tick.
+     */
+    @NotNull
+    private final Set<CitizenData>                                                         pendingWorkers  = new LinkedHashSet<>();
 
     /**
      * Constructor, saves reference to the colony.
@@ -62,7 +90,11 @@ public class WorkManager
      */
     public void removeWorkOrder(int orderId)
     {
-        workOrders.remove(orderId);
+        final AbstractWorkOrder order = workOrders.remove(orderId);
+        if (order != null)
+        {
+            unindex(order);
+        }
         colony.removeWorkOrder(orderId);
     }
 
@@ -110,15 +142,23 @@ public class WorkManager
     @Nullable
     public <W extends AbstractWorkOrder> W getUnassignedWorkOrder(@NotNull Class<W> type)
     {
-        for (@NotNull AbstractWorkOrder o : workOrders.values())
+        @Nullable AbstractWorkOrder best = null;
+        for (@NotNull final NavigableSet<AbstractWorkOrder> queue : unclaimedOrders.values())
         {
-            if (!o.isClaimed() && type.isAssignableFrom(o.getClass()))
+            for (@NotNull final AbstractWorkOrder order : queue)
             {
-                return type.cast(o);
+                if (type.isInstance(order))
+                {
+                    if (best == null || PRIORITY_ORDER.compare(order, best) < 0)
+                    {
+                        best = order;
+                    }
+                    break;
+                }
             }
         }
 
-        return null;
+        return best == null ? null : type.cast(best);
     }
 
     /**
@@ -130,7 +170,99 @@ public class WorkManager
      */
     public <W extends AbstractWorkOrder> List<W> getWorkOrdersOfType(@NotNull Class<W> type)
     {
-        return workOrders.values().stream().filter(o -> type.isAssignableFrom(o.getClass())).map(type::cast).collect(Collectors.toList());
+        return ordersByType.entrySet().stream()
+                 .filter(entry -> type.isAssignableFrom(entry.getKey()))
+                 .flatMap(entry -> entry.getValue().stream())
+                 .map(type::cast)
+                 .collect(Collectors.toList());
+    }
+
+    /**
+     * Changes the priority of a work order, keeping it in its place in the queue.
+     *
+     * @param orderId  the id of the order.
+     * @param priority the new priority.
+     */
+    public void setWorkOrderPriority(int orderId, int priority)
+    {
+        final AbstractWorkOrder order = workOrders.get(orderId);
+        if (order == null || order.getPriority() == priority)
+        {
+            return;
+        }
+
+        final NavigableSet<AbstractWorkOrder> queue = unclaimedOrders.get(order.getJobType());
+        final boolean queued = queue != null && queue.remove(order);
+        order.setPriority(priority);
+        if (queued)
+        {
+            queue.add(order);
+            pendingOrders.add(order);
+        }
+        dirty = true;
+    }
+
+    /**
+     * Get the workers of a job type which have no work order.
+     *
+     * @param type the job type.
+     * @return the idle workers, don't change them.
+     */
+    @NotNull
+    public Collection<CitizenData> getIdleWorkers(@NotNull Class<? extends AbstractJob> type)
+    {
+        final Set<CitizenData> workers = idleWorkers.get(type);
+        return workers == null ? Collections.emptySet() : Collections.unmodifiableSet(workers);
+    }
+
+    /**
+     * Updates the idle workers after the job of a citizen or its work order changed.
+     * A worker which became idle may claim one of the queued orders in the next tick.
+     *
+     * @param citizen the citizen.
+     */
+    public void onWorkerChanged(@NotNull CitizenData citizen)
+    {
+        removeWorker(citizen);
+
+        final AbstractJob job = citizen.getJob();
+        if (job instanceof JobBuilder && !((JobBuilder) job).hasWorkOrder())
+        {
+            idleWorkers.computeIfAbsent(job.getClass(), type -> new LinkedHashSet<>()).add(citizen);
+            pendingWorkers.add(citizen);
+        }
+    }
+
+    /**
+     * Forgets a worker, for example because it died.
+     *
+     * @param citizen the citizen.
+     */
+    public void removeWorker(@NotNull CitizenData citizen)
+    {
+        for (@NotNull final Set<CitizenData> workers : idleWorkers.values())
+        {
+            workers.remove(citizen);
+        }
+        pendingWorkers.remove(citizen);
+    }
+
+    /**
+     * Lets the idle workers of a building look for a queued order again after its level changed, they may be able
+     * to work on more orders now.
+     *
+     * @param building the building.
+     */
+    public void onBuildingLevelChanged(@NotNull AbstractBuilding building)
+    {
+        for (@NotNull final CitizenData citizen : colony.getWorkers(building.getLocation()))
+        {
+            final AbstractJob job = citizen.getJob();
+            if (job != null && getIdleWorkers(job.getClass()).contains(citizen))
+            {
+                pendingWorkers.add(citizen);
+            }
+        }
     }
 
     /**
@@ -152,7 +284,15 @@ public class WorkManager
     public void clearWorkForCitizen(@NotNull CitizenData citizen)
     {
         dirty = true;
-        workOrders.values().stream().filter(o -> o.isClaimedBy(citizen)).forEach(AbstractWorkOrder::clearClaimedBy);
+        for (@NotNull final AbstractWorkOrder o : workOrders.values())
+        {
+            if (o.isClaimedBy(citizen))
+            {
+                o.clearClaimedBy();
+                unclaimedOrders.computeIfAbsent(o.getJobType(), type -> new TreeSet<>(PRIORITY_ORDER)).add(o);
+                pendingOrders.add(o);
+            }
+        }
     }
 
     /**
@@ -188,8 +328,6 @@ public class WorkManager
             @Nullable AbstractWorkOrder o = AbstractWorkOrder.createFromNBT(orderCompound);
             if (o != null)
             {
-                addWorkOrder(o);
-
                 //  If this Work Order is claimed, and the Citizen who claimed it no longer exists
                 //  then clear the Claimed status
                 //  This is just a failsafe cleanup; this should not happen under normal circumstances
@@ -198,6 +336,8 @@ public class WorkManager
                     o.clearClaimedBy();
                 }
 
+                addWorkOrder(o);
+
                 topWorkOrderId = Math.max(topWorkOrderId, o.getID());
             }
         }
@@ -219,11 +359,37 @@ public class WorkManager
         }
 
         workOrders.put(order.getID(), order);
+        ordersByType.computeIfAbsent(order.getClass(), type -> new LinkedHashSet<>()).add(order);
+        if (!order.isClaimed())
+        {
+            unclaimedOrders.computeIfAbsent(order.getJobType(), type -> new TreeSet<>(PRIORITY_ORDER)).add(order);
+            pendingOrders.add(order);
+        }
+    }
+
+    /**
+     * Removes a work order from the type and priority indexes.
+     *
+     * @param order the removed order.
+     */
+    private void unindex(@NotNull AbstractWorkOrder order)
+    {
+        final Set<AbstractWorkOrder> orders = ordersByType.get(order.getClass());
+        if (orders != null)
+        {
+            orders.remove(order);
+        }
+        final NavigableSet<AbstractWorkOrder> queue = unclaimedOrders.get(order.getJobType());
+        if (queue != null)
+        {
+            queue.remove(order);
+        }
+        pendingOrders.remove(order);
     }
 
     /**
      * Process updates on the World Tick
-     * Currently, does periodic Work Order cleanup
+     * Does periodic Work Order cleanup and gives the queued orders to idle workers once one of them became available.
      *
      * @param event {@link net.minecraftforge.fml.common.gameevent.TickEvent.WorldTickEvent}
      */
@@ -238,6 +404,7 @@ public class WorkManager
                 if (!o.isValid(colony))
                 {
                     iter.remove();
+                    unindex(o);
                     dirty = true;
                 }
                 else if (o.hasChanged())
@@ -247,11 +414,52 @@ public class WorkManager
                 }
             }
 
-            if ((event.world.getWorldTime() % WORK_ORDER_FULFILL_INCREMENT) == 0)
+            if (!pendingOrders.isEmpty() || !pendingWorkers.isEmpty())
             {
-                workOrders.values().stream().filter(o -> !o.isClaimed())
-                  .sorted((first, second) -> second.getPriority() > first.getPriority() ? 1 : (second.getPriority() < first.getPriority() ? -1 : 0))
-                  .forEach(o -> o.attemptToFulfill(colony));
+                assignWorkOrders();
+            }
+        }
+    }
+
+    /**
+     * Matches what became available since the last tick, instead of offering every queued order again.
+     * A new order is offered to the idle workers of its job type, the highest priority first.
+     * A worker which became idle takes the best queued order of its job type he can work on, the queue is sorted
+     * so that is the head unless the worker can't work on it.
+     */
+    private void assignWorkOrders()
+    {
+        final List<AbstractWorkOrder> orders = new ArrayList<>(pendingOrders);
+        pendingOrders.clear();
+        orders.sort(PRIORITY_ORDER);
+        for (@NotNull final AbstractWorkOrder o : orders)
+        {
+            o.attemptToFulfill(colony);
+            if (o.isClaimed())
+            {
+                unclaimedOrders.get(o.getJobType()).remove(o);
+            }
+        }
+
+        final List<CitizenData> workers = new ArrayList<>(pendingWorkers);
+        pendingWorkers.clear();
+        for (@NotNull final CitizenData worker : workers)
+        {
+            final AbstractJob job = worker.getJob();
+            final NavigableSet<AbstractWorkOrder> queue = job == null ? null : unclaimedOrders.get(job.getClass());
+            if (queue == null || !getIdleWorkers(job.getClass()).contains(worker))
+            {
+                continue;
+            }
+
+            final Iterator<AbstractWorkOrder> byPriority = queue.iterator();
+            while (byPriority.hasNext())
+            {
+                if (byPriority.next().attemptToFulfill(colony, worker))
+                {
+                    byPriority.remove();
+                    break;
+                }
             }
         }
     }
@@ -1,10 +1,16 @@
 package com.minecolonies.colony;
 
 import com.minecolonies.colony.workorders.AbstractWorkOrder;
+import com.minecolonies.colony.workorders.BillOfMaterials;
 import io.netty.buffer.ByteBuf;
+import net.minecraft.item.ItemStack;
 import net.minecraftforge.fml.common.network.ByteBufUtils;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * The WorkOrderView is the client-side representation of a WorkOrders.
  * Views contain the WorkOrder's data that is relevant to a Client, in a more client-friendly form
@@ -32,6 +38,15 @@ public class WorkOrderView
      * Claimed by citizen id x.
      */
     private int                             claimedBy;
+    /**
+     * The materials still needed, the stack size is the amount.
+     */
+    @NotNull
+    private List<ItemStack>                 materials = new ArrayList<>();
+    /**
+     * Percentage of the structure which is done, -1 if unknown.
+     */
+    private int                             progress  = -1;
 
     /**
      * Public constructor of the WorkOrderView.
@@ -123,6 +138,42 @@ public class WorkOrderView
         this.claimedBy = claimedBy;
     }
 
+    /**
+     * Materials getter.
+     *
+     * @return an unmodifiable list of the materials still needed, the stack size is the amount.
+     */
+    @NotNull
+    public List<ItemStack> getMaterials()
+    {
+        return Collections.unmodifiableList(materials);
+    }
+
+    /**
+     * Counts the materials still needed.
+     *
+     * @return the amount of all materials together.
+     */
+    public int getMaterialCount()
+    {
+        int count = 0;
+        for (@NotNull final ItemStack stack : materials)
+        {
+            count += stack.stackSize;
+        }
+        return count;
+    }
+
+    /**
+     * Getter for the progress of a build order.
+     *
+     * @return the percentage from 0 to 100, -1 if unknown.
+     */
+    public int getProgress()
+    {
+        return progress;
+    }
+
     /**
      * Deserialize the attributes and variables from transition.
      * Buffer may be not readable because the workOrderView may be null.
@@ -136,5 +187,10 @@ public class WorkOrderView
         claimedBy = buf.readInt();
         type = AbstractWorkOrder.WorkOrderType.values()[buf.readInt()];
         value = ByteBufUtils.readUTF8String(buf);
+        if (type == AbstractWorkOrder.WorkOrderType.BUILD)
+        {
+            materials = BillOfMaterials.deserialize(buf);
+            progress = buf.readInt();
+        }
     }
 }
@@ -201,7 +201,7 @@ public abstract class AbstractBuilding
             style = "default";
         }
 
-        if (MaterialSystem.isEnabled)
+        if (MaterialSystem.isEnabled())
         {
             materialStore.readFromNBT(compound);
         }
@@ -345,7 +345,7 @@ public abstract class AbstractBuilding
         compound.setInteger(TAG_ROTATION, rotation);
         compound.setString(TAG_STYLE, style);
 
-        if (MaterialSystem.isEnabled)
+        if (MaterialSystem.isEnabled())
         {
             materialStore.writeToNBT(compound);
         }
@@ -439,7 +439,7 @@ public abstract class AbstractBuilding
      */
     public void onDestroyed()
     {
-        if (MaterialSystem.isEnabled)
+        if (MaterialSystem.isEnabled())
         {
             materialStore.destroy();
         }
@@ -632,9 +632,14 @@ public abstract class AbstractBuilding
             return;
         }
 
+        final boolean changed = buildingLevel != level;
         buildingLevel = level;
         markDirty();
         ColonyManager.markDirty();
+        if (changed)
+        {
+            colony.getWorkManager().onBuildingLevelChanged(this);
+        }
     }
 
     /**
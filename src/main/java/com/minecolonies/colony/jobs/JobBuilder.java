@@ -140,6 +140,10 @@ public class JobBuilder extends AbstractJob
      */
     public void setStructure(StructureWrapper schematic)
     {
+        if (this.schematic != null && this.schematic != schematic)
+        {
+            this.schematic.cancelDiff();
+        }
         this.schematic = schematic;
     }
 
@@ -199,5 +203,6 @@ public class JobBuilder extends AbstractJob
         {
             workOrderId = order.getID();
         }
+        getColony().getWorkManager().onWorkerChanged(getCitizen());
     }
 }
@@ -4,17 +4,47 @@ import com.minecolonies.client.render.RenderBipedCitizen;
 import com.minecolonies.colony.CitizenData;
 import com.minecolonies.colony.Colony;
 import com.minecolonies.entity.ai.basic.AbstractAISkeleton;
+import com.minecolonies.entity.ai.citizen.deliveryman.DeliveryRoute;
 import com.minecolonies.entity.ai.citizen.deliveryman.EntityAIWorkDeliveryman;
 import com.minecolonies.util.BlockPosUtil;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.math.BlockPos;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class JobDeliveryman extends AbstractJob
 {
-    private static final String TAG_DESTINATION = "destination";
+    private static final String TAG_DESTINATION      = "destination";
+    private static final String TAG_ITEMS_DELIVERED  = "itemsDelivered";
+    private static final String TAG_ROUTES_COMPLETED = "routesCompleted";
+    private static final String TAG_ROUTE_TICKS      = "routeTicks";
+    /**
+     * Ticks in one hour.
+     */
+    private static final double TICKS_PER_HOUR       = 20 * 60 * 60;
     private BlockPos destination;
 
+    /**
+     * The route the deliveryman is working on, not saved, a new one is planned after loading.
+     */
+    @Nullable
+    private DeliveryRoute route;
+
+    /**
+     * Items dropped off by this deliveryman in total.
+     */
+    private long itemsDelivered  = 0;
+
+    /**
+     * Routes finished by this deliveryman in total.
+     */
+    private int  routesCompleted = 0;
+
+    /**
+     * Ticks spent on routes in total.
+     */
+    private long routeTicks      = 0;
+
     public JobDeliveryman(CitizenData entity)
     {
         super(entity);
@@ -28,6 +58,9 @@ public class JobDeliveryman extends AbstractJob
         {
             destination = BlockPosUtil.readFromNBT(compound, TAG_DESTINATION);
         }
+        itemsDelivered = compound.getLong(TAG_ITEMS_DELIVERED);
+        routesCompleted = compound.getInteger(TAG_ROUTES_COMPLETED);
+        routeTicks = compound.getLong(TAG_ROUTE_TICKS);
     }
 
     @NotNull
@@ -52,6 +85,9 @@ public class JobDeliveryman extends AbstractJob
         {
             BlockPosUtil.writeToNBT(compound, TAG_DESTINATION, destination);
         }
+        compound.setLong(TAG_ITEMS_DELIVERED, itemsDelivered);
+        compound.setInteger(TAG_ROUTES_COMPLETED, routesCompleted);
+        compound.setLong(TAG_ROUTE_TICKS, routeTicks);
     }
 
     /**
@@ -101,4 +137,78 @@ public class JobDeliveryman extends AbstractJob
     {
         this.destination = destination;
     }
+
+    /**
+     * Returns the route the deliveryman is working on.
+     *
+     * @return the route or null if he has none.
+     */
+    @Nullable
+    public DeliveryRoute getRoute()
+    {
+        return route;
+    }
+
+    /**
+     * Sets the route the deliveryman is working on.
+     *
+     * @param route the route or null.
+     */
+    public void setRoute(@Nullable DeliveryRoute route)
+    {
+        this.route = route;
+    }
+
+    /**
+     * Adds a finished route to the statistics.
+     *
+     * @param finished the finished route.
+     * @param endTime  world time the route ended at.
+     */
+    public void onRouteFinished(@NotNull DeliveryRoute finished, long endTime)
+    {
+        itemsDelivered += finished.getItemsDelivered();
+        routesCompleted++;
+        routeTicks += Math.max(0, endTime - finished.getStartTime());
+    }
+
+    /**
+     * Returns the amount of items this deliveryman dropped off in total.
+     *
+     * @return the amount of items.
+     */
+    public long getItemsDelivered()
+    {
+        return itemsDelivered;
+    }
+
+    /**
+     * Returns the amount of routes this deliveryman finished in total.
+     *
+     * @return the amount of routes.
+     */
+    public int getRoutesCompleted()
+    {
+        return routesCompleted;
+    }
+
+    /**
+     * Returns the ticks this deliveryman spent on routes in total.
+     *
+     * @return the ticks.
+     */
+    public long getRouteTicks()
+    {
+        return routeTicks;
+    }
+
+    /**
+     * Throughput of this deliveryman, in items delivered per hour spent on routes.
+     *
+     * @return the items per hour, 0 if he hasn't finished a route yet.
+     */
+    public double getItemsPerHour()
+    {
+        return routeTicks == 0 ? 0 : itemsDelivered * TICKS_PER_HOUR / routeTicks;
+    }
 }
@@ -0,0 +1,346 @@
+package com.minecolonies.colony.materials;
+
+import net.minecraft.inventory.IInventory;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Colony wide index of the items stored in the building chests and field inventories.
+ * <p>
+ * The index keeps a snapshot of every slot it has been told about, so each change notification
+ * only applies the difference of that one slot instead of rescanning the inventories.
+ */
+public class ItemAvailabilityIndex
+{
+    /**
+     * Amount of bits the item id is shifted in the item key.
+     */
+    private static final int ID_SHIFT    = 16;
+    /**
+     * Mask for the damage value in the item key.
+     */
+    private static final int DAMAGE_MASK = 0xFFFF;
+    /**
+     * Key stored in a slot snapshot for an empty slot.
+     */
+    private static final int EMPTY_KEY   = -1;
+
+    /**
+     * Item key to the amount stored at each position.
+     */
+    @NotNull
+    private final Map<Integer, Map<BlockPos, Integer>> locationsByItem = new HashMap<>();
+
+    /**
+     * Item key to the amount stored in the whole colony.
+     */
+    @NotNull
+    private final Map<Integer, Integer> totals = new HashMap<>();
+
+    /**
+     * Last known contents of every indexed inventory.
+     */
+    @NotNull
+    private final Map<BlockPos, StoreSnapshot> stores = new HashMap<>();
+
+    /**
+     * Calculates the key under which a stack is indexed.
+     * Damageable items ignore their damage, like the needed items of the jobs.
+     *
+     * @param stack the stack.
+     * @return the item key.
+     */
+    public static int getKey(@NotNull final ItemStack stack)
+    {
+        return getKey(stack.getItem(), stack.getItemDamage());
+    }
+
+    /**
+     * Calculates the key under which an item with a damage value is indexed.
+     *
+     * @param item   the item.
+     * @param damage the damage value, ignored for damageable items.
+     * @return the item key.
+     */
+    public static int getKey(@NotNull final Item item, final int damage)
+    {
+        final int usedDamage = item.isDamageable() ? 0 : damage;
+        return (Item.getIdFromItem(item) << ID_SHIFT) | (usedDamage & DAMAGE_MASK);
+    }
+
+    /**
+     * Extracts the item id of an item key.
+     *
+     * @param key the item key.
+     * @return the item id.
+     */
+    public static int getItemId(final int key)
+    {
+        return key >>> ID_SHIFT;
+    }
+
+    /**
+     * Extracts the damage value of an item key.
+     *
+     * @param key the item key.
+     * @return the damage value.
+     */
+    public static int getDamage(final int key)
+    {
+        return key & DAMAGE_MASK;
+    }
+
+    /**
+     * Called when the content of one slot of an indexed inventory changed.
+     *
+     * @param store the position of the inventory.
+     * @param slot  the slot which changed.
+     * @param stack the new content of the slot, may be null.
+     */
+    public void updateSlot(@NotNull final BlockPos store, final int slot, @Nullable final ItemStack stack)
+    {
+        final StoreSnapshot snapshot = getOrCreateSnapshot(store);
+        snapshot.ensureSize(slot + 1);
+
+        final boolean empty = stack == null || stack.getItem() == null || stack.stackSize <= 0;
+        final int newKey = empty ? EMPTY_KEY : getKey(stack);
+        final int newAmount = empty ? 0 : stack.stackSize;
+        final int oldKey = snapshot.keys[slot];
+        final int oldAmount = snapshot.amounts[slot];
+
+        if (oldKey == newKey && oldAmount == newAmount)
+        {
+            return;
+        }
+
+        if (oldKey != EMPTY_KEY)
+        {
+            change(snapshot.position, oldKey, -oldAmount);
+        }
+        if (newKey != EMPTY_KEY)
+        {
+            change(snapshot.position, newKey, newAmount);
+        }
+
+        snapshot.keys[slot] = newKey;
+        snapshot.amounts[slot] = newAmount;
+    }
+
+    /**
+     * Brings the snapshot of one inventory up to date, for example after it has been loaded.
+     *
+     * @param store     the position of the inventory.
+     * @param inventory the inventory.
+     */
+    public void syncStore(@NotNull final BlockPos store, @NotNull final IInventory inventory)
+    {
+        final int size = inventory.getSizeInventory();
+        for (int slot = 0; slot < size; slot++)
+        {
+            updateSlot(store, slot, inventory.getStackInSlot(slot));
+        }
+
+        final StoreSnapshot snapshot = stores.get(store);
+        if (snapshot != null)
+        {
+            for (int slot = size; slot < snapshot.keys.length; slot++)
+            {
+                updateSlot(store, slot, null);
+            }
+        }
+    }
+
+    /**
+     * Removes an inventory and all its items from the index.
+     *
+     * @param store the position of the inventory.
+     */
+    public void removeStore(@NotNull final BlockPos store)
+    {
+        final StoreSnapshot snapshot = stores.remove(store);
+        if (snapshot == null)
+        {
+            return;
+        }
+
+        for (int slot = 0; slot < snapshot.keys.length; slot++)
+        {
+            if (snapshot.keys[slot] != EMPTY_KEY)
+            {
+                change(snapshot.position, snapshot.keys[slot], -snapshot.amounts[slot]);
+            }
+        }
+    }
+
+    /**
+     * Amount of an item available in the whole colony.
+     *
+     * @param stack the item to look for (amount is ignored).
+     * @return the amount.
+     */
+    public int getAmount(@NotNull final ItemStack stack)
+    {
+        final Integer amount = totals.get(getKey(stack));
+        return amount == null ? 0 : amount;
+    }
+
+    /**
+     * Amount of an item available in one inventory.
+     *
+     * @param store the position of the inventory.
+     * @param stack the item to look for (amount is ignored).
+     * @return the amount.
+     */
+    public int getAmountAt(@NotNull final BlockPos store, @NotNull final ItemStack stack)
+    {
+        final Map<BlockPos, Integer> locations = locationsByItem.get(getKey(stack));
+        if (locations == null)
+        {
+            return 0;
+        }
+        final Integer amount = locations.get(store);
+        return amount == null ? 0 : amount;
+    }
+
+    /**
+     * Finds the nearest inventory which contains the item.
+     *
+     * @param stack the item to look for (amount is ignored).
+     * @param from  the position to measure from.
+     * @return the position of the inventory or null if the colony has none of it.
+     */
+    @Nullable
+    public BlockPos findNearest(@NotNull final ItemStack stack, @NotNull final BlockPos from)
+    {
+        final List<BlockPos> found = findNearest(stack, 1, from);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    /**
+     * Finds the nearest inventories which together contain the requested amount of the item.
+     * If the colony has less than requested, all inventories containing it are returned.
+     *
+     * @param stack  the item to look for (amount is ignored).
+     * @param amount the amount needed.
+     * @param from   the position to measure from.
+     * @return the positions, nearest first.
+     */
+    @NotNull
+    public List<BlockPos> findNearest(@NotNull final ItemStack stack, final int amount, @NotNull final BlockPos from)
+    {
+        final Map<BlockPos, Integer> locations = locationsByItem.get(getKey(stack));
+        if (locations == null || amount <= 0)
+        {
+            return Collections.emptyList();
+        }
+
+        final List<BlockPos> sorted = new ArrayList<>(locations.keySet());
+        sorted.sort(Comparator.comparingDouble(from::distanceSq));
+
+        final List<BlockPos> result = new ArrayList<>();
+        int collected = 0;
+        for (final BlockPos pos : sorted)
+        {
+            result.add(pos);
+            collected += locations.get(pos);
+            if (collected >= amount)
+            {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Positions of all indexed inventories.
+     *
+     * @return an unmodifiable view of the positions.
+     */
+    @NotNull
+    public Set<BlockPos> getStores()
+    {
+        return Collections.unmodifiableSet(stores.keySet());
+    }
+
+    /**
+     * Applies a change of an amount at a position.
+     *
+     * @param pos    the position.
+     * @param key    the item key.
+     * @param amount the difference.
+     */
+    private void change(@NotNull final BlockPos pos, final int key, final int amount)
+    {
+        final Map<BlockPos, Integer> locations = locationsByItem.computeIfAbsent(key, k -> new HashMap<>());
+        final int atPos = locations.getOrDefault(pos, 0) + amount;
+        if (atPos <= 0)
+        {
+            locations.remove(pos);
+            if (locations.isEmpty())
+            {
+                locationsByItem.remove(key);
+            }
+        }
+        else
+        {
+            locations.put(pos, atPos);
+        }
+
+        final int total = totals.getOrDefault(key, 0) + amount;
+        if (total <= 0)
+        {
+            totals.remove(key);
+        }
+        else
+        {
+            totals.put(key, total);
+        }
+    }
+
+    @NotNull
+    private StoreSnapshot getOrCreateSnapshot(@NotNull final BlockPos store)
+    {
+        StoreSnapshot snapshot = stores.get(store);
+        if (snapshot == null)
+        {
+            snapshot = new StoreSnapshot(store.toImmutable());
+            stores.put(snapshot.position, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Item key and amount of every slot of one inventory.
+     */
+    private static final class StoreSnapshot
+    {
+        @NotNull
+        private final BlockPos position;
+        @NotNull
+        private       int[]    keys    = new int[0];
+        @NotNull
+        private       int[]    amounts = new int[0];
+
+        private StoreSnapshot(@NotNull final BlockPos position)
+        {
+            this.position = position;
+        }
+
+        private void ensureSize(final int size)
+        {
+            if (keys.length >= size)
+            {
+                return;
+            }
+            final int oldSize = keys.length;
+            keys = Arrays.copyOf(keys, size);
+            amounts = Arrays.copyOf(amounts, size);
+            Arrays.fill(keys, oldSize, size, EMPTY_KEY);
+        }
+    }
+}
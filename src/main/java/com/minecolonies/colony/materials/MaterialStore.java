@@ -1,48 +1,66 @@
 package com.minecolonies.colony.materials;
 
-import net.minecraft.block.Block;
+import com.minecolonies.util.IntCounterMap;
+import com.minecolonies.util.Log;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.inventory.IInventory;
 import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraftforge.common.util.Constants;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
- * A material store is a node in the material network, keeping track of materials in a specific inventory
+ * A material store is a node in the material network, keeping track of materials in a specific inventory.
+ * <p>
+ * Each store only counts what it has and what it needs, the amounts it has but doesn't need (and the other way
+ * round) are derived from those two counters. Every change is reported to the {@link MaterialSystem}.
  * Created: December 14, 2015
  *
  * @author Colton
  */
 public class MaterialStore
 {
-    private static final String                 TAG_MATERIAL_STORE = "MaterialStore";
-    private static final String                 TAG_DONT_NEED      = "HaveDontNeed";
-    private static final String                 TAG_HAVE_NEED      = "HaveNeed";
-    private static final String                 TAG_NEED           = "NeedDontHave";
-    private static final String                 TAG_ID             = "ID";
-    private static final String                 TAG_QUANTITY       = "quantity";
+    private static final String TAG_MATERIAL_STORE = "MaterialStore";
+    private static final String TAG_KEYS           = "keys";
+    private static final String TAG_HAVE           = "have";
+    private static final String TAG_NEEDED         = "needed";
+    //Tags of the old format, only read to convert existing saves.
+    private static final String TAG_DONT_NEED      = "HaveDontNeed";
+    private static final String TAG_HAVE_NEED      = "HaveNeed";
+    private static final String TAG_NEED           = "NeedDontHave";
+    private static final String TAG_ID             = "ID";
+    private static final String TAG_QUANTITY       = "quantity";
     /**
-     * These are Materials we have that we don't need right now. So they could be used for something else.
+     * Amount of bits the item id is shifted in the old format ids.
+     */
+    private static final int    OLD_ID_SHIFT       = 16;
+
+    /**
+     * How many of each material this inventory contains.
      */
     @NotNull
-    private              Map<Material, Integer> dontNeed           = new HashMap<>();
+    private final IntCounterMap have     = new IntCounterMap();
     /**
-     * These are Materials we have that we currently need. So we don't tell anyone else about them.
+     * How many of each material this inventory needs, including what it already has.
      */
     @NotNull
-    private              Map<Material, Integer> haveNeed           = new HashMap<>();
+    private final IntCounterMap needed   = new IntCounterMap();
     /**
-     * These are Materials that we don't have, but we need. The deliveryman try to keep this list empty.
+     * How many of each material are held back for a worker, they are included in {@link #needed}.
      */
     @NotNull
-    private              Map<Material, Integer> need               = new HashMap<>();
-    private Type           type;
-    private MaterialSystem system;
+    private final IntCounterMap reserved = new IntCounterMap();
+    private final Type           type;
+    private final MaterialSystem system;
+    /**
+     * Transfers in progress, while there is one the inventory hooks don't report to this store.
+     */
+    private       int            pausedTracking = 0;
 
     /**
      * Constructor for MaterialStore
@@ -67,336 +85,433 @@ public class MaterialStore
     }
 
     /**
-     * These are the Materials that we need, this function will provide a list and quantity for someone like the deliveryman.
-     *
-     * @return An unmodifiable version of the need map
+     * @param key material key.
+     * @return how many of the material this inventory contains.
      */
-    @NotNull
-    public Map<Material, Integer> getNeed()
+    public int getHave(int key)
     {
-        return Collections.unmodifiableMap(need);
+        return have.get(key);
     }
 
     /**
-     * These are the Materials that we have, but we don't need. So someone else could come and take them if they wanted.
-     *
-     * @return An unmodifiable version of the dontNeed map
+     * @param key material key.
+     * @return how many of the material this inventory needs in total.
      */
-    @NotNull
-    public Map<Material, Integer> getHave()
+    public int getNeeded(int key)
     {
-        return Collections.unmodifiableMap(dontNeed);
+        return needed.get(key);
     }
 
     /**
      * This returns how many of a Material that we have and don't need.
      *
-     * @param material Material that we are checking
+     * @param key material key.
      * @return How many of material that we have
      */
-    public int getMaterialCount(Material material)
+    public int getMaterialCount(int key)
     {
-        Integer count = dontNeed.get(material);
-
-        return count == null ? 0 : count;
+        return Math.max(0, have.get(key) - needed.get(key));
     }
 
     /**
-     * Add a Material to this inventory. First check if we need that item and act accordingly. Then put any extra
-     * in the dontNeed map.
+     * This returns how many of a Material that we need and don't have.
      *
-     * @param item     Item that is being added to the MaterialStore
-     * @param quantity How much of item is being added
+     * @param key material key.
+     * @return How many of material are missing
      */
-    public void addMaterial(Item item, int quantity)
+    public int getMissingCount(int key)
     {
-        addMaterial(system.getMaterial(item), quantity);
+        return Math.max(0, needed.get(key) - have.get(key));
     }
 
-    private void addMaterial(@Nullable Material material, int quantity)
+    /**
+     * Calls the visitor for every material which this store has or needs.
+     *
+     * @param visitor receives key, amount stored and amount needed.
+     */
+    public void forEachMaterial(@NotNull MaterialVisitor visitor)
     {
-        if (quantity <= 0 || material == null)
+        have.forEach((key, amount) -> visitor.visit(key, amount, needed.get(key)));
+        needed.forEach((key, amount) ->
         {
-            return;
-        }
+            if (have.get(key) == 0)
+            {
+                visitor.visit(key, 0, amount);
+            }
+        });
+    }
 
-        Integer count = dontNeed.get(material);
-        if (count == null)
+    /**
+     * Calls the visitor for every material this store needs and doesn't have.
+     *
+     * @param visitor receives key and missing amount.
+     */
+    public void forEachMissing(@NotNull IntCounterMap.Visitor visitor)
+    {
+        needed.forEach((key, amount) ->
         {
-            Integer needCount = need.get(material);
-            if (needCount == null)
+            final int missing = amount - have.get(key);
+            if (missing > 0)
             {
-                dontNeed.put(material, quantity);
-
-                system.addMaterial(material, quantity);
-                material.add(this, quantity);
+                visitor.visit(key, missing);
             }
-            else
-            {
-                if (quantity < needCount)
-                {
-                    haveNeed.put(material, quantity);
-                    need.put(material, needCount - quantity);
-                }
-                else if (quantity == needCount)
-                {
-                    haveNeed.put(material, quantity);
-                    need.remove(material);
-                }
-                else
-                {
-                    haveNeed.put(material, needCount);
-                    need.remove(material);
-                    dontNeed.put(material, quantity - needCount);
+        });
+    }
 
-                    system.addMaterial(material, quantity - needCount);
-                    material.add(this, quantity - needCount);
-                }
-            }
-        }
-        else
-        {
-            dontNeed.put(material, count + quantity);
+    /**
+     * Add a Material to this inventory.
+     *
+     * @param item     Item that is being added to the MaterialStore
+     * @param damage   Damage value of the item
+     * @param quantity How much of item is being added
+     */
+    public void addMaterial(@NotNull Item item, int damage, int quantity)
+    {
+        addMaterial(MaterialSystem.getKey(item, damage), quantity);
+    }
 
-            system.addMaterial(material, quantity);
-            material.add(this, quantity);
+    /**
+     * Add a Material to this inventory.
+     *
+     * @param state    Block state that is being added to the MaterialStore
+     * @param quantity How much of block is being added
+     */
+    public void addMaterial(@NotNull IBlockState state, int quantity)
+    {
+        addMaterial(MaterialSystem.getKey(state), quantity);
+    }
+
+    /**
+     * Add a stack to this inventory.
+     *
+     * @param stack the stack, its size is the quantity.
+     */
+    public void addMaterial(@Nullable ItemStack stack)
+    {
+        if (stack != null)
+        {
+            addMaterial(MaterialSystem.getKey(stack), stack.stackSize);
         }
     }
 
     /**
-     * Add a Material to this inventory. First check if we need that item and act accordingly. Then put any extra
-     * in the dontNeed map.
+     * Add a Material to this inventory.
      *
-     * @param block    Block that is being added to the MaterialStore
-     * @param quantity How much of block is being added
+     * @param key      material key.
+     * @param quantity how much is being added.
      */
-    public void addMaterial(Block block, int quantity)
+    public void addMaterial(int key, int quantity)
     {
-        addMaterial(system.getMaterial(block), quantity);
+        if (quantity > 0 && key != MaterialSystem.NO_KEY)
+        {
+            change(key, quantity, 0);
+        }
     }
 
     /**
-     * Remove a material from this inventory. First remove from dontNeed, then remove from haveNeed. If material was removed
-     * from haveNeed, then request that quantity in need.
+     * Remove a material from this inventory.
      *
      * @param item     Item that is being removed from the MaterialStore
+     * @param damage   Damage value of the item
      * @param quantity How much of item is being removed
      */
-    public void removeMaterial(Item item, int quantity)
+    public void removeMaterial(@NotNull Item item, int damage, int quantity)
     {
-        removeMaterial(system.getMaterial(item), quantity);
+        removeMaterial(MaterialSystem.getKey(item, damage), quantity);
     }
 
-    private void removeMaterial(@Nullable Material material, int quantity)
+    /**
+     * Remove a material from this inventory.
+     *
+     * @param state    Block state that is being removed from the MaterialStore
+     * @param quantity How much of block is being removed
+     */
+    public void removeMaterial(@NotNull IBlockState state, int quantity)
     {
-        if (quantity <= 0 || material == null)
-        {
-            return;
-        }
+        removeMaterial(MaterialSystem.getKey(state), quantity);
+    }
 
-        Integer count = dontNeed.get(material);
-        if (count == null || count < quantity)
+    /**
+     * Remove a stack from this inventory.
+     *
+     * @param stack the stack, its size is the quantity.
+     */
+    public void removeMaterial(@Nullable ItemStack stack)
+    {
+        if (stack != null)
         {
-            Integer countNeed = haveNeed.get(material);
-            if (count == null)
-            {
-                if (countNeed == null || countNeed < quantity)
-                {
-                    throw new QuantityNotFound("MaterialStore (haveNeed)", material.getID(), countNeed == null ? 0 : countNeed, quantity);
-                }
-                else
-                {
-                    if (countNeed == quantity)
-                    {
-                        haveNeed.remove(material);
-                    }
-                    else
-                    {
-                        haveNeed.put(material, countNeed - quantity);
-                    }
-                }
-            }
-            else
-            {
-                int countToRemove = quantity - count;
-                if (countNeed == null || countNeed < countToRemove)
-                {
-                    throw new QuantityNotFound("MaterialStore (dontNeed+haveNeed)", material.getID(), countNeed == null ? count : countNeed + count, quantity);
-                }
-                else
-                {
-                    removeMaterial(material);
-
-                    if (countNeed == countToRemove)
-                    {
-                        haveNeed.remove(material);
-                    }
-                    else
-                    {
-                        haveNeed.put(material, countNeed - countToRemove);
-                    }
-                }
-            }
+            removeMaterial(MaterialSystem.getKey(stack), stack.stackSize);
         }
-        else if (count == quantity)
+    }
+
+    /**
+     * Remove a material from this inventory.
+     * Removing more than the store knows of is logged and clamped, {@link #checkConsistency(IInventory, boolean)}
+     * repairs the store from the real inventory.
+     *
+     * @param key      material key.
+     * @param quantity how much is being removed.
+     */
+    public void removeMaterial(int key, int quantity)
+    {
+        if (quantity <= 0 || key == MaterialSystem.NO_KEY)
         {
-            removeMaterial(material);
+            return;
         }
-        else
-        {
-            dontNeed.put(material, count - quantity);
 
-            system.removeMaterial(material, quantity);
-            material.remove(this, quantity);
+        final int count = have.get(key);
+        if (count < quantity)
+        {
+            Log.getLogger().warn(new QuantityNotFound("MaterialStore (have)", key, count, quantity).getMessage());
         }
+        change(key, -Math.min(count, quantity), 0);
     }
 
-    private void removeMaterial(@NotNull Material material)
+    /**
+     * Call this method when you need something.
+     *
+     * @param item     Item that you need
+     * @param damage   Damage value of the item
+     * @param quantity How much you need
+     */
+    public void addNeededMaterial(@NotNull Item item, int damage, int quantity)
     {
-        int count = dontNeed.get(material);
-
-        dontNeed.remove(material);
-
-        removeMaterialFromExternal(material, count);
+        addNeededMaterial(MaterialSystem.getKey(item, damage), quantity);
     }
 
-    private void removeMaterialFromExternal(@NotNull Material material, int count)
+    /**
+     * Call this method when you need something.
+     *
+     * @param state    Block state that you need
+     * @param quantity How much you need
+     */
+    public void addNeededMaterial(@NotNull IBlockState state, int quantity)
     {
-        system.removeMaterial(material, count);
-        material.remove(this);
+        addNeededMaterial(MaterialSystem.getKey(state), quantity);
     }
 
     /**
-     * Remove a material from this inventory. First remove from dontNeed, then remove from haveNeed. If material was removed
-     * from haveNeed, then request that quantity in need.
+     * Call this method when you need something.
      *
-     * @param block    Block that is being removed from the MaterialStore
-     * @param quantity How much of block is being removed
+     * @param key      material key.
+     * @param quantity how much you need.
      */
-    public void removeMaterial(Block block, int quantity)
+    public void addNeededMaterial(int key, int quantity)
     {
-        removeMaterial(system.getMaterial(block), quantity);
+        if (quantity > 0 && key != MaterialSystem.NO_KEY)
+        {
+            change(key, 0, quantity);
+        }
     }
 
     /**
-     * Call this method when you need something.
+     * Call this method when you don't need something anymore.
      *
      * @param item     Item that you need
+     * @param damage   Damage value of the item
      * @param quantity How much you need
      */
-    public void addNeededMaterial(Item item, int quantity)
+    public void removeNeededMaterial(@NotNull Item item, int damage, int quantity)
     {
-        addNeededMaterial(system.getMaterial(item), quantity);
+        removeNeededMaterial(MaterialSystem.getKey(item, damage), quantity);
     }
 
     /**
-     * Call this method when you need something.
+     * Call this method when you don't need something anymore.
      *
-     * @param block    Block that you need
+     * @param state    Block state that you need
      * @param quantity How much you need
      */
-    public void addNeededMaterial(Block block, int quantity)
+    public void removeNeededMaterial(@NotNull IBlockState state, int quantity)
     {
-        addNeededMaterial(system.getMaterial(block), quantity);
+        removeNeededMaterial(MaterialSystem.getKey(state), quantity);
     }
 
     /**
      * Call this method when you don't need something anymore.
      *
-     * @param item     Item that you need
-     * @param quantity How much you need
+     * @param stack the stack, its size is the quantity.
      */
-    public void removeNeededMaterial(Item item, int quantity)
+    public void removeNeededMaterial(@Nullable ItemStack stack)
     {
-        removeNeededMaterial(system.getMaterial(item), quantity);
+        if (stack != null)
+        {
+            removeNeededMaterial(MaterialSystem.getKey(stack), stack.stackSize);
+        }
     }
 
-    private void removeNeededMaterial(@Nullable Material material, int quantity)
+    /**
+     * Call this method when you don't need something anymore.
+     * Removing more than the store needs is logged and clamped, like {@link #removeMaterial(int, int)}.
+     * Reserved amounts are not removed, see {@link #release(int, int)}.
+     *
+     * @param key      material key.
+     * @param quantity how much you don't need anymore.
+     */
+    public void removeNeededMaterial(int key, int quantity)
     {
-        if (quantity <= 0 || material == null)
+        if (quantity <= 0 || key == MaterialSystem.NO_KEY)
         {
             return;
         }
 
-        Integer count = haveNeed.get(material);
-        if (count != null)
+        final int count = needed.get(key) - reserved.get(key);
+        if (count < quantity)
         {
-            if (count > quantity)
-            {
-                haveNeed.put(material, count - quantity);
-                addMaterial(material, count - quantity);
-            }
-            else
-            {
-                if (count < quantity)
-                {
-                    removeFromNeededMap(material, quantity - count);
-                }
-
-                haveNeed.remove(material);
-                addMaterial(material, count);
-            }
+            Log.getLogger().warn(new QuantityNotFound("MaterialStore (need)", key, count, quantity).getMessage());
         }
-        else
+        change(key, 0, -Math.min(count, quantity));
+    }
+
+    /**
+     * Removes all needs of this store, reservations are kept.
+     */
+    public void clearNeeded()
+    {
+        for (final int key : needed.keys())
         {
-            removeFromNeededMap(material, quantity);
+            change(key, 0, reserved.get(key) - needed.get(key));
         }
     }
 
-    private void removeFromNeededMap(@NotNull Material material, int quantity)
+    /**
+     * Holds back materials this store has and doesn't need, for a worker who is on his way to take them.
+     * Reserved materials count as needed, so they are neither surplus of the colony nor offered to anybody else.
+     * Reservations are not saved, they are gone after a restart.
+     *
+     * @param key      material key.
+     * @param quantity how much to reserve.
+     * @return how much could be reserved, at most what the store has and doesn't need.
+     */
+    public int reserve(int key, int quantity)
     {
-        Integer count = need.get(material);
-        if (count == null || count < quantity)
+        if (key == MaterialSystem.NO_KEY)
         {
-            throw new QuantityNotFound("MaterialStore (need)", material.getID(), count == null ? 0 : count, quantity);
+            return 0;
         }
-        else if (count == quantity)
+
+        final int reservable = Math.min(quantity, getMaterialCount(key));
+        if (reservable > 0)
         {
-            need.remove(material);
+            reserved.add(key, reservable);
+            change(key, 0, reservable);
         }
-        else
+        return Math.max(0, reservable);
+    }
+
+    /**
+     * Gives back reserved materials, never more than are reserved.
+     *
+     * @param key      material key.
+     * @param quantity how much to give back.
+     */
+    public void release(int key, int quantity)
+    {
+        final int released = Math.min(quantity, reserved.get(key));
+        if (released > 0)
         {
-            need.put(material, count - quantity);
+            reserved.add(key, -released);
+            change(key, 0, -released);
         }
     }
 
     /**
-     * Call this method when you don't need something anymore.
+     * @param key material key.
+     * @return how much of the material is reserved.
+     */
+    public int getReserved(int key)
+    {
+        return reserved.get(key);
+    }
+
+    /**
+     * Checks if the inventory of this store should report its changes, it shouldn't while a transfer moves items
+     * which {@link MaterialSystem#transfer(MaterialStore, MaterialStore, int, int)} books afterwards.
      *
-     * @param block    Block that you need
-     * @param quantity How much you need
+     * @return true if changes of the inventory are added to the store.
      */
-    public void removeNeededMaterial(Block block, int quantity)
+    public boolean isTracking()
     {
-        removeNeededMaterial(system.getMaterial(block), quantity);
+        return pausedTracking == 0;
     }
 
-    private void addNeededMaterial(@Nullable Material material, int quantity)
+    /**
+     * Stops the inventory hooks from reporting to this store until {@link #resumeTracking()}.
+     */
+    public void pauseTracking()
     {
-        if (quantity <= 0 || material == null)
-        {
-            return;
-        }
+        pausedTracking++;
+    }
 
-        Integer count = dontNeed.get(material);
-        if (count != null)
+    /**
+     * Lets the inventory hooks report to this store again.
+     */
+    public void resumeTracking()
+    {
+        pausedTracking = Math.max(0, pausedTracking - 1);
+    }
+
+    /**
+     * Compares the store with the real content of its inventory.
+     *
+     * @param inventory the inventory tracked by this store.
+     * @param repair    true to set the store to the content of the inventory.
+     * @return the number of materials which were wrong.
+     */
+    public int checkConsistency(@NotNull IInventory inventory, boolean repair)
+    {
+        final IntCounterMap actual = new IntCounterMap();
+        for (int slot = 0; slot < inventory.getSizeInventory(); slot++)
         {
-            if (count >= quantity)
+            final ItemStack stack = inventory.getStackInSlot(slot);
+            final int key = MaterialSystem.getKey(stack);
+            if (key != MaterialSystem.NO_KEY)
             {
-                haveNeed.put(material, quantity);
-                removeMaterial(material, quantity);
+                actual.add(key, stack.stackSize);
             }
-            else
+        }
+
+        int errors = 0;
+        for (final int key : have.keys())
+        {
+            if (actual.get(key) != have.get(key))
             {
-                haveNeed.put(material, count);
-                removeMaterial(material);
-                need.put(material, quantity - count);
+                errors++;
+                if (repair)
+                {
+                    change(key, actual.get(key) - have.get(key), 0);
+                }
             }
         }
-        else
+        for (final int key : actual.keys())
         {
-            need.put(material, quantity);
+            if (have.get(key) == 0)
+            {
+                errors++;
+                if (repair)
+                {
+                    change(key, actual.get(key), 0);
+                }
+            }
         }
+        return errors;
+    }
+
+    /**
+     * Applies a change to the counters of one material and tells the system about it.
+     *
+     * @param key         material key.
+     * @param haveDelta   change of the stored amount.
+     * @param neededDelta change of the needed amount.
+     */
+    void change(int key, int haveDelta, int neededDelta)
+    {
+        final int oldHave = have.get(key);
+        final int oldNeeded = needed.get(key);
+        final int newHave = have.add(key, haveDelta);
+        final int newNeeded = needed.add(key, neededDelta);
+
+        system.onStoreChanged(key, oldHave, oldNeeded, newHave, newNeeded);
     }
 
     /**
@@ -405,6 +520,11 @@ public class MaterialStore
     public void destroy()
     {
         this.clear();
+        clearNeeded();
+        for (final int key : reserved.keys())
+        {
+            release(key, reserved.get(key));
+        }
 
         system.removeStore(this);
     }
@@ -414,76 +534,104 @@ public class MaterialStore
      */
     public void clear()
     {
-        for (@NotNull Map.Entry<Material, Integer> entry : dontNeed.entrySet())
+        for (final int key : have.keys())
         {
-            removeMaterialFromExternal(entry.getKey(), entry.getValue());
+            change(key, -have.get(key), 0);
         }
+        have.compact();
     }
 
     public void readFromNBT(@NotNull NBTTagCompound nbtTagCompound)
     {
-        NBTTagCompound compound = nbtTagCompound.getCompoundTag(TAG_MATERIAL_STORE);
+        final NBTTagCompound compound = nbtTagCompound.getCompoundTag(TAG_MATERIAL_STORE);
 
-        NBTTagList list = compound.getTagList(TAG_DONT_NEED, Constants.NBT.TAG_COMPOUND);
-        for (int i = 0; i < list.tagCount(); i++)
+        if (compound.hasKey(TAG_KEYS))
         {
-            NBTTagCompound tag = list.getCompoundTagAt(i);
-
-            @NotNull Material material = new Material(tag.getInteger(TAG_ID));
-
-            addMaterial(material, tag.getInteger(TAG_QUANTITY));
+            final int[] keys = compound.getIntArray(TAG_KEYS);
+            final int[] haveAmounts = compound.getIntArray(TAG_HAVE);
+            final int[] neededAmounts = compound.getIntArray(TAG_NEEDED);
+            for (int i = 0; i < keys.length && i < haveAmounts.length && i < neededAmounts.length; i++)
+            {
+                change(keys[i], haveAmounts[i], neededAmounts[i]);
+            }
+            return;
         }
 
-
-        NBTTagList listHaveNeed = compound.getTagList(TAG_HAVE_NEED, Constants.NBT.TAG_COMPOUND);
-        readMapFromNBT(listHaveNeed, haveNeed);
-
-        NBTTagList listNeed = compound.getTagList(TAG_NEED, Constants.NBT.TAG_COMPOUND);
-        readMapFromNBT(listNeed, need);
+        //Old format: the materials were split into three maps keyed by item id.
+        readOldMapFromNBT(compound.getTagList(TAG_DONT_NEED, Constants.NBT.TAG_COMPOUND), true, false);
+        readOldMapFromNBT(compound.getTagList(TAG_HAVE_NEED, Constants.NBT.TAG_COMPOUND), true, true);
+        readOldMapFromNBT(compound.getTagList(TAG_NEED, Constants.NBT.TAG_COMPOUND), false, true);
     }
 
-    private void readMapFromNBT(@NotNull NBTTagList list, @NotNull Map<Material, Integer> map)
+    private void readOldMapFromNBT(@NotNull NBTTagList list, boolean isHave, boolean isNeeded)
     {
         for (int i = 0; i < list.tagCount(); i++)
         {
-            NBTTagCompound tag = list.getCompoundTagAt(i);
-
-            Integer id = tag.getInteger(TAG_ID);
+            final NBTTagCompound tag = list.getCompoundTagAt(i);
+            final int key = tag.getInteger(TAG_ID) << OLD_ID_SHIFT;
+            final int quantity = tag.getInteger(TAG_QUANTITY);
 
-            map.put(new Material(id), tag.getInteger(TAG_QUANTITY));
+            change(key, isHave ? quantity : 0, isNeeded ? quantity : 0);
         }
     }
 
+    /**
+     * Writes the store as three parallel int arrays, leaving out materials which are neither stored nor needed.
+     * Reservations are not written.
+     *
+     * @param nbtTagCompound the compound to write to.
+     */
     public void writeToNBT(@NotNull NBTTagCompound nbtTagCompound)
     {
-        @NotNull NBTTagCompound compound = new NBTTagCompound();
-
-        @NotNull NBTTagList dontNeedList = new NBTTagList();
-        writeMapToNBT(dontNeedList, dontNeed);
-        compound.setTag(TAG_DONT_NEED, dontNeedList);
+        have.compact();
+        needed.compact();
 
-        @NotNull NBTTagList haveNeedList = new NBTTagList();
-        writeMapToNBT(haveNeedList, haveNeed);
-        compound.setTag(TAG_HAVE_NEED, haveNeedList);
+        final int[] haveKeys = have.keys();
+        final int[] neededKeys = needed.keys();
+        final int[] keys = new int[haveKeys.length + neededKeys.length];
+        final int[] haveAmounts = new int[keys.length];
+        final int[] neededAmounts = new int[keys.length];
 
-        @NotNull NBTTagList needList = new NBTTagList();
-        writeMapToNBT(needList, need);
-        compound.setTag(TAG_NEED, needList);
+        int size = 0;
+        for (final int key : haveKeys)
+        {
+            keys[size] = key;
+            haveAmounts[size] = have.get(key);
+            neededAmounts[size] = needed.get(key) - reserved.get(key);
+            size++;
+        }
+        for (final int key : neededKeys)
+        {
+            final int neededAmount = needed.get(key) - reserved.get(key);
+            if (have.get(key) == 0 && neededAmount > 0)
+            {
+                keys[size] = key;
+                neededAmounts[size] = neededAmount;
+                size++;
+            }
+        }
 
+        @NotNull final NBTTagCompound compound = new NBTTagCompound();
+        compound.setIntArray(TAG_KEYS, Arrays.copyOf(keys, size));
+        compound.setIntArray(TAG_HAVE, Arrays.copyOf(haveAmounts, size));
+        compound.setIntArray(TAG_NEEDED, Arrays.copyOf(neededAmounts, size));
         nbtTagCompound.setTag(TAG_MATERIAL_STORE, compound);
     }
 
-    private void writeMapToNBT(@NotNull NBTTagList compound, @NotNull Map<Material, Integer> map)
+    /**
+     * Receives the materials of {@link #forEachMaterial(MaterialVisitor)}.
+     */
+    @FunctionalInterface
+    public interface MaterialVisitor
     {
-        for (@NotNull Map.Entry<Material, Integer> entry : map.entrySet())
-        {
-            @NotNull NBTTagCompound tag = new NBTTagCompound();
-
-            tag.setInteger(TAG_ID, entry.getKey().hashCode());//hashCode is item ID
-            tag.setInteger(TAG_QUANTITY, entry.getValue());
-
-            compound.appendTag(tag);
-        }
+        /**
+         * Called for one material.
+         *
+         * @param key    material key.
+         * @param have   amount stored.
+         * @param needed amount needed.
+         */
+        void visit(int key, int have, int needed);
     }
 
     /**
@@ -495,4 +643,4 @@ public class MaterialStore
         INVENTORY,
         CHEST
     }
-}
\ No newline at end of file
+}
@@ -1,14 +1,24 @@
 package com.minecolonies.colony.materials;
 
+import com.minecolonies.configuration.Configurations;
+import com.minecolonies.util.IntCounterMap;
+import com.minecolonies.util.Log;
 import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
 import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.*;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Controller class for the whole material system.
+ * Keeps the colony totals of all {@link MaterialStore}s, every query is a single counter lookup.
+ * <p>
+ * Materials are identified by the item keys of {@link ItemAvailabilityIndex#getKey(ItemStack)}.
  * Created: December 14, 2015
  *
  * @author Colton
@@ -16,35 +26,98 @@ import java.util.*;
 public class MaterialSystem
 {
     /**
-     * Temporary variable to disabled MaterialHandling until I have time to complete it - Colton
+     * Value returned for blocks which have no item.
      */
-    public static final boolean isEnabled = false;
+    static final int NO_KEY = -1;
 
     /**
-     * This Map contains keeps track of how many extra materials we have in the colony. (Materials that aren't needed)
+     * How many materials are stored in the whole colony.
      */
     @NotNull
-    private Map<Material, Integer> materials = new HashMap<>();
+    private final IntCounterMap available = new IntCounterMap();
 
     /**
-     * Set of MaterialStores inside this MaterialSystem(Colony)
+     * How many materials are needed in the whole colony.
+     */
+    @NotNull
+    private final IntCounterMap needed = new IntCounterMap();
+
+    /**
+     * Materials stored in a store which doesn't need them, so they could be used for something else.
      */
     @NotNull
-    private Set<MaterialStore> stores = new HashSet<>();
+    private final IntCounterMap surplus = new IntCounterMap();
 
     /**
-     * So that we only have one Material reference per material inside of the system.
+     * Materials needed by a store which doesn't have them, the deliveryman try to keep this empty.
      */
     @NotNull
-    private Map<Integer, Material> materialCache = new HashMap<>();
+    private final IntCounterMap missing = new IntCounterMap();
 
     /**
-     * @return An unmodifiable version of the materials map
+     * Set of MaterialStores inside this MaterialSystem(Colony)
      */
     @NotNull
-    public Map<Material, Integer> getMaterials()
+    private final Set<MaterialStore> stores = new HashSet<>();
+
+    /**
+     * Checks if the stores should be updated by the inventories.
+     *
+     * @return true if the material ledger is enabled in the config.
+     */
+    public static boolean isEnabled()
+    {
+        return Configurations.enableMaterialLedger;
+    }
+
+    /**
+     * Material key of an item with a damage value.
+     *
+     * @param item   the item.
+     * @param damage the damage value, ignored for damageable items.
+     * @return the key.
+     */
+    public static int getKey(@NotNull Item item, int damage)
+    {
+        return ItemAvailabilityIndex.getKey(item, damage);
+    }
+
+    /**
+     * Material key of the item a block state drops as.
+     *
+     * @param state the block state.
+     * @return the key or {@link #NO_KEY} if the block has no item.
+     */
+    public static int getKey(@NotNull IBlockState state)
     {
-        return Collections.unmodifiableMap(materials);
+        final Block block = state.getBlock();
+        final Item item = Item.getItemFromBlock(block);
+        return item == null ? NO_KEY : getKey(item, block.damageDropped(state));
+    }
+
+    /**
+     * Material key of a stack.
+     *
+     * @param stack the stack.
+     * @return the key or {@link #NO_KEY} if the stack has no item.
+     */
+    public static int getKey(@Nullable ItemStack stack)
+    {
+        return stack == null || stack.getItem() == null ? NO_KEY : ItemAvailabilityIndex.getKey(stack);
+    }
+
+    /**
+     * Creates a stack of the material of a key.
+     *
+     * @param key    material key.
+     * @param amount the stack size, may be bigger than the maximum stack size.
+     * @return the stack or null if the item doesn't exist anymore.
+     */
+    @Nullable
+    public static ItemStack createStack(int key, int amount)
+    {
+        final Item item = Item.getItemById(ItemAvailabilityIndex.getItemId(key));
+        return item == null ? null : new ItemStack(item, amount, ItemAvailabilityIndex.getDamage(key));
     }
 
     /**
@@ -59,123 +132,184 @@ public class MaterialSystem
     /**
      * Finds how much extra(unneeded) items we have in the system(colony).
      *
-     * @param item Item you want to know how much of you have
+     * @param item   Item you want to know how much of you have
+     * @param damage damage value of the item
      * @return The number of unneeded item that is in the colony
      */
-    public int getMaterialCount(Item item)
+    public int getMaterialCount(@NotNull Item item, int damage)
     {
-        return getMaterialCount(getMaterial(item));
+        return surplus.get(getKey(item, damage));
     }
 
-    private int getMaterialCount(@NotNull Material material)
+    /**
+     * Finds how much extra(unneeded) blocks we have in the system(colony).
+     *
+     * @param state Block state you want to know how much of you have
+     * @return The number of unneeded block that is in the colony
+     */
+    public int getMaterialCount(@NotNull IBlockState state)
     {
-        Integer count = materials.get(material);
-
-        if (count == null)
-        {
-            removeItemFromCache(material);
-            return 0;
-        }
-
-        return count;
+        return surplus.get(getKey(state));
     }
 
-    @Nullable
-    Material getMaterial(@Nullable Item item)
+    /**
+     * @param key material key.
+     * @return how much of the material is stored in the colony.
+     */
+    public int getAvailable(int key)
     {
-        if (item == null)
-        {
-            return null;
-        }
-
-        return getMaterial(Item.getIdFromItem(item));
+        return available.get(key);
     }
 
-    private void removeItemFromCache(@NotNull Material material)
+    /**
+     * @param key material key.
+     * @return how much of the material all stores together need.
+     */
+    public int getNeeded(int key)
     {
-        materialCache.remove(material.getID());
+        return needed.get(key);
     }
 
     /**
-     * Gets a material from the cache, or create it if it doesn't exist.
-     *
-     * @return Material from cache
+     * @param key material key.
+     * @return how much of the material is stored where it isn't needed.
      */
-    private Material getMaterial(Integer id)
+    public int getSurplus(int key)
     {
-        Material material = materialCache.get(id);
-        if (material == null)
-        {
-            material = new Material(id);
-            materialCache.put(id, material);
-        }
+        return surplus.get(key);
+    }
 
-        return material;
+    /**
+     * @param key material key.
+     * @return how much of the material is needed where it isn't stored.
+     */
+    public int getMissing(int key)
+    {
+        return missing.get(key);
     }
 
     /**
-     * Finds how much extra(unneeded) blocks we have in the system(colony).
+     * Checks if the surplus of the colony covers what the stores are missing.
      *
-     * @param block Block you want to know how much of you have
-     * @return The number of unneeded block that is in the colony
+     * @param key material key.
+     * @return true if everything needed could be delivered from somewhere.
      */
-    public int getMaterialCount(Block block)
+    public boolean canCoverMissing(int key)
     {
-        return getMaterialCount(getMaterial(block));
+        return surplus.get(key) >= missing.get(key);
     }
 
-    @Nullable
-    Material getMaterial(@Nullable Block block)
+    /**
+     * Calls the visitor for every material some store is missing.
+     *
+     * @param visitor receives key and missing amount.
+     */
+    public void forEachMissing(@NotNull IntCounterMap.Visitor visitor)
     {
-        if (block == null)
-        {
-            return null;
-        }
-
-        return getMaterial(Block.getIdFromBlock(block));
+        missing.forEach(visitor);
     }
 
     /**
-     * Adds a material to the system.
+     * Books a material moved from one store to another in one step: the source is debited and the target credited.
+     * The colony totals only change by what the source didn't know of, which is logged and clamped like
+     * {@link MaterialStore#removeMaterial(int, int)}.
      *
-     * @param material What material you're adding
-     * @param quantity How much you're adding
+     * @param from     the store the material left.
+     * @param to       the store the material arrived in.
+     * @param key      material key.
+     * @param quantity how much was moved.
      */
-    void addMaterial(Material material, int quantity)
+    public void transfer(@NotNull MaterialStore from, @NotNull MaterialStore to, int key, int quantity)
     {
-        Integer count = materials.get(material);
-        if (count == null)
+        if (quantity <= 0 || from == to || key == NO_KEY)
         {
-            materials.put(material, quantity);
+            return;
         }
-        else
+
+        final int have = from.getHave(key);
+        if (have < quantity)
         {
-            materials.put(material, quantity + count);
+            Log.getLogger().warn(new QuantityNotFound("MaterialStore (transfer)", key, have, quantity).getMessage());
         }
+        from.change(key, -Math.min(have, quantity), 0);
+        to.change(key, quantity, 0);
     }
 
     /**
-     * Removes material from the system.
+     * Checks that the colony totals are the sum of all stores and rebuilds them if not.
      *
-     * @param material What material you're removing
-     * @param quantity How much you're removing
+     * @return the number of materials which were wrong.
      */
-    void removeMaterial(@NotNull Material material, int quantity)
+    public int checkConsistency()
     {
-        Integer count = materials.get(material);
-        if (count == null || count < quantity)
+        final IntCounterMap expectedAvailable = new IntCounterMap();
+        final IntCounterMap expectedNeeded = new IntCounterMap();
+        final IntCounterMap expectedSurplus = new IntCounterMap();
+        final IntCounterMap expectedMissing = new IntCounterMap();
+
+        for (@NotNull final MaterialStore store : stores)
         {
-            throw new QuantityNotFound("MaterialSystem", material.getID(), count == null ? 0 : count, quantity);
+            store.forEachMaterial((key, have, need) ->
+            {
+                expectedAvailable.add(key, have);
+                expectedNeeded.add(key, need);
+                expectedSurplus.add(key, Math.max(0, have - need));
+                expectedMissing.add(key, Math.max(0, need - have));
+            });
         }
-        else if (count == quantity)
+
+        final int errors = replaceIfDifferent(available, expectedAvailable)
+                             + replaceIfDifferent(needed, expectedNeeded)
+                             + replaceIfDifferent(surplus, expectedSurplus)
+                             + replaceIfDifferent(missing, expectedMissing);
+        if (errors > 0)
         {
-            materials.remove(material);
-            removeItemFromCache(material);
+            Log.getLogger().warn(String.format("MaterialSystem totals were off for %d materials, rebuilt them.", errors));
         }
-        else
+        return errors;
+    }
+
+    private static int replaceIfDifferent(@NotNull IntCounterMap actual, @NotNull IntCounterMap expected)
+    {
+        final int[] errors = {0};
+        actual.forEach((key, value) ->
+        {
+            if (expected.get(key) != value)
+            {
+                errors[0]++;
+            }
+        });
+        expected.forEach((key, value) ->
         {
-            materials.put(material, count - quantity);
+            if (actual.get(key) == 0)
+            {
+                errors[0]++;
+            }
+        });
+
+        if (errors[0] > 0)
+        {
+            actual.clear();
+            expected.forEach(actual::set);
         }
+        return errors[0];
+    }
+
+    /**
+     * Called by a store after one of its counters changed.
+     *
+     * @param key       material key.
+     * @param oldHave   amount stored before.
+     * @param oldNeeded amount needed before.
+     * @param newHave   amount stored now.
+     * @param newNeeded amount needed now.
+     */
+    void onStoreChanged(int key, int oldHave, int oldNeeded, int newHave, int newNeeded)
+    {
+        available.add(key, newHave - oldHave);
+        needed.add(key, newNeeded - oldNeeded);
+        surplus.add(key, Math.max(0, newHave - newNeeded) - Math.max(0, oldHave - oldNeeded));
+        missing.add(key, Math.max(0, newNeeded - newHave) - Math.max(0, oldNeeded - oldHave));
     }
 
     /**
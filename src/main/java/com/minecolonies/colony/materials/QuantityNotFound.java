@@ -16,14 +16,14 @@ class QuantityNotFound extends RuntimeException
      * Create a new Exception fo this type.
      *
      * @param location the location where this occured.
-     * @param id       the material id
+     * @param key      the material key
      * @param count    the number of items currently there
      * @param quantity the quantity needed/requested
      */
-    public QuantityNotFound(String location, int id, int count, int quantity)
+    public QuantityNotFound(String location, int key, int count, int quantity)
     {
-        super(location + " doesn't contain enough items: " + count + " < " + quantity + ". For material: " + id
-                + " Block: " + GameData.getBlockRegistry().getObjectById(id)
-                + " Item: " + GameData.getItemRegistry().getObjectById(id));
+        super(location + " doesn't contain enough items: " + count + " < " + quantity + ". For material: " + key
+                + " Item: " + GameData.getItemRegistry().getObjectById(ItemAvailabilityIndex.getItemId(key))
+                + " Damage: " + ItemAvailabilityIndex.getDamage(key));
     }
 }
@@ -3,6 +3,7 @@ package com.minecolonies.colony.workorders;
 import com.minecolonies.colony.CitizenData;
 import com.minecolonies.colony.Colony;
 import com.minecolonies.colony.WorkOrderView;
+import com.minecolonies.colony.jobs.AbstractJob;
 import com.minecolonies.util.Log;
 import io.netty.buffer.ByteBuf;
 import net.minecraft.nbt.NBTTagCompound;
@@ -194,6 +195,14 @@ public abstract class AbstractWorkOrder
         changed = false;
     }
 
+    /**
+     * Marks the workOrder as changed, so it is saved and sent to the clients again.
+     */
+    protected void markChanged()
+    {
+        changed = true;
+    }
+
     /**
      * Get the ID of the Work Order.
      *
@@ -301,6 +310,23 @@ public abstract class AbstractWorkOrder
      */
     public abstract void attemptToFulfill(Colony colony);
 
+    /**
+     * Attempt to give the Work Order to one worker without a Work Order.
+     *
+     * @param colony  The colony that owns the Work Order
+     * @param citizen The idle worker
+     * @return True if the worker claimed the Work Order
+     */
+    public abstract boolean attemptToFulfill(Colony colony, CitizenData citizen);
+
+    /**
+     * Gets the type of job which works on this Work Order.
+     *
+     * @return the job class.
+     */
+    @NotNull
+    public abstract Class<? extends AbstractJob> getJobType();
+
     /**
      * Writes the workOrders data to a byte buf for transition.
      *
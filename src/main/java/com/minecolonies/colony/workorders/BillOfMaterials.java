@@ -0,0 +1,197 @@
+package com.minecolonies.colony.workorders;
+
+import com.minecolonies.colony.materials.MaterialSystem;
+import com.minecolonies.util.IntCounterMap;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The materials a build work order still needs, keyed by item with their counts.
+ * <p>
+ * It is computed once when the builder starts a work order and then decremented for each placed block,
+ * so the structure doesn't have to be scanned again to find out what is missing.
+ */
+public class BillOfMaterials
+{
+    private static final String TAG_KEYS    = "keys";
+    private static final String TAG_AMOUNTS = "amounts";
+
+    /**
+     * Item key to the amount still needed.
+     */
+    @NotNull
+    private final IntCounterMap remaining = new IntCounterMap();
+
+    /**
+     * Adds a material to the bill.
+     *
+     * @param stack  the material.
+     * @param amount how many are needed.
+     */
+    public void add(@Nullable final ItemStack stack, final int amount)
+    {
+        if (stack != null && stack.getItem() != null && amount > 0)
+        {
+            remaining.add(MaterialSystem.getKey(stack), amount);
+        }
+    }
+
+    /**
+     * Takes a material from the bill after it has been used, never goes below 0.
+     *
+     * @param stack  the material.
+     * @param amount how many have been used.
+     * @return the amount still needed of this material.
+     */
+    public int remove(@Nullable final ItemStack stack, final int amount)
+    {
+        final int key = MaterialSystem.getKey(stack);
+        final int left = remaining.get(key);
+        if (left == 0 || amount <= 0)
+        {
+            return left;
+        }
+        return remaining.set(key, Math.max(0, left - amount));
+    }
+
+    /**
+     * @param stack the material.
+     * @return how many of the material are still needed.
+     */
+    public int getRemaining(@Nullable final ItemStack stack)
+    {
+        return remaining.get(MaterialSystem.getKey(stack));
+    }
+
+    /**
+     * Calls the visitor for every material still needed.
+     *
+     * @param visitor receives material key and amount.
+     */
+    public void forEachMaterial(@NotNull final IntCounterMap.Visitor visitor)
+    {
+        remaining.forEach(visitor);
+    }
+
+    /**
+     * @return the amount of all materials still needed together.
+     */
+    public int getTotalRemaining()
+    {
+        final int[] total = {0};
+        remaining.forEach((key, amount) -> total[0] += amount);
+        return total[0];
+    }
+
+    /**
+     * @return true if nothing is needed anymore.
+     */
+    public boolean isEmpty()
+    {
+        return remaining.isEmpty();
+    }
+
+    /**
+     * Creates one stack per material still needed, the stack size is the amount needed.
+     * The stacks may be bigger than the maximum stack size.
+     *
+     * @return the materials.
+     */
+    @NotNull
+    public List<ItemStack> getMaterials()
+    {
+        final List<ItemStack> materials = new ArrayList<>(remaining.size());
+        remaining.forEach((key, amount) ->
+        {
+            final ItemStack stack = MaterialSystem.createStack(key, amount);
+            if (stack != null)
+            {
+                materials.add(stack);
+            }
+        });
+        return materials;
+    }
+
+    /**
+     * Reads the bill from an NBTTagCompound.
+     *
+     * @param compound the compound.
+     * @return the bill.
+     */
+    @NotNull
+    public static BillOfMaterials readFromNBT(@NotNull final NBTTagCompound compound)
+    {
+        final BillOfMaterials bill = new BillOfMaterials();
+        final int[] keys = compound.getIntArray(TAG_KEYS);
+        final int[] amounts = compound.getIntArray(TAG_AMOUNTS);
+        for (int i = 0; i < keys.length && i < amounts.length; i++)
+        {
+            bill.remaining.add(keys[i], amounts[i]);
+        }
+        return bill;
+    }
+
+    /**
+     * Writes the bill to an NBTTagCompound.
+     *
+     * @param compound the compound.
+     */
+    public void writeToNBT(@NotNull final NBTTagCompound compound)
+    {
+        final int[] keys = remaining.keys();
+        final int[] amounts = new int[keys.length];
+        for (int i = 0; i < keys.length; i++)
+        {
+            amounts[i] = remaining.get(keys[i]);
+        }
+        compound.setIntArray(TAG_KEYS, keys);
+        compound.setIntArray(TAG_AMOUNTS, amounts);
+    }
+
+    /**
+     * Writes the materials of a bill to a buffer for the client.
+     *
+     * @param buf  the buffer.
+     * @param bill the bill, null is written as an empty bill.
+     */
+    public static void serialize(@NotNull final ByteBuf buf, @Nullable final BillOfMaterials bill)
+    {
+        if (bill == null)
+        {
+            buf.writeInt(0);
+            return;
+        }
+
+        buf.writeInt(bill.remaining.size());
+        bill.remaining.forEach((key, amount) ->
+        {
+            buf.writeInt(key);
+            buf.writeInt(amount);
+        });
+    }
+
+    /**
+     * Reads materials written by {@link #serialize(ByteBuf, BillOfMaterials)}.
+     *
+     * @param buf the buffer.
+     * @return the materials, see {@link #getMaterials()}.
+     */
+    @NotNull
+    public static List<ItemStack> deserialize(@NotNull final ByteBuf buf)
+    {
+        final BillOfMaterials bill = new BillOfMaterials();
+        final int size = buf.readInt();
+        for (int i = 0; i < size; i++)
+        {
+            final int key = buf.readInt();
+            bill.remaining.add(key, buf.readInt());
+        }
+        return bill.getMaterials();
+    }
+}
@@ -4,17 +4,21 @@ import com.minecolonies.colony.CitizenData;
 import com.minecolonies.colony.Colony;
 import com.minecolonies.colony.buildings.AbstractBuilding;
 import com.minecolonies.colony.buildings.BuildingBuilder;
+import com.minecolonies.colony.jobs.AbstractJob;
 import com.minecolonies.colony.jobs.JobBuilder;
 import com.minecolonies.lib.Constants;
 import com.minecolonies.util.BlockPosUtil;
 import com.minecolonies.util.LanguageHandler;
 import com.minecolonies.util.Log;
 import com.minecolonies.util.StructureWrapper;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.BlockPos;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Represents one building order to complete.
@@ -28,6 +32,12 @@ public class WorkOrderBuild extends AbstractWorkOrder
     private static final String TAG_IS_CLEARED        = "cleared";
     private static final String TAG_SCHEMATIC_NAME    = "structureName";
     private static final String TAG_BUILDING_ROTATION = "buildingRotation";
+    private static final String TAG_MATERIALS         = "materials";
+
+    /**
+     * Amount of placed blocks after which the clients get the remaining materials again.
+     */
+    private static final int MATERIAL_SYNC_INTERVAL = 16;
 
     private static final String DEFAULT_STYLE  = "default";
 
@@ -38,6 +48,13 @@ public class WorkOrderBuild extends AbstractWorkOrder
     private   int      upgradeLevel;
     private   String   upgradeName;
     private boolean hasSentMessageForThisWorkOrder = false;
+    @Nullable
+    private BillOfMaterials materials;
+    private int             materialsUsedSinceSync = 0;
+    /**
+     * Percentage of the structure which matches the world, -1 until the builder compared it.
+     */
+    private int             progress               = -1;
 
     /**
      * Unused constructor for reflection.
@@ -99,6 +116,10 @@ public class WorkOrderBuild extends AbstractWorkOrder
         cleared = compound.getBoolean(TAG_IS_CLEARED);
         structureName = compound.getString(TAG_SCHEMATIC_NAME);
         buildingRotation = compound.getInteger(TAG_BUILDING_ROTATION);
+        if (compound.hasKey(TAG_MATERIALS))
+        {
+            materials = BillOfMaterials.readFromNBT(compound.getCompoundTag(TAG_MATERIALS));
+        }
     }
 
     /**
@@ -119,6 +140,12 @@ public class WorkOrderBuild extends AbstractWorkOrder
         compound.setBoolean(TAG_IS_CLEARED, cleared);
         compound.setString(TAG_SCHEMATIC_NAME, structureName);
         compound.setInteger(TAG_BUILDING_ROTATION, buildingRotation);
+        if (materials != null)
+        {
+            @NotNull final NBTTagCompound materialsCompound = new NBTTagCompound();
+            materials.writeToNBT(materialsCompound);
+            compound.setTag(TAG_MATERIALS, materialsCompound);
+        }
     }
 
     /**
@@ -137,53 +164,59 @@ public class WorkOrderBuild extends AbstractWorkOrder
      * Attempt to fulfill the Work Order.
      * Override this with an implementation for the Work Order to find a Citizen to perform the job
      * <p>
-     * finds the first suitable builder for this job.
+     * finds the first suitable idle builder for this job.
      *
      * @param colony The colony that owns the Work Order.
      */
     @Override
     public void attemptToFulfill(@NotNull Colony colony)
     {
-        boolean sendMessage = true;
-        boolean hasBuilder = false;
-
-        for (@NotNull CitizenData citizen : colony.getCitizens().values())
+        for (@NotNull CitizenData citizen : colony.getWorkManager().getIdleWorkers(JobBuilder.class))
         {
-            JobBuilder job = citizen.getJob(JobBuilder.class);
-
-            if (job == null)
+            //  Claiming removes the builder from the idle workers, so stop iterating them
+            if (attemptToFulfill(colony, citizen))
             {
-                continue;
+                return;
             }
+        }
 
-            hasBuilder = true;
-
-            final int builderLevel = citizen.getWorkBuilding().getBuildingLevel();
-
-            // don't send a message if we have a valid worker that is busy.
-            if (canBuildHut(builderLevel, citizen, colony))
-            {
-                sendMessage = false;
-            }
+        if (!hasSentMessageForThisWorkOrder)
+        {
+            sendBuilderMessage(colony);
+        }
+    }
 
-            if (job.hasWorkOrder())
-            {
-                continue;
-            }
+    /**
+     * Gives the Work Order to an idle builder if he is able to build it.
+     *
+     * @param colony  The colony that owns the Work Order.
+     * @param citizen The idle builder.
+     * @return true if the builder claimed the Work Order.
+     */
+    @Override
+    public boolean attemptToFulfill(@NotNull Colony colony, @NotNull CitizenData citizen)
+    {
+        final JobBuilder job = citizen.getJob(JobBuilder.class);
 
-            //  A Build WorkOrder may be fulfilled by a Builder as long as any ONE of the following is true:
-            //  - The Builder's Work AbstractBuilding is built
-            //  - OR the WorkOrder is for the Builder's Work AbstractBuilding
-            //  - OR the WorkOrder is for the TownHall
-            if (canBuildHut(builderLevel, citizen, colony))
-            {
-                job.setWorkOrder(this);
-                this.setClaimedBy(citizen);
-                return;
-            }
+        //  A Build WorkOrder may be fulfilled by a Builder as long as any ONE of the following is true:
+        //  - The Builder's Work AbstractBuilding is built
+        //  - OR the WorkOrder is for the Builder's Work AbstractBuilding
+        //  - OR the WorkOrder is for the TownHall
+        if (job == null || citizen.getWorkBuilding() == null || !canBuildHut(citizen.getWorkBuilding().getBuildingLevel(), citizen, colony))
+        {
+            return false;
         }
 
-        sendBuilderMessage(colony, hasBuilder, sendMessage);
+        this.setClaimedBy(citizen);
+        job.setWorkOrder(this);
+        return true;
+    }
+
+    @NotNull
+    @Override
+    public Class<? extends AbstractJob> getJobType()
+    {
+        return JobBuilder.class;
     }
 
     @NotNull
@@ -199,6 +232,20 @@ public class WorkOrderBuild extends AbstractWorkOrder
         return upgradeName;
     }
 
+    /**
+     * Writes the workOrders data to a byte buf for transition.
+     * Build orders add the materials they still need.
+     *
+     * @param buf Buffer to write to
+     */
+    @Override
+    public void serializeViewNetworkData(@NotNull ByteBuf buf)
+    {
+        super.serializeViewNetworkData(buf);
+        BillOfMaterials.serialize(buf, materials);
+        buf.writeInt(progress);
+    }
+
     /**
      * Checks if a builder may accept this workOrder.
      *
@@ -212,11 +259,26 @@ public class WorkOrderBuild extends AbstractWorkOrder
                  || isLocationTownhall(colony, buildingLocation);
     }
 
-    private void sendBuilderMessage(@NotNull Colony colony, boolean hasBuilder, boolean sendMessage)
+    /**
+     * Tells the players once that no builder is able to take this order, the busy builders included.
+     *
+     * @param colony the colony of the order.
+     */
+    private void sendBuilderMessage(@NotNull Colony colony)
     {
-        if (hasSentMessageForThisWorkOrder)
+        boolean sendMessage = true;
+        boolean hasBuilder = false;
+
+        for (@NotNull CitizenData citizen : colony.getCitizensWithJob(JobBuilder.class))
         {
-            return;
+            hasBuilder = true;
+
+            // don't send a message if we have a valid worker that is busy.
+            if (canBuildHut(citizen.getWorkBuilding().getBuildingLevel(), citizen, colony))
+            {
+                sendMessage = false;
+                break;
+            }
         }
 
         if (hasBuilder && sendMessage)
@@ -298,4 +360,74 @@ public class WorkOrderBuild extends AbstractWorkOrder
     {
         this.cleared = cleared;
     }
+
+    /**
+     * Get the materials this work order still needs.
+     *
+     * @return the bill of materials or null if it hasn't been computed yet.
+     */
+    @Nullable
+    public BillOfMaterials getMaterials()
+    {
+        return materials;
+    }
+
+    /**
+     * Set the materials this work order needs, computed by the builder when he starts.
+     *
+     * @param materials the bill of materials, null to compute it again.
+     */
+    public void setMaterials(@Nullable BillOfMaterials materials)
+    {
+        this.materials = materials;
+        materialsUsedSinceSync = 0;
+        markChanged();
+    }
+
+    /**
+     * Takes a placed block from the bill of materials.
+     * The clients are updated when a material runs out and every few blocks, not on every block.
+     *
+     * @param stack the material of the placed block.
+     * @return true if the material was on the bill.
+     */
+    public boolean onMaterialUsed(@Nullable ItemStack stack)
+    {
+        if (materials == null || materials.getRemaining(stack) == 0)
+        {
+            return false;
+        }
+
+        materialsUsedSinceSync++;
+        if (materials.remove(stack, 1) == 0 || materialsUsedSinceSync >= MATERIAL_SYNC_INTERVAL)
+        {
+            materialsUsedSinceSync = 0;
+            markChanged();
+        }
+        return true;
+    }
+
+    /**
+     * Get how much of the structure is done.
+     *
+     * @return the percentage from 0 to 100, -1 if unknown.
+     */
+    public int getProgress()
+    {
+        return progress;
+    }
+
+    /**
+     * Set how much of the structure is done, the clients are only updated when it changed.
+     *
+     * @param progress the percentage from 0 to 100.
+     */
+    public void setProgress(final int progress)
+    {
+        if (this.progress != progress)
+        {
+            this.progress = progress;
+            markChanged();
+        }
+    }
 }
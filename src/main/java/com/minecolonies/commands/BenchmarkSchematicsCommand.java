@@ -0,0 +1,185 @@
+package com.minecolonies.commands;
+
+import com.minecolonies.colony.SchematicCatalog;
+import com.minecolonies.lib.Constants;
+import com.minecolonies.util.Log;
+import com.structures.helpers.CompactSchematic;
+import com.structures.helpers.StructureLoader;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TextComponentString;
+import net.minecraft.world.gen.structure.template.Template;
+import org.apache.commons.io.IOUtils;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compares how long reading the bundled schematics takes as vanilla templates and in the compact format.
+ * Both formats are read from memory, so only unpacking and parsing is measured. Runs on the structure loader thread,
+ * the results are sent from the server thread once it is done.
+ */
+public class BenchmarkSchematicsCommand extends AbstractSingleCommand
+{
+    public static final  String DESC             = "benchmark";
+    private static final int    DEFAULT_ROUNDS   = 5;
+    private static final int    MAX_ROUNDS       = 100;
+    private static final double NANOS_PER_MILLI  = 1_000_000D;
+    private static final String RESULT_SIZE      = "§2%d schematics: §ftemplates %d bytes, compact %d bytes";
+    private static final String RESULT_TIME      = "§2Per round: §ftemplates %.2f ms, compact %.2f ms";
+    private static final String NO_SCHEMATICS    = "No schematics found.";
+    private static final String STARTED          = "Benchmark started, this can take a while.";
+
+    /**
+     * Initialize this SubCommand with it's parents.
+     *
+     * @param parents an array of all the parents.
+     */
+    public BenchmarkSchematicsCommand(@NotNull final String... parents)
+    {
+        super(parents);
+    }
+
+    @NotNull
+    @Override
+    public String getCommandUsage(@NotNull final ICommandSender sender)
+    {
+        return super.getCommandUsage(sender) + "[rounds]";
+    }
+
+    @Override
+    public void execute(@NotNull final MinecraftServer server, @NotNull final ICommandSender sender, @NotNull final String... args) throws CommandException
+    {
+        final int rounds = Math.max(1, Math.min(MAX_ROUNDS, getIthArgument(args, 0, DEFAULT_ROUNDS)));
+        sender.addChatMessage(new TextComponentString(STARTED));
+        StructureLoader.execute(() ->
+        {
+            final List<String> results = benchmark(rounds);
+            server.addScheduledTask(() ->
+            {
+                for (@NotNull final String result : results)
+                {
+                    sender.addChatMessage(new TextComponentString(result));
+                }
+            });
+        });
+    }
+
+    /**
+     * Reads the bundled schematics in both formats.
+     *
+     * @param rounds how often every schematic is read.
+     * @return the messages with the results.
+     */
+    @NotNull
+    private static List<String> benchmark(final int rounds)
+    {
+        final List<byte[]> templates = new ArrayList<>();
+        final List<byte[]> compacts = new ArrayList<>();
+        long templateBytes = 0;
+        long compactBytes = 0;
+
+        for (@NotNull final SchematicCatalog.Entry entry : SchematicCatalog.getEntries())
+        {
+            final String resource = "/assets/" + Constants.MOD_ID + "/schematics/" + entry.getName() + CompactSchematic.TEMPLATE_EXTENSION;
+            try (InputStream stream = MinecraftServer.class.getResourceAsStream(resource))
+            {
+                if (stream == null)
+                {
+                    continue;
+                }
+                final byte[] template = IOUtils.toByteArray(stream);
+                final ByteArrayOutputStream compact = new ByteArrayOutputStream();
+                CompactSchematic.write(readTemplate(template), compact);
+
+                templates.add(template);
+                compacts.add(compact.toByteArray());
+                templateBytes += template.length;
+                compactBytes += compact.size();
+            }
+            catch (IOException e)
+            {
+                Log.getLogger().warn(String.format("Could not read schematic %s", entry.getName()), e);
+            }
+        }
+
+        final List<String> results = new ArrayList<>();
+        if (templates.isEmpty())
+        {
+            results.add(NO_SCHEMATICS);
+            return results;
+        }
+
+        try
+        {
+            long templateNanos = 0;
+            long compactNanos = 0;
+            for (int round = 0; round < rounds; round++)
+            {
+                long start = System.nanoTime();
+                for (@NotNull final byte[] template : templates)
+                {
+                    readTemplate(template);
+                }
+                templateNanos += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (@NotNull final byte[] compact : compacts)
+                {
+                    CompactSchematic.read(new ByteArrayInputStream(compact));
+                }
+                compactNanos += System.nanoTime() - start;
+            }
+
+            results.add(String.format(RESULT_SIZE, templates.size(), templateBytes, compactBytes));
+            results.add(String.format(RESULT_TIME, templateNanos / NANOS_PER_MILLI / rounds, compactNanos / NANOS_PER_MILLI / rounds));
+        }
+        catch (IOException e)
+        {
+            Log.getLogger().warn("Schematic benchmark failed", e);
+        }
+        return results;
+    }
+
+    /**
+     * Reads a template the way the template cache reads the vanilla files.
+     *
+     * @param data the gzipped NBT.
+     * @return the template.
+     * @throws IOException if the data can't be read.
+     */
+    @NotNull
+    private static Template readTemplate(@NotNull final byte[] data) throws IOException
+    {
+        final Template template = new Template();
+        template.read(CompressedStreamTools.readCompressed(new ByteArrayInputStream(data)));
+        return template;
+    }
+
+    @NotNull
+    @Override
+    public List<String> getTabCompletionOptions(
+                                                 @NotNull final MinecraftServer server,
+                                                 @NotNull final ICommandSender sender,
+                                                 @NotNull final String[] args,
+                                                 @Nullable final BlockPos pos)
+    {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isUsernameIndex(@NotNull final String[] args, final int index)
+    {
+        return false;
+    }
+}
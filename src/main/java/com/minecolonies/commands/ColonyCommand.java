@@ -20,6 +20,8 @@ public class ColonyCommand extends AbstractSplitCommand
         .put(RespawnCitizenCommand.DESC, new RespawnCitizenCommand(MinecoloniesCommand.DESC, ColonyCommand.DESC, RespawnCitizenCommand.DESC))
         .put(ShowColonyInfoCommand.DESC, new ShowColonyInfoCommand(MinecoloniesCommand.DESC, ColonyCommand.DESC, ShowColonyInfoCommand.DESC))
         .put(DeleteColonyCommand.DESC, new DeleteColonyCommand(MinecoloniesCommand.DESC, ColonyCommand.DESC, DeleteColonyCommand.DESC))
+        .put(ProfileColonyCommand.DESC, new ProfileColonyCommand(MinecoloniesCommand.DESC, ColonyCommand.DESC, ProfileColonyCommand.DESC))
+        .put(DeliveriesColonyCommand.DESC, new DeliveriesColonyCommand(MinecoloniesCommand.DESC, ColonyCommand.DESC, DeliveriesColonyCommand.DESC))
         .build();
 
     /**
@@ -0,0 +1,98 @@
+package com.minecolonies.commands;
+
+import com.minecolonies.util.Log;
+import com.structures.helpers.CompactSchematic;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TextComponentString;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Converts the structure templates and legacy schematics of a directory to the compact format.
+ */
+public class ConvertSchematicsCommand extends AbstractSingleCommand
+{
+    public static final  String DESC              = "convert";
+    private static final String DEFAULT_DIRECTORY = "minecolonies/scans";
+    private static final String NO_DIRECTORY      = "Directory %s not found.";
+    private static final String CONVERTED_MESSAGE = "Converted %d schematics in %s, %d failed.";
+
+    /**
+     * Initialize this SubCommand with it's parents.
+     *
+     * @param parents an array of all the parents.
+     */
+    public ConvertSchematicsCommand(@NotNull final String... parents)
+    {
+        super(parents);
+    }
+
+    @NotNull
+    @Override
+    public String getCommandUsage(@NotNull final ICommandSender sender)
+    {
+        return super.getCommandUsage(sender) + "[directory]";
+    }
+
+    @Override
+    public void execute(@NotNull final MinecraftServer server, @NotNull final ICommandSender sender, @NotNull final String... args) throws CommandException
+    {
+        final File directory = server.getFile(args.length == 0 ? DEFAULT_DIRECTORY : args[0]);
+        final File[] files = directory.listFiles();
+        if (files == null)
+        {
+            sender.addChatMessage(new TextComponentString(String.format(NO_DIRECTORY, directory)));
+            return;
+        }
+
+        int converted = 0;
+        int failed = 0;
+        for (@NotNull final File file : files)
+        {
+            final String name = file.getName();
+            final int extension = name.lastIndexOf('.');
+            if (extension < 0
+                  || !(name.endsWith(CompactSchematic.TEMPLATE_EXTENSION) || name.endsWith(CompactSchematic.SCHEMATIC_EXTENSION)))
+            {
+                continue;
+            }
+
+            try
+            {
+                CompactSchematic.convert(file, new File(directory, name.substring(0, extension) + CompactSchematic.EXTENSION));
+                converted++;
+            }
+            catch (IOException e)
+            {
+                Log.getLogger().warn(String.format("Could not convert %s", file), e);
+                failed++;
+            }
+        }
+        sender.addChatMessage(new TextComponentString(String.format(CONVERTED_MESSAGE, converted, directory, failed)));
+    }
+
+    @NotNull
+    @Override
+    public List<String> getTabCompletionOptions(
+                                                 @NotNull final MinecraftServer server,
+                                                 @NotNull final ICommandSender sender,
+                                                 @NotNull final String[] args,
+                                                 @Nullable final BlockPos pos)
+    {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isUsernameIndex(@NotNull final String[] args, final int index)
+    {
+        return false;
+    }
+}
@@ -0,0 +1,95 @@
+package com.minecolonies.commands;
+
+import com.minecolonies.colony.CitizenData;
+import com.minecolonies.colony.Colony;
+import com.minecolonies.colony.ColonyManager;
+import com.minecolonies.colony.jobs.JobDeliveryman;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TextComponentString;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Shows how much the deliverymen of a colony delivered.
+ */
+public class DeliveriesColonyCommand extends AbstractSingleCommand
+{
+    public static final  String DESC                       = "deliveries";
+    private static final String DELIVERYMAN_TEXT           = "§2%s: §f%d items on %d routes, %.1f items per hour";
+    private static final String NO_DELIVERYMEN             = "Colony %d has no deliverymen.";
+    private static final String NO_COLONY_FOUND_MESSAGE_ID = "Colony with ID %d not found.";
+    private static final String NO_ID                      = "Please give a colony id.";
+
+    /**
+     * Initialize this SubCommand with it's parents.
+     *
+     * @param parents an array of all the parents.
+     */
+    public DeliveriesColonyCommand(@NotNull final String... parents)
+    {
+        super(parents);
+    }
+
+    @NotNull
+    @Override
+    public String getCommandUsage(@NotNull final ICommandSender sender)
+    {
+        return super.getCommandUsage(sender) + "<ColonyId>";
+    }
+
+    @Override
+    public void execute(@NotNull final MinecraftServer server, @NotNull final ICommandSender sender, @NotNull final String... args) throws CommandException
+    {
+        final int colonyId = getIthArgument(args, 0, -1);
+        if (colonyId < 0)
+        {
+            sender.addChatMessage(new TextComponentString(NO_ID));
+            return;
+        }
+
+        final Colony colony = ColonyManager.getColony(colonyId);
+        if (colony == null)
+        {
+            sender.addChatMessage(new TextComponentString(String.format(NO_COLONY_FOUND_MESSAGE_ID, colonyId)));
+            return;
+        }
+
+        final Collection<CitizenData> deliverymen = colony.getCitizensWithJob(JobDeliveryman.class);
+        if (deliverymen.isEmpty())
+        {
+            sender.addChatMessage(new TextComponentString(String.format(NO_DELIVERYMEN, colonyId)));
+            return;
+        }
+
+        for (@NotNull final CitizenData citizen : deliverymen)
+        {
+            final JobDeliveryman job = (JobDeliveryman) citizen.getJob();
+            sender.addChatMessage(new TextComponentString(String.format(DELIVERYMAN_TEXT,
+              citizen.getName(), job.getItemsDelivered(), job.getRoutesCompleted(), job.getItemsPerHour())));
+        }
+    }
+
+    @NotNull
+    @Override
+    public List<String> getTabCompletionOptions(
+                                                 @NotNull final MinecraftServer server,
+                                                 @NotNull final ICommandSender sender,
+                                                 @NotNull final String[] args,
+                                                 @Nullable final BlockPos pos)
+    {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isUsernameIndex(@NotNull final String[] args, final int index)
+    {
+        return false;
+    }
+}
@@ -0,0 +1,147 @@
+package com.minecolonies.commands;
+
+import com.minecolonies.util.Log;
+import com.minecolonies.util.TickProfiler;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TextComponentString;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Controls the tick profiler and shows where a colony spends its ticks.
+ */
+public class ProfileColonyCommand extends AbstractSingleCommand
+{
+    public static final  String DESC              = "profile";
+    private static final String START             = "start";
+    private static final String STOP              = "stop";
+    private static final String RESET             = "reset";
+    private static final String EXPORT            = "export";
+    private static final String PROFILE_DIRECTORY = "minecolonies/profiles/";
+    private static final String TIME_FILE         = "colony-%d-time.folded";
+    private static final String ALLOCATION_FILE   = "colony-%d-alloc.folded";
+    private static final String STARTED           = "Profiler started.";
+    private static final String STOPPED           = "Profiler stopped.";
+    private static final String RESET_DONE        = "Profiler samples dropped.";
+    private static final String NOT_RUNNING       = "§2Profiler is not running, start it with %sstart";
+    private static final String EXPORTED          = "Flame graph stacks written to %s";
+    private static final String EXPORT_FAILED     = "Could not write the flame graph stacks, see the log.";
+    private static final String NO_ID             = "Please give a colony id.";
+    private static final int    REPORT_LINES      = 15;
+
+    /**
+     * Initialize this SubCommand with it's parents.
+     *
+     * @param parents an array of all the parents.
+     */
+    public ProfileColonyCommand(@NotNull final String... parents)
+    {
+        super(parents);
+    }
+
+    @NotNull
+    @Override
+    public String getCommandUsage(@NotNull final ICommandSender sender)
+    {
+        return super.getCommandUsage(sender) + "<ColonyId> [start|stop|reset|export]";
+    }
+
+    @Override
+    public void execute(@NotNull final MinecraftServer server, @NotNull final ICommandSender sender, @NotNull final String... args) throws CommandException
+    {
+        final int colonyId = getIthArgument(args, 0, -1);
+        if (colonyId < 0)
+        {
+            sender.addChatMessage(new TextComponentString(NO_ID));
+            return;
+        }
+
+        final String action = args.length > 1 ? args[1] : "";
+        switch (action)
+        {
+            case START:
+                TickProfiler.start();
+                sender.addChatMessage(new TextComponentString(STARTED));
+                return;
+            case STOP:
+                TickProfiler.stop();
+                sender.addChatMessage(new TextComponentString(STOPPED));
+                return;
+            case RESET:
+                TickProfiler.reset();
+                sender.addChatMessage(new TextComponentString(RESET_DONE));
+                return;
+            case EXPORT:
+                export(server, sender, colonyId);
+                return;
+            default:
+                break;
+        }
+
+        if (!TickProfiler.isEnabled())
+        {
+            sender.addChatMessage(new TextComponentString(String.format(NOT_RUNNING, super.getCommandUsage(sender) + colonyId + " ")));
+        }
+
+        final String root = TickProfiler.COLONY + colonyId;
+        for (@NotNull final String line : TickProfiler.getReport(root, root + ";" + TickProfiler.SERVER_TICK + "END", REPORT_LINES))
+        {
+            sender.addChatMessage(new TextComponentString(line));
+        }
+    }
+
+    /**
+     * Writes the time and the allocations of a colony as flame graph stacks.
+     *
+     * @param server   the server.
+     * @param sender   the command sender.
+     * @param colonyId the colony.
+     */
+    private static void export(@NotNull final MinecraftServer server, @NotNull final ICommandSender sender, final int colonyId)
+    {
+        final String root = TickProfiler.COLONY + colonyId;
+        final File timeFile = server.getFile(PROFILE_DIRECTORY + String.format(TIME_FILE, colonyId));
+        final File allocationFile = server.getFile(PROFILE_DIRECTORY + String.format(ALLOCATION_FILE, colonyId));
+        try
+        {
+            TickProfiler.exportFolded(root, timeFile, false);
+            TickProfiler.exportFolded(root, allocationFile, true);
+            sender.addChatMessage(new TextComponentString(String.format(EXPORTED, timeFile.getParent())));
+        }
+        catch (IOException e)
+        {
+            Log.getLogger().warn("Could not export the profile", e);
+            sender.addChatMessage(new TextComponentString(EXPORT_FAILED));
+        }
+    }
+
+    @NotNull
+    @Override
+    public List<String> getTabCompletionOptions(
+                                                 @NotNull final MinecraftServer server,
+                                                 @NotNull final ICommandSender sender,
+                                                 @NotNull final String[] args,
+                                                 @Nullable final BlockPos pos)
+    {
+        if (args.length == 2)
+        {
+            return Arrays.asList(START, STOP, RESET, EXPORT);
+        }
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isUsernameIndex(@NotNull final String[] args, final int index)
+    {
+        return false;
+    }
+}
@@ -0,0 +1,38 @@
+package com.minecolonies.commands;
+
+import com.google.common.collect.ImmutableMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+
+/**
+ * Schematics command.
+ * <p>
+ * Manages the sub commands working on the schematic files.
+ */
+public class SchematicsCommand extends AbstractSplitCommand
+{
+    public static final String DESC = "schematics";
+
+    private final ImmutableMap<String, ISubCommand> subCommands =
+      new ImmutableMap.Builder<String, ISubCommand>()
+        .put(ConvertSchematicsCommand.DESC, new ConvertSchematicsCommand(MinecoloniesCommand.DESC, SchematicsCommand.DESC, ConvertSchematicsCommand.DESC))
+        .put(BenchmarkSchematicsCommand.DESC, new BenchmarkSchematicsCommand(MinecoloniesCommand.DESC, SchematicsCommand.DESC, BenchmarkSchematicsCommand.DESC))
+        .build();
+
+    /**
+     * Initialize this command with it's parents.
+     *
+     * @param parent the parent of the command.
+     */
+    public SchematicsCommand(@NotNull final String parent)
+    {
+        super(parent, SchematicsCommand.DESC);
+    }
+
+    @Override
+    public Map<String, ISubCommand> getSubCommands()
+    {
+        return subCommands;
+    }
+}
@@ -48,11 +48,25 @@ public final class ConfigurationHandler
             builderInfiniteResources = config.get(CATEGORY_GAMEPLAY, "builderInfiniteResources", builderInfiniteResources, "Does Builder have infinite resources?").getBoolean();
             deliverymanInfiniteResources =
               config.get(CATEGORY_GAMEPLAY, "deliverymanInfiniteResources", deliverymanInfiniteResources, "Does Deliveryman have infinite resources?").getBoolean();
+            enableMaterialLedger =
+              config.get(CATEGORY_GAMEPLAY, "enableMaterialLedger", enableMaterialLedger, "Track the materials stored and needed in the colony inventories, used by builders and deliverymen when enabled (opt-in)").getBoolean();
             maxCitizens = config.get(CATEGORY_GAMEPLAY, "maxCitizens", maxCitizens, "Maximum number of citizens").getInt();
             alwaysRenderNameTag = config.get(CATEGORY_GAMEPLAY, "alwaysRenderNameTag", alwaysRenderNameTag, "Always render Citizen's name tag?").getBoolean();
             maxBlocksCheckedByBuilder =
               config.get(CATEGORY_GAMEPLAY, "maxBlocksCheckedByBuilder", maxBlocksCheckedByBuilder, "Limits the number of checked blocks per builder update").getInt();
             chatFrequency = config.get(CATEGORY_GAMEPLAY, "chatFrequency", chatFrequency, "Chat Frequency (seconds)").getInt();
+            structureCacheSize =
+              config.get(CATEGORY_GAMEPLAY, "structureCacheSize", structureCacheSize, "Number of parsed structures kept in memory").getInt();
+            exportCompactScans = config.get(CATEGORY_GAMEPLAY, "exportCompactScans", exportCompactScans,
+              "Also write every scan in the compact .mcs format next to the .nbt template").getBoolean();
+            placementBlocksPerTick = config.get(CATEGORY_GAMEPLAY, "placementBlocksPerTick", placementBlocksPerTick,
+              "Limits the number of blocks checked per tick when a structure is placed over time").getInt();
+            placementMillisPerTick = config.get(CATEGORY_GAMEPLAY, "placementMillisPerTick", placementMillisPerTick,
+              "Limits the milliseconds per tick spent placing a structure over time, including the lighting and block updates").getInt();
+            backgroundThreads = config.get(CATEGORY_GAMEPLAY, "backgroundThreads", backgroundThreads,
+              "Threads shared by the structure comparisons and the colony views sent to the players, 1 to prepare the views on the server thread. The colonies themselves tick on the server thread").getInt();
+            citizenObservationDistance = config.get(CATEGORY_GAMEPLAY, "citizenObservationDistance", citizenObservationDistance,
+              "Citizens further than this from every player skip their sounds, arm swings and block effects, 0 to always play them").getInt();
 
             enableInDevelopmentFeatures = config.get(CATEGORY_GAMEPLAY, "development", enableInDevelopmentFeatures,
               "Don't hide in-development features which do not work and may break your game").getBoolean();
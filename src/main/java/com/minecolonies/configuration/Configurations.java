@@ -13,15 +13,22 @@ public class Configurations
 
     //TODO change to false when material handling is implemented
     public static boolean deliverymanInfiniteResources = true;
+    public static boolean enableMaterialLedger         = false;
 
     //TODO remove config value and set maxCitizens based on the colony buildings/levels
     public static int     maxCitizens         = 4;
     public static boolean alwaysRenderNameTag = true;
 
     //TODO change count to agreed upon value, possibly remove if we think this shouldn't be a problem
-    public static int maxBlocksCheckedByBuilder = 1000;
-    public static int chatFrequency             = 30;
+    public static int maxBlocksCheckedByBuilder  = 1000;
+    public static int chatFrequency              = 30;
+    public static int structureCacheSize         = 32;
+    public static int placementBlocksPerTick     = 4096;
+    public static int placementMillisPerTick     = 10;
+    public static int backgroundThreads          = 2;
+    public static int citizenObservationDistance = 64;
 
+    public static boolean exportCompactScans          = false;
     public static boolean enableInDevelopmentFeatures = false;
 
     public static boolean pathfindingDebugDraw      = false;
@@ -13,7 +13,6 @@ import com.minecolonies.entity.ai.basic.AbstractEntityAIInteract;
 import com.minecolonies.entity.ai.minimal.*;
 import com.minecolonies.entity.pathfinding.PathNavigate;
 import com.minecolonies.inventory.InventoryCitizen;
-import com.minecolonies.lib.Constants;
 import com.minecolonies.network.messages.BlockParticleEffectMessage;
 import com.minecolonies.util.*;
 import net.minecraft.block.Block;
@@ -35,10 +34,10 @@ import net.minecraft.network.datasync.DataParameter;
 import net.minecraft.network.datasync.DataSerializers;
 import net.minecraft.network.datasync.EntityDataManager;
 import net.minecraft.util.*;
-import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
 import net.minecraftforge.fml.common.network.NetworkRegistry;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -56,8 +55,8 @@ public class EntityCitizen extends EntityAgeable implements INpc
     private static final DataParameter<Integer> DATA_IS_FEMALE       = EntityDataManager.<Integer>createKey(EntityCitizen.class, DataSerializers.VARINT);
     private static final DataParameter<Integer> DATA_COLONY_ID       = EntityDataManager.<Integer>createKey(EntityCitizen.class, DataSerializers.VARINT);
     private static final DataParameter<Integer> DATA_CITIZEN_ID      = EntityDataManager.<Integer>createKey(EntityCitizen.class, DataSerializers.VARINT);
-    private static final DataParameter<String>  DATA_MODEL           = EntityDataManager.<String>createKey(EntityCitizen.class, DataSerializers.STRING);
-    private static final DataParameter<String>  DATA_RENDER_METADATA = EntityDataManager.<String>createKey(EntityCitizen.class, DataSerializers.STRING);
+    private static final DataParameter<Integer> DATA_MODEL           = EntityDataManager.<Integer>createKey(EntityCitizen.class, DataSerializers.VARINT);
+    private static final DataParameter<Integer> DATA_RENDER_METADATA = EntityDataManager.<Integer>createKey(EntityCitizen.class, DataSerializers.VARINT);
 
     /**
      * The movement speed for the citizen to run away.
@@ -102,6 +101,26 @@ public class EntityCitizen extends EntityAgeable implements INpc
      */
     private static final double EXP_DIVIDER = 100.0;
 
+    /**
+     * Ticks between two looks for items to pick up.
+     */
+    private static final int PICKUP_INTERVAL = 4;
+
+    /**
+     * Horizontal range in which the citizen picks up items.
+     */
+    private static final float PICKUP_RANGE = 2.0F;
+
+    /**
+     * Ticks between two checks if a player is close enough to see and hear the citizen.
+     */
+    private static final int OBSERVATION_INTERVAL = 20;
+
+    /**
+     * Ticks between two checks if an unobserved citizen is stuck in a block.
+     */
+    private static final int UNOBSERVED_STUCK_CHECK_INTERVAL = 10;
+
     /**
      * Chance the citizen will rant about bad weather. 20 ticks per 60 seconds = 5 minutes.
      */
@@ -145,7 +164,7 @@ public class EntityCitizen extends EntityAgeable implements INpc
     private static Field navigatorField;
     protected Status                   status  = Status.IDLE;
     private   RenderBipedCitizen.Model modelId = RenderBipedCitizen.Model.SETTLER;
-    private String           renderMetadata;
+    private RenderBipedCitizen.Metadata renderMetadata = RenderBipedCitizen.Metadata.NONE;
     private ResourceLocation texture;
     private InventoryCitizen inventory;
     private int              colonyId;
@@ -157,6 +176,10 @@ public class EntityCitizen extends EntityAgeable implements INpc
      */
     private double skillModifier = 0;
     private boolean     female;
+    /**
+     * True if a player tracking the citizen is within the observation distance, only then it plays sounds and effects.
+     */
+    private boolean     observed = true;
     @Nullable
     private Colony      colony;
     @Nullable
@@ -282,8 +305,8 @@ public class EntityCitizen extends EntityAgeable implements INpc
             }
         }
 
-        dataManager.set(DATA_MODEL, modelId.name());
-        setRenderMetadata("");
+        dataManager.set(DATA_MODEL, modelId.ordinal());
+        setRenderMetadata(RenderBipedCitizen.Metadata.NONE);
 
 
         //  AI Tasks
@@ -311,10 +334,10 @@ public class EntityCitizen extends EntityAgeable implements INpc
         return level;
     }
 
-    public void setRenderMetadata(String metadata)
+    public void setRenderMetadata(@NotNull RenderBipedCitizen.Metadata metadata)
     {
         renderMetadata = metadata;
-        dataManager.set(DATA_RENDER_METADATA, renderMetadata);
+        dataManager.set(DATA_RENDER_METADATA, renderMetadata.ordinal());
         //Display some debug info always available while testing
         //tofo: remove this when in Beta!
         //Will help track down some hard to find bugs (Pathfinding etc.)
@@ -428,29 +451,17 @@ public class EntityCitizen extends EntityAgeable implements INpc
     }
 
     /**
-     * Collect exp orbs around the entity
+     * Collect exp orbs around the entity.
+     * The colony hands the orbs out to the collecting citizens in its next world tick.
      */
     public void gatherXp()
     {
-        for (@NotNull EntityXPOrb orb : getXPOrbsOnGrid())
+        if (colony != null)
         {
-            addExperience(orb.getXpValue() / 2);
-            orb.setDead();
+            colony.getXpCollector().requestCollection(this);
         }
     }
 
-    /**
-     * Defines the area in which the citizen automatically gathers experience
-     *
-     * @return a list of xp orbs around the entity
-     */
-    private List<EntityXPOrb> getXPOrbsOnGrid()
-    {
-        @NotNull AxisAlignedBB bb = new AxisAlignedBB(posX - 2, posY - 2, posZ - 2, posX + 2, posY + 2, posZ + 2);
-
-        return worldObj.getEntitiesWithinAABB(EntityXPOrb.class, bb);
-    }
-
     /**
      * Add experience points to citizen.
      * Increases the citizen level if he has sufficient experience.
@@ -671,8 +682,8 @@ public class EntityCitizen extends EntityAgeable implements INpc
         dataManager.register(DATA_TEXTURE, 0);
         dataManager.register(DATA_LEVEL, 0);
         dataManager.register(DATA_IS_FEMALE, 0);
-        dataManager.register(DATA_MODEL, RenderBipedCitizen.Model.SETTLER.name());
-        dataManager.register(DATA_RENDER_METADATA, "");
+        dataManager.register(DATA_MODEL, RenderBipedCitizen.Model.SETTLER.ordinal());
+        dataManager.register(DATA_RENDER_METADATA, RenderBipedCitizen.Metadata.NONE.ordinal());
     }
 
     @Override
@@ -728,17 +739,17 @@ public class EntityCitizen extends EntityAgeable implements INpc
             pickupItems();
             cleanupChatMessages();
             updateColonyServer();
-            if (worldObj.isDaytime() && !worldObj.isRaining())
+            inventory.updateMaterialStore();
+            updateObserved();
+            if (observed)
             {
-                SoundUtils.playRandomSound(worldObj, this);
-            }
-            else if (worldObj.isRaining() && 1 >= rand.nextInt(RANT_ABOUT_WEATHER_CHANCE) && this.getColonyJob() != null)
-            {
-                SoundUtils.playSoundAtCitizenWithChance(worldObj, this.getPosition(), this.getColonyJob().getBadWeatherSound(), 1);
+                playRandomSounds();
             }
         }
 
-        if (isEntityInsideOpaqueBlock() || isInsideOfMaterial(Material.LEAVES))
+        //  Nobody sees an unobserved citizen stuck in a block, so it only looks for it every few ticks
+        if ((observed || getOffsetTicks() % UNOBSERVED_STUCK_CHECK_INTERVAL == 0)
+              && (isEntityInsideOpaqueBlock() || isInsideOfMaterial(Material.LEAVES)))
         {
             getNavigator().moveAwayFromXYZ(this.getPosition(), MOVE_AWAY_RANGE, MOVE_AWAY_SPEED);
         }
@@ -763,35 +774,97 @@ public class EntityCitizen extends EntityAgeable implements INpc
 
             female = dataManager.get(DATA_IS_FEMALE) != 0;
             level = dataManager.get(DATA_LEVEL);
-            modelId = RenderBipedCitizen.Model.valueOf(dataManager.get(DATA_MODEL));
+            modelId = RenderBipedCitizen.Model.byOrdinal(dataManager.get(DATA_MODEL));
             textureId = dataManager.get(DATA_TEXTURE);
-            renderMetadata = dataManager.get(DATA_RENDER_METADATA);
+            renderMetadata = RenderBipedCitizen.Metadata.byOrdinal(dataManager.get(DATA_RENDER_METADATA));
             setTexture();
             dataManager.setClean();
         }
         updateArmSwingProgress();
     }
 
+    /**
+     * Checks once in a while if a player tracking the citizen is within the observation distance.
+     */
+    private void updateObserved()
+    {
+        if (getOffsetTicks() % OBSERVATION_INTERVAL != 0)
+        {
+            return;
+        }
+
+        final int distance = Configurations.citizenObservationDistance;
+        if (distance <= 0 || !(worldObj instanceof WorldServer))
+        {
+            observed = true;
+            return;
+        }
+
+        final double maxDistanceSq = (double) distance * distance;
+        observed = false;
+        for (@NotNull final EntityPlayer player : ((WorldServer) worldObj).getEntityTracker().getTrackingPlayers(this))
+        {
+            if (getDistanceSqToEntity(player) <= maxDistanceSq)
+            {
+                observed = true;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Plays the random citizen sounds and the rants about bad weather.
+     */
+    private void playRandomSounds()
+    {
+        if (worldObj.isDaytime() && !worldObj.isRaining())
+        {
+            SoundUtils.playRandomSound(worldObj, this);
+        }
+        else if (worldObj.isRaining() && 1 >= rand.nextInt(RANT_ABOUT_WEATHER_CHANCE) && this.getColonyJob() != null)
+        {
+            SoundUtils.playSoundAtCitizenWithChance(worldObj, this.getPosition(), this.getColonyJob().getBadWeatherSound(), 1);
+        }
+    }
+
+    /**
+     * Whether a player is close enough to see and hear the citizen.
+     * Sounds, arm swings and block particles are skipped for citizens nobody observes.
+     *
+     * @return true if observed, always true on the client.
+     */
+    public boolean isObserved()
+    {
+        return observed;
+    }
+
+    @Override
+    public void swingArm(final EnumHand hand)
+    {
+        if (observed)
+        {
+            super.swingArm(hand);
+        }
+    }
+
     /**
      * Pick up all items in a range around the citizen.
      */
     private void pickupItems()
     {
-        @NotNull List<EntityItem> retList = new ArrayList<>();
-        //I know streams look better but they are flawed in type erasure
-        for (Object o : worldObj.getEntitiesWithinAABB(EntityItem.class, getEntityBoundingBox().expand(2.0F, 0.0F, 2.0F)))
+        //  Citizens look for items every few ticks, not all in the same tick
+        if (!canPickUpLoot() || colony == null || getOffsetTicks() % PICKUP_INTERVAL != 0)
+        {
+            return;
+        }
+
+        for (@NotNull final EntityItem item : colony.getDroppedItems().getItemsWithin(getEntityBoundingBox().expand(PICKUP_RANGE, 0.0F, PICKUP_RANGE)))
         {
-            if (o instanceof EntityItem)
+            if (!item.isDead)
             {
-                retList.add((EntityItem) o);
+                tryPickupEntityItem(item);
             }
         }
-
-        retList.stream()
-          .filter(item -> item != null)
-          .filter(item -> !item.isDead)
-          .filter(item -> canPickUpLoot())
-          .forEach(this::tryPickupEntityItem);
     }
 
     private void cleanupChatMessages()
@@ -832,14 +905,7 @@ public class EntityCitizen extends EntityAgeable implements INpc
             return;
         }
 
-        RenderBipedCitizen.Model model = getModelID();
-
-        String textureBase = "textures/entity/";
-        textureBase += model.textureBase;
-        textureBase += female ? "Female" : "Male";
-
-        int moddedTextureId = (textureId % model.numTextures) + 1;
-        texture = new ResourceLocation(Constants.MOD_ID, textureBase + moddedTextureId + renderMetadata + ".png");
+        texture = getModelID().getTexture(female, textureId, renderMetadata);
     }
 
     public int getOffsetTicks()
@@ -1355,23 +1421,26 @@ public class EntityCitizen extends EntityAgeable implements INpc
         Block block = blockState.getBlock();
         if (breakBlock)
         {
-            if (!worldObj.isRemote)
+            if (observed)
             {
-                MineColonies.getNetwork().sendToAllAround(
-                  new BlockParticleEffectMessage(blockPos, worldObj.getBlockState(blockPos), BlockParticleEffectMessage.BREAK_BLOCK),
-                  new NetworkRegistry.TargetPoint(worldObj.provider.getDimension(), blockPos.getX(), blockPos.getY(), blockPos.getZ(), BLOCK_BREAK_SOUND_RANGE));
+                if (!worldObj.isRemote)
+                {
+                    MineColonies.getNetwork().sendToAllAround(
+                      new BlockParticleEffectMessage(blockPos, worldObj.getBlockState(blockPos), BlockParticleEffectMessage.BREAK_BLOCK),
+                      new NetworkRegistry.TargetPoint(worldObj.provider.getDimension(), blockPos.getX(), blockPos.getY(), blockPos.getZ(), BLOCK_BREAK_SOUND_RANGE));
+                }
+                worldObj.playSound(null,
+                  blockPos,
+                  block.getSoundType(blockState, worldObj, blockPos, this).getBreakSound(),
+                  SoundCategory.BLOCKS,
+                  block.getSoundType(blockState, worldObj, blockPos, this).getVolume(),
+                  block.getSoundType(blockState, worldObj, blockPos, this).getPitch());
             }
-            worldObj.playSound(null,
-              blockPos,
-              block.getSoundType(blockState, worldObj, blockPos, this).getBreakSound(),
-              SoundCategory.BLOCKS,
-              block.getSoundType(blockState, worldObj, blockPos, this).getVolume(),
-              block.getSoundType(blockState, worldObj, blockPos, this).getPitch());
             worldObj.setBlockToAir(blockPos);
 
             damageItemInHand(1);
         }
-        else
+        else if (observed)
         {
             //todo: might remove this
             if (!worldObj.isRemote)
@@ -6,6 +6,7 @@ import com.minecolonies.entity.ai.util.AIState;
 import com.minecolonies.entity.ai.util.AITarget;
 import com.minecolonies.entity.ai.util.ChatSpamFilter;
 import com.minecolonies.util.Log;
+import com.minecolonies.util.TickProfiler;
 import net.minecraft.entity.ai.EntityAIBase;
 import net.minecraft.world.World;
 import org.jetbrains.annotations.NotNull;
@@ -125,7 +126,29 @@ public abstract class AbstractAISkeleton<J extends AbstractJob> extends EntityAI
     @Override
     public final void updateTask()
     {
-        targetList.stream().anyMatch(this::checkOnTarget);
+        final boolean profiled = TickProfiler.isEnabled() && job.getColony() != null;
+        if (profiled)
+        {
+            TickProfiler.push(TickProfiler.COLONY, job.getColony().getID());
+            TickProfiler.push(TickProfiler.CITIZEN_AI);
+            TickProfiler.push(TickProfiler.JOB, job.getName());
+            TickProfiler.push(TickProfiler.STATE, state);
+        }
+
+        try
+        {
+            targetList.stream().anyMatch(this::checkOnTarget);
+        }
+        finally
+        {
+            if (profiled)
+            {
+                TickProfiler.pop();
+                TickProfiler.pop();
+                TickProfiler.pop();
+                TickProfiler.pop();
+            }
+        }
     }
 
     /**
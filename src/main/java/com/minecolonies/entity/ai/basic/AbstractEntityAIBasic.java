@@ -1,7 +1,11 @@
 package com.minecolonies.entity.ai.basic;
 
+import com.minecolonies.client.render.RenderBipedCitizen;
+import com.minecolonies.colony.Colony;
+import com.minecolonies.colony.buildings.AbstractBuilding;
 import com.minecolonies.colony.buildings.AbstractBuildingWorker;
 import com.minecolonies.colony.jobs.AbstractJob;
+import com.minecolonies.colony.materials.MaterialSystem;
 import com.minecolonies.entity.ai.item.handling.ItemStorage;
 import com.minecolonies.entity.ai.util.AIState;
 import com.minecolonies.entity.ai.util.AITarget;
@@ -120,6 +124,18 @@ public abstract class AbstractEntityAIBasic<J extends AbstractJob> extends Abstr
      */
     private int actionsDone = 0;
 
+    /**
+     * Another building of the colony which has the first needed item in its chest.
+     */
+    @Nullable
+    private BlockPos neededItemSource = null;
+
+    /**
+     * Material key and amount of the needed item reserved in the material store of {@link #neededItemSource}.
+     */
+    private int neededItemKey      = 0;
+    private int neededItemReserved = 0;
+
     /**
      * Sets up some important skeleton stuff for every ai.
      *
@@ -270,7 +286,7 @@ public abstract class AbstractEntityAIBasic<J extends AbstractJob> extends Abstr
      */
     protected void updateRenderMetaData()
     {
-        worker.setRenderMetadata("");
+        worker.setRenderMetadata(RenderBipedCitizen.Metadata.NONE);
     }
 
     /**
@@ -340,8 +356,13 @@ public abstract class AbstractEntityAIBasic<J extends AbstractJob> extends Abstr
         {
             itemsNeeded.clear();
             job.clearItemsNeeded();
+            clearNeededItemSource();
             return IDLE;
         }
+        if (neededItemSource != null)
+        {
+            return takeNeededItemFromColony(itemsCurrentlyNeeded.get(0));
+        }
         if (!walkToBuilding())
         {
             delay += DELAY_RECHECK;
@@ -352,11 +373,106 @@ public abstract class AbstractEntityAIBasic<J extends AbstractJob> extends Abstr
                 return NEEDS_ITEM;
             }
 
+            //Check if another building of the colony has it before bothering the player
+            final Colony colony = worker.getColony();
+            @Nullable final AbstractBuildingWorker ownBuilding = getOwnBuilding();
+            neededItemSource = colony == null || ownBuilding == null ? null : findNeededItemInColony(colony, first, ownBuilding.getLocation());
+            if (neededItemSource != null)
+            {
+                reserveNeededItem(colony, first);
+                return NEEDS_ITEM;
+            }
+
             requestWithoutSpam(first.getDisplayName());
         }
         return NEEDS_ITEM;
     }
 
+    /**
+     * Looks up the nearest other building chest containing the item in the colony item index.
+     * With the material ledger enabled chests which need all of it themselves are skipped.
+     *
+     * @param colony the colony.
+     * @param stack  the item needed.
+     * @param own    the location of the building of the worker, it is never returned.
+     * @return the location of the building or null if no other building has it.
+     */
+    @Nullable
+    static BlockPos findNeededItemInColony(@NotNull final Colony colony, @NotNull final ItemStack stack, @NotNull final BlockPos own)
+    {
+        final boolean useLedger = MaterialSystem.isEnabled();
+        final int key = MaterialSystem.getKey(stack);
+        //The nearest inventories may be the own hut, a field or need the item themselves, so all of them are candidates.
+        for (final BlockPos location : colony.getItemIndex().findNearest(stack, Integer.MAX_VALUE, own))
+        {
+            final AbstractBuilding building = colony.getBuilding(location);
+            if (!location.equals(own) && building != null
+                  && (!useLedger || building.getMaterialStore().getMaterialCount(key) > 0))
+            {
+                return location;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reserves the needed item in the material store of the source, so deliverymen and other workers leave it there.
+     *
+     * @param colony the colony.
+     * @param stack  the item needed.
+     */
+    private void reserveNeededItem(@NotNull final Colony colony, @NotNull final ItemStack stack)
+    {
+        final AbstractBuilding building = colony.getBuilding(neededItemSource);
+        if (MaterialSystem.isEnabled() && building != null)
+        {
+            neededItemKey = MaterialSystem.getKey(stack);
+            neededItemReserved = building.getMaterialStore().reserve(neededItemKey, stack.stackSize);
+        }
+    }
+
+    /**
+     * Forgets the source of the needed item and gives back its reservation.
+     */
+    private void clearNeededItemSource()
+    {
+        final Colony colony = worker.getColony();
+        final AbstractBuilding building = colony == null || neededItemSource == null ? null : colony.getBuilding(neededItemSource);
+        if (building != null && neededItemReserved > 0)
+        {
+            building.getMaterialStore().release(neededItemKey, neededItemReserved);
+        }
+        neededItemSource = null;
+        neededItemReserved = 0;
+    }
+
+    /**
+     * Walks to the building found by {@link #findNeededItemInColony(Colony, ItemStack, BlockPos)} and takes the needed amount of the item.
+     *
+     * @param stack the item needed.
+     * @return NEEDS_ITEM
+     */
+    @NotNull
+    private AIState takeNeededItemFromColony(@NotNull final ItemStack stack)
+    {
+        final Colony colony = worker.getColony();
+        final AbstractBuilding building = colony == null ? null : colony.getBuilding(neededItemSource);
+        if (building == null || building.getTileEntity() == null)
+        {
+            clearNeededItemSource();
+            return NEEDS_ITEM;
+        }
+
+        if (walkToBlock(neededItemSource))
+        {
+            return NEEDS_ITEM;
+        }
+
+        InventoryUtils.moveItems(building.getTileEntity(), worker.getInventoryCitizen(), stack);
+        clearNeededItemSource();
+        return NEEDS_ITEM;
+    }
+
     /**
      * Updates the itemsCurrentlyNeeded with current values.
      */
@@ -5,6 +5,9 @@ import com.minecolonies.blocks.ModBlocks;
 import com.minecolonies.colony.Colony;
 import com.minecolonies.colony.buildings.AbstractBuilding;
 import com.minecolonies.colony.jobs.JobBuilder;
+import com.minecolonies.colony.materials.MaterialStore;
+import com.minecolonies.colony.materials.MaterialSystem;
+import com.minecolonies.colony.workorders.BillOfMaterials;
 import com.minecolonies.colony.workorders.WorkOrderBuild;
 import com.minecolonies.colony.workorders.WorkOrderBuildDecoration;
 import com.minecolonies.configuration.Configurations;
@@ -29,6 +32,7 @@ import net.minecraft.util.math.MathHelper;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.BitSet;
 import java.util.List;
 
 import static com.minecolonies.entity.ai.util.AIState.*;
@@ -119,6 +123,24 @@ public class EntityAIStructureBuilder extends AbstractEntityAIStructure<JobBuild
         job.setWorkOrder(null);
         workFrom = null;
         job.setStructure(null);
+
+        @Nullable final MaterialStore store = getHutMaterialStore();
+        if (store != null)
+        {
+            store.clearNeeded();
+        }
+    }
+
+    /**
+     * Get the material store of the builder hut, in which the materials of the work order are needed.
+     *
+     * @return the store or null if the material ledger is disabled or the builder has no hut.
+     */
+    @Nullable
+    private MaterialStore getHutMaterialStore()
+    {
+        final AbstractBuilding hut = getOwnBuilding();
+        return MaterialSystem.isEnabled() && hut != null ? hut.getMaterialStore() : null;
     }
 
     private boolean checkIfExecute()
@@ -266,6 +288,7 @@ public class EntityAIStructureBuilder extends AbstractEntityAIStructure<JobBuild
             }
         }
         job.getStructure().setPosition(pos);
+        job.getStructure().startDiff();
         workOrder.setCleared(false);
     }
 
@@ -450,41 +473,107 @@ public class EntityAIStructureBuilder extends AbstractEntityAIStructure<JobBuild
             job.complete();
         }
 
-        //todo as soon as material handling has been implemented this should be set to work!
         //We need to deal with materials
         if (!Configurations.builderInfiniteResources)
         {
-            //TODO thread this
-            while (job.getStructure().findNextBlock())
+            final WorkOrderBuild workOrder = job.getWorkOrder();
+            if (workOrder == null)
+            {
+                return this.getState();
+            }
+
+            if (workOrder.getMaterials() == null)
             {
-                if (job.getStructure().doesStructureBlockEqualWorldBlock())
+                @Nullable final BillOfMaterials bill = computeBillOfMaterials();
+                if (bill == null)
                 {
-                    continue;
+                    return this.getState();
                 }
+                workOrder.setMaterials(bill);
 
-                @Nullable Block block = job.getStructure().getBlock();
-                @NotNull ItemStack itemstack = new ItemStack(block, 1);
-
-                Block worldBlock = BlockPosUtil.getBlock(world, job.getStructure().getBlockPosition());
-
-                if (itemstack.getItem() != null
-                      && block != null
-                      && block != Blocks.AIR
-                      && worldBlock != Blocks.BEDROCK
-                      && !(worldBlock instanceof AbstractBlockHut)
-                      && !isBlockFree(block, 0)
-                      && checkOrRequestItems(new ItemStack(block)))
+                //The hut needs what the bill needs, so the deliverymen can bring it before the builder asks.
+                @Nullable final MaterialStore store = getHutMaterialStore();
+                if (store != null)
                 {
-                    job.getStructure().reset();
-                    return this.getState();
+                    store.clearNeeded();
+                    bill.forEachMaterial(store::addNeededMaterial);
                 }
             }
+
+            //Have at least one of every material still needed before starting.
+            final List<ItemStack> materials = workOrder.getMaterials().getMaterials();
+            for (@NotNull final ItemStack stack : materials)
+            {
+                stack.stackSize = 1;
+            }
+            if (checkOrRequestItems(materials.toArray(new ItemStack[materials.size()])))
+            {
+                return this.getState();
+            }
             job.getStructure().reset();
             incrementBlock();
         }
         return AIState.BUILDER_STRUCTURE_STEP;
     }
 
+    /**
+     * Counts the materials of all blocks which still have to be placed, visiting only the positions the diff to the
+     * world found mismatched. If the diff isn't ready yet it is started when needed and the bill is computed in a
+     * later tick, the structure is never walked block by block on the server thread for it.
+     *
+     * @return the bill of materials, null if the diff isn't ready yet.
+     */
+    @Nullable
+    private BillOfMaterials computeBillOfMaterials()
+    {
+        final StructureWrapper structure = job.getStructure();
+        @Nullable final BitSet mismatches = structure.getMismatches();
+        if (mismatches == null)
+        {
+            if (!structure.isDiffRunning())
+            {
+                structure.startDiff();
+            }
+            return null;
+        }
+
+        @NotNull final BillOfMaterials materials = new BillOfMaterials();
+        for (int index = mismatches.nextSetBit(0); index >= 0; index = mismatches.nextSetBit(index + 1))
+        {
+            structure.setLocalIndex(index);
+            addMaterial(materials, structure);
+        }
+        structure.reset();
+        return materials;
+    }
+
+    /**
+     * Adds the material of the current block of the structure, if the builder needs one for it.
+     *
+     * @param materials the bill of materials.
+     * @param structure the structure at a block which differs from the world.
+     */
+    private void addMaterial(@NotNull final BillOfMaterials materials, @NotNull final StructureWrapper structure)
+    {
+        @Nullable final Block block = structure.getBlock();
+        @Nullable final IBlockState blockState = structure.getBlockState();
+        if (block == null || blockState == null || block == Blocks.AIR || block instanceof AbstractBlockHut)
+        {
+            return;
+        }
+
+        final Block worldBlock = BlockPosUtil.getBlock(world, structure.getBlockPosition());
+        if (worldBlock == Blocks.BEDROCK
+              || worldBlock instanceof AbstractBlockHut
+              || isBlockFree(block, block.getMetaFromState(blockState))
+              || (block instanceof BlockBed && blockState.getValue(BlockBed.PART) == BlockBed.EnumPartType.HEAD))
+        {
+            return;
+        }
+
+        materials.add(BlockUtils.getItemStackFromBlockState(blockState), 1);
+    }
+
     /**
      * Defines blocks that can be built for free
      *
@@ -639,6 +728,16 @@ public class EntityAIStructureBuilder extends AbstractEntityAIStructure<JobBuild
             if (placeBlock(coords, block, blockState))
             {
                 setTileEntity(coords);
+                final WorkOrderBuild workOrder = job.getWorkOrder();
+                if (workOrder != null && !isBlockFree(block, block.getMetaFromState(blockState)))
+                {
+                    final ItemStack material = BlockUtils.getItemStackFromBlockState(blockState);
+                    @Nullable final MaterialStore store = getHutMaterialStore();
+                    if (workOrder.onMaterialUsed(material) && store != null)
+                    {
+                        store.removeNeededMaterial(MaterialSystem.getKey(material), 1);
+                    }
+                }
             }
             else
             {
@@ -647,6 +746,20 @@ public class EntityAIStructureBuilder extends AbstractEntityAIStructure<JobBuild
             }
             worker.swingArm(worker.getActiveHand());
         }
+        updateProgress();
+    }
+
+    /**
+     * Tells the work order how much of the structure is done, once the diff to the world is ready.
+     */
+    private void updateProgress()
+    {
+        final WorkOrderBuild workOrder = job.getWorkOrder();
+        final int completion = job.getStructure().getCompletion();
+        if (workOrder != null && completion >= 0)
+        {
+            workOrder.setProgress(completion);
+        }
     }
 
     //TODO handle resources
@@ -0,0 +1,384 @@
+package com.minecolonies.entity.ai.citizen.deliveryman;
+
+import com.minecolonies.colony.CitizenData;
+import com.minecolonies.colony.Colony;
+import com.minecolonies.colony.buildings.AbstractBuilding;
+import com.minecolonies.colony.buildings.AbstractBuildingWorker;
+import com.minecolonies.colony.jobs.AbstractJob;
+import com.minecolonies.colony.jobs.JobDeliveryman;
+import com.minecolonies.colony.materials.ItemAvailabilityIndex;
+import com.minecolonies.colony.materials.MaterialStore;
+import com.minecolonies.colony.materials.MaterialSystem;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Collects the items the workers of a colony are waiting for and batches them into multi-stop routes.
+ * <p>
+ * Sources are looked up in the {@link ItemAvailabilityIndex} of the colony. Requests are ranked by the estimated
+ * length of the walk from the deliveryman over all sources to the target, estimated the way the pathfinder does.
+ * With the material ledger enabled the materials the building stores are missing are delivered too,
+ * only the surplus of a source is taken and the planned pickups are reserved in the source stores.
+ * Without it the pickups other routes still have to do are left out of the amount a source offers.
+ */
+public final class DeliveryPlanner
+{
+    /**
+     * Maximum amount of requests served by one route.
+     */
+    private static final int MAX_REQUESTS_PER_ROUTE = 8;
+
+    /**
+     * Slots kept free so the deliveryman doesn't dump his load because his inventory is full.
+     */
+    private static final int RESERVED_SLOTS = 1;
+
+    /**
+     * Private constructor to hide the implicit public one.
+     */
+    private DeliveryPlanner()
+    {
+        /*
+         * Intentionally left empty.
+         */
+    }
+
+    /**
+     * Collects the items all workers of the colony are currently waiting for.
+     *
+     * @param colony the colony.
+     * @return the requests.
+     */
+    @NotNull
+    public static List<DeliveryRequest> collectRequests(@NotNull final Colony colony)
+    {
+        final List<DeliveryRequest> requests = new ArrayList<>();
+        for (@NotNull final CitizenData citizen : colony.getEmployedCitizens())
+        {
+            final AbstractJob job = citizen.getJob();
+            final AbstractBuildingWorker building = citizen.getWorkBuilding();
+            if (job == null || building == null || job instanceof JobDeliveryman || !job.isMissingNeededItem())
+            {
+                continue;
+            }
+
+            for (@NotNull final ItemStack needed : job.getItemsNeeded())
+            {
+                requests.add(new DeliveryRequest(building.getLocation(), needed, citizen.getId()));
+            }
+        }
+
+        if (MaterialSystem.isEnabled())
+        {
+            for (@NotNull final AbstractBuilding building : colony.getBuildings().values())
+            {
+                addMissingMaterials(requests, building);
+            }
+        }
+        return requests;
+    }
+
+    /**
+     * Adds a request for every material the store of a building needs and doesn't have,
+     * unless a worker of the building already asked for it.
+     *
+     * @param requests the requests collected so far.
+     * @param building the building.
+     */
+    private static void addMissingMaterials(@NotNull final List<DeliveryRequest> requests, @NotNull final AbstractBuilding building)
+    {
+        final MaterialStore store = building.getMaterialStore();
+        final BlockPos location = building.getLocation();
+        store.forEachMissing((key, amount) ->
+        {
+            //Reserved materials are held back for somebody else, they are no need of the building.
+            final int needed = store.getNeeded(key) - store.getReserved(key);
+            if (needed <= store.getHave(key) || isRequested(requests, location, key))
+            {
+                return;
+            }
+
+            final ItemStack stack = MaterialSystem.createStack(key, needed);
+            if (stack != null)
+            {
+                requests.add(new DeliveryRequest(location, stack, DeliveryRequest.NO_CITIZEN));
+            }
+        });
+    }
+
+    private static boolean isRequested(@NotNull final List<DeliveryRequest> requests, @NotNull final BlockPos target, final int key)
+    {
+        for (@NotNull final DeliveryRequest request : requests)
+        {
+            if (request.getTarget().equals(target) && MaterialSystem.getKey(request.getStack()) == key)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Plans the next route for a deliveryman.
+     *
+     * @param colony       the colony.
+     * @param start        where the deliveryman starts.
+     * @param freeSlots    free slots in the inventory of the deliveryman.
+     * @param activeRoutes routes of the other deliverymen, their requests are skipped.
+     * @param worldTime    the current world time.
+     * @return the route or null if there is nothing to deliver.
+     */
+    @Nullable
+    public static DeliveryRoute plan(
+                                      @NotNull final Colony colony,
+                                      @NotNull final BlockPos start,
+                                      final int freeSlots,
+                                      @NotNull final Collection<DeliveryRoute> activeRoutes,
+                                      final long worldTime)
+    {
+        final List<Candidate> candidates = new ArrayList<>();
+        for (@NotNull final DeliveryRequest request : collectRequests(colony))
+        {
+            final Candidate candidate = createCandidate(colony, start, request, activeRoutes);
+            if (candidate != null)
+            {
+                candidates.add(candidate);
+            }
+        }
+        if (candidates.isEmpty())
+        {
+            return null;
+        }
+
+        candidates.sort(Comparator.comparingLong(candidate -> candidate.cost));
+
+        final List<Candidate> chosen = new ArrayList<>();
+        int slotsLeft = freeSlots - RESERVED_SLOTS;
+        for (@NotNull final Candidate candidate : candidates)
+        {
+            if (chosen.size() >= MAX_REQUESTS_PER_ROUTE)
+            {
+                break;
+            }
+            if (candidate.slots <= slotsLeft)
+            {
+                chosen.add(candidate);
+                slotsLeft -= candidate.slots;
+            }
+        }
+        if (chosen.isEmpty())
+        {
+            return null;
+        }
+
+        final List<DeliveryRoute.Stop> pickups = new ArrayList<>();
+        final List<DeliveryRoute.Stop> dropOffs = new ArrayList<>();
+        final List<DeliveryRequest> requests = new ArrayList<>();
+        for (@NotNull final Candidate candidate : chosen)
+        {
+            pickups.addAll(candidate.pickups);
+            dropOffs.add(new DeliveryRoute.Stop(candidate.request.getTarget(), candidate.amount, false));
+            requests.add(candidate.request);
+        }
+
+        if (MaterialSystem.isEnabled())
+        {
+            for (@NotNull final DeliveryRoute.Stop pickup : pickups)
+            {
+                pickup.reserve(colony.getBuilding(pickup.getLocation()));
+            }
+        }
+
+        final List<DeliveryRoute.Stop> stops = orderByNearestNeighbour(pickups, start);
+        final BlockPos lastPickup = stops.get(stops.size() - 1).getLocation();
+        stops.addAll(orderByNearestNeighbour(dropOffs, lastPickup));
+        return new DeliveryRoute(stops, requests, worldTime);
+    }
+
+    /**
+     * Estimates how many blocks a citizen walks between two positions. This is the Manhattan distance the pathfinder
+     * uses as its heuristic, it never overestimates the path and, unlike the straight distance, it grows with the
+     * detours a citizen has to walk along the block grid.
+     *
+     * @param from where the walk starts.
+     * @param to   where the walk ends.
+     * @return the estimated path length in blocks.
+     */
+    static long estimatePathLength(@NotNull final BlockPos from, @NotNull final BlockPos to)
+    {
+        return (long) Math.abs(from.getX() - to.getX()) + Math.abs(from.getY() - to.getY()) + Math.abs(from.getZ() - to.getZ());
+    }
+
+    /**
+     * Finds the sources of a request and estimates its cost.
+     *
+     * @param colony       the colony.
+     * @param start        where the deliveryman starts.
+     * @param request      the request.
+     * @param activeRoutes routes of the other deliverymen.
+     * @return the candidate or null if it can't or doesn't need to be served.
+     */
+    @Nullable
+    private static Candidate createCandidate(
+                                              @NotNull final Colony colony,
+                                              @NotNull final BlockPos start,
+                                              @NotNull final DeliveryRequest request,
+                                              @NotNull final Collection<DeliveryRoute> activeRoutes)
+    {
+        final ItemAvailabilityIndex index = colony.getItemIndex();
+        final ItemStack stack = request.getStack();
+        final BlockPos target = request.getTarget();
+        final int key = MaterialSystem.getKey(stack);
+
+        for (@NotNull final DeliveryRoute route : activeRoutes)
+        {
+            if (route.reserves(target, key))
+            {
+                return null;
+            }
+        }
+
+        //Nothing is stored anywhere without being needed there, so no source would give anything.
+        final boolean useLedger = MaterialSystem.isEnabled();
+        if (useLedger && colony.getMaterialSystem().getSurplus(key) <= 0)
+        {
+            return null;
+        }
+
+        //The worker takes what is already in his own hut himself.
+        final int missing = stack.stackSize - index.getAmountAt(target, stack);
+        if (missing <= 0)
+        {
+            return null;
+        }
+
+        final List<DeliveryRoute.Stop> pickups = new ArrayList<>();
+        int collected = 0;
+        long cost = 0;
+        BlockPos position = start;
+        //With the ledger sources may give less than they store, so all of them are candidates.
+        final int wanted = useLedger ? Integer.MAX_VALUE : (missing + index.getAmountAt(target, stack));
+        for (@NotNull final BlockPos source : index.findNearest(stack, wanted, target))
+        {
+            if (collected >= missing)
+            {
+                break;
+            }
+            final AbstractBuilding building = colony.getBuilding(source);
+            if (source.equals(target) || building == null)
+            {
+                continue;
+            }
+
+            //What the source building needs itself, or holds back for another worker, is not taken.
+            int available = index.getAmountAt(source, stack);
+            if (useLedger)
+            {
+                available = Math.min(available, building.getMaterialStore().getMaterialCount(key));
+            }
+            else
+            {
+                for (@NotNull final DeliveryRoute route : activeRoutes)
+                {
+                    available -= route.getPendingPickup(source, key);
+                }
+            }
+            if (available <= 0)
+            {
+                continue;
+            }
+
+            final int amount = Math.min(missing - collected, available);
+            pickups.add(new DeliveryRoute.Stop(source, copyWithSize(stack, amount), true));
+            collected += amount;
+            cost += estimatePathLength(position, source);
+            position = source;
+        }
+        if (collected <= 0)
+        {
+            return null;
+        }
+        cost += estimatePathLength(position, target);
+
+        final int maxStackSize = Math.max(1, stack.getMaxStackSize());
+        final int slots = (collected + maxStackSize - 1) / maxStackSize;
+        return new Candidate(request, pickups, copyWithSize(stack, collected), slots, cost);
+    }
+
+    /**
+     * Orders stops so that each next stop is the closest one to the previous.
+     *
+     * @param stops the stops.
+     * @param from  where the tour starts.
+     * @return the ordered stops.
+     */
+    @NotNull
+    private static List<DeliveryRoute.Stop> orderByNearestNeighbour(@NotNull final List<DeliveryRoute.Stop> stops, @NotNull final BlockPos from)
+    {
+        final List<DeliveryRoute.Stop> remaining = new ArrayList<>(stops);
+        final List<DeliveryRoute.Stop> ordered = new ArrayList<>(stops.size());
+        BlockPos current = from;
+        while (!remaining.isEmpty())
+        {
+            DeliveryRoute.Stop nearest = remaining.get(0);
+            long nearestDistance = Long.MAX_VALUE;
+            for (@NotNull final DeliveryRoute.Stop stop : remaining)
+            {
+                final long distance = estimatePathLength(current, stop.getLocation());
+                if (distance < nearestDistance)
+                {
+                    nearest = stop;
+                    nearestDistance = distance;
+                }
+            }
+            remaining.remove(nearest);
+            ordered.add(nearest);
+            current = nearest.getLocation();
+        }
+        return ordered;
+    }
+
+    @NotNull
+    private static ItemStack copyWithSize(@NotNull final ItemStack stack, final int size)
+    {
+        final ItemStack copy = stack.copy();
+        copy.stackSize = size;
+        return copy;
+    }
+
+    /**
+     * A request which can be served, with its pickups and estimated cost.
+     */
+    private static final class Candidate
+    {
+        @NotNull
+        private final DeliveryRequest          request;
+        @NotNull
+        private final List<DeliveryRoute.Stop> pickups;
+        @NotNull
+        private final ItemStack                amount;
+        private final int                      slots;
+        private final long                     cost;
+
+        private Candidate(
+                           @NotNull final DeliveryRequest request,
+                           @NotNull final List<DeliveryRoute.Stop> pickups,
+                           @NotNull final ItemStack amount,
+                           final int slots,
+                           final long cost)
+        {
+            this.request = request;
+            this.pickups = pickups;
+            this.amount = amount;
+            this.slots = slots;
+            this.cost = cost;
+        }
+    }
+}
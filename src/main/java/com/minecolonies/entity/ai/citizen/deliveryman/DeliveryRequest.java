@@ -0,0 +1,73 @@
+package com.minecolonies.entity.ai.citizen.deliveryman;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An item a worker is waiting for, which should be brought to his building.
+ */
+public class DeliveryRequest
+{
+    /**
+     * Citizen id of requests for the needs of a building store, which no worker asked for yet.
+     */
+    public static final int NO_CITIZEN = -1;
+
+    /**
+     * The building the items have to be brought to.
+     */
+    @NotNull
+    private final BlockPos  target;
+
+    /**
+     * The requested item, the stack size is the requested amount.
+     */
+    @NotNull
+    private final ItemStack stack;
+
+    /**
+     * The id of the citizen who needs the item, {@link #NO_CITIZEN} if the building needs it.
+     */
+    private final int       citizenId;
+
+    /**
+     * Creates a new request.
+     *
+     * @param target    the building the items have to be brought to.
+     * @param stack     the requested item and amount.
+     * @param citizenId the id of the citizen who needs the item.
+     */
+    public DeliveryRequest(@NotNull final BlockPos target, @NotNull final ItemStack stack, final int citizenId)
+    {
+        this.target = target;
+        this.stack = stack;
+        this.citizenId = citizenId;
+    }
+
+    /**
+     * @return the building the items have to be brought to.
+     */
+    @NotNull
+    public BlockPos getTarget()
+    {
+        return target;
+    }
+
+    /**
+     * @return the requested item, the stack size is the requested amount.
+     */
+    @NotNull
+    public ItemStack getStack()
+    {
+        return stack;
+    }
+
+    /**
+     * @return the id of the citizen who needs the item.
+     */
+    public int getCitizenId()
+    {
+        return citizenId;
+    }
+}
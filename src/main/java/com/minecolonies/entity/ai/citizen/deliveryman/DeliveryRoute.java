@@ -0,0 +1,290 @@
+package com.minecolonies.entity.ai.citizen.deliveryman;
+
+import com.minecolonies.colony.Colony;
+import com.minecolonies.colony.buildings.AbstractBuilding;
+import com.minecolonies.colony.materials.MaterialSystem;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A planned tour of a deliveryman, all pickups first and then all drop-offs.
+ */
+public class DeliveryRoute
+{
+    /**
+     * Ticks after which an unfinished route is given up, 5 minutes.
+     */
+    private static final long MAX_ROUTE_TICKS = 20L * 60 * 5;
+
+    /**
+     * The stops in the order they are visited.
+     */
+    @NotNull
+    private final List<Stop>            stops;
+
+    /**
+     * The requests served by this route.
+     */
+    @NotNull
+    private final List<DeliveryRequest> requests;
+
+    /**
+     * World time the route was started at.
+     */
+    private final long                  startTime;
+
+    /**
+     * Index of the stop the deliveryman is heading to.
+     */
+    private int currentStop    = 0;
+
+    /**
+     * Amount of items dropped off so far.
+     */
+    private int itemsDelivered = 0;
+
+    /**
+     * Creates a route.
+     *
+     * @param stops     the stops in the order they are visited.
+     * @param requests  the requests served by this route.
+     * @param startTime world time the route was started at.
+     */
+    DeliveryRoute(@NotNull final List<Stop> stops, @NotNull final List<DeliveryRequest> requests, final long startTime)
+    {
+        this.stops = new ArrayList<>(stops);
+        this.requests = new ArrayList<>(requests);
+        this.startTime = startTime;
+    }
+
+    /**
+     * @return the stop the deliveryman is heading to, null if the route is finished.
+     */
+    @Nullable
+    public Stop getCurrentStop()
+    {
+        return isFinished() ? null : stops.get(currentStop);
+    }
+
+    /**
+     * Continues with the next stop.
+     */
+    public void advance()
+    {
+        currentStop++;
+    }
+
+    /**
+     * @return true if all stops have been visited.
+     */
+    public boolean isFinished()
+    {
+        return currentStop >= stops.size();
+    }
+
+    /**
+     * @return an unmodifiable list of the stops.
+     */
+    @NotNull
+    public List<Stop> getStops()
+    {
+        return Collections.unmodifiableList(stops);
+    }
+
+    /**
+     * @return an unmodifiable list of the requests served by this route.
+     */
+    @NotNull
+    public List<DeliveryRequest> getRequests()
+    {
+        return Collections.unmodifiableList(requests);
+    }
+
+    /**
+     * Checks if this route already brings an item to a building, so other deliverymen skip it.
+     *
+     * @param target the building.
+     * @param key    material key of the item.
+     * @return true if the route serves that request.
+     */
+    public boolean reserves(@NotNull final BlockPos target, final int key)
+    {
+        for (@NotNull final DeliveryRequest request : requests)
+        {
+            if (request.getTarget().equals(target) && MaterialSystem.getKey(request.getStack()) == key)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sums up the items this route still has to pick up at a building.
+     *
+     * @param source the building.
+     * @param key    material key of the item.
+     * @return the amount not picked up yet.
+     */
+    public int getPendingPickup(@NotNull final BlockPos source, final int key)
+    {
+        int pending = 0;
+        for (int i = currentStop; i < stops.size(); i++)
+        {
+            final Stop stop = stops.get(i);
+            if (stop.isPickup() && stop.getLocation().equals(source) && MaterialSystem.getKey(stop.getStack()) == key)
+            {
+                pending += stop.getStack().stackSize;
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Gives back the reservation of the current stop, the deliveryman is about to take the items.
+     *
+     * @param colony the colony of the route.
+     */
+    public void releaseCurrentStop(@NotNull final Colony colony)
+    {
+        if (!isFinished())
+        {
+            stops.get(currentStop).release(colony);
+        }
+    }
+
+    /**
+     * Gives back the reservations of all stops not visited yet, when the route is finished or given up.
+     *
+     * @param colony the colony of the route.
+     */
+    public void releaseAll(@NotNull final Colony colony)
+    {
+        for (int i = currentStop; i < stops.size(); i++)
+        {
+            stops.get(i).release(colony);
+        }
+    }
+
+    /**
+     * Checks if the route took too long, for example because a building can't be reached.
+     *
+     * @param worldTime the current world time.
+     * @return true if the route should be given up.
+     */
+    public boolean isExpired(final long worldTime)
+    {
+        return worldTime - startTime > MAX_ROUTE_TICKS;
+    }
+
+    /**
+     * @return world time the route was started at.
+     */
+    public long getStartTime()
+    {
+        return startTime;
+    }
+
+    /**
+     * @param amount items dropped off at a stop.
+     */
+    public void addItemsDelivered(final int amount)
+    {
+        itemsDelivered += amount;
+    }
+
+    /**
+     * @return amount of items dropped off so far.
+     */
+    public int getItemsDelivered()
+    {
+        return itemsDelivered;
+    }
+
+    /**
+     * One stop of a route, either picking up or dropping off an amount of one item at a building.
+     */
+    public static class Stop
+    {
+        @NotNull
+        private final BlockPos  location;
+        @NotNull
+        private final ItemStack stack;
+        private final boolean   pickup;
+        /**
+         * Amount held back for this stop in the material store of the building.
+         */
+        private       int       reserved;
+
+        /**
+         * Creates a stop.
+         *
+         * @param location the building.
+         * @param stack    the item and amount.
+         * @param pickup   true to take the items, false to drop them off.
+         */
+        Stop(@NotNull final BlockPos location, @NotNull final ItemStack stack, final boolean pickup)
+        {
+            this.location = location;
+            this.stack = stack;
+            this.pickup = pickup;
+        }
+
+        /**
+         * @return the building.
+         */
+        @NotNull
+        public BlockPos getLocation()
+        {
+            return location;
+        }
+
+        /**
+         * @return the item, the stack size is the amount.
+         */
+        @NotNull
+        public ItemStack getStack()
+        {
+            return stack;
+        }
+
+        /**
+         * @return true to take the items, false to drop them off.
+         */
+        public boolean isPickup()
+        {
+            return pickup;
+        }
+
+        /**
+         * Holds back the items of a pickup in the material store of the building, so nobody else plans with them.
+         *
+         * @param building the building of the stop.
+         */
+        void reserve(@NotNull final AbstractBuilding building)
+        {
+            reserved += building.getMaterialStore().reserve(MaterialSystem.getKey(stack), stack.stackSize - reserved);
+        }
+
+        /**
+         * Gives back what {@link #reserve(AbstractBuilding)} held back.
+         *
+         * @param colony the colony of the building.
+         */
+        void release(@NotNull final Colony colony)
+        {
+            final AbstractBuilding building = colony.getBuilding(location);
+            if (building != null && reserved > 0)
+            {
+                building.getMaterialStore().release(MaterialSystem.getKey(stack), reserved);
+            }
+            reserved = 0;
+        }
+    }
+}
@@ -1,8 +1,25 @@
 package com.minecolonies.entity.ai.citizen.deliveryman;
 
+import com.minecolonies.colony.CitizenData;
+import com.minecolonies.colony.Colony;
+import com.minecolonies.colony.buildings.AbstractBuilding;
+import com.minecolonies.colony.jobs.AbstractJob;
 import com.minecolonies.colony.jobs.JobDeliveryman;
+import com.minecolonies.colony.materials.MaterialStore;
+import com.minecolonies.colony.materials.MaterialSystem;
 import com.minecolonies.entity.ai.basic.AbstractEntityAIInteract;
+import com.minecolonies.entity.ai.util.AIState;
+import com.minecolonies.entity.ai.util.AITarget;
+import com.minecolonies.util.InventoryUtils;
+import net.minecraft.inventory.IInventory;
+import net.minecraft.item.ItemStack;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.minecolonies.entity.ai.util.AIState.*;
 
 /**
  * Performs deliveryman work
@@ -12,6 +29,16 @@ import org.jetbrains.annotations.NotNull;
  */
 public class EntityAIWorkDeliveryman extends AbstractEntityAIInteract<JobDeliveryman>
 {
+    /**
+     * Ticks to wait before planning again if there was nothing to deliver.
+     */
+    private static final int WAIT_FOR_REQUESTS = 100;
+
+    /**
+     * Set when a route has been finished, so the leftovers are dumped once.
+     */
+    private boolean routeFinished = false;
+
     /**
      * Initialize the deliveryman and add all his tasks.
      *
@@ -20,5 +47,207 @@ public class EntityAIWorkDeliveryman extends AbstractEntityAIInteract<JobDeliver
     public EntityAIWorkDeliveryman(@NotNull JobDeliveryman deliveryman)
     {
         super(deliveryman);
+        super.registerTargets(
+          new AITarget(IDLE, START_WORKING),
+          new AITarget(START_WORKING, this::startWorkingAtOwnBuilding),
+          new AITarget(DELIVERYMAN_PLAN_ROUTE, this::planRoute),
+          new AITarget(DELIVERYMAN_EXECUTE_ROUTE, this::executeRoute)
+        );
+        worker.setCanPickUpLoot(true);
+    }
+
+    /**
+     * Redirects the deliveryman to his building.
+     *
+     * @return the next state.
+     */
+    private AIState startWorkingAtOwnBuilding()
+    {
+        if (walkToBuilding())
+        {
+            return getState();
+        }
+        return DELIVERYMAN_PLAN_ROUTE;
+    }
+
+    /**
+     * Plans the next route from the requests of the colony.
+     *
+     * @return the next state.
+     */
+    private AIState planRoute()
+    {
+        final Colony colony = worker.getColony();
+        if (colony == null)
+        {
+            return IDLE;
+        }
+
+        final DeliveryRoute route = DeliveryPlanner.plan(
+          colony,
+          worker.getPosition(),
+          getFreeSlots(getInventory()),
+          getRoutesOfOtherDeliverymen(colony),
+          world.getTotalWorldTime());
+        if (route == null)
+        {
+            setDelay(WAIT_FOR_REQUESTS);
+            return DELIVERYMAN_PLAN_ROUTE;
+        }
+
+        job.setRoute(route);
+        return DELIVERYMAN_EXECUTE_ROUTE;
+    }
+
+    /**
+     * Walks to the current stop and handles the items there.
+     *
+     * @return the next state.
+     */
+    private AIState executeRoute()
+    {
+        final DeliveryRoute route = job.getRoute();
+        if (route == null)
+        {
+            return START_WORKING;
+        }
+
+        final Colony colony = worker.getColony();
+        final DeliveryRoute.Stop stop = route.getCurrentStop();
+        if (stop == null || colony == null || route.isExpired(world.getTotalWorldTime()))
+        {
+            if (colony != null)
+            {
+                route.releaseAll(colony);
+            }
+            if (stop == null)
+            {
+                job.onRouteFinished(route, world.getTotalWorldTime());
+            }
+            job.setRoute(null);
+            routeFinished = true;
+            return START_WORKING;
+        }
+
+        if (walkToBlock(stop.getLocation()))
+        {
+            return getState();
+        }
+
+        //The reserved items are taken now, the transfer books them out of the source store.
+        route.releaseCurrentStop(colony);
+        final AbstractBuilding building = colony.getBuilding(stop.getLocation());
+        final IInventory chest = building == null ? null : building.getTileEntity();
+        if (chest != null)
+        {
+            final MaterialStore hutStore = building.getMaterialStore();
+            final MaterialStore ownStore = getInventory().getMaterialStore();
+            if (stop.isPickup())
+            {
+                moveItems(chest, hutStore, getInventory(), ownStore, stop.getStack());
+            }
+            else
+            {
+                route.addItemsDelivered(moveItems(getInventory(), ownStore, chest, hutStore, stop.getStack()));
+            }
+        }
+        route.advance();
+        return getState();
+    }
+
+    /**
+     * Moves items between two inventories. With the material ledger the stores of both inventories don't follow the
+     * single slot changes, the move is booked as one transfer from the source to the target store instead.
+     *
+     * @param from      the source inventory.
+     * @param fromStore the material store of the source, may be null.
+     * @param to        the target inventory.
+     * @param toStore   the material store of the target, may be null.
+     * @param stack     the items to move.
+     * @return the amount moved.
+     */
+    private int moveItems(
+                           @NotNull final IInventory from,
+                           @Nullable final MaterialStore fromStore,
+                           @NotNull final IInventory to,
+                           @Nullable final MaterialStore toStore,
+                           @NotNull final ItemStack stack)
+    {
+        final Colony colony = worker.getColony();
+        if (!MaterialSystem.isEnabled() || colony == null || fromStore == null || toStore == null)
+        {
+            return InventoryUtils.moveItems(from, to, stack);
+        }
+
+        final int moved;
+        fromStore.pauseTracking();
+        toStore.pauseTracking();
+        try
+        {
+            moved = InventoryUtils.moveItems(from, to, stack);
+        }
+        finally
+        {
+            fromStore.resumeTracking();
+            toStore.resumeTracking();
+        }
+        colony.getMaterialSystem().transfer(fromStore, toStore, MaterialSystem.getKey(stack), moved);
+        return moved;
+    }
+
+    /**
+     * Counts the empty slots of an inventory.
+     *
+     * @param inventory the inventory.
+     * @return the amount of empty slots.
+     */
+    private static int getFreeSlots(@NotNull final IInventory inventory)
+    {
+        int free = 0;
+        for (int slot = 0; slot < inventory.getSizeInventory(); slot++)
+        {
+            if (inventory.getStackInSlot(slot) == null)
+            {
+                free++;
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Collects the routes the other deliverymen of the colony are working on.
+     *
+     * @param colony the colony.
+     * @return the routes.
+     */
+    @NotNull
+    private List<DeliveryRoute> getRoutesOfOtherDeliverymen(@NotNull final Colony colony)
+    {
+        final List<DeliveryRoute> routes = new ArrayList<>();
+        for (@NotNull final CitizenData citizen : colony.getCitizensWithJob(JobDeliveryman.class))
+        {
+            final AbstractJob otherJob = citizen.getJob();
+            if (otherJob != job && ((JobDeliveryman) otherJob).getRoute() != null)
+            {
+                routes.add(((JobDeliveryman) otherJob).getRoute());
+            }
+        }
+        return routes;
+    }
+
+    /**
+     * Dump whatever is left after a route into the warehouse.
+     *
+     * @return true if the inventory should be dumped now.
+     */
+    @Override
+    protected boolean wantInventoryDumped()
+    {
+        if (routeFinished)
+        {
+            routeFinished = false;
+            return true;
+        }
+        return false;
     }
 }
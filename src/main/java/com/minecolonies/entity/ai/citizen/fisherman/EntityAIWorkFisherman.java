@@ -1,5 +1,6 @@
 package com.minecolonies.entity.ai.citizen.fisherman;
 
+import com.minecolonies.client.render.RenderBipedCitizen;
 import com.minecolonies.colony.buildings.BuildingFisherman;
 import com.minecolonies.colony.jobs.JobFisherman;
 import com.minecolonies.entity.EntityCitizen;
@@ -43,21 +44,6 @@ import static com.minecolonies.entity.ai.util.AIState.*;
 public class EntityAIWorkFisherman extends AbstractEntityAISkill<JobFisherman>
 {
 
-    /**
-     * The render name to render logs
-     */
-    private static final String RENDER_META_FISH = "Fish";
-
-    /**
-     * The render name to render logs
-     */
-    private static final String RENDER_META_FISHANDROD = "RodFish";
-
-    /**
-     * The render name to render logs
-     */
-    private static final String RENDER_META_ROD = "Rod";
-
     /**
      * The maximum number of ponds to remember at one time.
      */
@@ -262,15 +248,15 @@ public class EntityAIWorkFisherman extends AbstractEntityAISkill<JobFisherman>
     {
         if (hasFish() && hasRodButNotEquipped())
         {
-            worker.setRenderMetadata(RENDER_META_FISHANDROD);
+            worker.setRenderMetadata(RenderBipedCitizen.Metadata.ROD_FISH);
         }
         else if (hasRodButNotEquipped() && !hasFish())
         {
-            worker.setRenderMetadata(RENDER_META_ROD);
+            worker.setRenderMetadata(RenderBipedCitizen.Metadata.ROD);
         }
         else
         {
-            worker.setRenderMetadata(hasFish() ? RENDER_META_FISH : "");
+            worker.setRenderMetadata(hasFish() ? RenderBipedCitizen.Metadata.FISH : RenderBipedCitizen.Metadata.NONE);
         }
     }
 
@@ -1,5 +1,6 @@
 package com.minecolonies.entity.ai.citizen.lumberjack;
 
+import com.minecolonies.client.render.RenderBipedCitizen;
 import com.minecolonies.colony.jobs.JobLumberjack;
 import com.minecolonies.entity.ai.basic.AbstractEntityAIInteract;
 import com.minecolonies.entity.ai.item.handling.ItemStorage;
@@ -10,7 +11,6 @@ import com.minecolonies.util.BlockPosUtil;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockSapling;
 import net.minecraft.block.SoundType;
-import net.minecraft.entity.item.EntityItem;
 import net.minecraft.init.Blocks;
 import net.minecraft.item.ItemBlock;
 import net.minecraft.item.ItemStack;
@@ -31,11 +31,6 @@ public class EntityAIWorkLumberjack extends AbstractEntityAIInteract<JobLumberja
 {
     private static final String TOOL_TYPE_AXE = "axe";
 
-    /**
-     * The render name to render logs
-     */
-    private static final String RENDER_META_LOGS = "Logs";
-
     /**
      * The range in which the lumberjack searches for trees.
      */
@@ -569,12 +564,10 @@ public class EntityAIWorkLumberjack extends AbstractEntityAIInteract<JobLumberja
      */
     private void searchForItems()
     {
-        items = new ArrayList<>();
-
         //TODO check if sapling or apple (currently picks up all items, which may be okay)
-        items = world.getEntitiesWithinAABB(EntityItem.class, worker.getEntityBoundingBox().expand(RANGE_HORIZONTAL_PICKUP, RANGE_VERTICAL_PICKUP, RANGE_HORIZONTAL_PICKUP))
+        items = worker.getColony().getDroppedItems()
+                  .getItemsWithin(worker.getEntityBoundingBox().expand(RANGE_HORIZONTAL_PICKUP, RANGE_VERTICAL_PICKUP, RANGE_HORIZONTAL_PICKUP))
                   .stream()
-                  .filter(item -> item != null && !item.isDead)
                   .map(BlockPosUtil::fromEntity)
                   .collect(Collectors.toList());
     }
@@ -659,7 +652,7 @@ public class EntityAIWorkLumberjack extends AbstractEntityAIInteract<JobLumberja
     @Override
     protected void updateRenderMetaData()
     {
-        worker.setRenderMetadata(hasLogs() ? RENDER_META_LOGS : "");
+        worker.setRenderMetadata(hasLogs() ? RenderBipedCitizen.Metadata.LOGS : RenderBipedCitizen.Metadata.NONE);
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.minecolonies.entity.ai.citizen.miner;
 
 import com.minecolonies.blocks.AbstractBlockHut;
+import com.minecolonies.client.render.RenderBipedCitizen;
 import com.minecolonies.colony.buildings.BuildingMiner;
 import com.minecolonies.colony.jobs.JobMiner;
 import com.minecolonies.entity.ai.basic.AbstractEntityAIStructure;
@@ -33,7 +34,6 @@ import static com.minecolonies.entity.ai.util.AIState.*;
 public class EntityAIStructureMiner extends AbstractEntityAIStructure<JobMiner>
 {
 
-    private static final String     RENDER_META_TORCH         = "Torch";
     private static final int        NODE_DISTANCE             = 7;
     /**
      * Return to chest after 3 stacks
@@ -156,19 +156,18 @@ public class EntityAIStructureMiner extends AbstractEntityAIStructure<JobMiner>
     @Override
     protected void updateRenderMetaData()
     {
-        @NotNull String renderMetaData = getRenderMetaTorch();
         //TODO: Have pickaxe etc. displayed?
-        worker.setRenderMetadata(renderMetaData);
+        worker.setRenderMetadata(getRenderMetaTorch());
     }
 
     @NotNull
-    private String getRenderMetaTorch()
+    private RenderBipedCitizen.Metadata getRenderMetaTorch()
     {
         if (worker.hasItemInInventory(Blocks.TORCH))
         {
-            return RENDER_META_TORCH;
+            return RenderBipedCitizen.Metadata.TORCH;
         }
-        return "";
+        return RenderBipedCitizen.Metadata.NONE;
     }
 
     /**
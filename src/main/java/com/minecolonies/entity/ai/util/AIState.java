@@ -217,5 +217,19 @@ public enum AIState
     /**
      * Go back to the hut to "restock".
      */
-    GUARD_RESTOCK
+    GUARD_RESTOCK,
+
+    /*
+###Deliveryman###
+    */
+
+    /**
+     * Plan the next route.
+     */
+    DELIVERYMAN_PLAN_ROUTE,
+
+    /**
+     * Walk to the next stop of the route and pick up or drop off items there.
+     */
+    DELIVERYMAN_EXECUTE_ROUTE
 }
@@ -95,12 +95,21 @@ public abstract class AbstractPathJob implements Callable<Path>
      */
     public AbstractPathJob(World world, @NotNull BlockPos start, @NotNull BlockPos end, int range, PathResult result)
     {
-        int minX = Math.min(start.getX(), end.getX()) - (range / 2);
-        int minZ = Math.min(start.getZ(), end.getZ()) - (range / 2);
-        int maxX = Math.max(start.getX(), end.getX()) + (range / 2);
-        int maxZ = Math.max(start.getZ(), end.getZ()) + (range / 2);
+        this(createCache(world, start, end, range), start, range, result);
+    }
 
-        this.world = new ChunkCache(world, new BlockPos(minX, 0, minZ), new BlockPos(maxX, 256, maxZ), range);
+    /**
+     * Searches the blocks as they are given, without caching the chunks of a world first.
+     * The blocks must not change while the job runs, for example in simulations which run the job on their own thread.
+     *
+     * @param world  the blocks within which to path
+     * @param start  the start position from which to path from
+     * @param range  maximum path range
+     * @param result path result
+     */
+    protected AbstractPathJob(@NotNull IBlockAccess world, @NotNull BlockPos start, int range, PathResult result)
+    {
+        this.world = world;
 
         this.start = new BlockPos(start);
         this.maxRange = range;
@@ -119,6 +128,26 @@ public abstract class AbstractPathJob implements Callable<Path>
         }
     }
 
+    /**
+     * Caches the chunks of the area a path job may search, so the job can run off the server thread.
+     *
+     * @param world the world within which to path
+     * @param start the start position from which to path from
+     * @param end   the end position to path to
+     * @param range maximum path range
+     * @return the cached chunks
+     */
+    @NotNull
+    private static ChunkCache createCache(World world, @NotNull BlockPos start, @NotNull BlockPos end, int range)
+    {
+        int minX = Math.min(start.getX(), end.getX()) - (range / 2);
+        int minZ = Math.min(start.getZ(), end.getZ()) - (range / 2);
+        int maxX = Math.max(start.getX(), end.getX()) + (range / 2);
+        int maxZ = Math.max(start.getZ(), end.getZ()) + (range / 2);
+
+        return new ChunkCache(world, new BlockPos(minX, 0, minZ), new BlockPos(maxX, 256, maxZ), range);
+    }
+
     private static boolean onLadderGoingUp(@NotNull Node currentNode, @NotNull BlockPos dPos)
     {
         return currentNode.isLadder && (dPos.getY() >= 0 || dPos.getX() != 0 || dPos.getZ() != 0);
@@ -4,6 +4,7 @@ import com.minecolonies.entity.ai.citizen.lumberjack.Tree;
 import net.minecraft.block.material.Material;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockAccess;
 import net.minecraft.world.World;
 import org.jetbrains.annotations.NotNull;
 
@@ -32,6 +33,21 @@ public class PathJobFindTree extends AbstractPathJob
         hutLocation = home;
     }
 
+    /**
+     * Searches blocks which don't change while the job runs, like a simulated world.
+     *
+     * @param world the blocks within which to path
+     * @param start the start position from which to path from
+     * @param home  the position of the workers hut
+     * @param range maximum path range
+     */
+    public PathJobFindTree(@NotNull IBlockAccess world, @NotNull BlockPos start, BlockPos home, int range)
+    {
+        super(world, start, range, new TreePathResult());
+
+        hutLocation = home;
+    }
+
     public static class TreePathResult extends PathResult
     {
         public BlockPos treeLocation;
@@ -20,6 +20,8 @@ import net.minecraftforge.common.util.Constants;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
+
 /**
  * Basic inventory for the citizens.
  */
@@ -75,6 +77,20 @@ public class InventoryCitizen implements IInventory
      * Updated after the inventory has been changed
      */
     private boolean inventoryChanged = false;
+    /**
+     * Material key of each slot as last counted in the material store.
+     */
+    @NotNull
+    private final int[] countedKeys  = new int[INVENTORY_SIZE];
+    /**
+     * Stack size of each slot as last counted in the material store, 0 if nothing is counted.
+     */
+    @NotNull
+    private final int[] countedSizes = new int[INVENTORY_SIZE];
+    /**
+     * Set when stacks may have been changed in place, the material store compares all slots on the next update then.
+     */
+    private boolean materialsStale = false;
     /**
      * The citizen which owns the inventory.
      */
@@ -185,6 +201,7 @@ public class InventoryCitizen implements IInventory
             {
                 this.stacks[i] = null;
             }
+            updateMaterialSlot(i);
 
             return true;
         }
@@ -223,6 +240,7 @@ public class InventoryCitizen implements IInventory
                     {
                         this.stacks[j] = ItemStack.copyItemStack(itemStackIn);
                         itemStackIn.stackSize = 0;
+                        updateMaterialSlot(j);
                         return true;
                     }
                     else
@@ -336,6 +354,7 @@ public class InventoryCitizen implements IInventory
             {
                 i = i - k;
                 this.stacks[j].stackSize += k;
+                updateMaterialSlot(j);
                 return i;
             }
         }
@@ -398,50 +417,84 @@ public class InventoryCitizen implements IInventory
         if (materialStore == null)
         {
             materialStore = new MaterialStore(MaterialStore.Type.INVENTORY, system);
+            Arrays.fill(countedSizes, 0);
+            materialsStale = true;
         }
     }
 
     /**
-     * Get the name of this object. For citizens this returns their name.
-     *
-     * @return the name of the inventory.
+     * Removes the material store of this inventory from the colony, called when the citizen entity is removed.
      */
-    @NotNull
-    @Override
-    public String getName()
+    public void destroyMaterialStore()
     {
-        return this.hasCustomName() ? this.customName : "citizen.inventory";
+        if (materialStore != null)
+        {
+            materialStore.destroy();
+            materialStore = null;
+        }
     }
 
-    public MaterialStore getMaterialStore()
+    /**
+     * Brings the material store up to date if stacks may have been changed in place since the last call.
+     * Changes through the slot methods of the inventory are applied right away.
+     */
+    public void updateMaterialStore()
     {
-        return materialStore;
+        if (materialsStale)
+        {
+            materialsStale = false;
+            for (int i = 0; i < stacks.length; i++)
+            {
+                updateMaterialSlot(i);
+            }
+        }
     }
 
-    private void addStackToMaterialStore(@Nullable ItemStack stack)
+    /**
+     * Applies the difference between a slot and what the material store counted for it last time.
+     *
+     * @param index the slot.
+     */
+    private void updateMaterialSlot(int index)
     {
-        if (stack == null)
+        if (materialStore == null || !MaterialSystem.isEnabled())
         {
             return;
         }
 
-        if (MaterialSystem.isEnabled)
-        {
-            materialStore.addMaterial(stack.getItem(), stack.stackSize);
-        }
-    }
-
-    private void removeStackFromMaterialStore(@Nullable ItemStack stack)
-    {
-        if (stack == null)
+        final ItemStack stack = stacks[index];
+        final int key = MaterialSystem.getKey(stack);
+        final int size = stack == null ? 0 : Math.max(0, stack.stackSize);
+        if (key == countedKeys[index] && size == countedSizes[index])
         {
             return;
         }
 
-        if (MaterialSystem.isEnabled)
+        //During a transfer the moved items are booked by the transfer, only what the slot holds is remembered.
+        if (materialStore.isTracking())
         {
-            materialStore.removeMaterial(stack.getItem(), stack.stackSize);
+            materialStore.removeMaterial(countedKeys[index], countedSizes[index]);
+            materialStore.addMaterial(key, size);
         }
+        countedKeys[index] = key;
+        countedSizes[index] = size;
+    }
+
+    /**
+     * Get the name of this object. For citizens this returns their name.
+     *
+     * @return the name of the inventory.
+     */
+    @NotNull
+    @Override
+    public String getName()
+    {
+        return this.hasCustomName() ? this.customName : "citizen.inventory";
+    }
+
+    public MaterialStore getMaterialStore()
+    {
+        return materialStore;
     }
 
     /**
@@ -469,6 +522,7 @@ public class InventoryCitizen implements IInventory
         {
             this.customName = compound.getString(TAG_CUSTOM_NAME);
         }
+        markDirty();
     }
 
     /**
@@ -511,7 +565,8 @@ public class InventoryCitizen implements IInventory
             {
                 ItemStack itemstack1 = this.stacks[index];
                 this.stacks[index] = null;
-                this.markDirty();
+                this.inventoryChanged = true;
+                updateMaterialSlot(index);
                 if (index == heldItem)
                 {
                     if (citizen != null)
@@ -531,7 +586,8 @@ public class InventoryCitizen implements IInventory
                     this.stacks[index] = null;
                 }
 
-                this.markDirty();
+                this.inventoryChanged = true;
+                updateMaterialSlot(index);
                 return itemstack;
             }
         }
@@ -566,6 +622,7 @@ public class InventoryCitizen implements IInventory
         {
             ItemStack itemstack = this.stacks[index];
             this.stacks[index] = null;
+            updateMaterialSlot(index);
             return itemstack;
         }
         else
@@ -599,7 +656,8 @@ public class InventoryCitizen implements IInventory
             stack.stackSize = this.getInventoryStackLimit();
         }
 
-        this.markDirty();
+        this.inventoryChanged = true;
+        updateMaterialSlot(index);
     }
 
     /**
@@ -621,6 +679,7 @@ public class InventoryCitizen implements IInventory
     public void markDirty()
     {
         this.inventoryChanged = true;
+        this.materialsStale = true;
     }
 
     /**
@@ -730,6 +789,7 @@ public class InventoryCitizen implements IInventory
         for (int i = 0; i < this.stacks.length; ++i)
         {
             this.stacks[i] = null;
+            updateMaterialSlot(i);
         }
     }
 
@@ -759,33 +819,11 @@ public class InventoryCitizen implements IInventory
         {
             compound.setString(TAG_CUSTOM_NAME, this.customName);
         }
-        if (MaterialSystem.isEnabled)
+        if (MaterialSystem.isEnabled() && materialStore != null)
         {
             materialStore.writeToNBT(compound);
         }
 
         compound.setTag(TAG_INVENTORY, nbttaglist);
     }
-
-
-
-
-
-
-
-
-    //-----------------------------Material Handling--------------------------------
-
-
-    //todo missing now
-    /*
-    @Override
-    public ItemStack getStackInSlotOnClosing(int index)
-    {
-            ItemStack removed = super.getStackInSlotOnClosing(index);
-
-                    removeStackFromMaterialStore(removed);
-
-                    return removed;
-    }*/
 }
@@ -58,6 +58,11 @@ public class InventoryField implements IInventory
      * Updated after the inventory has been changed.
      */
     private boolean inventoryChanged = false;
+    /**
+     * Told when the inventory changes, null if nobody listens.
+     */
+    @Nullable
+    private Runnable changeListener;
 
     /**
      * Creates the inventory of the citizen.
@@ -171,6 +176,7 @@ public class InventoryField implements IInventory
 
         final ItemStack itemstack = this.stackResult[index];
         this.stackResult[index] = null;
+        this.markDirty();
         return itemstack;
     }
 
@@ -203,6 +209,20 @@ public class InventoryField implements IInventory
     public void markDirty()
     {
         this.inventoryChanged = true;
+        if (changeListener != null)
+        {
+            changeListener.run();
+        }
+    }
+
+    /**
+     * Sets who is told when the inventory changes, instead of checking {@link #hasInventoryChanged()} every tick.
+     *
+     * @param changeListener the listener, null to remove it.
+     */
+    public void setChangeListener(@Nullable final Runnable changeListener)
+    {
+        this.changeListener = changeListener;
     }
 
     @Override
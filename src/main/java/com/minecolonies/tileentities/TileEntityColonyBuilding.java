@@ -41,6 +41,23 @@ public class TileEntityColonyBuilding extends TileEntityChest
      */
     private AbstractBuilding building;
 
+    /**
+     * Material key of each slot as last told to the item index and the material store.
+     */
+    @NotNull
+    private final int[] countedKeys  = new int[getSizeInventory()];
+
+    /**
+     * Stack size of each slot as last told to the item index and the material store, 0 if the slot was empty.
+     */
+    @NotNull
+    private final int[] countedSizes = new int[getSizeInventory()];
+
+    /**
+     * Set when stacks may have been changed in place, all slots are compared on the next tick then.
+     */
+    private boolean contentStale = false;
+
     /**
      * Empty standard constructor.
      */
@@ -118,6 +135,7 @@ public class TileEntityColonyBuilding extends TileEntityChest
     public void update()
     {
         super.update();
+        updateStaleSlots();
 
         if (!worldObj.isRemote && colonyId == 0)
         {
@@ -233,6 +251,7 @@ public class TileEntityColonyBuilding extends TileEntityChest
         }
 
         updateColonyReferences();
+        syncItemIndex();
     }
 
     @NotNull
@@ -287,9 +306,7 @@ public class TileEntityColonyBuilding extends TileEntityChest
     public ItemStack decrStackSize(int index, int quantity)
     {
         ItemStack removed = super.decrStackSize(index, quantity);
-
-        removeStackFromMaterialStore(removed);
-
+        updateSlot(index);
         return removed;
     }
 
@@ -297,46 +314,106 @@ public class TileEntityColonyBuilding extends TileEntityChest
     public ItemStack removeStackFromSlot(int index)
     {
         ItemStack removed = super.removeStackFromSlot(index);
-
-        removeStackFromMaterialStore(removed);
-
+        updateSlot(index);
         return removed;
     }
 
     @Override
     public void setInventorySlotContents(int index, ItemStack stack)
     {
-        ItemStack previous = getStackInSlot(index);
-        removeStackFromMaterialStore(previous);
-
         super.setInventorySlotContents(index, stack);
+        updateSlot(index);
+    }
 
-        addStackToMaterialStore(stack);
+    /**
+     * Hoppers and container clicks change stacks in place and only mark the chest dirty, so every slot is compared
+     * again on the next tick.
+     */
+    @Override
+    public void markDirty()
+    {
+        super.markDirty();
+        contentStale = true;
     }
 
-    private void addStackToMaterialStore(ItemStack stack)
+    /**
+     * Compares all slots with what the item index and the material store know, if the content may have changed in
+     * place since the last comparison.
+     */
+    private void updateStaleSlots()
     {
-        if (stack == null)
+        if (contentStale && isServerSideBuilding())
         {
-            return;
+            contentStale = false;
+            for (int i = 0; i < getSizeInventory(); i++)
+            {
+                updateSlot(i);
+            }
         }
+    }
 
-        if (MaterialSystem.isEnabled)
+    /**
+     * Tells the item index and the material store about the new content of a slot.
+     *
+     * @param index the slot which changed.
+     */
+    private void updateSlot(int index)
+    {
+        if (!isServerSideBuilding())
         {
-            building.getMaterialStore().addMaterial(stack.getItem(), stack.stackSize);
+            return;
         }
-    }
 
-    private void removeStackFromMaterialStore(ItemStack stack)
-    {
-        if (stack == null)
+        final ItemStack stack = super.getStackInSlot(index);
+        colony.getItemIndex().updateSlot(getPosition(), index, stack);
+
+        final int key = MaterialSystem.getKey(stack);
+        final int size = stack == null ? 0 : Math.max(0, stack.stackSize);
+        if (key == countedKeys[index] && size == countedSizes[index])
         {
             return;
         }
 
-        if (MaterialSystem.isEnabled)
+        //During a transfer the moved items are booked by the transfer, only what the slot holds is remembered.
+        if (MaterialSystem.isEnabled() && building.getMaterialStore().isTracking())
         {
-            building.getMaterialStore().removeMaterial(stack.getItem(), stack.stackSize);
+            building.getMaterialStore().removeMaterial(countedKeys[index], countedSizes[index]);
+            building.getMaterialStore().addMaterial(key, size);
         }
+        countedKeys[index] = key;
+        countedSizes[index] = size;
+    }
+
+    /**
+     * Tells the item index and the material store about the whole content of the chest, used after loading.
+     */
+    private void syncItemIndex()
+    {
+        if (isServerSideBuilding())
+        {
+            colony.getItemIndex().syncStore(getPosition(), this);
+            if (MaterialSystem.isEnabled())
+            {
+                building.getMaterialStore().checkConsistency(this, true);
+            }
+
+            for (int i = 0; i < getSizeInventory(); i++)
+            {
+                final ItemStack stack = super.getStackInSlot(i);
+                countedKeys[i] = MaterialSystem.getKey(stack);
+                countedSizes[i] = stack == null ? 0 : Math.max(0, stack.stackSize);
+            }
+            contentStale = false;
+        }
+    }
+
+    /**
+     * Checks if this is the server side tile entity of a registered building.
+     *
+     * @return true if changes should be reported to the colony.
+     */
+    private boolean isServerSideBuilding()
+    {
+        return (worldObj == null || !worldObj.isRemote) && colony != null && building != null;
     }
 }
@@ -0,0 +1,60 @@
+package com.minecolonies.util;
+
+import com.minecolonies.configuration.Configurations;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The one fork-join pool of the server for work off the server thread, the structure comparisons and the compute
+ * phase of the colony subscriber sync share it, so they don't oversubscribe the cores with a pool each.
+ * <p>
+ * It is created on first use with {@link Configurations#backgroundThreads} threads and shut down when the last world
+ * unloads, the next server creates a new one.
+ */
+public final class BackgroundPool
+{
+    /**
+     * The pool, null until first used and after a shutdown.
+     */
+    @Nullable
+    private static ForkJoinPool pool;
+
+    /**
+     * Private constructor to hide the implicit public one.
+     */
+    private BackgroundPool()
+    {
+        /*
+         * Intentionally left empty.
+         */
+    }
+
+    /**
+     * Returns the pool, creates it on first use.
+     *
+     * @return the pool.
+     */
+    @NotNull
+    public static synchronized ForkJoinPool get()
+    {
+        if (pool == null)
+        {
+            pool = new ForkJoinPool(Math.max(1, Configurations.backgroundThreads));
+        }
+        return pool;
+    }
+
+    /**
+     * Stops the threads of the pool once the tasks submitted so far are done, so they don't outlive the server.
+     */
+    public static synchronized void shutdown()
+    {
+        if (pool != null)
+        {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.minecolonies.util;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Writes many blocks straight into the chunk sections and brings the world up to date once at the end.
+ * <p>
+ * {@link World#setBlockState(BlockPos, IBlockState, int)} updates the height map, relights and notifies everybody for every block,
+ * while the other blocks of a structure are still missing. The batch only writes the states, {@link #flush()} then creates the
+ * tile entities, calls onBlockAdded, recomputes the height and sky light maps of each touched chunk once, relights where the
+ * light changed, and notifies the world event listeners and neighbours of every block. The players get the changes through the
+ * server listener, which sends each chunk at most once per tick.
+ */
+public class BlockPlacementBatch
+{
+    private static final int SECTION_BITS = 4;
+    private static final int SECTION_MASK = 15;
+
+    /**
+     * Flags of {@link World#notifyBlockUpdate(BlockPos, IBlockState, IBlockState, int)}: update the neighbours and send to the clients.
+     */
+    private static final int NOTIFY_FLAGS = 3;
+
+    private static final String TAG_X = "x";
+    private static final String TAG_Y = "y";
+    private static final String TAG_Z = "z";
+
+    @NotNull
+    private final World                         world;
+    @NotNull
+    private final Set<Chunk>                    touchedChunks   = new LinkedHashSet<>();
+    @NotNull
+    private final List<BlockPos>                placedPositions = new ArrayList<>();
+    @NotNull
+    private final List<IBlockState>             oldStates       = new ArrayList<>();
+    @NotNull
+    private final List<IBlockState>             placedStates    = new ArrayList<>();
+    @NotNull
+    private final Map<BlockPos, NBTTagCompound> tileEntityData  = new HashMap<>();
+
+    /**
+     * Creates an empty batch.
+     *
+     * @param world the world to place in.
+     */
+    public BlockPlacementBatch(@NotNull final World world)
+    {
+        this.world = world;
+    }
+
+    /**
+     * Writes a block state into its chunk section, the updates follow in {@link #flush()}.
+     * A replaced block is broken first like {@link World#setBlockState(BlockPos, IBlockState, int)} does, so it drops
+     * its inventory and cleans up, and the tile entity of the block which was there before is removed.
+     *
+     * @param pos   the position.
+     * @param state the new state.
+     */
+    public void setBlockState(@NotNull final BlockPos pos, @NotNull final IBlockState state)
+    {
+        if (pos.getY() < 0 || pos.getY() >= world.getHeight())
+        {
+            return;
+        }
+
+        final Chunk chunk = world.getChunkFromBlockCoords(pos);
+        final ExtendedBlockStorage[] sections = chunk.getBlockStorageArray();
+        final int sectionY = pos.getY() >> SECTION_BITS;
+        final int x = pos.getX() & SECTION_MASK;
+        final int y = pos.getY() & SECTION_MASK;
+        final int z = pos.getZ() & SECTION_MASK;
+
+        ExtendedBlockStorage section = sections[sectionY];
+        final IBlockState oldState = section == null ? Blocks.AIR.getDefaultState() : section.get(x, y, z);
+        if (oldState == state)
+        {
+            return;
+        }
+
+        if (section == null)
+        {
+            section = new ExtendedBlockStorage(sectionY << SECTION_BITS, !world.provider.getHasNoSky());
+            sections[sectionY] = section;
+        }
+
+        if (oldState.getBlock() != state.getBlock())
+        {
+            oldState.getBlock().breakBlock(world, pos, oldState);
+        }
+        if (oldState.getBlock().hasTileEntity(oldState))
+        {
+            world.removeTileEntity(pos);
+        }
+        section.set(x, y, z, state);
+        chunk.setChunkModified();
+
+        recordChange(chunk, pos.toImmutable(), oldState, state);
+    }
+
+    /**
+     * Remembers a block written into a chunk, for the updates of {@link #flush()}.
+     *
+     * @param chunk    the chunk of the block.
+     * @param pos      the position.
+     * @param oldState the state before.
+     * @param state    the new state.
+     */
+    void recordChange(@NotNull final Chunk chunk, @NotNull final BlockPos pos, @NotNull final IBlockState oldState, @NotNull final IBlockState state)
+    {
+        touchedChunks.add(chunk);
+        placedPositions.add(pos);
+        oldStates.add(oldState);
+        placedStates.add(state);
+    }
+
+    /**
+     * Sets the tile entity data of a placed block, it is read into the tile entity when the batch is flushed.
+     *
+     * @param pos  the position.
+     * @param data the data, the position in it is replaced.
+     */
+    public void setTileEntityData(@NotNull final BlockPos pos, @NotNull final NBTTagCompound data)
+    {
+        tileEntityData.put(pos.toImmutable(), data);
+    }
+
+    /**
+     * @return the amount of blocks written since the last flush.
+     */
+    public int size()
+    {
+        return placedPositions.size();
+    }
+
+    /**
+     * Creates the tile entities, relights and notifies the world event listeners and the neighbours of every placed block.
+     * The batch is empty afterwards and can be used again.
+     */
+    public void flush()
+    {
+        for (int i = 0; i < placedPositions.size(); i++)
+        {
+            final IBlockState state = placedStates.get(i);
+            if (state.getBlock().hasTileEntity(state))
+            {
+                //Creates the tile entity of the new block.
+                world.getTileEntity(placedPositions.get(i));
+            }
+        }
+
+        for (int i = 0; i < placedPositions.size(); i++)
+        {
+            final IBlockState state = placedStates.get(i);
+            state.getBlock().onBlockAdded(world, placedPositions.get(i), state);
+        }
+
+        for (@NotNull final Map.Entry<BlockPos, NBTTagCompound> entry : tileEntityData.entrySet())
+        {
+            restoreTileEntity(entry.getKey(), entry.getValue());
+        }
+
+        relight();
+
+        for (int i = 0; i < placedPositions.size(); i++)
+        {
+            final BlockPos pos = placedPositions.get(i);
+            final IBlockState state = placedStates.get(i);
+            world.notifyBlockUpdate(pos, oldStates.get(i), state, NOTIFY_FLAGS);
+            world.notifyNeighborsOfStateChange(pos, state.getBlock());
+        }
+
+        touchedChunks.clear();
+        placedPositions.clear();
+        oldStates.clear();
+        placedStates.clear();
+        tileEntityData.clear();
+    }
+
+    /**
+     * Recomputes the height and sky light maps of the touched chunks, then relights every block which changed how it
+     * emits or blocks light, like setBlockState does. The light spreads into the neighbouring blocks and chunks from there.
+     */
+    private void relight()
+    {
+        for (@NotNull final Chunk chunk : touchedChunks)
+        {
+            chunk.generateSkylightMap();
+        }
+
+        for (int i = 0; i < placedPositions.size(); i++)
+        {
+            final IBlockState oldState = oldStates.get(i);
+            final IBlockState state = placedStates.get(i);
+            if (oldState.getLightOpacity() != state.getLightOpacity() || oldState.getLightValue() != state.getLightValue())
+            {
+                world.checkLight(placedPositions.get(i));
+            }
+        }
+    }
+
+    private void restoreTileEntity(@NotNull final BlockPos pos, @NotNull final NBTTagCompound data)
+    {
+        final TileEntity tileEntity = world.getTileEntity(pos);
+        if (tileEntity == null)
+        {
+            return;
+        }
+
+        data.setInteger(TAG_X, pos.getX());
+        data.setInteger(TAG_Y, pos.getY());
+        data.setInteger(TAG_Z, pos.getZ());
+        tileEntity.readFromNBT(data);
+        tileEntity.markDirty();
+    }
+}
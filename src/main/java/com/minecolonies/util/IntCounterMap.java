@@ -0,0 +1,295 @@
+package com.minecolonies.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Counters stored by int key without boxing.
+ * <p>
+ * A counter which is zero is not stored, so reading a missing key returns 0 and
+ * {@link #size()} is the number of non zero counters.
+ * Uses open addressing with linear probing, a zero value marks a free bucket.
+ */
+public class IntCounterMap
+{
+    /**
+     * Initial amount of buckets, has to be a power of two.
+     */
+    private static final int   DEFAULT_CAPACITY = 16;
+    /**
+     * Fraction of the buckets which may be used before growing.
+     */
+    private static final float LOAD_FACTOR      = 0.5F;
+
+    @NotNull
+    private int[] keys;
+    @NotNull
+    private int[] values;
+    private int   size;
+
+    /**
+     * Creates an empty map.
+     */
+    public IntCounterMap()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty map which can hold the given amount of counters without growing.
+     *
+     * @param expected the expected amount of counters.
+     */
+    public IntCounterMap(final int expected)
+    {
+        final int capacity = capacityFor(expected);
+        keys = new int[capacity];
+        values = new int[capacity];
+    }
+
+    /**
+     * Reads a counter.
+     *
+     * @param key the key.
+     * @return the value, 0 if not present.
+     */
+    public int get(final int key)
+    {
+        final int mask = keys.length - 1;
+        for (int i = mix(key) & mask; values[i] != 0; i = (i + 1) & mask)
+        {
+            if (keys[i] == key)
+            {
+                return values[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Adds to a counter.
+     *
+     * @param key   the key.
+     * @param delta the amount to add, may be negative.
+     * @return the new value.
+     */
+    public int add(final int key, final int delta)
+    {
+        return set(key, get(key) + delta);
+    }
+
+    /**
+     * Sets a counter, setting it to 0 removes it.
+     *
+     * @param key   the key.
+     * @param value the new value.
+     * @return the new value.
+     */
+    public int set(final int key, final int value)
+    {
+        final int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (values[i] != 0)
+        {
+            if (keys[i] == key)
+            {
+                if (value == 0)
+                {
+                    removeAt(i);
+                }
+                else
+                {
+                    values[i] = value;
+                }
+                return value;
+            }
+            i = (i + 1) & mask;
+        }
+
+        if (value != 0)
+        {
+            keys[i] = key;
+            values[i] = value;
+            size++;
+            if (size > keys.length * LOAD_FACTOR)
+            {
+                rehash(keys.length * 2);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Removes a counter.
+     *
+     * @param key the key.
+     * @return the old value, 0 if not present.
+     */
+    public int remove(final int key)
+    {
+        final int old = get(key);
+        set(key, 0);
+        return old;
+    }
+
+    /**
+     * @return the amount of non zero counters.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return true if all counters are zero.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Removes all counters.
+     */
+    public void clear()
+    {
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    /**
+     * Shrinks the table to the smallest size fitting the current counters.
+     */
+    public void compact()
+    {
+        final int capacity = capacityFor(size);
+        if (capacity < keys.length)
+        {
+            rehash(capacity);
+        }
+    }
+
+    /**
+     * Calls the visitor for every non zero counter.
+     *
+     * @param visitor the visitor.
+     */
+    public void forEach(@NotNull final Visitor visitor)
+    {
+        final int[] currentKeys = keys;
+        final int[] currentValues = values;
+        for (int i = 0; i < currentValues.length; i++)
+        {
+            if (currentValues[i] != 0)
+            {
+                visitor.visit(currentKeys[i], currentValues[i]);
+            }
+        }
+    }
+
+    /**
+     * @return the keys of all non zero counters.
+     */
+    @NotNull
+    public int[] keys()
+    {
+        final int[] result = new int[size];
+        int index = 0;
+        for (int i = 0; i < values.length; i++)
+        {
+            if (values[i] != 0)
+            {
+                result[index++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Frees a bucket and moves following entries of the probe sequence back,
+     * so the lookup never has to skip deleted buckets.
+     *
+     * @param index the bucket to free.
+     */
+    private void removeAt(final int index)
+    {
+        final int mask = keys.length - 1;
+        int free = index;
+        int i = (index + 1) & mask;
+        while (values[i] != 0)
+        {
+            final int home = mix(keys[i]) & mask;
+            //Move the entry if its home bucket is not between the free bucket and its current bucket.
+            if (((i - home) & mask) >= ((i - free) & mask))
+            {
+                keys[free] = keys[i];
+                values[free] = values[i];
+                free = i;
+            }
+            i = (i + 1) & mask;
+        }
+        values[free] = 0;
+        size--;
+    }
+
+    private void rehash(final int capacity)
+    {
+        final int[] oldKeys = keys;
+        final int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+
+        final int mask = capacity - 1;
+        for (int j = 0; j < oldValues.length; j++)
+        {
+            if (oldValues[j] != 0)
+            {
+                int i = mix(oldKeys[j]) & mask;
+                while (values[i] != 0)
+                {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private static int capacityFor(final int expected)
+    {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity * LOAD_FACTOR < expected)
+        {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Spreads the bits of the key, item keys only differ in the upper bits.
+     *
+     * @param key the key.
+     * @return the hash.
+     */
+    private static int mix(final int key)
+    {
+        final int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Receives the counters of {@link #forEach(Visitor)}.
+     */
+    @FunctionalInterface
+    public interface Visitor
+    {
+        /**
+         * Called for one counter.
+         *
+         * @param key   the key.
+         * @param value the value, never 0.
+         */
+        void visit(int key, int value);
+    }
+}
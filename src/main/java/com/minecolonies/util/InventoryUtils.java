@@ -1,5 +1,6 @@
 package com.minecolonies.util;
 
+import com.minecolonies.colony.materials.ItemAvailabilityIndex;
 import net.minecraft.block.Block;
 import net.minecraft.inventory.IInventory;
 import net.minecraft.item.Item;
@@ -282,6 +283,61 @@ public class InventoryUtils
         return false;
     }
 
+    /**
+     * Moves an amount of one item between two inventories, items are equal if their material keys are.
+     * The moved amount is what left the source, a partial move whose leftovers went back counts what arrived.
+     *
+     * @param from   the inventory to take from.
+     * @param to     the inventory to put into.
+     * @param wanted the item and amount to move.
+     * @return how many items were moved.
+     */
+    public static int moveItems(@NotNull IInventory from, @NotNull IInventory to, @NotNull ItemStack wanted)
+    {
+        final int key = ItemAvailabilityIndex.getKey(wanted);
+        final int before = countItems(from, key);
+        int moved = 0;
+        for (int slot = 0; slot < from.getSizeInventory() && moved < wanted.stackSize; slot++)
+        {
+            final ItemStack stack = from.getStackInSlot(slot);
+            if (stack == null || stack.getItem() == null || ItemAvailabilityIndex.getKey(stack) != key)
+            {
+                continue;
+            }
+
+            final int amount = Math.min(wanted.stackSize - moved, stack.stackSize);
+            final boolean complete = takeStackInSlot(from, to, slot, amount);
+            moved = before - countItems(from, key);
+            if (!complete)
+            {
+                //The receiver is full, the leftovers are back in the source.
+                break;
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Counts the items with one material key in an inventory.
+     *
+     * @param inventory the inventory.
+     * @param key       the material key, see {@link ItemAvailabilityIndex#getKey(ItemStack)}.
+     * @return the amount of items.
+     */
+    public static int countItems(@NotNull IInventory inventory, int key)
+    {
+        int count = 0;
+        for (int slot = 0; slot < inventory.getSizeInventory(); slot++)
+        {
+            final ItemStack stack = inventory.getStackInSlot(slot);
+            if (stack != null && stack.getItem() != null && ItemAvailabilityIndex.getKey(stack) == key)
+            {
+                count += stack.stackSize;
+            }
+        }
+        return count;
+    }
+
     /**
      * Tries to put an item into Inventory.
      *
@@ -0,0 +1,527 @@
+package com.minecolonies.util;
+
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Difference between a placed structure and the world, computed off the server thread.
+ * <p>
+ * The block states of the structure area are copied from the chunk sections on the server thread,
+ * the comparison with the structure is split into ranges of positions which run in parallel on the {@link BackgroundPool}.
+ * Chunks which aren't loaded are not loaded for the copy, their positions are compared once the chunks are loaded.
+ * The result are work lists of the positions which still have to be cleared, or get a solid or non-solid block.
+ * Block updates inside the area keep the lists up to date, so finding the next block is a bit lookup instead of comparing with the world.
+ * <p>
+ * Positions are flat indices in the iteration order of {@link StructureWrapper#incrementBlock()}.
+ */
+public final class StructureDiff
+{
+    /**
+     * Work lists of a diff.
+     */
+    public enum Step
+    {
+        /**
+         * Positions where the world has a block which differs from the structure.
+         */
+        CLEAR,
+        /**
+         * Positions which differ and need a solid block.
+         */
+        SOLID,
+        /**
+         * Positions which differ and need a non-solid block or air.
+         */
+        NON_SOLID
+    }
+
+    /**
+     * Words of 64 positions compared by one task, ranges are split until they are this small.
+     * Tasks work on whole words, so they never write into the same word of a work list.
+     */
+    private static final int WORDS_PER_TASK = 64;
+    private static final int BITS_PER_WORD  = 64;
+    private static final int WORD_SHIFT     = 6;
+    private static final int PERCENT        = 100;
+
+    /**
+     * Diffs which receive block updates, only accessed on the server thread.
+     */
+    private static final Set<StructureDiff> activeDiffs = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private final World         world;
+    /**
+     * World position of the structure position 0, 0, 0.
+     */
+    private final BlockPos      origin;
+    private final int           width;
+    private final int           height;
+    private final int           length;
+    private final IBlockState[] structureStates;
+    /**
+     * Amount of positions the structure sets, positions without a block in the structure are never compared.
+     */
+    private       int           structureBlocks;
+    /**
+     * Positions in the {@link Step#SOLID} or {@link Step#NON_SOLID} list, kept up to date when a bit flips.
+     */
+    private       int           mismatchCount;
+
+    /**
+     * Positions changed while the diff was computed, they are checked again once it is done.
+     */
+    private final BitSet           changedWhileComputing = new BitSet();
+    /**
+     * Chunks which weren't loaded for the snapshot, their positions are in {@link #changedWhileComputing}.
+     */
+    private final List<ChunkPos>   unloadedChunks        = new ArrayList<>();
+    @Nullable
+    private       Future<BitSet[]> computation;
+    @Nullable
+    private       BitSet[]         workLists;
+    private       boolean          failed = false;
+
+    private StructureDiff(@NotNull final World world, @NotNull final BlockPos origin, final int width, final int height, final int length)
+    {
+        this.world = world;
+        this.origin = origin;
+        this.width = width;
+        this.height = height;
+        this.length = length;
+        this.structureStates = new IBlockState[width * height * length];
+    }
+
+    /**
+     * Snapshots the structure area and queues the comparison.
+     *
+     * @param world     the world the structure is placed in.
+     * @param structure the structure, rotated and positioned.
+     * @return the diff, it is ready once {@link #isReady()} returns true.
+     */
+    @NotNull
+    public static StructureDiff start(@NotNull final World world, @NotNull final StructureWrapper structure)
+    {
+        @NotNull final StructureDiff diff = new StructureDiff(world, structure.getOffsetPosition(),
+                                                               structure.getWidth(), structure.getHeight(), structure.getLength());
+        final IBlockState[] worldStates = diff.snapshotWorld();
+        for (int index = 0; index < diff.structureStates.length; index++)
+        {
+            diff.structureStates[index] = structure.structure().getBlockState(index);
+            if (diff.structureStates[index] != null)
+            {
+                diff.structureBlocks++;
+            }
+        }
+
+        diff.computation = BackgroundPool.get().submit(diff.new CompareTask(worldStates, diff.createWordLists(), 0, diff.getWordCount()));
+        activeDiffs.add(diff);
+        return diff;
+    }
+
+    /**
+     * Updates the work lists of all diffs containing a changed position.
+     * Called for every block update of a server world.
+     *
+     * @param world    the world.
+     * @param pos      the changed position.
+     * @param newState the new block state.
+     */
+    public static void onBlockUpdate(@NotNull final World world, @NotNull final BlockPos pos, @NotNull final IBlockState newState)
+    {
+        if (activeDiffs.isEmpty())
+        {
+            return;
+        }
+
+        for (@NotNull final StructureDiff diff : activeDiffs)
+        {
+            if (diff.world == world)
+            {
+                diff.update(pos, newState);
+            }
+        }
+    }
+
+    /**
+     * Stops receiving block updates and drops the result.
+     */
+    public void cancel()
+    {
+        activeDiffs.remove(this);
+        if (computation != null)
+        {
+            computation.cancel(false);
+        }
+        workLists = null;
+    }
+
+    /**
+     * @return true if the comparison threw and the diff will never be ready.
+     */
+    public boolean hasFailed()
+    {
+        return failed;
+    }
+
+    /**
+     * Checks if the comparison is done, takes over its result on the first call after it finished.
+     *
+     * @return true if the work lists can be used.
+     */
+    public boolean isReady()
+    {
+        if (workLists != null)
+        {
+            return true;
+        }
+        if (failed || computation == null || !computation.isDone() || !areUnloadedChunksLoaded())
+        {
+            return false;
+        }
+
+        try
+        {
+            workLists = computation.get();
+        }
+        catch (InterruptedException | ExecutionException | CancellationException e)
+        {
+            Log.getLogger().warn("Could not compare the structure with the world, scanning block by block instead.", e);
+            failed = true;
+            activeDiffs.remove(this);
+            return false;
+        }
+        computation = null;
+        mismatchCount = workLists[Step.SOLID.ordinal()].cardinality() + workLists[Step.NON_SOLID.ordinal()].cardinality();
+
+        for (int index = changedWhileComputing.nextSetBit(0); index >= 0; index = changedWhileComputing.nextSetBit(index + 1))
+        {
+            final BlockPos worldPos = origin.add(getLocalPosition(index));
+            classify(index, world.getBlockState(worldPos), worldPos.getY());
+        }
+        changedWhileComputing.clear();
+        return true;
+    }
+
+    /**
+     * Checks if the chunks which weren't loaded for the snapshot are loaded now, without loading them.
+     *
+     * @return true if all positions of the diff can be read from the world.
+     */
+    private boolean areUnloadedChunksLoaded()
+    {
+        for (@NotNull final ChunkPos chunk : unloadedChunks)
+        {
+            if (world.getChunkProvider().getLoadedChunk(chunk.chunkXPos, chunk.chunkZPos) == null)
+            {
+                return false;
+            }
+        }
+        unloadedChunks.clear();
+        return true;
+    }
+
+    /**
+     * Finds the next position of a work list after an index, for {@link Step#CLEAR} the next one below it.
+     *
+     * @param step  the work list.
+     * @param index the current index, -1 to start at the beginning of the iteration.
+     * @return the next index or -1 if there is none.
+     */
+    public int next(@NotNull final Step step, final int index)
+    {
+        if (workLists == null)
+        {
+            return -1;
+        }
+
+        final BitSet list = workLists[step.ordinal()];
+        if (step == Step.CLEAR)
+        {
+            return list.previousSetBit(index < 0 ? structureStates.length - 1 : index - 1);
+        }
+        return list.nextSetBit(index + 1);
+    }
+
+    /**
+     * Positions where the world differs from the structure, the ones which need a solid or non-solid block.
+     *
+     * @return a copy of the bitmap by flat index, null if the diff isn't ready.
+     */
+    @Nullable
+    public BitSet getMismatches()
+    {
+        if (workLists == null)
+        {
+            return null;
+        }
+
+        final BitSet mismatches = (BitSet) workLists[Step.SOLID.ordinal()].clone();
+        mismatches.or(workLists[Step.NON_SOLID.ordinal()]);
+        return mismatches;
+    }
+
+    /**
+     * Amount of positions where the world differs from the structure.
+     *
+     * @return the amount, -1 if the diff isn't ready.
+     */
+    public int getMismatchCount()
+    {
+        return workLists == null ? -1 : mismatchCount;
+    }
+
+    /**
+     * How much of the structure already matches the world.
+     *
+     * @return the percentage from 0 to 100, -1 if the diff isn't ready.
+     */
+    public int getCompletion()
+    {
+        final int mismatches = getMismatchCount();
+        if (mismatches < 0)
+        {
+            return -1;
+        }
+        if (structureBlocks == 0)
+        {
+            return PERCENT;
+        }
+        return (structureBlocks - mismatches) * PERCENT / structureBlocks;
+    }
+
+    /**
+     * Converts a flat index to a structure position.
+     *
+     * @param index the index.
+     * @return the position in the structure.
+     */
+    @NotNull
+    private BlockPos getLocalPosition(final int index)
+    {
+        final int x = index % width;
+        final int z = (index / width) % length;
+        final int y = index / (width * length);
+        return new BlockPos(x, y, z);
+    }
+
+    /**
+     * Copies the block states of the structure area from the chunk sections.
+     * Chunks which aren't loaded are skipped, their positions are compared once they are loaded.
+     *
+     * @return the world states by index.
+     */
+    @NotNull
+    private IBlockState[] snapshotWorld()
+    {
+        final IBlockState[] states = new IBlockState[structureStates.length];
+        final IBlockState air = Blocks.AIR.getDefaultState();
+        final int maxX = origin.getX() + width - 1;
+        final int maxZ = origin.getZ() + length - 1;
+
+        for (int chunkX = origin.getX() >> 4; chunkX <= maxX >> 4; chunkX++)
+        {
+            for (int chunkZ = origin.getZ() >> 4; chunkZ <= maxZ >> 4; chunkZ++)
+            {
+                final Chunk chunk = world.getChunkProvider().getLoadedChunk(chunkX, chunkZ);
+                final ExtendedBlockStorage[] sections = chunk == null ? null : chunk.getBlockStorageArray();
+                final int fromX = Math.max(origin.getX(), chunkX << 4);
+                final int toX = Math.min(maxX, (chunkX << 4) + 15);
+                final int fromZ = Math.max(origin.getZ(), chunkZ << 4);
+                final int toZ = Math.min(maxZ, (chunkZ << 4) + 15);
+                if (chunk == null)
+                {
+                    unloadedChunks.add(new ChunkPos(chunkX, chunkZ));
+                }
+
+                for (int y = 0; y < height; y++)
+                {
+                    final int worldY = origin.getY() + y;
+                    final ExtendedBlockStorage section = sections == null || worldY < 0 || (worldY >> 4) >= sections.length ? null : sections[worldY >> 4];
+                    for (int worldZ = fromZ; worldZ <= toZ; worldZ++)
+                    {
+                        for (int worldX = fromX; worldX <= toX; worldX++)
+                        {
+                            final int index = (y * length + worldZ - origin.getZ()) * width + worldX - origin.getX();
+                            states[index] = section == null ? air : section.get(worldX & 15, worldY & 15, worldZ & 15);
+                            if (chunk == null)
+                            {
+                                changedWhileComputing.set(index);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return states;
+    }
+
+    private int getWordCount()
+    {
+        return (structureStates.length + BITS_PER_WORD - 1) >> WORD_SHIFT;
+    }
+
+    /**
+     * Creates the words the compare tasks write the work lists into.
+     *
+     * @return the words of the work lists by {@link Step} ordinal.
+     */
+    @NotNull
+    private long[][] createWordLists()
+    {
+        return new long[Step.values().length][getWordCount()];
+    }
+
+    /**
+     * Applies a block update to the work lists.
+     *
+     * @param pos      the changed position.
+     * @param newState the new block state.
+     */
+    private void update(@NotNull final BlockPos pos, @NotNull final IBlockState newState)
+    {
+        final int x = pos.getX() - origin.getX();
+        final int y = pos.getY() - origin.getY();
+        final int z = pos.getZ() - origin.getZ();
+        if (x < 0 || y < 0 || z < 0 || x >= width || y >= height || z >= length)
+        {
+            return;
+        }
+
+        final int index = (y * length + z) * width + x;
+        if (workLists == null)
+        {
+            changedWhileComputing.set(index);
+            return;
+        }
+        classify(index, newState, pos.getY());
+    }
+
+    private void classify(final int index, @NotNull final IBlockState worldState, final int worldY)
+    {
+        if (workLists != null)
+        {
+            final boolean wasMismatch = isMismatch(index);
+            final int steps = getSteps(index, worldState, worldY);
+            for (int step = 0; step < workLists.length; step++)
+            {
+                workLists[step].set(index, (steps & (1 << step)) != 0);
+            }
+
+            final boolean mismatch = isMismatch(index);
+            if (mismatch != wasMismatch)
+            {
+                mismatchCount += mismatch ? 1 : -1;
+            }
+        }
+    }
+
+    private boolean isMismatch(final int index)
+    {
+        return workLists[Step.SOLID.ordinal()].get(index) || workLists[Step.NON_SOLID.ordinal()].get(index);
+    }
+
+    /**
+     * Finds the work lists a position belongs to.
+     *
+     * @param index      the position.
+     * @param worldState the block state in the world.
+     * @param worldY     the height in the world.
+     * @return a mask with the bit of every work list the position is in, by {@link Step} ordinal.
+     */
+    private int getSteps(final int index, @NotNull final IBlockState worldState, final int worldY)
+    {
+        final IBlockState structureState = structureStates[index];
+        final boolean different = structureState != null
+                                    && !StructureWrapper.isStructureBlockEqualWorldBlock(structureState, worldState, worldY);
+        final boolean solid = different && structureState.getMaterial().isSolid();
+
+        int steps = 0;
+        if (different && worldY > 0 && worldState.getMaterial() != Material.AIR)
+        {
+            steps |= 1 << Step.CLEAR.ordinal();
+        }
+        if (different)
+        {
+            steps |= 1 << (solid ? Step.SOLID : Step.NON_SOLID).ordinal();
+        }
+        return steps;
+    }
+
+    /**
+     * Compares a range of words of the structure with the world snapshot, splits itself until the range is small.
+     * The whole range writes into shared words, which are turned into the work lists by the first task.
+     */
+    private final class CompareTask extends RecursiveTask<BitSet[]>
+    {
+        @NotNull
+        private final IBlockState[] worldStates;
+        @NotNull
+        private final long[][]      words;
+        private final int           fromWord;
+        private final int           toWord;
+
+        private CompareTask(@NotNull final IBlockState[] worldStates, @NotNull final long[][] words, final int fromWord, final int toWord)
+        {
+            super();
+            this.worldStates = worldStates;
+            this.words = words;
+            this.fromWord = fromWord;
+            this.toWord = toWord;
+        }
+
+        @Nullable
+        @Override
+        protected BitSet[] compute()
+        {
+            if (toWord - fromWord > WORDS_PER_TASK)
+            {
+                final int middle = (fromWord + toWord) >>> 1;
+                invokeAll(new CompareTask(worldStates, words, fromWord, middle), new CompareTask(worldStates, words, middle, toWord));
+            }
+            else
+            {
+                compareRange();
+            }
+
+            if (fromWord != 0 || toWord != getWordCount())
+            {
+                return null;
+            }
+
+            final BitSet[] lists = new BitSet[words.length];
+            for (int step = 0; step < words.length; step++)
+            {
+                lists[step] = BitSet.valueOf(words[step]);
+            }
+            return lists;
+        }
+
+        private void compareRange()
+        {
+            final int end = Math.min(toWord << WORD_SHIFT, structureStates.length);
+            for (int index = fromWord << WORD_SHIFT; index < end; index++)
+            {
+                final int worldY = origin.getY() + index / (width * length);
+                final int steps = getSteps(index, worldStates[index], worldY);
+                for (int step = 0; step < words.length; step++)
+                {
+                    if ((steps & (1 << step)) != 0)
+                    {
+                        words[step][index >> WORD_SHIFT] |= 1L << index;
+                    }
+                }
+            }
+        }
+    }
+}
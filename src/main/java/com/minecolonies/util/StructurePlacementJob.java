@@ -0,0 +1,197 @@
+package com.minecolonies.util;
+
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Places a structure over several server ticks, with a limited amount of blocks and time per tick.
+ * <p>
+ * The placed blocks are collected in one {@link BlockPlacementBatch} which is flushed every {@link #FLUSH_INTERVAL}
+ * ticks, when it holds a tick worth of blocks, or when the structure is done, so every changed chunk is sent to the
+ * clients once per flush instead of once per tick. The time of a flush counts against the budget: what it takes over
+ * the budget of its tick is taken from the following ticks. Air and solid blocks are placed first, then the blocks
+ * which need support like torches. The progress is the cursor of the {@link StructureWrapper}, it is saved so the
+ * placement continues after a restart.
+ */
+public class StructurePlacementJob
+{
+    private static final String TAG_NAME       = "name";
+    private static final String TAG_DIMENSION  = "dimension";
+    private static final String TAG_POS        = "pos";
+    private static final String TAG_ROTATION   = "rotation";
+    private static final String TAG_PROGRESS   = "progress";
+    private static final String TAG_SOLID_PASS = "solidPass";
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    /**
+     * Most ticks between two flushes of the placed blocks.
+     */
+    private static final int  FLUSH_INTERVAL  = 20;
+
+    @NotNull
+    private final String   name;
+    private final int      dimension;
+    @NotNull
+    private final BlockPos origin;
+    private final int      rotation;
+
+    /**
+     * Flat index of the last visited block, restored into the wrapper when it is created.
+     */
+    private int     progress  = -1;
+    private boolean solidPass = true;
+
+    @Nullable
+    private StructureWrapper    wrapper;
+    /**
+     * Blocks placed since the last flush.
+     */
+    @Nullable
+    private BlockPlacementBatch batch;
+    private int                 ticksSinceFlush = 0;
+    /**
+     * Time the last flush took over the budget, it is taken from the budget of the next ticks.
+     */
+    private long                debtNanos       = 0;
+
+    /**
+     * Creates a placement job.
+     *
+     * @param name      the structure name.
+     * @param dimension the dimension to place in.
+     * @param origin    the world position of the structure position 0, 0, 0.
+     * @param rotation  number of times rotated.
+     */
+    public StructurePlacementJob(@NotNull final String name, final int dimension, @NotNull final BlockPos origin, final int rotation)
+    {
+        this.name = name;
+        this.dimension = dimension;
+        this.origin = origin;
+        this.rotation = rotation;
+    }
+
+    /**
+     * @return the dimension the structure is placed in.
+     */
+    public int getDimension()
+    {
+        return dimension;
+    }
+
+    /**
+     * Places the next blocks.
+     *
+     * @param world     the world of the job.
+     * @param maxBlocks the most blocks to visit in this tick.
+     * @param maxMillis the most time to spend in this tick.
+     * @return true if the structure is complete or can't be placed.
+     */
+    public boolean tick(@NotNull final World world, final int maxBlocks, final int maxMillis)
+    {
+        if (wrapper == null)
+        {
+            try
+            {
+                wrapper = new StructureWrapper(world, name);
+            }
+            catch (IllegalStateException e)
+            {
+                Log.getLogger().warn(String.format("Could not load structure %s, stopping its placement", name), e);
+                return true;
+            }
+            wrapper.rotate(rotation);
+            wrapper.setLocalIndex(progress);
+        }
+
+        final long start = System.nanoTime();
+        final long maxNanos = maxMillis * NANOS_PER_MILLI;
+        if (debtNanos >= maxNanos)
+        {
+            debtNanos -= maxNanos;
+            return false;
+        }
+        final long budgetNanos = maxNanos - debtNanos;
+        debtNanos = 0;
+
+        if (batch == null)
+        {
+            batch = new BlockPlacementBatch(world);
+        }
+        boolean done = false;
+
+        for (int visited = 0; visited < maxBlocks && batch.size() < maxBlocks && System.nanoTime() - start < budgetNanos; visited++)
+        {
+            if (!wrapper.incrementBlock())
+            {
+                if (solidPass)
+                {
+                    solidPass = false;
+                    continue;
+                }
+                done = true;
+                break;
+            }
+            wrapper.placeInBatch(batch, origin, wrapper.getLocalIndex(), solidPass);
+        }
+
+        progress = wrapper.getLocalIndex();
+        ticksSinceFlush++;
+        if (done || ticksSinceFlush >= FLUSH_INTERVAL || batch.size() >= maxBlocks)
+        {
+            batch.flush();
+            ticksSinceFlush = 0;
+            debtNanos = Math.max(0, System.nanoTime() - start - budgetNanos);
+        }
+
+        if (done)
+        {
+            wrapper.spawnTemplateEntities(origin);
+        }
+        return done;
+    }
+
+    /**
+     * Reads a job from an NBTTagCompound.
+     *
+     * @param compound the compound.
+     * @return the job.
+     */
+    @NotNull
+    public static StructurePlacementJob createFromNBT(@NotNull final NBTTagCompound compound)
+    {
+        final StructurePlacementJob job = new StructurePlacementJob(
+                                                                    compound.getString(TAG_NAME),
+                                                                    compound.getInteger(TAG_DIMENSION),
+                                                                    BlockPosUtil.readFromNBT(compound, TAG_POS),
+                                                                    compound.getInteger(TAG_ROTATION));
+        job.progress = compound.getInteger(TAG_PROGRESS);
+        job.solidPass = compound.getBoolean(TAG_SOLID_PASS);
+        return job;
+    }
+
+    /**
+     * Writes the job to an NBTTagCompound.
+     * <p>
+     * Blocks placed since the last flush are flushed first, the saved progress already contains them.
+     *
+     * @param compound the compound.
+     */
+    public void writeToNBT(@NotNull final NBTTagCompound compound)
+    {
+        if (batch != null)
+        {
+            batch.flush();
+            ticksSinceFlush = 0;
+        }
+
+        compound.setString(TAG_NAME, name);
+        compound.setInteger(TAG_DIMENSION, dimension);
+        BlockPosUtil.writeToNBT(compound, TAG_POS, origin);
+        compound.setInteger(TAG_ROTATION, rotation);
+        compound.setInteger(TAG_PROGRESS, progress);
+        compound.setBoolean(TAG_SOLID_PASS, solidPass);
+    }
+}
@@ -0,0 +1,115 @@
+package com.minecolonies.util;
+
+import com.minecolonies.colony.ColonyManager;
+import com.minecolonies.configuration.Configurations;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.common.util.Constants.NBT;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Runs the {@link StructurePlacementJob}s of the server, one job per world at a time.
+ * The jobs are saved together with the colonies, their progress whenever the colonies are saved.
+ */
+public final class StructurePlacementManager
+{
+    private static final String TAG_PLACEMENTS = "structurePlacements";
+
+    @NotNull
+    private static final List<StructurePlacementJob> jobs = new ArrayList<>();
+
+    /**
+     * Private constructor to hide the implicit public one.
+     */
+    private StructurePlacementManager()
+    {
+        /*
+         * Intentionally left empty.
+         */
+    }
+
+    /**
+     * Queues a structure to be placed over the next ticks.
+     *
+     * @param world     the world to place it in.
+     * @param name      the structure name.
+     * @param pos       the world position of the structure position 0, 0, 0.
+     * @param rotations number of times rotated.
+     */
+    public static void place(@NotNull final World world, @NotNull final String name, @NotNull final BlockPos pos, final int rotations)
+    {
+        jobs.add(new StructurePlacementJob(name, world.provider.getDimension(), pos, rotations));
+        ColonyManager.markDirty();
+    }
+
+    /**
+     * Continues the oldest job of a world.
+     *
+     * @param world the ticked world.
+     */
+    public static void onWorldTick(@NotNull final World world)
+    {
+        final Iterator<StructurePlacementJob> iterator = jobs.iterator();
+        while (iterator.hasNext())
+        {
+            final StructurePlacementJob job = iterator.next();
+            if (job.getDimension() != world.provider.getDimension())
+            {
+                continue;
+            }
+
+            if (job.tick(world, Configurations.placementBlocksPerTick, Configurations.placementMillisPerTick))
+            {
+                iterator.remove();
+                ColonyManager.markDirty();
+            }
+            return;
+        }
+    }
+
+    /**
+     * Drops all jobs, for example when the server stops.
+     */
+    public static void clear()
+    {
+        jobs.clear();
+    }
+
+    /**
+     * Writes the jobs to an NBTTagCompound.
+     *
+     * @param compound the compound.
+     */
+    public static void writeToNBT(@NotNull final NBTTagCompound compound)
+    {
+        final NBTTagList list = new NBTTagList();
+        for (@NotNull final StructurePlacementJob job : jobs)
+        {
+            final NBTTagCompound jobCompound = new NBTTagCompound();
+            job.writeToNBT(jobCompound);
+            list.appendTag(jobCompound);
+        }
+        compound.setTag(TAG_PLACEMENTS, list);
+    }
+
+    /**
+     * Reads the jobs from an NBTTagCompound.
+     *
+     * @param compound the compound.
+     */
+    public static void readFromNBT(@NotNull final NBTTagCompound compound)
+    {
+        jobs.clear();
+        final NBTTagList list = compound.getTagList(TAG_PLACEMENTS, NBT.TAG_COMPOUND);
+        for (int i = 0; i < list.tagCount(); i++)
+        {
+            jobs.add(StructurePlacementJob.createFromNBT(list.getCompoundTagAt(i)));
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.minecolonies.util;
 import com.minecolonies.blocks.ModBlocks;
 import com.minecolonies.configuration.Configurations;
 import com.minecolonies.lib.Constants;
+import com.structures.helpers.CompactSchematic;
 import com.structures.helpers.StructureProxy;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockDoor;
@@ -12,6 +13,7 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.entity.Entity;
 import net.minecraft.init.Blocks;
 import net.minecraft.item.Item;
+import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.ResourceLocation;
@@ -25,10 +27,14 @@ import net.minecraftforge.fml.relauncher.Side;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
+import java.io.OutputStream;
+import java.util.BitSet;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Interface for using the structure codebase
@@ -40,12 +46,16 @@ public final class StructureWrapper
     /**
      * The position we use as our uninitialized value.
      */
-    private static final BlockPos                 NULL_POS            = new BlockPos(-1, -1, -1);
+    private static final BlockPos NULL_POS   = new BlockPos(-1, -1, -1);
+    /**
+     * The index we use as our uninitialized value.
+     */
+    private static final int      NULL_INDEX = -1;
 
     /**
-     * The Structure position we are at. Defaulted to NULL_POS.
+     * Flat index of the Structure position we are at, see {@link StructureProxy#getIndex(BlockPos)}. Defaulted to NULL_INDEX.
      */
-    private final        BlockPos.MutableBlockPos progressPos         = new BlockPos.MutableBlockPos(-1, -1, -1);
+    private int progressIndex = NULL_INDEX;
     /**
      * The minecraft world this struture is displayed in.
      */
@@ -63,6 +73,11 @@ public final class StructureWrapper
      * The name this structure has.
      */
     private String         name;
+    /**
+     * Precomputed difference to the world, null if the blocks are compared one by one.
+     */
+    @Nullable
+    private StructureDiff  diff;
 
     /**
      * Create a new StructureProxy.
@@ -151,6 +166,7 @@ public final class StructureWrapper
 
     /**
      * Place a structure into the world.
+     * The blocks are written as one {@link BlockPlacementBatch}, the entities of the structure are spawned afterwards.
      *
      * @param pos coordinates
      */
@@ -158,53 +174,73 @@ public final class StructureWrapper
     {
         setLocalPosition(pos);
 
-        @NotNull List<BlockPos> delayedBlocks = new ArrayList<>();
+        @NotNull final BlockPlacementBatch batch = new BlockPlacementBatch(world);
+        for (int index = 0; index < structure.getVolume(); index++)
+        {
+            placeInBatch(batch, pos, index, true);
+        }
+        for (int index = 0; index < structure.getVolume(); index++)
+        {
+            placeInBatch(batch, pos, index, false);
+        }
+        batch.flush();
 
-            //structure.getBlockInfo()[0].pos
+        spawnTemplateEntities(pos);
+    }
+
+    /**
+     * Writes one block of the structure into a batch.
+     * Structures are placed in two passes, first air and solid blocks, then the blocks which need support like torches.
+     * Substitution blocks are skipped and air only replaces blocks which are not solid.
+     *
+     * @param batch     the batch.
+     * @param origin    the world position of the structure position 0, 0, 0.
+     * @param index     the flat index of the block.
+     * @param solidPass true to place air and solid blocks, false to place the other blocks.
+     */
+    void placeInBatch(@NotNull final BlockPlacementBatch batch, @NotNull final BlockPos origin, final int index, final boolean solidPass)
+    {
+        final IBlockState localState = structure.getBlockState(index);
+        if (localState == null || localState.getBlock() == ModBlocks.blockSubstitution)
+        {
+            return;
+        }
 
-        for (int j = 0; j < structure.getHeight(); j++)
+        final boolean air = localState.getBlock() == Blocks.AIR;
+        if (solidPass != (air || localState.getMaterial().isSolid()))
         {
-            for (int k = 0; k < structure.getLength(); k++)
+            return;
+        }
+
+        final BlockPos worldPos = origin.add(structure.getLocalPosition(index));
+        if (air)
+        {
+            if (!world.getBlockState(worldPos).getMaterial().isSolid())
             {
-                for (int i = 0; i < structure.getWidth(); i++)
-                {
-                    @NotNull BlockPos localPos = new BlockPos(i, j, k);
-                    IBlockState localState = this.structure.getBlockState(localPos);
-                    Block localBlock = localState.getBlock();
-
-                    BlockPos worldPos = pos.add(localPos);
-                    IBlockState worldState = world.getBlockState(worldPos);
-
-                    if (localBlock == ModBlocks.blockSubstitution)
-                    {
-                        continue;
-                    }
-                    else if (localBlock == Blocks.AIR && !worldState.getMaterial().isSolid())
-                    {
-                        world.setBlockToAir(worldPos);
-                    }
-                    else if (localState.getMaterial().isSolid())
-                    {
-                        placeBlock(localState, localBlock, worldPos);
-                    }
-                    else
-                    {
-                        delayedBlocks.add(localPos);
-                    }
-
-                    //setTileEntity checks for null and ignores it.
-                    world.setTileEntity(worldPos, structure.getTileEntity(localPos));
-                }
+                batch.setBlockState(worldPos, localState);
             }
+            return;
         }
 
-        for (@NotNull BlockPos coords : delayedBlocks)
+        batch.setBlockState(worldPos, localState);
+        final NBTTagCompound tileEntityData = structure.getTileEntityData(index);
+        if (tileEntityData != null)
         {
-            IBlockState localState = this.structure.getBlockState(coords);
-            Block localBlock = localState.getBlock();
-            BlockPos newWorldPos = pos.add(coords);
+            batch.setTileEntityData(worldPos, tileEntityData);
+        }
+    }
 
-            placeBlock(localState, localBlock, newWorldPos);
+    /**
+     * Spawns the entities saved with the structure, each with a new id.
+     *
+     * @param origin the world position of the structure position 0, 0, 0.
+     */
+    void spawnTemplateEntities(@NotNull final BlockPos origin)
+    {
+        for (@NotNull final Entity entity : structure.createTemplateEntities(world, origin))
+        {
+            entity.setUniqueId(UUID.randomUUID());
+            world.spawnEntityInWorld(entity);
         }
     }
 
@@ -214,20 +250,86 @@ public final class StructureWrapper
      */
     public void rotate(int times)
     {
+        cancelDiff();
         structure.rotate(times);
     }
 
-    private void placeBlock(IBlockState localState, @NotNull Block localBlock, @NotNull BlockPos worldPos)
+    /**
+     * Starts comparing the whole structure with the world in the background.
+     * Until it is done the find methods compare block by block.
+     * Call this after the structure has been rotated and positioned.
+     */
+    public void startDiff()
+    {
+        cancelDiff();
+        diff = StructureDiff.start(world, this);
+    }
+
+    /**
+     * Stops using the precomputed difference to the world.
+     */
+    public void cancelDiff()
+    {
+        if (diff != null)
+        {
+            diff.cancel();
+            diff = null;
+        }
+    }
+
+    /**
+     * @return true if a diff was started and is still comparing in the background.
+     */
+    public boolean isDiffRunning()
     {
-        world.setBlockState(worldPos, localState, 0x03);
-        if (world.getBlockState(worldPos).getBlock() == localBlock)
+        return diff != null && !diff.hasFailed() && !diff.isReady();
+    }
+
+    /**
+     * Positions where the world still differs from the structure, taken from the diff.
+     *
+     * @return the bitmap by flat index, null if the diff isn't ready.
+     */
+    @Nullable
+    public BitSet getMismatches()
+    {
+        return isDiffReady() ? diff.getMismatches() : null;
+    }
+
+    /**
+     * How much of the structure already matches the world, taken from the diff.
+     *
+     * @return the percentage from 0 to 100, -1 if the diff isn't ready.
+     */
+    public int getCompletion()
+    {
+        return isDiffReady() ? diff.getCompletion() : -1;
+    }
+
+    /**
+     * Moves to the next position of a work list of the diff.
+     *
+     * @param step the work list.
+     * @return false if there is no next position.
+     */
+    private boolean findNextBlockInDiff(@NotNull StructureDiff.Step step)
+    {
+        final int next = diff.next(step, progressIndex);
+        if (next < 0)
         {
-            if (world.getBlockState(worldPos) != localState)
-            {
-                world.setBlockState(worldPos, localState, 0x03);
-            }
-            localBlock.onBlockAdded(world, worldPos, localState);
+            reset();
+            return false;
         }
+        progressIndex = next;
+        return true;
+    }
+
+    /**
+     * @return true if the diff to the world can be used.
+     */
+    private boolean isDiffReady()
+    {
+        return diff != null && diff.isReady();
     }
 
     /**
@@ -263,12 +365,35 @@ public final class StructureWrapper
         template.setAuthor(Constants.MOD_ID);
         if (templatemanager.writeTemplate(minecraftserver, new ResourceLocation(fileName)))
         {
+            if (Configurations.exportCompactScans)
+            {
+                exportCompact(template, minecraftserver.getFile("minecolonies/scans/"
+                        + LanguageHandler.format("item.scepterSteel.scanFormat", "", currentMillis) + CompactSchematic.EXTENSION));
+            }
             return LanguageHandler.format("item.scepterSteel.scanSuccess", "minecolonies/scans/"
                     + LanguageHandler.format("item.scepterSteel.scanFormat", "", currentMillis));
         }
         return LanguageHandler.format("item.scepterSteel.scanFailure");
     }
 
+    /**
+     * Writes a scanned structure in the compact format next to the vanilla template.
+     *
+     * @param template the scanned template.
+     * @param file     the file to write.
+     */
+    private static void exportCompact(@NotNull final Template template, @NotNull final File file)
+    {
+        try (OutputStream stream = new FileOutputStream(file))
+        {
+            CompactSchematic.write(template, stream);
+        }
+        catch (IOException e)
+        {
+            Log.getLogger().warn(String.format("Could not export the scan to %s", file), e);
+        }
+    }
+
     /**
      * Find the next block that doesn't already exist in the world.
      *
@@ -291,30 +416,18 @@ public final class StructureWrapper
     }
 
     /**
-     * Increment progressPos.
+     * Increment the progress.
      *
      * @return false if the all the block have been incremented through.
      */
     public boolean incrementBlock()
     {
-        if (this.progressPos.equals(NULL_POS))
+        //Starts at index 0 when not initialized.
+        progressIndex++;
+        if (progressIndex >= structure.getVolume())
         {
-            this.progressPos.setPos(-1, 0, 0);
-        }
-
-        this.progressPos.setPos(this.progressPos.getX() + 1, this.progressPos.getY(), this.progressPos.getZ());
-        if (this.progressPos.getX() == structure.getWidth())
-        {
-            this.progressPos.setPos(0, this.progressPos.getY(), this.progressPos.getZ() + 1);
-            if (this.progressPos.getZ() == structure.getLength())
-            {
-                this.progressPos.setPos(this.progressPos.getX(), this.progressPos.getY() + 1, 0);
-                if (this.progressPos.getY() == structure.getHeight())
-                {
-                    reset();
-                    return false;
-                }
-            }
+            reset();
+            return false;
         }
 
         return true;
@@ -327,7 +440,28 @@ public final class StructureWrapper
      */
     public boolean doesStructureBlockEqualWorldBlock()
     {
-        IBlockState structureBlockState = structure.getBlockState(this.getLocalPosition());
+        IBlockState structureBlockState = structure.getBlockState(progressIndex);
+        BlockPos worldPos = this.getBlockPosition();
+
+        //All worldBlocks are equal the substitution block, don't look up the world for it.
+        if (structureBlockState.getBlock() == ModBlocks.blockSubstitution)
+        {
+            return true;
+        }
+
+        return isStructureBlockEqualWorldBlock(structureBlockState, world.getBlockState(worldPos), worldPos.getY());
+    }
+
+    /**
+     * Checks if a block in the world is the same as what is in the structure.
+     *
+     * @param structureBlockState the state in the structure.
+     * @param worldBlockState     the state in the world.
+     * @param worldY              the height of the position in the world.
+     * @return true if the structure block equals the world block.
+     */
+    static boolean isStructureBlockEqualWorldBlock(@NotNull IBlockState structureBlockState, @NotNull IBlockState worldBlockState, int worldY)
+    {
         Block structureBlock = structureBlockState.getBlock();
 
         //All worldBlocks are equal the substitution block
@@ -336,10 +470,6 @@ public final class StructureWrapper
             return true;
         }
 
-        BlockPos worldPos = this.getBlockPosition();
-
-        IBlockState worldBlockState = world.getBlockState(worldPos);
-
         //list of things to only check block for.
         //For the time being any flower pot is equal to each other.
         if (structureBlock instanceof BlockDoor || structureBlock == Blocks.FLOWER_POT)
@@ -352,35 +482,63 @@ public final class StructureWrapper
         }
 
         //had this problem in a super flat world, causes builder to sit doing nothing because placement failed
-        return worldPos.getY() <= 0
+        return worldY <= 0
                  || structureBlockState == worldBlockState;
     }
 
     /**
-     * Reset the progressPos.
+     * Reset the progress.
      */
     public void reset()
     {
-        BlockPosUtil.set(this.progressPos, NULL_POS);
+        progressIndex = NULL_INDEX;
     }
 
     /**
-     * @return progressPos as an immutable.
+     * @return the current position inside the structure, (-1, -1, -1) if not initialized.
      */
     @NotNull
     public BlockPos getLocalPosition()
     {
-        return this.progressPos.toImmutable();
+        if (progressIndex == NULL_INDEX)
+        {
+            return NULL_POS;
+        }
+        return structure.getLocalPosition(progressIndex);
     }
 
     /**
-     * Change the current progressPos. Used when loading progress.
+     * Change the current progress. Used when loading progress.
      *
-     * @param localPosition new progressPos.
+     * @param localPosition new position inside the structure, (-1, -1, -1) to reset.
      */
     public void setLocalPosition(@NotNull BlockPos localPosition)
     {
-        BlockPosUtil.set(this.progressPos, localPosition);
+        if (localPosition.getX() < 0 || localPosition.getY() < 0 || localPosition.getZ() < 0
+              || localPosition.getX() >= getWidth() || localPosition.getY() >= getHeight() || localPosition.getZ() >= getLength())
+        {
+            reset();
+            return;
+        }
+        progressIndex = structure.getIndex(localPosition);
+    }
+
+    /**
+     * @return the flat index of the current position, -1 if not initialized.
+     */
+    public int getLocalIndex()
+    {
+        return progressIndex;
+    }
+
+    /**
+     * Change the current progress to a flat index.
+     *
+     * @param index the index, -1 to reset.
+     */
+    public void setLocalIndex(int index)
+    {
+        progressIndex = index < 0 || index >= structure.getVolume() ? NULL_INDEX : index;
     }
 
     /**
@@ -388,7 +546,7 @@ public final class StructureWrapper
      */
     public BlockPos getBlockPosition()
     {
-        return this.progressPos.add(getOffsetPosition());
+        return getLocalPosition().add(getOffsetPosition());
     }
 
     /**
@@ -414,6 +572,11 @@ public final class StructureWrapper
      */
     public boolean findNextBlockToClear()
     {
+        if (isDiffReady())
+        {
+            return findNextBlockInDiff(StructureDiff.Step.CLEAR);
+        }
+
         int count = 0;
         do
         {
@@ -459,11 +622,11 @@ public final class StructureWrapper
     @Nullable
     public IBlockState getBlockState()
     {
-        if (this.progressPos.equals(NULL_POS))
+        if (progressIndex == NULL_INDEX)
         {
             return null;
         }
-        return this.structure.getBlockState(this.progressPos);
+        return this.structure.getBlockState(progressIndex);
     }
 
     /**
@@ -473,6 +636,11 @@ public final class StructureWrapper
      */
     public boolean findNextBlockSolid()
     {
+        if (isDiffReady())
+        {
+            return findNextBlockInDiff(StructureDiff.Step.SOLID);
+        }
+
         int count = 0;
         do
         {
@@ -499,6 +667,11 @@ public final class StructureWrapper
      */
     public boolean findNextBlockNonSolid()
     {
+        if (isDiffReady())
+        {
+            return findNextBlockInDiff(StructureDiff.Step.NON_SOLID);
+        }
+
         int count = 0;
         do
         {
@@ -519,30 +692,18 @@ public final class StructureWrapper
     }
 
     /**
-     * Decrement progressPos.
+     * Decrement the progress.
      *
-     * @return false if progressPos can't be decremented any more.
+     * @return false if the progress can't be decremented any more.
      */
     public boolean decrementBlock()
     {
-        if (this.progressPos.equals(NULL_POS))
-        {
-            this.progressPos.setPos(structure.getWidth(), structure.getHeight() - 1, structure.getLength() - 1);
-        }
-
-        this.progressPos.setPos(this.progressPos.getX() - 1, this.progressPos.getY(), this.progressPos.getZ());
-        if (this.progressPos.getX() == -1)
+        //Starts at the last index when not initialized.
+        progressIndex = progressIndex == NULL_INDEX ? structure.getVolume() - 1 : progressIndex - 1;
+        if (progressIndex < 0)
         {
-            this.progressPos.setPos(structure.getWidth() - 1, this.progressPos.getY(), this.progressPos.getZ() - 1);
-            if (this.progressPos.getZ() == -1)
-            {
-                this.progressPos.setPos(this.progressPos.getX(), this.progressPos.getY() - 1, structure.getLength() - 1);
-                if (this.progressPos.getY() == -1)
-                {
-                    reset();
-                    return false;
-                }
-            }
+            reset();
+            return false;
         }
 
         return true;
@@ -561,11 +722,11 @@ public final class StructureWrapper
     @Nullable
     public TileEntity getTileEntity()
     {
-        if (this.progressPos.equals(NULL_POS))
+        if (progressIndex == NULL_INDEX)
         {
             return null;
         }
-        return this.structure.getTileEntity(this.progressPos);
+        return this.structure.getTileEntity(getLocalPosition());
     }
 
     /**
@@ -598,6 +759,7 @@ public final class StructureWrapper
      */
     public void setPosition(BlockPos position)
     {
+        cancelDiff();
         this.position = position;
     }
 
@@ -0,0 +1,327 @@
+package com.minecolonies.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the time and the allocations of the colony simulation, switched off by default.
+ * <p>
+ * Code to measure is put between {@link #push(String)} and {@link #pop()}. The pushed sections form a stack, like
+ * "colony 1;world tick END;building BuildingBuilder", and every stack sums up its calls, nanoseconds and allocated bytes.
+ * While the profiler is off push and pop return at once. Start and stop it from the server thread between ticks.
+ */
+public final class TickProfiler
+{
+    /**
+     * Root section of a colony, followed by its id.
+     */
+    public static final String COLONY        = "colony ";
+    /**
+     * Section of a building, followed by its type.
+     */
+    public static final String BUILDING      = "building ";
+    /**
+     * Section of a citizen job AI, followed by the job name.
+     */
+    public static final String JOB           = "job ";
+    /**
+     * Section of an AI state, followed by the state.
+     */
+    public static final String STATE         = "state ";
+    /**
+     * Section of the server tick of a colony, followed by the tick phase.
+     */
+    public static final String SERVER_TICK   = "server tick ";
+    /**
+     * Section of the world tick of a colony, followed by the tick phase.
+     */
+    public static final String WORLD_TICK    = "world tick ";
+    /*
+     * Sections of the colony tick.
+     */
+    public static final String CITIZEN_AI    = "citizen ai";
+    public static final String SUBSCRIBERS   = "subscriber sync";
+    public static final String CLEANUP       = "cleanup";
+    public static final String WORK_ORDERS   = "work orders";
+    public static final String XP_COLLECTION = "xp collection";
+
+    private static final String SEPARATOR       = ";";
+    private static final double NANOS_PER_MILLI = 1_000_000D;
+
+    @NotNull
+    private static final Map<String, Sample>        samples = new ConcurrentHashMap<>();
+    @NotNull
+    private static final ThreadLocal<Deque<Frame>>  stacks  = ThreadLocal.withInitial(ArrayDeque::new);
+    @NotNull
+    private static final ThreadMXBean               threads = ManagementFactory.getThreadMXBean();
+    private static volatile boolean enabled = false;
+
+    /**
+     * Private constructor to hide the implicit public one.
+     */
+    private TickProfiler()
+    {
+        /*
+         * Intentionally left empty.
+         */
+    }
+
+    /**
+     * Starts measuring, the samples of earlier runs are kept.
+     */
+    public static void start()
+    {
+        if (threads instanceof com.sun.management.ThreadMXBean)
+        {
+            final com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+            if (allocations.isThreadAllocatedMemorySupported())
+            {
+                allocations.setThreadAllocatedMemoryEnabled(true);
+            }
+        }
+        enabled = true;
+    }
+
+    /**
+     * Stops measuring, the samples are kept.
+     */
+    public static void stop()
+    {
+        enabled = false;
+    }
+
+    /**
+     * Drops all samples.
+     */
+    public static void reset()
+    {
+        samples.clear();
+    }
+
+    /**
+     * @return true while the profiler measures.
+     */
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Starts a section below the current one.
+     *
+     * @param name the section name.
+     */
+    public static void push(@NotNull final String name)
+    {
+        if (enabled)
+        {
+            pushFrame(name);
+        }
+    }
+
+    /**
+     * Starts a section below the current one, the name is only built while the profiler measures.
+     *
+     * @param prefix the section type, like {@link #BUILDING}.
+     * @param key    the object, a class is named by its simple name.
+     */
+    public static void push(@NotNull final String prefix, @NotNull final Object key)
+    {
+        if (enabled)
+        {
+            pushFrame(prefix + (key instanceof Class ? ((Class<?>) key).getSimpleName() : key));
+        }
+    }
+
+    /**
+     * Starts a section below the current one, the name is only built while the profiler measures.
+     *
+     * @param prefix the section type, like {@link #COLONY}.
+     * @param id     the id.
+     */
+    public static void push(@NotNull final String prefix, final int id)
+    {
+        if (enabled)
+        {
+            pushFrame(prefix + id);
+        }
+    }
+
+    /**
+     * Ends the current section and adds its time and allocations to its stack.
+     */
+    public static void pop()
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        final Deque<Frame> stack = stacks.get();
+        if (stack.isEmpty())
+        {
+            return;
+        }
+
+        final Frame frame = stack.pop();
+        samples.computeIfAbsent(frame.path, path -> new Sample())
+          .add(System.nanoTime() - frame.startNanos, getAllocatedBytes() - frame.startBytes);
+    }
+
+    /**
+     * Summarizes the stacks below a root section, the most expensive first.
+     *
+     * @param root     the root section, like "colony 1".
+     * @param tickPath the section which is entered once per tick, like "colony 1;server tick END".
+     * @param maxLines the most stacks to list.
+     * @return the report lines.
+     */
+    @NotNull
+    public static List<String> getReport(@NotNull final String root, @NotNull final String tickPath, final int maxLines)
+    {
+        final Sample tickSample = samples.get(tickPath);
+        final long ticks = tickSample == null ? 0 : tickSample.calls.sum();
+        final long perTick = Math.max(1, ticks);
+
+        final List<Map.Entry<String, Sample>> entries = new ArrayList<>();
+        for (@NotNull final Map.Entry<String, Sample> entry : samples.entrySet())
+        {
+            if (entry.getKey().equals(root) || entry.getKey().startsWith(root + SEPARATOR))
+            {
+                entries.add(entry);
+            }
+        }
+        entries.sort((a, b) -> Long.compare(b.getValue().nanos.sum(), a.getValue().nanos.sum()));
+
+        final List<String> lines = new ArrayList<>();
+        lines.add(String.format("%s: %d ticks measured", root, ticks));
+        for (int i = 0; i < entries.size() && i < maxLines; i++)
+        {
+            final String path = entries.get(i).getKey();
+            final Sample sample = entries.get(i).getValue();
+            lines.add(String.format("%s: %.3f ms/tick, %d bytes/tick, %d calls",
+              path.equals(root) ? root : path.substring(root.length() + SEPARATOR.length()),
+              sample.nanos.sum() / NANOS_PER_MILLI / perTick,
+              sample.bytes.sum() / perTick,
+              sample.calls.sum()));
+        }
+        return lines;
+    }
+
+    /**
+     * Writes the stacks below a root section in the folded format of flame graph tools, one stack per line
+     * followed by the time or the allocations spent in it but not in its child sections.
+     *
+     * @param root        the root section, like "colony 1".
+     * @param file        the file to write.
+     * @param allocations true to write the allocated bytes instead of the nanoseconds.
+     * @throws IOException if the file can't be written.
+     */
+    public static void exportFolded(@NotNull final String root, @NotNull final File file, final boolean allocations) throws IOException
+    {
+        final Map<String, Long> self = new HashMap<>();
+        for (@NotNull final Map.Entry<String, Sample> entry : samples.entrySet())
+        {
+            final String path = entry.getKey();
+            if (!path.equals(root) && !path.startsWith(root + SEPARATOR))
+            {
+                continue;
+            }
+
+            final long value = allocations ? entry.getValue().bytes.sum() : entry.getValue().nanos.sum();
+            self.merge(path, value, Long::sum);
+            final int parentEnd = path.lastIndexOf(SEPARATOR);
+            if (parentEnd > 0 && samples.containsKey(path.substring(0, parentEnd)))
+            {
+                self.merge(path.substring(0, parentEnd), -value, Long::sum);
+            }
+        }
+
+        final File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs())
+        {
+            throw new IOException(String.format("Could not create %s", parent));
+        }
+        try (PrintWriter writer = new PrintWriter(file, "UTF-8"))
+        {
+            for (@NotNull final Map.Entry<String, Long> entry : self.entrySet())
+            {
+                if (entry.getValue() > 0)
+                {
+                    writer.println(entry.getKey().replace(' ', '_') + " " + entry.getValue());
+                }
+            }
+        }
+    }
+
+    private static void pushFrame(@NotNull final String name)
+    {
+        final Deque<Frame> stack = stacks.get();
+        final Frame parent = stack.peek();
+        stack.push(new Frame(parent == null ? name : (parent.path + SEPARATOR + name), System.nanoTime(), getAllocatedBytes()));
+    }
+
+    /**
+     * @return the bytes the current thread allocated so far, 0 if the JVM doesn't count them.
+     */
+    private static long getAllocatedBytes()
+    {
+        if (threads instanceof com.sun.management.ThreadMXBean)
+        {
+            final com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+            if (allocations.isThreadAllocatedMemoryEnabled())
+            {
+                return allocations.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * A started section.
+     */
+    private static final class Frame
+    {
+        @NotNull
+        private final String path;
+        private final long   startNanos;
+        private final long   startBytes;
+
+        private Frame(@NotNull final String path, final long startNanos, final long startBytes)
+        {
+            this.path = path;
+            this.startNanos = startNanos;
+            this.startBytes = startBytes;
+        }
+    }
+
+    /**
+     * Sums of one stack.
+     */
+    private static final class Sample
+    {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        private void add(final long elapsedNanos, final long allocatedBytes)
+        {
+            calls.increment();
+            nanos.add(elapsedNanos);
+            bytes.add(allocatedBytes);
+        }
+    }
+}
@@ -278,7 +278,8 @@ public final class Utils
     }
 
     /**
-     * Plays the block break effect at specific location
+     * Plays the block break effect at specific location.
+     * Nothing is played if no player observes the citizen.
      *
      * @param world    World to play effect in
      * @param pos      Coordinates
@@ -288,6 +289,10 @@ public final class Utils
      */
     public static void blockBreakSoundAndEffect(@NotNull World world, BlockPos pos, Block block, int metadata, EntityCitizen citizen)
     {
+        if (!citizen.isObserved())
+        {
+            return;
+        }
         final SoundType soundType = block.getSoundType(world.getBlockState(pos), world, pos, citizen);
         world.playSound(null, pos, soundType.getBreakSound(), SoundCategory.BLOCKS, soundType.getVolume(), soundType.getPitch());
     }
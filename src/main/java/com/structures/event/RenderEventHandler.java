@@ -22,6 +22,7 @@ public class RenderEventHandler
     @SubscribeEvent
     public void onRenderWorldLast(RenderWorldLastEvent event)
     {
+        Settings.instance.updatePendingSchematic();
         Structure structure = Settings.instance.getActiveStructure();
         if (structure != null)
         {
@@ -0,0 +1,473 @@
+package com.structures.helpers;
+
+import com.minecolonies.util.Log;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTSizeTracker;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.nbt.NBTUtil;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.gen.structure.template.Template;
+import net.minecraftforge.common.util.Constants.NBT;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary format for structures, read without building an NBT tree of the whole structure.
+ * <p>
+ * A file contains, in this order:
+ * <ul>
+ * <li>the magic number and the format version,</li>
+ * <li>the size and the author,</li>
+ * <li>the palette, every block state used once as NBT,</li>
+ * <li>the tile entities, as flat index and NBT,</li>
+ * <li>the entities, as position and NBT,</li>
+ * <li>the blocks as runs of palette indices, index 0 is a position without a block.</li>
+ * </ul>
+ * Positions are flat indices, x changes fastest, then z, then y. Numbers are written as variable length integers.
+ * The file is not compressed, so it is read in one pass without unpacking it first.
+ */
+public final class CompactSchematic
+{
+    /**
+     * File extension of the format.
+     */
+    public static final String EXTENSION           = ".mcs";
+    /**
+     * File extension of the vanilla structure templates.
+     */
+    public static final String TEMPLATE_EXTENSION  = ".nbt";
+    /**
+     * File extension of the legacy MCEdit schematics.
+     */
+    public static final String SCHEMATIC_EXTENSION = ".schematic";
+
+    private static final int MAGIC   = 0x4D435343;
+    private static final int VERSION = 1;
+
+    private static final int NO_BLOCK      = 0;
+    private static final int VARINT_BITS   = 7;
+    private static final int VARINT_MASK   = 0x7F;
+    private static final int VARINT_MORE   = 0x80;
+    private static final int NIBBLE_MASK   = 0x0F;
+    private static final int BYTE_MASK     = 0xFF;
+    private static final int ADD_SHIFT     = 8;
+    private static final int ADD_HIGH_MASK = 0xF0;
+
+    private static final String TAG_WIDTH          = "Width";
+    private static final String TAG_HEIGHT         = "Height";
+    private static final String TAG_LENGTH         = "Length";
+    private static final String TAG_BLOCKS         = "Blocks";
+    private static final String TAG_DATA           = "Data";
+    private static final String TAG_ADD_BLOCKS     = "AddBlocks";
+    private static final String TAG_TILE_ENTITIES  = "TileEntities";
+    private static final String TAG_ENTITIES       = "Entities";
+    private static final String TAG_POS            = "Pos";
+    private static final String TAG_X              = "x";
+    private static final String TAG_Y              = "y";
+    private static final String TAG_Z              = "z";
+    /**
+     * Block ids of the blocks in a schematic written by Schematica, by registry name.
+     */
+    private static final String TAG_SCHEMATICA_MAP = "SchematicaMapping";
+    /**
+     * Registry names of the blocks in a schematic written by MCEdit, by block id.
+     */
+    private static final String TAG_BLOCK_IDS      = "BlockIDs";
+
+    /**
+     * Private constructor to hide the implicit public one.
+     */
+    private CompactSchematic()
+    {
+        /*
+         * Intentionally left empty.
+         */
+    }
+
+    /**
+     * Writes a template in the compact format.
+     *
+     * @param template the template.
+     * @param output   the stream, it is not closed.
+     * @throws IOException if the stream can't be written.
+     */
+    public static void write(@NotNull final Template template, @NotNull final OutputStream output) throws IOException
+    {
+        final BlockPos size = template.getSize();
+        final int volume = size.getX() * size.getY() * size.getZ();
+        final int[] blocks = new int[volume];
+        final Map<IBlockState, Integer> paletteIndices = new IdentityHashMap<>();
+        final List<IBlockState> palette = new ArrayList<>();
+        final Map<Integer, NBTTagCompound> tileEntities = new HashMap<>();
+
+        for (@NotNull final Template.BlockInfo info : template.blocks)
+        {
+            final int index = getIndex(info.pos, size);
+            Integer paletteIndex = paletteIndices.get(info.blockState);
+            if (paletteIndex == null)
+            {
+                palette.add(info.blockState);
+                paletteIndex = palette.size();
+                paletteIndices.put(info.blockState, paletteIndex);
+            }
+            blocks[index] = paletteIndex;
+            if (info.tileentityData != null)
+            {
+                tileEntities.put(index, info.tileentityData);
+            }
+        }
+
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        writeVarInt(out, size.getX());
+        writeVarInt(out, size.getY());
+        writeVarInt(out, size.getZ());
+        out.writeUTF(template.getAuthor());
+
+        writeVarInt(out, palette.size());
+        for (@NotNull final IBlockState state : palette)
+        {
+            CompressedStreamTools.write(NBTUtil.writeBlockState(new NBTTagCompound(), state), out);
+        }
+
+        writeVarInt(out, tileEntities.size());
+        for (@NotNull final Map.Entry<Integer, NBTTagCompound> entry : tileEntities.entrySet())
+        {
+            writeVarInt(out, entry.getKey());
+            CompressedStreamTools.write(entry.getValue(), out);
+        }
+
+        writeVarInt(out, template.entities.size());
+        for (@NotNull final Template.EntityInfo info : template.entities)
+        {
+            out.writeDouble(info.pos.xCoord);
+            out.writeDouble(info.pos.yCoord);
+            out.writeDouble(info.pos.zCoord);
+            writeVarInt(out, info.blockPos.getX());
+            writeVarInt(out, info.blockPos.getY());
+            writeVarInt(out, info.blockPos.getZ());
+            CompressedStreamTools.write(info.entityData, out);
+        }
+
+        for (int index = 0; index < volume; )
+        {
+            final int paletteIndex = blocks[index];
+            int run = 1;
+            while (index + run < volume && blocks[index + run] == paletteIndex)
+            {
+                run++;
+            }
+            writeVarInt(out, run);
+            writeVarInt(out, paletteIndex);
+            index += run;
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a template from a stream in the compact format, the stream is read once from start to end.
+     *
+     * @param input the stream, it is not closed.
+     * @return the template.
+     * @throws IOException if the stream can't be read or isn't in the compact format.
+     */
+    @NotNull
+    public static Template read(@NotNull final InputStream input) throws IOException
+    {
+        return readFrom(new DataInputStream(new BufferedInputStream(input)));
+    }
+
+    /**
+     * Converts a vanilla structure template or a legacy schematic to the compact format.
+     *
+     * @param source the .nbt or .schematic file.
+     * @param target the file to write.
+     * @throws IOException if a file can't be read or written, or the source has an unknown extension.
+     */
+    public static void convert(@NotNull final File source, @NotNull final File target) throws IOException
+    {
+        final Template template;
+        try (InputStream stream = new FileInputStream(source))
+        {
+            template = readLegacy(source.getName(), stream);
+        }
+
+        try (OutputStream stream = new FileOutputStream(target))
+        {
+            write(template, stream);
+        }
+    }
+
+    /**
+     * Reads a vanilla structure template or a legacy schematic.
+     *
+     * @param fileName the name of the file, its extension decides the format.
+     * @param input    the gzipped NBT stream, it is not closed.
+     * @return the template.
+     * @throws IOException if the stream can't be read or the extension is unknown.
+     */
+    @NotNull
+    public static Template readLegacy(@NotNull final String fileName, @NotNull final InputStream input) throws IOException
+    {
+        final NBTTagCompound compound = CompressedStreamTools.readCompressed(input);
+        if (fileName.endsWith(SCHEMATIC_EXTENSION))
+        {
+            return fromSchematic(compound);
+        }
+        if (fileName.endsWith(TEMPLATE_EXTENSION))
+        {
+            final Template template = new Template();
+            template.read(compound);
+            return template;
+        }
+        throw new IOException(String.format("Unknown structure format of %s", fileName));
+    }
+
+    /**
+     * Converts a legacy MCEdit schematic to a template.
+     * The block ids are taken from the id mapping saved in the schematic if it has one, the ids of this game are only
+     * used for blocks it doesn't map. Structure void blocks and mapped blocks which don't exist here are left out.
+     *
+     * @param compound the schematic NBT.
+     * @return the template.
+     */
+    @NotNull
+    public static Template fromSchematic(@NotNull final NBTTagCompound compound)
+    {
+        final int width = compound.getShort(TAG_WIDTH);
+        final int height = compound.getShort(TAG_HEIGHT);
+        final int length = compound.getShort(TAG_LENGTH);
+        final BlockPos size = new BlockPos(width, height, length);
+        final byte[] blockIds = compound.getByteArray(TAG_BLOCKS);
+        final byte[] data = compound.getByteArray(TAG_DATA);
+        final byte[] addBlocks = compound.getByteArray(TAG_ADD_BLOCKS);
+        final Map<Integer, Block> mapping = readBlockMapping(compound);
+
+        final Map<Integer, NBTTagCompound> tileEntities = new HashMap<>();
+        final NBTTagList tileEntityList = compound.getTagList(TAG_TILE_ENTITIES, NBT.TAG_COMPOUND);
+        for (int i = 0; i < tileEntityList.tagCount(); i++)
+        {
+            final NBTTagCompound tileEntity = tileEntityList.getCompoundTagAt(i).copy();
+            final BlockPos pos = new BlockPos(tileEntity.getInteger(TAG_X), tileEntity.getInteger(TAG_Y), tileEntity.getInteger(TAG_Z));
+            tileEntity.removeTag(TAG_X);
+            tileEntity.removeTag(TAG_Y);
+            tileEntity.removeTag(TAG_Z);
+            tileEntities.put(getIndex(pos, size), tileEntity);
+        }
+
+        final Template template = new Template();
+        template.size = size;
+        for (int index = 0; index < blockIds.length && index < width * height * length; index++)
+        {
+            final int id = getLegacyBlockId(blockIds, addBlocks, index);
+            final Block block = mapping.containsKey(id) ? mapping.get(id) : Block.getBlockById(id);
+            if (block == null || block == Blocks.STRUCTURE_VOID)
+            {
+                continue;
+            }
+
+            @SuppressWarnings("deprecation")
+            final IBlockState state = block.getStateFromMeta(index < data.length ? data[index] & NIBBLE_MASK : 0);
+            template.blocks.add(new Template.BlockInfo(getPosition(index, size), state, tileEntities.get(index)));
+        }
+
+        final NBTTagList entityList = compound.getTagList(TAG_ENTITIES, NBT.TAG_COMPOUND);
+        for (int i = 0; i < entityList.tagCount(); i++)
+        {
+            final NBTTagCompound entity = entityList.getCompoundTagAt(i);
+            final NBTTagList pos = entity.getTagList(TAG_POS, NBT.TAG_DOUBLE);
+            final Vec3d vec = new Vec3d(pos.getDoubleAt(0), pos.getDoubleAt(1), pos.getDoubleAt(2));
+            template.entities.add(new Template.EntityInfo(vec, new BlockPos(vec), entity));
+        }
+        return template;
+    }
+
+    /**
+     * Reads the block id mapping saved by Schematica or MCEdit, the ids of a schematic belong to the game it was
+     * written in and can differ from the ids of this game for modded blocks.
+     *
+     * @param compound the schematic NBT.
+     * @return the blocks by schematic id, null for names which are not registered here.
+     */
+    @NotNull
+    private static Map<Integer, Block> readBlockMapping(@NotNull final NBTTagCompound compound)
+    {
+        final Map<Integer, Block> mapping = new HashMap<>();
+        final NBTTagCompound schematicaMapping = compound.getCompoundTag(TAG_SCHEMATICA_MAP);
+        for (@NotNull final String name : schematicaMapping.getKeySet())
+        {
+            mapping.put((int) schematicaMapping.getShort(name), getRegisteredBlock(name));
+        }
+
+        final NBTTagCompound blockIds = compound.getCompoundTag(TAG_BLOCK_IDS);
+        for (@NotNull final String id : blockIds.getKeySet())
+        {
+            try
+            {
+                mapping.put(Integer.parseInt(id), getRegisteredBlock(blockIds.getString(id)));
+            }
+            catch (NumberFormatException e)
+            {
+                Log.getLogger().warn(String.format("Ignoring the invalid block id %s of a schematic", id), e);
+            }
+        }
+        return mapping;
+    }
+
+    /**
+     * Gets a block by its registry name.
+     *
+     * @param name the registry name.
+     * @return the block, null if there is no such block.
+     */
+    @Nullable
+    private static Block getRegisteredBlock(@NotNull final String name)
+    {
+        final ResourceLocation location = new ResourceLocation(name);
+        if (!Block.REGISTRY.containsKey(location))
+        {
+            Log.getLogger().warn(String.format("Leaving out the unknown block %s of a schematic", name));
+            return null;
+        }
+        return Block.REGISTRY.getObject(location);
+    }
+
+    /**
+     * Gets a block id of a legacy schematic, ids above 255 keep their upper bits in the AddBlocks nibbles.
+     *
+     * @param blockIds  the lower 8 bits of the ids.
+     * @param addBlocks the upper 4 bits of the ids, two per byte.
+     * @param index     the flat index.
+     * @return the block id.
+     */
+    private static int getLegacyBlockId(@NotNull final byte[] blockIds, @NotNull final byte[] addBlocks, final int index)
+    {
+        final int id = blockIds[index] & BYTE_MASK;
+        if ((index >> 1) >= addBlocks.length)
+        {
+            return id;
+        }
+        if ((index & 1) == 0)
+        {
+            return ((addBlocks[index >> 1] & NIBBLE_MASK) << ADD_SHIFT) + id;
+        }
+        return ((addBlocks[index >> 1] & ADD_HIGH_MASK) << (ADD_SHIFT / 2)) + id;
+    }
+
+    @NotNull
+    private static Template readFrom(@NotNull final DataInput in) throws IOException
+    {
+        if (in.readInt() != MAGIC)
+        {
+            throw new IOException("Not a compact schematic");
+        }
+        final int version = in.readUnsignedByte();
+        if (version != VERSION)
+        {
+            throw new IOException(String.format("Unsupported compact schematic version %d", version));
+        }
+
+        final BlockPos size = new BlockPos(readVarInt(in), readVarInt(in), readVarInt(in));
+        final Template template = new Template();
+        template.size = size;
+        template.setAuthor(in.readUTF());
+
+        final IBlockState[] palette = new IBlockState[readVarInt(in) + 1];
+        for (int i = 1; i < palette.length; i++)
+        {
+            palette[i] = NBTUtil.readBlockState(CompressedStreamTools.read(in, NBTSizeTracker.INFINITE));
+        }
+
+        final Map<Integer, NBTTagCompound> tileEntities = new HashMap<>();
+        final int tileEntityCount = readVarInt(in);
+        for (int i = 0; i < tileEntityCount; i++)
+        {
+            final int index = readVarInt(in);
+            tileEntities.put(index, CompressedStreamTools.read(in, NBTSizeTracker.INFINITE));
+        }
+
+        final int entityCount = readVarInt(in);
+        for (int i = 0; i < entityCount; i++)
+        {
+            final Vec3d pos = new Vec3d(in.readDouble(), in.readDouble(), in.readDouble());
+            final BlockPos blockPos = new BlockPos(readVarInt(in), readVarInt(in), readVarInt(in));
+            template.entities.add(new Template.EntityInfo(pos, blockPos, CompressedStreamTools.read(in, NBTSizeTracker.INFINITE)));
+        }
+
+        final int volume = size.getX() * size.getY() * size.getZ();
+        for (int index = 0; index < volume; )
+        {
+            final int run = readVarInt(in);
+            final int paletteIndex = readVarInt(in);
+            if (run <= 0 || paletteIndex >= palette.length || index + run > volume)
+            {
+                throw new IOException("Corrupt compact schematic");
+            }
+
+            if (paletteIndex != NO_BLOCK)
+            {
+                for (int i = index; i < index + run; i++)
+                {
+                    template.blocks.add(new Template.BlockInfo(getPosition(i, size), palette[paletteIndex], tileEntities.get(i)));
+                }
+            }
+            index += run;
+        }
+        return template;
+    }
+
+    private static int getIndex(@NotNull final BlockPos pos, @NotNull final BlockPos size)
+    {
+        return (pos.getY() * size.getZ() + pos.getZ()) * size.getX() + pos.getX();
+    }
+
+    @NotNull
+    private static BlockPos getPosition(final int index, @NotNull final BlockPos size)
+    {
+        return new BlockPos(index % size.getX(), index / (size.getX() * size.getZ()), (index / size.getX()) % size.getZ());
+    }
+
+    private static void writeVarInt(@NotNull final DataOutput out, final int value) throws IOException
+    {
+        int remaining = value;
+        while ((remaining & ~VARINT_MASK) != 0)
+        {
+            out.writeByte((remaining & VARINT_MASK) | VARINT_MORE);
+            remaining >>>= VARINT_BITS;
+        }
+        out.writeByte(remaining);
+    }
+
+    private static int readVarInt(@NotNull final DataInput in) throws IOException
+    {
+        int value = 0;
+        int shift = 0;
+        int read;
+        do
+        {
+            if (shift > Integer.SIZE)
+            {
+                throw new IOException("Variable length integer is too long");
+            }
+            read = in.readUnsignedByte();
+            value |= (read & VARINT_MASK) << shift;
+            shift += VARINT_BITS;
+        }
+        while ((read & VARINT_MORE) != 0);
+        return value;
+    }
+}
@@ -1,12 +1,17 @@
 package com.structures.helpers;
 
 import com.minecolonies.blocks.AbstractBlockHut;
+import com.minecolonies.colony.SchematicCatalog;
+import net.minecraft.util.Mirror;
+import net.minecraft.util.Rotation;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.gen.structure.template.PlacementSettings;
 import net.minecraft.world.gen.structure.template.Template;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.Future;
+
 /**
  * Class used to store
  */
@@ -28,6 +33,28 @@ public final class Settings
 
     private boolean isPendingReset = false;
 
+    /**
+     * Structure which is loaded in the background and replaces the active one once it is done.
+     */
+    @Nullable
+    private String            pendingName     = null;
+    @Nullable
+    private PlacementSettings pendingSettings = null;
+    @Nullable
+    private Future<Template>  pendingLoad     = null;
+
+    /**
+     * Hut offset of the last structure, rotation and mirror asked for.
+     */
+    @Nullable
+    private Structure offsetStructure = null;
+    @Nullable
+    private Rotation  offsetRotation  = null;
+    @Nullable
+    private Mirror    offsetMirror    = null;
+    @NotNull
+    private BlockPos  cachedOffset    = new BlockPos(0, 0, 0);
+
     private Settings()
     {
     }
@@ -62,8 +89,13 @@ public final class Settings
      */
     public void setActiveSchematic(Structure structure)
     {
+        cancelPendingSchematic();
         if (structure != null)
         {
+            if (this.structure != null && this.structure != structure)
+            {
+                this.structure.releaseRenderData();
+            }
             this.structure = structure;
         }
         else
@@ -72,11 +104,54 @@ public final class Settings
         }
     }
 
+    /**
+     * Loads a structure in the background and renders it once it is loaded.
+     * The current structure stays active until then.
+     *
+     * @param name     the structure name, like "wooden/Builder1".
+     * @param settings the placement settings of the structure.
+     */
+    public void loadSchematic(@NotNull final String name, @NotNull final PlacementSettings settings)
+    {
+        pendingName = name;
+        pendingSettings = settings;
+        pendingLoad = StructureLoader.load(name);
+        updatePendingSchematic();
+    }
+
+    /**
+     * Activates the structure started with {@link #loadSchematic(String, PlacementSettings)} if it has been loaded.
+     */
+    public void updatePendingSchematic()
+    {
+        if (pendingLoad == null || !pendingLoad.isDone())
+        {
+            return;
+        }
+
+        final String name = pendingName;
+        final PlacementSettings placementSettings = pendingSettings;
+        cancelPendingSchematic();
+        setActiveSchematic(new Structure(null, name, placementSettings));
+    }
+
+    private void cancelPendingSchematic()
+    {
+        pendingName = null;
+        pendingSettings = null;
+        pendingLoad = null;
+    }
+
     /**
      * Reset the schematic rendering.
      */
     public void reset()
     {
+        cancelPendingSchematic();
+        if (structure != null)
+        {
+            structure.releaseRenderData();
+        }
         structure = null;
         isPendingReset = false;
     }
@@ -163,24 +238,58 @@ public final class Settings
 
     /**
      * Calculates the offset regarding the blockHut.
+     * It is only searched again when the structure, rotation or mirror changed, since it is used every frame.
      * @param settings depending on the rotation.
      * @return the offset a blockPos.
      */
     @NotNull
     public BlockPos getOffset(PlacementSettings settings)
     {
-        if(structure != null)
+        if (structure == null)
+        {
+            return new BlockPos(0, 0, 0);
+        }
+
+        if (offsetStructure != structure || offsetRotation != settings.getRotation() || offsetMirror != settings.getMirror())
+        {
+            cachedOffset = findOffset(settings);
+            offsetStructure = structure;
+            offsetRotation = settings.getRotation();
+            offsetMirror = settings.getMirror();
+        }
+
+        return cachedOffset;
+    }
+
+    /**
+     * Finds the rotated hut position, from the schematic catalog if the structure is listed there.
+     * @param settings depending on the rotation.
+     * @return the offset a blockPos.
+     */
+    @NotNull
+    private BlockPos findOffset(@NotNull final PlacementSettings settings)
+    {
+        final SchematicCatalog.Entry entry = SchematicCatalog.get(structure.getName());
+        if (entry != null)
+        {
+            if (entry.getHutOffset() == null)
+            {
+                return new BlockPos(0, 0, 0);
+            }
+            final BlockPos hut = Template.transformedBlockPos(settings, entry.getHutOffset());
+            offset.setPos(hut);
+            return hut;
+        }
+
+        for (Template.BlockInfo info : structure.getBlockInfoWithSettings(settings))
         {
-            for (Template.BlockInfo info : structure.getBlockInfoWithSettings(settings))
+            if (info.blockState.getBlock() instanceof AbstractBlockHut)
             {
-                if (info.blockState.getBlock() instanceof AbstractBlockHut)
-                {
-                    offset.setPos(info.pos);
-                    return info.pos;
-                }
+                offset.setPos(info.pos);
+                return info.pos;
             }
         }
-        return new BlockPos(0,0,0);
+        return new BlockPos(0, 0, 0);
     }
 
     /**
@@ -1,18 +1,14 @@
 package com.structures.helpers;
 
-import java.io.IOException;
-import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.annotation.Nullable;
 
-import com.blockout.Log;
-import com.minecolonies.lib.Constants;
 import com.structures.fake.FakeEntity;
-import com.structures.lib.ModelHolder;
-import net.minecraft.nbt.CompressedStreamTools;
-import net.minecraft.nbt.NBTTagCompound;
-import org.apache.commons.io.IOUtils;
 import org.jetbrains.annotations.NotNull;
 import org.lwjgl.opengl.GL11;
 
@@ -21,6 +17,7 @@ import com.structures.fake.FakeWorld;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.GLAllocation;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.RenderHelper;
 import net.minecraft.client.renderer.Tessellator;
@@ -28,11 +25,12 @@ import net.minecraft.client.renderer.VertexBuffer;
 import net.minecraft.client.renderer.block.model.BakedQuad;
 import net.minecraft.client.renderer.block.model.IBakedModel;
 import net.minecraft.client.renderer.texture.TextureMap;
+import net.minecraft.client.renderer.vertex.VertexFormat;
+import net.minecraft.client.renderer.vertex.VertexFormatElement;
 import net.minecraft.client.renderer.tileentity.TileEntityRendererDispatcher;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityList;
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.server.MinecraftServer;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.BlockRenderLayer;
 import net.minecraft.util.EnumBlockRenderType;
@@ -47,7 +45,6 @@ import net.minecraft.world.gen.structure.template.PlacementSettings;
 import net.minecraft.world.gen.structure.template.Template;
 import net.minecraftforge.client.ForgeHooksClient;
 import net.minecraftforge.client.MinecraftForgeClient;
-import net.minecraftforge.client.model.pipeline.LightUtil;
 
 /**
  * Structure class, used to store, create, get structures.
@@ -62,6 +59,10 @@ public class Structure
      * Template of the structure.
      */
     private Template          template;
+    /**
+     * Name of the structure, like "wooden/Builder1".
+     */
+    private final String      name;
     private Minecraft         mc;
     private PlacementSettings settings;
 
@@ -70,6 +71,26 @@ public class Structure
     private static final int   COLOR_G    = 255;
     private static final int   COLOR_B    = 255;
 
+    /**
+     * Scale of blocks which are already in the world, so the ghost doesn't flicker with them.
+     */
+    private static final double EXISTING_MODEL_SCALE = 1.001D;
+    /**
+     * Amount of ints of a vertex position.
+     */
+    private static final int    POSITION_SIZE        = 3;
+
+    /**
+     * Compiled blocks of each render layer, relative to {@link #compiledPos}.
+     */
+    private final Map<BlockRenderLayer, Integer> displayLists = new EnumMap<>(BlockRenderLayer.class);
+    private final List<TileEntity>               tileEntities = new ArrayList<>();
+    private       Entity[]                       entities     = new Entity[0];
+    private       BlockPos                       compiledPos;
+    private       World                          compiledWorld;
+    private       Rotation                       compiledRotation;
+    private       Mirror                         compiledMirror;
+
     /**
      * Constuctor of Structure, tries to create a new structure.
      * @param world with world.
@@ -78,41 +99,22 @@ public class Structure
      */
     public Structure(@Nullable World world, String structureName, PlacementSettings settings)
     {
-        InputStream inputstream = MinecraftServer.class.getResourceAsStream("/assets/" + Constants.MOD_ID + "/schematics/" + structureName + ".nbt");
-
         if(world == null || world.isRemote)
         {
             this.settings = settings;
             this.mc = Minecraft.getMinecraft();
         }
-        if (inputstream == null)
-        {
-            return;
-        }
 
-        try
-        {
-            this.template = readTemplateFromStream(inputstream);
-        }
-        catch (IOException e)
-        {
-            Log.getLogger().warn(String.format("Failed to load template %s", structureName), e);
-        }
-        finally
-        {
-            IOUtils.closeQuietly(inputstream);
-        }
+        this.name = structureName;
+        this.template = TemplateCache.getTemplate(structureName);
     }
 
     /**
-     * reads a template from an inputstream
+     * @return the name of the structure, like "wooden/Builder1".
      */
-    private static Template readTemplateFromStream(InputStream stream) throws IOException
+    public String getName()
     {
-        NBTTagCompound nbttagcompound = CompressedStreamTools.readCompressed(stream);
-        Template template = new Template();
-        template.read(nbttagcompound);
-        return template;
+        return name;
     }
 
     public boolean doesExist()
@@ -229,6 +231,10 @@ public class Structure
 
     /**
      * Renders the structure.
+     * <p>
+     * The blocks are compiled into one display list per render layer the first time and whenever
+     * the position, rotation or mirror change, every other frame only calls the lists.
+     *
      * @param startingPos the start pos to render.
      * @param clientWorld the world of the client.
      * @param player the player object.
@@ -236,101 +242,218 @@ public class Structure
      */
     public void renderStructure(@NotNull BlockPos startingPos, @NotNull final World clientWorld, @NotNull final EntityPlayer player, final float partialTicks)
     {
-        Template.BlockInfo[] blockList = this.getBlockInfoWithSettings(this.settings);
-        Entity[] entityList = this.getEntityInfoWithSettings(clientWorld, startingPos, this.settings);
+        if (!startingPos.equals(compiledPos) || clientWorld != compiledWorld
+              || settings.getRotation() != compiledRotation || settings.getMirror() != compiledMirror)
+        {
+            this.compile(startingPos, clientWorld);
+        }
+
+        final double dx = player.lastTickPosX + (player.posX - player.lastTickPosX) * partialTicks;
+        final double dy = player.lastTickPosY + (player.posY - player.lastTickPosY) * partialTicks;
+        final double dz = player.lastTickPosZ + (player.posZ - player.lastTickPosZ) * partialTicks;
 
-        for (final Template.BlockInfo aBlockList : blockList)
+        GlStateManager.pushMatrix();
+        GlStateManager.translate(startingPos.getX() - dx, startingPos.getY() - dy, startingPos.getZ() - dz);
+        for (final Map.Entry<BlockRenderLayer, Integer> displayList : displayLists.entrySet())
         {
-            Block block = aBlockList.blockState.getBlock();
-            IBlockState iblockstate = aBlockList.blockState;
-            BlockPos blockpos = aBlockList.pos.add(startingPos);
-            IBlockState iBlockExtendedState = block.getExtendedState(iblockstate, clientWorld, blockpos);
-            IBakedModel ibakedmodel = Minecraft.getMinecraft().getBlockRendererDispatcher().getModelForState(iblockstate);
-            TileEntity tileentity = null;
-            if (block.hasTileEntity(iblockstate))
+            this.renderLayer(displayList.getKey(), displayList.getValue());
+        }
+        GlStateManager.popMatrix();
+
+        this.renderTileEntities(partialTicks);
+
+        for (final Entity entity : entities)
+        {
+            if (entity != null)
             {
-                tileentity = block.createTileEntity(clientWorld, iblockstate);
-                tileentity.readFromNBT(aBlockList.tileentityData);
+                Minecraft.getMinecraft().getRenderManager().renderEntityStatic(entity, 0.0F, true);
             }
-            ModelHolder models = new ModelHolder(blockpos, iblockstate, iBlockExtendedState, tileentity, ibakedmodel);
-            this.getQuads(models, models.quads);
-            this.renderGhost(clientWorld, models, player, partialTicks);
         }
+    }
 
-        for (final Entity anEntityList : entityList)
+    /**
+     * Frees the display lists, must be called on the render thread once the structure isn't rendered anymore.
+     */
+    public void releaseRenderData()
+    {
+        for (final int displayList : displayLists.values())
         {
-            Minecraft.getMinecraft().getRenderManager().renderEntityStatic(anEntityList, 0.0F, true);
+            GLAllocation.deleteDisplayLists(displayList);
         }
+        displayLists.clear();
+        tileEntities.clear();
+        entities = new Entity[0];
+        compiledPos = null;
+        compiledWorld = null;
     }
 
-    private void renderGhost(final World world, ModelHolder holder, final EntityPlayer player, final float partialTicks)
+    /**
+     * Collects the quads of all blocks and compiles them into one display list per render layer,
+     * relative to the starting position. Tile entities and entities are created once here as well.
+     *
+     * @param startingPos the start pos to render.
+     * @param clientWorld the world of the client.
+     */
+    private void compile(@NotNull final BlockPos startingPos, @NotNull final World clientWorld)
     {
-        boolean existingModel = !this.mc.theWorld.isAirBlock(holder.pos);
+        this.releaseRenderData();
 
-        IBlockState actualState = holder.actualState;
-        Block block = actualState.getBlock();
+        final Map<BlockRenderLayer, List<PlacedQuad>> quadsByLayer = new EnumMap<>(BlockRenderLayer.class);
+        final BlockRenderLayer originalLayer = MinecraftForgeClient.getRenderLayer();
 
-        if (actualState.getRenderType() == EnumBlockRenderType.MODEL)
+        for (final Template.BlockInfo info : this.getBlockInfoWithSettings(this.settings))
         {
-            BlockRenderLayer originalLayer = MinecraftForgeClient.getRenderLayer();
+            final IBlockState state = info.blockState;
+            final Block block = state.getBlock();
+            final BlockPos localPos = info.pos;
+            final BlockPos worldPos = localPos.add(startingPos);
 
-            for (BlockRenderLayer layer : BlockRenderLayer.values())
+            if (state.getRenderType() == EnumBlockRenderType.MODEL)
             {
-                if (block.canRenderInLayer(actualState, layer))
+                final IBlockState extendedState = block.getExtendedState(state, clientWorld, worldPos);
+                final IBakedModel model = this.mc.getBlockRendererDispatcher().getModelForState(state);
+                final boolean existingModel = !clientWorld.isAirBlock(worldPos);
+
+                for (final BlockRenderLayer layer : BlockRenderLayer.values())
                 {
-                    this.mc.getTextureManager().bindTexture(TextureMap.LOCATION_BLOCKS_TEXTURE);
-                    ForgeHooksClient.setRenderLayer(layer);
-                    this.renderGhostBlock(world, holder, player, layer, existingModel, partialTicks);
-                    holder.rendered = true;
+                    if (block.canRenderInLayer(state, layer))
+                    {
+                        ForgeHooksClient.setRenderLayer(layer);
+                        List<PlacedQuad> layerQuads = quadsByLayer.get(layer);
+                        if (layerQuads == null)
+                        {
+                            layerQuads = new ArrayList<>();
+                            quadsByLayer.put(layer, layerQuads);
+                        }
+
+                        for (final EnumFacing facing : EnumFacing.values())
+                        {
+                            addQuads(layerQuads, model.getQuads(extendedState, facing, 0), state, localPos, worldPos, existingModel);
+                        }
+                        addQuads(layerQuads, model.getQuads(extendedState, null, 0), state, localPos, worldPos, existingModel);
+                    }
                 }
             }
+            else if (block.hasTileEntity(state))
+            {
+                final TileEntity tileentity = block.createTileEntity(clientWorld, state);
+                if (tileentity != null)
+                {
+                    tileentity.readFromNBT(info.tileentityData);
+                    tileentity.setPos(worldPos);
+                    tileentity.setWorldObj(new FakeWorld(state, clientWorld.getSaveHandler(), clientWorld.getWorldInfo(),
+                                                          clientWorld.provider, clientWorld.theProfiler, true));
+                    tileEntities.add(tileentity);
+                }
+            }
+        }
+        ForgeHooksClient.setRenderLayer(originalLayer);
 
-            ForgeHooksClient.setRenderLayer(originalLayer);
+        for (final Map.Entry<BlockRenderLayer, List<PlacedQuad>> layerQuads : quadsByLayer.entrySet())
+        {
+            final int displayList = GLAllocation.generateDisplayLists(1);
+            GlStateManager.glNewList(displayList, GL11.GL_COMPILE);
+            this.drawQuads(clientWorld, layerQuads.getValue());
+            GlStateManager.glEndList();
+            displayLists.put(layerQuads.getKey(), displayList);
         }
 
-        if (holder.te != null && !holder.rendered)
+        this.entities = this.getEntityInfoWithSettings(clientWorld, startingPos, this.settings);
+        this.compiledPos = startingPos;
+        this.compiledWorld = clientWorld;
+        this.compiledRotation = settings.getRotation();
+        this.compiledMirror = settings.getMirror();
+    }
+
+    private static void addQuads(
+                                  final List<PlacedQuad> target,
+                                  final List<BakedQuad> quads,
+                                  final IBlockState state,
+                                  final BlockPos localPos,
+                                  final BlockPos worldPos,
+                                  final boolean existingModel)
+    {
+        for (final BakedQuad quad : quads)
         {
-            TileEntity te = holder.te;
-            te.setPos(holder.pos);
-            FakeWorld fakeWorld = new FakeWorld(holder.actualState, world.getSaveHandler(), world.getWorldInfo(), world.provider, world.theProfiler, true);
-            te.setWorldObj(fakeWorld);
-            int pass = 0;
+            target.add(new PlacedQuad(quad, state, localPos, worldPos, existingModel));
+        }
+    }
 
-            if (te.shouldRenderInPass(pass))
+    /**
+     * Draws the quads of one layer, one draw call for each vertex format.
+     *
+     * @param world the world of the client.
+     * @param quads the quads.
+     */
+    private void drawQuads(final World world, final List<PlacedQuad> quads)
+    {
+        final Tessellator tessellator = Tessellator.getInstance();
+        final VertexBuffer buffer = tessellator.getBuffer();
+        final int alpha = ((int) (1.0F * 0xFF)) << 24;
+
+        final Map<VertexFormat, List<PlacedQuad>> quadsByFormat = new LinkedHashMap<>();
+        for (final PlacedQuad placed : quads)
+        {
+            List<PlacedQuad> formatQuads = quadsByFormat.get(placed.quad.getFormat());
+            if (formatQuads == null)
             {
-                TileEntityRendererDispatcher terd = TileEntityRendererDispatcher.instance;
-                terd.func_190056_a(fakeWorld,
-                        Minecraft.getMinecraft().renderEngine,
-                        Minecraft.getMinecraft().fontRendererObj,
-                        new FakeEntity(fakeWorld),
-                        (RayTraceResult) null,
-                        0.0F);
-                GL11.glPushMatrix();
-                terd.renderEngine = Minecraft.getMinecraft().renderEngine;
-                terd.preDrawBatch();
-                GL11.glColor4f((float) (this.COLOR_R / COLOR_R), (float) (this.COLOR_G / COLOR_G), (float) (this.COLOR_B / COLOR_B), (this.COLOR_A / COLOR_A));
-                terd.renderTileEntity(te, partialTicks, -1);
-                terd.drawBatch(pass);
-                GL11.glPopMatrix();
+                formatQuads = new ArrayList<>();
+                quadsByFormat.put(placed.quad.getFormat(), formatQuads);
+            }
+            formatQuads.add(placed);
+        }
+
+        for (final Map.Entry<VertexFormat, List<PlacedQuad>> formatQuads : quadsByFormat.entrySet())
+        {
+            buffer.begin(GL11.GL_QUADS, formatQuads.getKey());
+            for (final PlacedQuad placed : formatQuads.getValue())
+            {
+                final BakedQuad quad = placed.quad;
+                final int color = quad.hasTintIndex() ? this.getTint(world, placed.state, placed.worldPos, alpha, quad.getTintIndex()) : (alpha | 0xffffff);
+
+                buffer.addVertexData(placed.existingModel ? scaleVertexData(quad) : quad.getVertexData());
+                buffer.putColor4(color);
+                buffer.putPosition(placed.localPos.getX(), placed.localPos.getY(), placed.localPos.getZ());
             }
+            tessellator.draw();
         }
     }
 
-    private void renderGhostBlock(final World world, ModelHolder holder, final EntityPlayer player, BlockRenderLayer layer, boolean existingModel, final float partialTicks)
+    /**
+     * Scales a quad a little bit around its block origin so it doesn't flicker with the block already in the world.
+     *
+     * @param quad the quad.
+     * @return the scaled vertex data.
+     */
+    private static int[] scaleVertexData(final BakedQuad quad)
     {
-        double dx = player.lastTickPosX + (player.posX - player.lastTickPosX) * partialTicks;
-        double dy = player.lastTickPosY + (player.posY - player.lastTickPosY) * partialTicks;
-        double dz = player.lastTickPosZ + (player.posZ - player.lastTickPosZ) * partialTicks;
-        BlockPos pos = holder.pos;
-
-        GlStateManager.pushMatrix();
-        GlStateManager.translate(pos.getX() - dx, pos.getY() - dy, pos.getZ() - dz);
+        final int[] data = quad.getVertexData().clone();
+        final VertexFormat format = quad.getFormat();
+        if (format.getElementCount() == 0 || format.getElement(0).getUsage() != VertexFormatElement.EnumUsage.POSITION)
+        {
+            return data;
+        }
 
-        if (existingModel)
+        final int stride = format.getIntegerSize();
+        for (int vertex = 0; vertex + POSITION_SIZE <= data.length; vertex += stride)
         {
-            GlStateManager.scale(1.001, 1.001, 1.001);
+            for (int i = 0; i < POSITION_SIZE; i++)
+            {
+                data[vertex + i] = Float.floatToRawIntBits((float) (Float.intBitsToFloat(data[vertex + i]) * EXISTING_MODEL_SCALE));
+            }
         }
+        return data;
+    }
 
+    /**
+     * Calls the display list of a layer twice, once to fill the depth buffer and once to draw only the nearest faces.
+     *
+     * @param layer       the render layer.
+     * @param displayList the display list of the layer.
+     */
+    private void renderLayer(final BlockRenderLayer layer, final int displayList)
+    {
+        this.mc.getTextureManager().bindTexture(TextureMap.LOCATION_BLOCKS_TEXTURE);
         RenderHelper.disableStandardItemLighting();
 
         if (layer == BlockRenderLayer.CUTOUT)
@@ -339,19 +462,16 @@ public class Structure
         }
 
         GlStateManager.color(1f, 1f, 1f, 1f);
-
-        int alpha = ((int) (1.0F * 0xFF)) << 24;
-
         GlStateManager.enableBlend();
         GlStateManager.enableTexture2D();
 
         GlStateManager.blendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
         GlStateManager.colorMask(false, false, false, false);
-        this.renderModel(world, holder, pos, alpha);
+        GlStateManager.callList(displayList);
 
         GlStateManager.colorMask(true, true, true, true);
         GlStateManager.depthFunc(GL11.GL_LEQUAL);
-        this.renderModel(world, holder, pos, alpha);
+        GlStateManager.callList(displayList);
 
         GlStateManager.disableBlend();
 
@@ -359,64 +479,69 @@ public class Structure
         {
             this.mc.getTextureManager().getTexture(TextureMap.LOCATION_BLOCKS_TEXTURE).restoreLastBlurMipmap();
         }
-
-        GlStateManager.popMatrix();
     }
 
-    private void renderModel(final World world, final ModelHolder holder, final BlockPos pos, final int alpha)
+    /**
+     * Renders all tile entities of the preview in one pass: the dispatcher is prepared once, and the fast renderers
+     * of all of them are collected into one batch which is drawn at the end.
+     *
+     * @param partialTicks the partial ticks.
+     */
+    private void renderTileEntities(final float partialTicks)
     {
-        for (final EnumFacing facing : EnumFacing.values())
+        final int pass = 0;
+        if (tileEntities.isEmpty())
         {
-            this.renderQuads(world, holder.actualState, pos, holder.model.getQuads(holder.extendedState, facing, 0), alpha);
+            return;
         }
 
-        this.renderQuads(world, holder.actualState, pos, holder.model.getQuads(holder.extendedState, null, 0), alpha);
-    }
-
-    private void getQuads(ModelHolder holder, List<BakedQuad> quads)
-    {
-        if (holder.actualState.getRenderType() == EnumBlockRenderType.MODEL)
+        final World world = tileEntities.get(0).getWorld();
+        final TileEntityRendererDispatcher terd = TileEntityRendererDispatcher.instance;
+        terd.func_190056_a(world,
+                Minecraft.getMinecraft().renderEngine,
+                Minecraft.getMinecraft().fontRendererObj,
+                new FakeEntity(world),
+                (RayTraceResult) null,
+                0.0F);
+        terd.renderEngine = Minecraft.getMinecraft().renderEngine;
+
+        GL11.glPushMatrix();
+        terd.preDrawBatch();
+        GL11.glColor4f((float) (this.COLOR_R / COLOR_R), (float) (this.COLOR_G / COLOR_G), (float) (this.COLOR_B / COLOR_B), (this.COLOR_A / COLOR_A));
+        for (final TileEntity te : tileEntities)
         {
-            BlockRenderLayer originalLayer = MinecraftForgeClient.getRenderLayer();
-
-            for (BlockRenderLayer layer : BlockRenderLayer.values())
+            if (te.shouldRenderInPass(pass))
             {
-                if (holder.actualState.getBlock().canRenderInLayer(holder.actualState, layer))
-                {
-                    ForgeHooksClient.setRenderLayer(layer);
-
-                    for (final EnumFacing facing : EnumFacing.values())
-                    {
-                        quads.addAll(holder.model.getQuads(holder.extendedState, facing, 0));
-                    }
-
-                    quads.addAll(holder.model.getQuads(holder.extendedState, null, 0));
-                }
+                terd.renderTileEntity(te, partialTicks, -1);
             }
-
-            ForgeHooksClient.setRenderLayer(originalLayer);
         }
+        terd.drawBatch(pass);
+        GL11.glPopMatrix();
     }
 
-    private void renderQuads(final World world, final IBlockState actualState, final BlockPos pos, final List<BakedQuad> quads, final int alpha)
+    private int getTint(final World world, final IBlockState actualState, final BlockPos pos, final int alpha, final int tintIndex)
     {
-        final Tessellator tessellator = Tessellator.getInstance();
-        final VertexBuffer buffer = tessellator.getBuffer();
-
-        for (final BakedQuad quad : quads)
-        {
-            buffer.begin(GL11.GL_QUADS, quad.getFormat());
-
-            final int color = quad.hasTintIndex() ? this.getTint(world, actualState, pos, alpha, quad.getTintIndex()) : (alpha | 0xffffff);
-
-            LightUtil.renderQuadColor(buffer, quad, color);
-
-            tessellator.draw();
-        }
+        return alpha | this.mc.getBlockColors().colorMultiplier(actualState, world, pos, tintIndex);
     }
 
-    private int getTint(final World world, final IBlockState actualState, final BlockPos pos, final int alpha, final int tintIndex)
+    /**
+     * A quad of a block at its position in the structure.
+     */
+    private static final class PlacedQuad
     {
-        return alpha | this.mc.getBlockColors().colorMultiplier(actualState, world, pos, tintIndex);
+        private final BakedQuad   quad;
+        private final IBlockState state;
+        private final BlockPos    localPos;
+        private final BlockPos    worldPos;
+        private final boolean     existingModel;
+
+        private PlacedQuad(final BakedQuad quad, final IBlockState state, final BlockPos localPos, final BlockPos worldPos, final boolean existingModel)
+        {
+            this.quad = quad;
+            this.state = state;
+            this.localPos = localPos;
+            this.worldPos = worldPos;
+            this.existingModel = existingModel;
+        }
     }
 }
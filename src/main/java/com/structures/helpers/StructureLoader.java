@@ -0,0 +1,98 @@
+package com.structures.helpers;
+
+import com.minecolonies.colony.SchematicCatalog;
+import net.minecraft.world.gen.structure.template.Template;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Reads structure templates into the {@link TemplateCache} on a worker thread.
+ * <p>
+ * The build tool uses it so cycling through huts, styles and levels doesn't read and parse the
+ * template on the client thread. The preview and the ghost renderer then take the template from the cache.
+ */
+public final class StructureLoader
+{
+    private static final BlockingQueue<Runnable> jobQueue = new LinkedBlockingQueue<>();
+    private static final ThreadPoolExecutor      executor;
+    static
+    {
+        executor = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS, jobQueue);
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Loads which are queued or running, by structure name.
+     */
+    private static final Map<String, Future<Template>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor to hide the implicit public one.
+     */
+    private StructureLoader()
+    {
+        /*
+         * Intentionally left empty.
+         */
+    }
+
+    /**
+     * Loads a structure, the future is done at once if it is already cached.
+     *
+     * @param name the structure name, like "wooden/Builder1".
+     * @return the future of the template, its value is null if there is no such structure.
+     */
+    @NotNull
+    public static Future<Template> load(@NotNull final String name)
+    {
+        if (SchematicCatalog.isMissing(name))
+        {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (TemplateCache.isCached(name))
+        {
+            return CompletableFuture.completedFuture(TemplateCache.getTemplate(name));
+        }
+
+        return loading.computeIfAbsent(name, key -> executor.submit(() ->
+        {
+            try
+            {
+                return TemplateCache.getTemplate(key);
+            }
+            finally
+            {
+                loading.remove(key);
+            }
+        }));
+    }
+
+    /**
+     * Runs a task on the loader thread, after the loads queued before it.
+     *
+     * @param task the task.
+     */
+    public static void execute(@NotNull final Runnable task)
+    {
+        executor.execute(task);
+    }
+
+    /**
+     * Queues structures which will probably be needed soon, the ones already cached or queued are skipped.
+     *
+     * @param names the structure names.
+     */
+    public static void prefetch(@NotNull final Collection<String> names)
+    {
+        for (@NotNull final String name : names)
+        {
+            if (!TemplateCache.isCached(name) && !SchematicCatalog.isMissing(name))
+            {
+                load(name);
+            }
+        }
+    }
+}
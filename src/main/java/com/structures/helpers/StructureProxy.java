@@ -1,18 +1,18 @@
 package com.structures.helpers;
 
-import com.minecolonies.blocks.AbstractBlockHut;
+import com.minecolonies.colony.SchematicCatalog;
 import com.minecolonies.util.BlockPosUtil;
-import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.Rotation;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraft.world.gen.structure.template.PlacementSettings;
-import net.minecraft.world.gen.structure.template.Template;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -24,8 +24,9 @@ import java.util.List;
 public class StructureProxy
 {
     private final Structure structure;
-    private  Block[][][] blocks;
-    private  IBlockState[][][]  metadata;
+    private final String    name;
+    private  TemplateCache.RotatedTemplate template;
+    private  PlacementSettings settings = new PlacementSettings();
     private final List<TileEntity> tileEntities = new ArrayList<>();
     private final List<Entity>     entities     = new ArrayList<>();
     private  int       width;
@@ -39,27 +40,19 @@ public class StructureProxy
      */
     public StructureProxy(final World worldObj, final String name)
     {
+        if (SchematicCatalog.isMissing(name))
+        {
+            throw new IllegalStateException(String.format("Structure %s does not exist", name));
+        }
         this.structure = new Structure(worldObj, name, new PlacementSettings());
+        this.name = name;
+        this.template = getTemplate(Rotation.NONE);
         BlockPos size = structure.getSize(Rotation.NONE);
 
         this.width = size.getX();
         this.height = size.getY();
         this.length = size.getZ();
-
-        this.blocks = new Block[width][height][length];
-        this.metadata = new IBlockState[width][height][length];
-
-        for(Template.BlockInfo info: structure.getBlockInfo())
-        {
-            BlockPos tempPos = info.pos;
-            blocks[tempPos.getX()][tempPos.getY()][tempPos.getZ()] = info.blockState.getBlock();
-            metadata[tempPos.getX()][tempPos.getY()][tempPos.getZ()] = info.blockState;
-
-            if(info.blockState.getBlock() instanceof AbstractBlockHut)
-            {
-                offset = info.pos;
-            }
-        }
+        this.offset = template.getHutPosition();
 
         if(offset == null)
         {
@@ -127,7 +120,78 @@ public class StructureProxy
      */
     public IBlockState getBlockState(@NotNull final BlockPos pos)
     {
-        return metadata[pos.getX()][pos.getY()][pos.getZ()];
+        return template.getBlockState(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * Getter of the IBlockState at a flat index.
+     * @param index the index, see {@link #getIndex(BlockPos)}.
+     * @return the blockState.
+     */
+    public IBlockState getBlockState(final int index)
+    {
+        return template.getBlockState(index);
+    }
+
+    /**
+     * Calculates the flat index of a position, x changes fastest, then z, then y.
+     * @param pos the position inside the structure.
+     * @return the index.
+     */
+    public int getIndex(@NotNull final BlockPos pos)
+    {
+        return template.getIndex(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * Calculates the position of a flat index.
+     * @param index the index.
+     * @return the position inside the structure.
+     */
+    @NotNull
+    public BlockPos getLocalPosition(final int index)
+    {
+        return template.getPosition(index);
+    }
+
+    /**
+     * Getter of the amount of positions.
+     * @return width * height * length.
+     */
+    public int getVolume()
+    {
+        return template.getVolume();
+    }
+
+    /**
+     * Get the saved tile entity data of the block at a flat index.
+     * @param index the index.
+     * @return a copy of the data with positions inside the structure, null if the block has none.
+     */
+    @Nullable
+    public NBTTagCompound getTileEntityData(final int index)
+    {
+        return template.getTileEntityData(index);
+    }
+
+    /**
+     * Creates the entities saved with the structure, rotated like it.
+     * @param world the world to create them in.
+     * @param origin the world position of the structure position 0, 0, 0.
+     * @return the entities, not spawned yet.
+     */
+    @NotNull
+    public List<Entity> createTemplateEntities(@NotNull final World world, @NotNull final BlockPos origin)
+    {
+        final List<Entity> created = new ArrayList<>();
+        for (final Entity entity : structure.getEntityInfoWithSettings(world, origin.add(template.getShift()), settings))
+        {
+            if (entity != null)
+            {
+                created.add(entity);
+            }
+        }
+        return created;
     }
 
     /**
@@ -311,65 +375,36 @@ public class StructureProxy
             default:
                 rotation = Rotation.NONE;
         }
-        structure.setPlacementSettings(new PlacementSettings().setRotation(rotation));
-
-        final BlockPos size = structure.getSize(rotation);
+        settings = new PlacementSettings().setRotation(rotation);
+        structure.setPlacementSettings(settings);
 
-        this.width = size.getX();
-        this.height = size.getY();
-        this.length = size.getZ();
+        this.template = getTemplate(rotation);
+        this.width = template.getWidth();
+        this.height = template.getHeight();
+        this.length = template.getLength();
 
-        this.blocks = new Block[width][height][length];
-        this.metadata = new IBlockState[width][height][length];
-
-        int minX = 0;
-        int minY = 0;
-        int minZ = 0;
-
-        for(final Template.BlockInfo info: structure.getBlockInfoWithSettings(new PlacementSettings().setRotation(rotation)))
+        final boolean foundHut = template.getHutPosition() != null;
+        if (foundHut)
         {
-            final BlockPos tempPos = info.pos;
-            final int x = tempPos.getX();
-            final int y = tempPos.getY();
-            final int z = tempPos.getZ();
-            if(x < minX)
-            {
-                minX = x;
-            }
-
-            if(y < minY)
-            {
-                minY = y;
-            }
-
-            if(z < minZ)
-            {
-                minZ = z;
-            }
+            offset = template.getHutPosition();
         }
+        updateOffSetIfDecoration(foundHut);
+    }
 
-        minX = Math.abs(minX);
-        minY = Math.abs(minY);
-        minZ = Math.abs(minZ);
-        boolean foundHut = false;
-
-        for(Template.BlockInfo info: structure.getBlockInfoWithSettings(new PlacementSettings().setRotation(rotation)))
+    /**
+     * Get a rotation of this structure from the shared cache.
+     * @param rotation the rotation.
+     * @return the rotated structure.
+     */
+    @NotNull
+    private TemplateCache.RotatedTemplate getTemplate(@NotNull final Rotation rotation)
+    {
+        final TemplateCache.RotatedTemplate rotated = TemplateCache.getRotation(name, rotation);
+        if (rotated == null)
         {
-            BlockPos tempPos = info.pos;
-            int x = tempPos.getX() + minX;
-            int y = tempPos.getY() + minY;
-            int z = tempPos.getZ() + minZ;
-
-            this.blocks[x][y][z] = info.blockState.getBlock();
-            this.metadata[x][y][z] = info.blockState;
-
-            if(info.blockState.getBlock() instanceof AbstractBlockHut)
-            {
-                foundHut = true;
-                offset = info.pos.add(minX, minY, minZ);
-            }
+            throw new IllegalStateException(String.format("Structure %s does not exist", name));
         }
-        updateOffSetIfDecoration(foundHut);
+        return rotated;
     }
 
     /**
@@ -0,0 +1,510 @@
+package com.structures.helpers;
+
+import com.minecolonies.blocks.AbstractBlockHut;
+import com.minecolonies.configuration.Configurations;
+import com.minecolonies.lib.Constants;
+import com.minecolonies.util.Log;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.Mirror;
+import net.minecraft.util.Rotation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.gen.structure.template.PlacementSettings;
+import net.minecraft.world.gen.structure.template.Template;
+import org.apache.commons.io.IOUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Process wide cache of the parsed structure templates and their four rotations, safe to use from any thread.
+ * <p>
+ * Reading a template means opening the resource, unzipping and parsing the NBT, so every structure
+ * is only read once and then shared by all users. The least recently used templates are dropped
+ * once more than {@link Configurations#structureCacheSize} are cached.
+ */
+public final class TemplateCache
+{
+    /**
+     * Name of the structure to the cached template and rotations, in access order.
+     */
+    private static final Map<String, Entry> cache = new LinkedHashMap<String, Entry>(16, 0.75F, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest)
+        {
+            if (size() > Math.max(1, Configurations.structureCacheSize))
+            {
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private static long hits      = 0;
+    private static long misses    = 0;
+    private static long evictions = 0;
+
+    /**
+     * Private constructor to hide the implicit public one.
+     */
+    private TemplateCache()
+    {
+        /*
+         * Intentionally left empty.
+         */
+    }
+
+    /**
+     * Get the parsed template of a structure, it must not be modified.
+     *
+     * @param name the structure name, like "wooden/Builder1".
+     * @return the template or null if there is no such structure.
+     */
+    @Nullable
+    public static Template getTemplate(@NotNull final String name)
+    {
+        final Entry entry = getEntry(name);
+        return entry == null ? null : entry.template;
+    }
+
+    /**
+     * Get a rotation of a structure.
+     *
+     * @param name     the structure name, like "wooden/Builder1".
+     * @param rotation the rotation.
+     * @return the rotated structure or null if there is no such structure.
+     */
+    @Nullable
+    public static RotatedTemplate getRotation(@NotNull final String name, @NotNull final Rotation rotation)
+    {
+        final Entry entry = getEntry(name);
+        if (entry == null)
+        {
+            return null;
+        }
+
+        synchronized (entry)
+        {
+            if (entry.rotations[rotation.ordinal()] == null)
+            {
+                entry.rotations[rotation.ordinal()] = new RotatedTemplate(entry.template, rotation);
+            }
+            return entry.rotations[rotation.ordinal()];
+        }
+    }
+
+    /**
+     * Checks if a structure is cached without reading it.
+     *
+     * @param name the structure name, like "wooden/Builder1".
+     * @return true if it is cached.
+     */
+    public static synchronized boolean isCached(@NotNull final String name)
+    {
+        return cache.containsKey(name);
+    }
+
+    /**
+     * Drops all cached structures, for example after the resources have been reloaded.
+     */
+    public static synchronized void clear()
+    {
+        cache.clear();
+    }
+
+    /**
+     * @return how often a structure was found in the cache.
+     */
+    public static synchronized long getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * @return how often a structure had to be read.
+     */
+    public static synchronized long getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * @return how often a structure was dropped because the cache was full.
+     */
+    public static synchronized long getEvictions()
+    {
+        return evictions;
+    }
+
+    /**
+     * @return a one line summary of the cache statistics.
+     */
+    @NotNull
+    public static synchronized String getStatistics()
+    {
+        final long requests = hits + misses;
+        return String.format("Structure cache: %d/%d structures, %d hits, %d misses (%.1f%% hit rate), %d evictions",
+          cache.size(), Configurations.structureCacheSize, hits, misses, requests == 0 ? 0D : (hits * 100D / requests), evictions);
+    }
+
+    /**
+     * Get the cache entry of a structure, reading it if needed.
+     * The template is read outside of the lock, so a slow read doesn't block other threads using the cache.
+     *
+     * @param name the structure name.
+     * @return the entry or null if there is no such structure.
+     */
+    @Nullable
+    private static Entry getEntry(@NotNull final String name)
+    {
+        synchronized (TemplateCache.class)
+        {
+            final Entry entry = cache.get(name);
+            if (entry != null)
+            {
+                hits++;
+                return entry;
+            }
+            misses++;
+        }
+
+        final Template template = readTemplate(name);
+        if (template == null)
+        {
+            return null;
+        }
+
+        synchronized (TemplateCache.class)
+        {
+            //Another thread may have read it in the meantime, keep the one which is already shared.
+            final Entry existing = cache.get(name);
+            if (existing != null)
+            {
+                return existing;
+            }
+
+            final Entry entry = new Entry(template);
+            cache.put(name, entry);
+            return entry;
+        }
+    }
+
+    /**
+     * Reads a structure, the compact format is preferred over the vanilla template if both exist.
+     *
+     * @param name the structure name.
+     * @return the template or null if there is no such structure.
+     */
+    @Nullable
+    private static Template readTemplate(@NotNull final String name)
+    {
+        final String path = "/assets/" + Constants.MOD_ID + "/schematics/" + name;
+        final InputStream compactStream = MinecraftServer.class.getResourceAsStream(path + CompactSchematic.EXTENSION);
+        final InputStream inputstream = compactStream == null
+                                          ? MinecraftServer.class.getResourceAsStream(path + CompactSchematic.TEMPLATE_EXTENSION)
+                                          : compactStream;
+        if (inputstream == null)
+        {
+            return null;
+        }
+
+        try
+        {
+            if (compactStream != null)
+            {
+                return CompactSchematic.read(inputstream);
+            }
+
+            final NBTTagCompound nbttagcompound = CompressedStreamTools.readCompressed(inputstream);
+            final Template template = new Template();
+            template.read(nbttagcompound);
+            return template;
+        }
+        catch (IOException e)
+        {
+            Log.getLogger().warn(String.format("Failed to load template %s", name), e);
+            return null;
+        }
+        finally
+        {
+            IOUtils.closeQuietly(inputstream);
+        }
+    }
+
+    /**
+     * A cached template with its rotations, which are computed when first used.
+     */
+    private static final class Entry
+    {
+        @NotNull
+        private final Template          template;
+        @NotNull
+        private final RotatedTemplate[] rotations = new RotatedTemplate[Rotation.values().length];
+
+        private Entry(@NotNull final Template template)
+        {
+            this.template = template;
+        }
+    }
+
+    /**
+     * One rotation of a structure, it never changes after it has been created.
+     * <p>
+     * Structures use only a few different block states, so every position stores the index of its state
+     * in a palette, one byte each for up to 256 states and two bytes for more.
+     * Positions are flat indices, x changes fastest, then z, then y.
+     */
+    public static final class RotatedTemplate
+    {
+        /**
+         * Palette index of positions without a block (structure void).
+         */
+        private static final int NO_STATE          = 0;
+        /**
+         * Most states which fit into byte indices, including {@link #NO_STATE}.
+         */
+        private static final int MAX_BYTE_PALETTE  = 256;
+        /**
+         * Mask to read a byte index without sign.
+         */
+        private static final int BYTE_MASK         = 0xFF;
+        /**
+         * Mask to read a short index without sign.
+         */
+        private static final int SHORT_MASK        = 0xFFFF;
+
+        private final int           width;
+        private final int           height;
+        private final int           length;
+        @NotNull
+        private final IBlockState[] palette;
+        @Nullable
+        private final byte[]        byteIndices;
+        @Nullable
+        private final short[]       shortIndices;
+        @Nullable
+        private final BlockPos      hutPosition;
+        /**
+         * Moves a transformed template position to its position in this rotation.
+         */
+        @NotNull
+        private final BlockPos      shift;
+        /**
+         * Flat index to the tile entity data of the block there, must not be modified.
+         */
+        @NotNull
+        private final Map<Integer, NBTTagCompound> tileEntityData = new HashMap<>();
+
+        private RotatedTemplate(@NotNull final Template template, @NotNull final Rotation rotation)
+        {
+            final BlockPos size = template.transformedSize(rotation);
+            this.width = size.getX();
+            this.height = size.getY();
+            this.length = size.getZ();
+
+            final PlacementSettings settings = new PlacementSettings().setRotation(rotation);
+            final Template.BlockInfo[] infos = template.blocks.toArray(new Template.BlockInfo[template.blocks.size()]);
+            final BlockPos[] positions = new BlockPos[infos.length];
+
+            int minX = 0;
+            int minY = 0;
+            int minZ = 0;
+            for (int i = 0; i < infos.length; i++)
+            {
+                positions[i] = Template.transformedBlockPos(settings, infos[i].pos);
+                minX = Math.min(minX, positions[i].getX());
+                minY = Math.min(minY, positions[i].getY());
+                minZ = Math.min(minZ, positions[i].getZ());
+            }
+
+            final Map<IBlockState, Integer> paletteIndices = new HashMap<>();
+            final List<IBlockState> states = new ArrayList<>();
+            states.add(null);
+            final int[] indices = new int[width * height * length];
+
+            BlockPos hut = null;
+            this.shift = new BlockPos(-minX, -minY, -minZ);
+            for (int i = 0; i < infos.length; i++)
+            {
+                final BlockPos pos = positions[i].add(shift);
+                final IBlockState state = infos[i].blockState.withMirror(Mirror.NONE).withRotation(rotation);
+
+                Integer paletteIndex = paletteIndices.get(state);
+                if (paletteIndex == null)
+                {
+                    paletteIndex = states.size();
+                    paletteIndices.put(state, paletteIndex);
+                    states.add(state);
+                }
+                indices[getIndex(pos.getX(), pos.getY(), pos.getZ())] = paletteIndex;
+                if (infos[i].tileentityData != null)
+                {
+                    tileEntityData.put(getIndex(pos.getX(), pos.getY(), pos.getZ()), infos[i].tileentityData);
+                }
+
+                if (state.getBlock() instanceof AbstractBlockHut)
+                {
+                    hut = pos;
+                }
+            }
+            this.hutPosition = hut;
+            this.palette = states.toArray(new IBlockState[states.size()]);
+
+            if (palette.length <= MAX_BYTE_PALETTE)
+            {
+                this.byteIndices = new byte[indices.length];
+                this.shortIndices = null;
+                for (int i = 0; i < indices.length; i++)
+                {
+                    byteIndices[i] = (byte) indices[i];
+                }
+            }
+            else
+            {
+                this.byteIndices = null;
+                this.shortIndices = new short[indices.length];
+                for (int i = 0; i < indices.length; i++)
+                {
+                    shortIndices[i] = (short) indices[i];
+                }
+            }
+        }
+
+        /**
+         * @return the size in x direction.
+         */
+        public int getWidth()
+        {
+            return width;
+        }
+
+        /**
+         * @return the size in y direction.
+         */
+        public int getHeight()
+        {
+            return height;
+        }
+
+        /**
+         * @return the size in z direction.
+         */
+        public int getLength()
+        {
+            return length;
+        }
+
+        /**
+         * @return the amount of positions in the structure.
+         */
+        public int getVolume()
+        {
+            return width * height * length;
+        }
+
+        /**
+         * @return the amount of different block states, including the empty one.
+         */
+        public int getPaletteSize()
+        {
+            return palette.length;
+        }
+
+        /**
+         * Calculates the flat index of a position.
+         *
+         * @param x the x position.
+         * @param y the y position.
+         * @param z the z position.
+         * @return the index.
+         */
+        public int getIndex(final int x, final int y, final int z)
+        {
+            return (y * length + z) * width + x;
+        }
+
+        /**
+         * Calculates the position of a flat index.
+         *
+         * @param index the index.
+         * @return the position inside the structure.
+         */
+        @NotNull
+        public BlockPos getPosition(final int index)
+        {
+            return new BlockPos(index % width, index / (width * length), (index / width) % length);
+        }
+
+        /**
+         * Get the block state at a position inside the structure.
+         *
+         * @param x the x position.
+         * @param y the y position.
+         * @param z the z position.
+         * @return the block state, null for structure void.
+         */
+        @Nullable
+        public IBlockState getBlockState(final int x, final int y, final int z)
+        {
+            return getBlockState(getIndex(x, y, z));
+        }
+
+        /**
+         * Get the block state at a flat index.
+         *
+         * @param index the index.
+         * @return the block state, null for structure void.
+         */
+        @Nullable
+        public IBlockState getBlockState(final int index)
+        {
+            final int paletteIndex = byteIndices != null ? (byteIndices[index] & BYTE_MASK) : (shortIndices[index] & SHORT_MASK);
+            return paletteIndex == NO_STATE ? null : palette[paletteIndex];
+        }
+
+        /**
+         * Get the tile entity data of the block at a flat index.
+         *
+         * @param index the index.
+         * @return a copy of the data, null if the block has none.
+         */
+        @Nullable
+        public NBTTagCompound getTileEntityData(final int index)
+        {
+            final NBTTagCompound data = tileEntityData.get(index);
+            return data == null ? null : data.copy();
+        }
+
+        /**
+         * Entities and other positions transformed with {@link Template#transformedBlockPos} have to be moved by this
+         * to line up with the blocks of this rotation.
+         *
+         * @return the shift.
+         */
+        @NotNull
+        public BlockPos getShift()
+        {
+            return shift;
+        }
+
+        /**
+         * @return the position of the hut block, null for decorations.
+         */
+        @Nullable
+        public BlockPos getHutPosition()
+        {
+            return hutPosition;
+        }
+    }
+}
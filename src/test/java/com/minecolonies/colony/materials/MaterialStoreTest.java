@@ -0,0 +1,150 @@
+package com.minecolonies.colony.materials;
+
+import com.minecolonies.test.AbstractTest;
+import net.minecraft.nbt.NBTTagCompound;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class MaterialStoreTest extends AbstractTest
+{
+    private static final int STONE = 1 << 16;
+
+    private MaterialSystem system;
+    private MaterialStore  chest;
+    private MaterialStore  hut;
+
+    @Override
+    public String getTestName()
+    {
+        return "MaterialStoreTest";
+    }
+
+    @Before
+    public void setupStores()
+    {
+        system = new MaterialSystem();
+        chest = new MaterialStore(MaterialStore.Type.CHEST, system);
+        hut = new MaterialStore(MaterialStore.Type.CHEST, system);
+    }
+
+    @Test
+    public void totalsFollowHaveAndNeed()
+    {
+        chest.addMaterial(STONE, 10);
+        hut.addNeededMaterial(STONE, 4);
+
+        assertThat(system.getAvailable(STONE), is(10));
+        assertThat(system.getSurplus(STONE), is(10));
+        assertThat(system.getMissing(STONE), is(4));
+        assertThat(system.canCoverMissing(STONE), is(true));
+        assertThat(system.checkConsistency(), is(0));
+    }
+
+    @Test
+    public void removingMoreThanNeededIsClamped()
+    {
+        hut.addNeededMaterial(STONE, 3);
+        hut.removeNeededMaterial(STONE, 5);
+
+        assertThat(hut.getNeeded(STONE), is(0));
+        assertThat(system.getMissing(STONE), is(0));
+    }
+
+    @Test
+    public void reservationIsLimitedToSurplus()
+    {
+        chest.addMaterial(STONE, 5);
+        chest.addNeededMaterial(STONE, 2);
+
+        assertThat(chest.reserve(STONE, 10), is(3));
+        assertThat(chest.getMaterialCount(STONE), is(0));
+        assertThat(system.getSurplus(STONE), is(0));
+        assertThat(chest.reserve(STONE, 1), is(0));
+    }
+
+    @Test
+    public void releaseGivesBackOnlyReserved()
+    {
+        chest.addMaterial(STONE, 5);
+        chest.addNeededMaterial(STONE, 1);
+        chest.reserve(STONE, 2);
+
+        chest.release(STONE, 10);
+
+        assertThat(chest.getReserved(STONE), is(0));
+        assertThat(chest.getNeeded(STONE), is(1));
+        assertThat(system.getSurplus(STONE), is(4));
+    }
+
+    @Test
+    public void needsAreClearedWithoutReservations()
+    {
+        chest.addMaterial(STONE, 5);
+        chest.reserve(STONE, 2);
+        chest.addNeededMaterial(STONE, 1);
+
+        chest.clearNeeded();
+
+        assertThat(chest.getNeeded(STONE), is(2));
+        assertThat(chest.getReserved(STONE), is(2));
+    }
+
+    @Test
+    public void reservationsAreNotSaved()
+    {
+        chest.addMaterial(STONE, 5);
+        chest.addNeededMaterial(STONE, 1);
+        chest.reserve(STONE, 2);
+
+        final NBTTagCompound compound = new NBTTagCompound();
+        chest.writeToNBT(compound);
+        final MaterialStore loaded = new MaterialStore(MaterialStore.Type.CHEST, new MaterialSystem());
+        loaded.readFromNBT(compound);
+
+        assertThat(loaded.getHave(STONE), is(5));
+        assertThat(loaded.getNeeded(STONE), is(1));
+        assertThat(loaded.getReserved(STONE), is(0));
+    }
+
+    @Test
+    public void transferMovesBetweenStoresWithoutChangingTotals()
+    {
+        chest.addMaterial(STONE, 10);
+        hut.addNeededMaterial(STONE, 4);
+
+        system.transfer(chest, hut, STONE, 4);
+
+        assertThat(chest.getHave(STONE), is(6));
+        assertThat(hut.getHave(STONE), is(4));
+        assertThat(system.getAvailable(STONE), is(10));
+        assertThat(system.getMissing(STONE), is(0));
+        assertThat(system.checkConsistency(), is(0));
+    }
+
+    @Test
+    public void transferOfUnknownMaterialIsClampedAtTheSource()
+    {
+        chest.addMaterial(STONE, 2);
+
+        system.transfer(chest, hut, STONE, 5);
+
+        assertThat(chest.getHave(STONE), is(0));
+        assertThat(hut.getHave(STONE), is(5));
+        assertThat(system.checkConsistency(), is(0));
+    }
+
+    @Test
+    public void trackingIsPausedUntilResumed()
+    {
+        chest.pauseTracking();
+        chest.pauseTracking();
+        chest.resumeTracking();
+
+        assertThat(chest.isTracking(), is(false));
+        chest.resumeTracking();
+        assertThat(chest.isTracking(), is(true));
+    }
+}
@@ -0,0 +1,125 @@
+package com.minecolonies.entity.ai.basic;
+
+import com.minecolonies.colony.Colony;
+import com.minecolonies.colony.buildings.AbstractBuilding;
+import com.minecolonies.colony.materials.ItemAvailabilityIndex;
+import com.minecolonies.colony.materials.MaterialStore;
+import com.minecolonies.colony.materials.MaterialSystem;
+import com.minecolonies.configuration.Configurations;
+import com.minecolonies.test.AbstractTest;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.BlockPos;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AbstractEntityAIBasicTest extends AbstractTest
+{
+    private static final BlockPos OWN_HUT    = new BlockPos(0, 64, 0);
+    private static final BlockPos NEAR_CHEST = new BlockPos(10, 64, 0);
+    private static final BlockPos FAR_CHEST  = new BlockPos(40, 64, 0);
+    private static final BlockPos FIELD      = new BlockPos(5, 64, 0);
+
+    private Colony                colony;
+    private ItemAvailabilityIndex index;
+    private MaterialSystem        materialSystem;
+    private ItemStack             needed;
+
+    @Override
+    public String getTestName()
+    {
+        return "AbstractEntityAIBasicTest";
+    }
+
+    @Before
+    public void setupColony()
+    {
+        needed = new ItemStack(mock(Item.class), 8);
+        index = new ItemAvailabilityIndex();
+        materialSystem = new MaterialSystem();
+        colony = mock(Colony.class);
+        when(colony.getItemIndex()).thenReturn(index);
+
+        addBuilding(OWN_HUT);
+        addBuilding(NEAR_CHEST);
+        addBuilding(FAR_CHEST);
+    }
+
+    @After
+    public void disableLedger()
+    {
+        Configurations.enableMaterialLedger = false;
+    }
+
+    private void addBuilding(final BlockPos location)
+    {
+        final AbstractBuilding building = mock(AbstractBuilding.class);
+        when(building.getMaterialStore()).thenReturn(new MaterialStore(MaterialStore.Type.CHEST, materialSystem));
+        when(colony.getBuilding(location)).thenReturn(building);
+    }
+
+    private void store(final BlockPos location, final int amount)
+    {
+        index.updateSlot(location, 0, new ItemStack(needed.getItem(), amount));
+        final AbstractBuilding building = colony.getBuilding(location);
+        if (building != null)
+        {
+            building.getMaterialStore().addMaterial(MaterialSystem.getKey(needed), amount);
+        }
+    }
+
+    @Test
+    public void nothingFoundIfNoOtherBuildingHasIt()
+    {
+        store(OWN_HUT, 16);
+
+        assertThat(AbstractEntityAIBasic.findNeededItemInColony(colony, needed, OWN_HUT), is(nullValue()));
+    }
+
+    @Test
+    public void nearestOtherBuildingIsFound()
+    {
+        store(OWN_HUT, 16);
+        store(FAR_CHEST, 16);
+        store(NEAR_CHEST, 16);
+
+        assertThat(AbstractEntityAIBasic.findNeededItemInColony(colony, needed, OWN_HUT), is(NEAR_CHEST));
+    }
+
+    @Test
+    public void inventoriesWithoutBuildingAreSkipped()
+    {
+        store(FIELD, 16);
+        store(FAR_CHEST, 16);
+
+        assertThat(AbstractEntityAIBasic.findNeededItemInColony(colony, needed, OWN_HUT), is(FAR_CHEST));
+    }
+
+    @Test
+    public void ledgerSkipsChestsWhichNeedItThemselves()
+    {
+        Configurations.enableMaterialLedger = true;
+        store(NEAR_CHEST, 16);
+        store(FAR_CHEST, 16);
+        colony.getBuilding(NEAR_CHEST).getMaterialStore().addNeededMaterial(MaterialSystem.getKey(needed), 16);
+
+        assertThat(AbstractEntityAIBasic.findNeededItemInColony(colony, needed, OWN_HUT), is(FAR_CHEST));
+    }
+
+    @Test
+    public void reservedItemsAreNotFoundAgain()
+    {
+        Configurations.enableMaterialLedger = true;
+        store(NEAR_CHEST, 16);
+        colony.getBuilding(NEAR_CHEST).getMaterialStore().reserve(MaterialSystem.getKey(needed), 16);
+
+        assertThat(AbstractEntityAIBasic.findNeededItemInColony(colony, needed, OWN_HUT), is(nullValue()));
+    }
+}
@@ -0,0 +1,204 @@
+package com.minecolonies.entity.ai.citizen.deliveryman;
+
+import com.minecolonies.colony.CitizenData;
+import com.minecolonies.colony.Colony;
+import com.minecolonies.colony.buildings.AbstractBuilding;
+import com.minecolonies.colony.buildings.AbstractBuildingWorker;
+import com.minecolonies.colony.jobs.AbstractJob;
+import com.minecolonies.colony.materials.ItemAvailabilityIndex;
+import com.minecolonies.colony.materials.MaterialStore;
+import com.minecolonies.colony.materials.MaterialSystem;
+import com.minecolonies.configuration.Configurations;
+import com.minecolonies.test.AbstractTest;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.BlockPos;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DeliveryPlannerTest extends AbstractTest
+{
+    private static final BlockPos WORKER_HUT = new BlockPos(0, 64, 0);
+    private static final BlockPos NEAR_CHEST = new BlockPos(10, 64, 0);
+    private static final BlockPos FAR_CHEST  = new BlockPos(40, 64, 0);
+    private static final BlockPos START      = new BlockPos(20, 64, 0);
+    private static final int      FREE_SLOTS = 10;
+
+    private Colony                colony;
+    private ItemAvailabilityIndex index;
+    private MaterialSystem        materialSystem;
+    private Item                  item;
+    private AbstractJob           job;
+    private final Map<BlockPos, AbstractBuilding> buildings = new HashMap<>();
+
+    @Override
+    public String getTestName()
+    {
+        return "DeliveryPlannerTest";
+    }
+
+    @Before
+    public void setupColony()
+    {
+        item = mock(Item.class);
+        when(item.getItemStackLimit(any(ItemStack.class))).thenReturn(64);
+
+        index = new ItemAvailabilityIndex();
+        materialSystem = new MaterialSystem();
+        colony = mock(Colony.class);
+        when(colony.getItemIndex()).thenReturn(index);
+        when(colony.getMaterialSystem()).thenReturn(materialSystem);
+        when(colony.getBuildings()).thenReturn(buildings);
+
+        final AbstractBuildingWorker hut = mock(AbstractBuildingWorker.class);
+        addBuilding(hut, WORKER_HUT);
+        addBuilding(mock(AbstractBuilding.class), NEAR_CHEST);
+        addBuilding(mock(AbstractBuilding.class), FAR_CHEST);
+
+        job = mock(AbstractJob.class);
+        final CitizenData citizen = mock(CitizenData.class);
+        when(citizen.getJob()).thenReturn(job);
+        when(citizen.getWorkBuilding()).thenReturn(hut);
+        when(citizen.getId()).thenReturn(1);
+        when(colony.getEmployedCitizens()).thenReturn(Collections.singletonList(citizen));
+    }
+
+    @After
+    public void disableLedger()
+    {
+        Configurations.enableMaterialLedger = false;
+    }
+
+    private void addBuilding(final AbstractBuilding building, final BlockPos location)
+    {
+        when(building.getLocation()).thenReturn(location);
+        when(building.getMaterialStore()).thenReturn(new MaterialStore(MaterialStore.Type.CHEST, materialSystem));
+        when(colony.getBuilding(location)).thenReturn(building);
+        buildings.put(location, building);
+    }
+
+    private void request(final int amount)
+    {
+        when(job.isMissingNeededItem()).thenReturn(true);
+        when(job.getItemsNeeded()).thenReturn(Collections.singletonList(new ItemStack(item, amount)));
+    }
+
+    private void store(final BlockPos location, final int amount)
+    {
+        index.updateSlot(location, 0, new ItemStack(item, amount));
+        buildings.get(location).getMaterialStore().addMaterial(MaterialSystem.getKey(new ItemStack(item, 1)), amount);
+    }
+
+    private DeliveryRoute plan(final Collection<DeliveryRoute> activeRoutes)
+    {
+        return DeliveryPlanner.plan(colony, START, FREE_SLOTS, activeRoutes, 0);
+    }
+
+    @Test
+    public void nothingToPlanWithoutRequests()
+    {
+        store(NEAR_CHEST, 16);
+
+        assertThat(plan(Collections.emptyList()), is(nullValue()));
+    }
+
+    @Test
+    public void routePicksUpAtNearestSourceBeforeDropOff()
+    {
+        request(8);
+        store(NEAR_CHEST, 16);
+        store(FAR_CHEST, 16);
+
+        final DeliveryRoute route = plan(Collections.emptyList());
+        final List<DeliveryRoute.Stop> stops = route.getStops();
+
+        assertThat(stops.size(), is(2));
+        assertThat(stops.get(0).getLocation(), is(NEAR_CHEST));
+        assertThat(stops.get(0).isPickup(), is(true));
+        assertThat(stops.get(0).getStack().stackSize, is(8));
+        assertThat(stops.get(1).getLocation(), is(WORKER_HUT));
+        assertThat(stops.get(1).isPickup(), is(false));
+    }
+
+    @Test
+    public void routeCollectsFromSeveralSources()
+    {
+        request(20);
+        store(NEAR_CHEST, 16);
+        store(FAR_CHEST, 16);
+
+        final List<DeliveryRoute.Stop> stops = plan(Collections.emptyList()).getStops();
+
+        assertThat(stops.size(), is(3));
+        assertThat(stops.get(0).getStack().stackSize + stops.get(1).getStack().stackSize, is(20));
+        assertThat(stops.get(2).getStack().stackSize, is(20));
+    }
+
+    @Test
+    public void itemsAlreadyInTheHutAreNotDelivered()
+    {
+        request(8);
+        store(WORKER_HUT, 8);
+        store(NEAR_CHEST, 16);
+
+        assertThat(plan(Collections.emptyList()), is(nullValue()));
+    }
+
+    @Test
+    public void requestsOfOtherRoutesAreSkipped()
+    {
+        request(8);
+        store(NEAR_CHEST, 16);
+        final DeliveryRoute other = plan(Collections.emptyList());
+
+        assertThat(plan(Collections.singletonList(other)), is(nullValue()));
+    }
+
+    @Test
+    public void ledgerKeepsWhatASourceNeedsItself()
+    {
+        Configurations.enableMaterialLedger = true;
+        request(8);
+        store(NEAR_CHEST, 16);
+        store(FAR_CHEST, 16);
+        buildings.get(NEAR_CHEST).getMaterialStore().addNeededMaterial(MaterialSystem.getKey(new ItemStack(item, 1)), 12);
+
+        final List<DeliveryRoute.Stop> stops = plan(Collections.emptyList()).getStops();
+
+        assertThat(stops.size(), is(3));
+        assertThat(stops.get(0).getLocation(), is(NEAR_CHEST));
+        assertThat(stops.get(0).getStack().stackSize, is(4));
+        assertThat(stops.get(1).getLocation(), is(FAR_CHEST));
+        assertThat(stops.get(1).getStack().stackSize, is(4));
+    }
+
+    @Test
+    public void ledgerReservesPlannedPickupsUntilReleased()
+    {
+        Configurations.enableMaterialLedger = true;
+        request(8);
+        store(NEAR_CHEST, 16);
+        final int key = MaterialSystem.getKey(new ItemStack(item, 1));
+        final MaterialStore source = buildings.get(NEAR_CHEST).getMaterialStore();
+
+        final DeliveryRoute route = plan(Collections.emptyList());
+
+        assertThat(source.getReserved(key), is(8));
+        assertThat(source.getMaterialCount(key), is(8));
+
+        route.releaseAll(colony);
+
+        assertThat(source.getReserved(key), is(0));
+        assertThat(source.getMaterialCount(key), is(16));
+    }
+}
@@ -0,0 +1,257 @@
+package com.minecolonies.simulation;
+
+import com.minecolonies.entity.ai.util.AIState;
+import com.minecolonies.entity.ai.util.AITarget;
+import com.minecolonies.entity.pathfinding.PathJobFindTree;
+import net.minecraft.init.Blocks;
+import net.minecraft.pathfinding.Path;
+import net.minecraft.pathfinding.PathPoint;
+import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Lumberjacks cutting down a planted forest.
+ * <p>
+ * Each citizen finds its next tree with {@link PathJobFindTree}, the search the lumberjack runs, walks the path it
+ * returns and cuts the trunk log by log from the bottom. It needs the real blocks, so the game has to be bootstrapped
+ * before the world is created.
+ */
+public class ForestScenario implements IScenario
+{
+    /**
+     * Counters of the forest citizens.
+     */
+    public static final String TREE_SEARCHES = "tree searches";
+    public static final String TREES_FOUND   = "trees found";
+    public static final String LOGS_CUT      = "logs cut";
+    public static final String BLOCKS_WALKED = "blocks walked";
+    public static final String IDLE_TICKS    = "idle ticks";
+
+    /**
+     * Height of the forest floor, the trunks start one block above.
+     */
+    private static final int GROUND       = 64;
+    /**
+     * Blocks between two trunks.
+     */
+    private static final int SPACING      = 4;
+    /**
+     * Logs of every trunk.
+     */
+    private static final int TRUNK_HEIGHT = 5;
+    /**
+     * Most hits it takes to cut a log.
+     */
+    private static final int MAX_HITS     = 6;
+    /**
+     * Range of the tree search, the one the lumberjack starts with.
+     */
+    private static final int SEARCH_RANGE = 50;
+    /**
+     * Ticks a citizen waits after a search found no tree, a failed search walks the whole range.
+     */
+    private static final int SEARCH_DELAY = 400;
+
+    private final int size;
+
+    /**
+     * Creates the scenario.
+     *
+     * @param size the width and length of the forest.
+     */
+    public ForestScenario(final int size)
+    {
+        this.size = size;
+    }
+
+    @NotNull
+    @Override
+    public String getName()
+    {
+        return String.format("forest %dx%d", size, size);
+    }
+
+    @NotNull
+    @Override
+    public SimulatedWorld createWorld(@NotNull final Random random)
+    {
+        final SimulatedWorld world = new SimulatedWorld(Blocks.AIR.getDefaultState());
+        world.fill(new BlockPos(-1, GROUND, -1), new BlockPos(size, GROUND, size), Blocks.DIRT.getDefaultState());
+        for (@NotNull final BlockPos trunk : getTrunks())
+        {
+            final BlockPos top = trunk.up(TRUNK_HEIGHT - 1);
+            world.fill(top.add(-1, -1, -1), top.add(1, 1, 1), Blocks.LEAVES.getDefaultState());
+            world.fill(trunk, top, Blocks.LOG.getDefaultState());
+        }
+        return world;
+    }
+
+    @NotNull
+    @Override
+    public List<ISimulatedWorker> createWorkers(@NotNull final SimulatedWorld world, @NotNull final Random random, final int citizens)
+    {
+        //  The huts are on the edge of the forest, no trunk grows on it
+        final List<ISimulatedWorker> workers = new ArrayList<>();
+        for (int i = 0; i < citizens; i++)
+        {
+            workers.add(new Lumberjack(new BlockPos(random.nextInt(size), GROUND + 1, 0)));
+        }
+        return workers;
+    }
+
+    /**
+     * @return the lowest log of every tree.
+     */
+    @NotNull
+    public List<BlockPos> getTrunks()
+    {
+        final List<BlockPos> trunks = new ArrayList<>();
+        for (int x = 1; x < size - 1; x += SPACING)
+        {
+            for (int z = 1; z < size - 1; z += SPACING)
+            {
+                trunks.add(new BlockPos(x, GROUND + 1, z));
+            }
+        }
+        return trunks;
+    }
+
+    /**
+     * @return the lowest corner of the space the trunks are in.
+     */
+    @NotNull
+    public BlockPos getFrom()
+    {
+        return new BlockPos(0, GROUND + 1, 0);
+    }
+
+    /**
+     * @return the highest corner of the space the trunks are in.
+     */
+    @NotNull
+    public BlockPos getTo()
+    {
+        return new BlockPos(size - 1, GROUND + TRUNK_HEIGHT, size - 1);
+    }
+
+    /**
+     * A citizen searching the forest for trees from its hut and cutting them.
+     */
+    private static final class Lumberjack extends SimulatedAI
+    {
+        @NotNull
+        private final BlockPos hut;
+        @NotNull
+        private       BlockPos position;
+        @Nullable
+        private       BlockPos tree;
+        @Nullable
+        private       Path     path;
+        private       int      hitsLeft;
+        private       int      searchDelay;
+
+        private Lumberjack(@NotNull final BlockPos hut)
+        {
+            super();
+            this.hut = hut;
+            this.position = hut;
+            registerTargets(
+              new AITarget(AIState.INIT, AIState.IDLE),
+              new AITarget(AIState.IDLE, this::searchTree),
+              new AITarget(AIState.LUMBERJACK_SEARCHING_TREE, this::searchTree),
+              new AITarget(AIState.START_WORKING, this::walkToTree),
+              new AITarget(AIState.LUMBERJACK_CHOP_TREE, this::chop)
+            );
+        }
+
+        /**
+         * Runs the tree search of the lumberjack from where the citizen stands.
+         *
+         * @return the next state.
+         */
+        @NotNull
+        private AIState searchTree()
+        {
+            if (searchDelay > 0)
+            {
+                searchDelay--;
+                getCounters().increment(IDLE_TICKS);
+                return AIState.IDLE;
+            }
+
+            final PathJobFindTree search = new PathJobFindTree(getWorld(), position, hut, SEARCH_RANGE);
+            final Path found = search.call();
+            getCounters().increment(TREE_SEARCHES);
+            if (found == null || !search.getResult().getPathReachesDestination() || search.getResult().treeLocation == null)
+            {
+                searchDelay = SEARCH_DELAY;
+                getCounters().increment(IDLE_TICKS);
+                return AIState.IDLE;
+            }
+
+            getCounters().increment(TREES_FOUND);
+            tree = search.getResult().treeLocation;
+            path = found;
+            return AIState.START_WORKING;
+        }
+
+        /**
+         * Walks to the next point of the path to the tree.
+         *
+         * @return the next state.
+         */
+        @NotNull
+        private AIState walkToTree()
+        {
+            if (tree == null || path == null)
+            {
+                return AIState.IDLE;
+            }
+
+            if (path.isFinished())
+            {
+                path = null;
+                hitsLeft = 1 + getRandom().nextInt(MAX_HITS);
+                return AIState.LUMBERJACK_CHOP_TREE;
+            }
+
+            final int index = path.getCurrentPathIndex();
+            final PathPoint point = path.getPathPointFromIndex(index);
+            position = new BlockPos(point.xCoord, point.yCoord, point.zCoord);
+            path.setCurrentPathIndex(index + 1);
+            getCounters().increment(BLOCKS_WALKED);
+            return AIState.START_WORKING;
+        }
+
+        /**
+         * Hits the lowest log left, and cuts it with the last hit.
+         *
+         * @return the next state.
+         */
+        @NotNull
+        private AIState chop()
+        {
+            if (tree == null || getWorld().getBlockState(tree).getBlock() != Blocks.LOG)
+            {
+                tree = null;
+                return AIState.LUMBERJACK_SEARCHING_TREE;
+            }
+
+            if (--hitsLeft > 0)
+            {
+                return AIState.LUMBERJACK_CHOP_TREE;
+            }
+
+            getWorld().setBlockState(tree, Blocks.AIR.getDefaultState());
+            getCounters().increment(LOGS_CUT);
+            tree = tree.up();
+            hitsLeft = 1 + getRandom().nextInt(MAX_HITS);
+            return AIState.LUMBERJACK_CHOP_TREE;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.minecolonies.simulation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A scripted simulation: the world it starts with and the citizens working in it.
+ */
+public interface IScenario
+{
+    /**
+     * @return the name used in reports.
+     */
+    @NotNull
+    String getName();
+
+    /**
+     * Creates the starting world.
+     *
+     * @param random the random source of the simulation.
+     * @return the world.
+     */
+    @NotNull
+    SimulatedWorld createWorld(@NotNull Random random);
+
+    /**
+     * Creates the citizens.
+     *
+     * @param world    the starting world.
+     * @param random   the random source of the simulation.
+     * @param citizens the amount of citizens.
+     * @return the citizens, ticked in this order.
+     */
+    @NotNull
+    List<ISimulatedWorker> createWorkers(@NotNull SimulatedWorld world, @NotNull Random random, int citizens);
+}
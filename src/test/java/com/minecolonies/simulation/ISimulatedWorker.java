@@ -0,0 +1,21 @@
+package com.minecolonies.simulation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Random;
+
+/**
+ * A citizen of a simulation, ticked once per simulated tick.
+ */
+@FunctionalInterface
+public interface ISimulatedWorker
+{
+    /**
+     * Does the work of one tick.
+     *
+     * @param world    the simulated world.
+     * @param random   the random source of the simulation, the only one a worker may use to stay deterministic.
+     * @param counters the work done counters to add to.
+     */
+    void tick(@NotNull SimulatedWorld world, @NotNull Random random, @NotNull SimulationCounters counters);
+}
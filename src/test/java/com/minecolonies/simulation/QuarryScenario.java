@@ -0,0 +1,223 @@
+package com.minecolonies.simulation;
+
+import com.minecolonies.entity.ai.util.AIState;
+import com.minecolonies.entity.ai.util.AITarget;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Citizens digging out a block of stone together, like many miners in one mine.
+ * <p>
+ * The columns of the quarry are shared out between the citizens. Each citizen walks to the highest stone of its next
+ * column, hits it a random number of times and mines it, until its columns are empty.
+ */
+public class QuarryScenario implements IScenario
+{
+    /**
+     * Counters of the quarry citizens.
+     */
+    public static final String BLOCKS_MINED  = "blocks mined";
+    public static final String BLOCKS_WALKED = "blocks walked";
+    public static final String HITS          = "hits";
+    public static final String IDLE_TICKS    = "idle ticks";
+
+    /**
+     * Height of the top layer of the quarry.
+     */
+    private static final int SURFACE = 64;
+    /**
+     * Most hits it takes to mine a block.
+     */
+    private static final int MAX_HITS = 4;
+
+    @NotNull
+    private final IBlockState air;
+    @NotNull
+    private final IBlockState stone;
+    private final int         size;
+    private final int         depth;
+
+    /**
+     * Creates the scenario.
+     * The block states are only compared, simple stand-ins work when the game is not bootstrapped.
+     *
+     * @param air   the air state.
+     * @param stone the state of the blocks to mine.
+     * @param size  the width and length of the quarry.
+     * @param depth the amount of layers.
+     */
+    public QuarryScenario(@NotNull final IBlockState air, @NotNull final IBlockState stone, final int size, final int depth)
+    {
+        this.air = air;
+        this.stone = stone;
+        this.size = size;
+        this.depth = depth;
+    }
+
+    @NotNull
+    @Override
+    public String getName()
+    {
+        return String.format("quarry %dx%dx%d", size, size, depth);
+    }
+
+    @NotNull
+    @Override
+    public SimulatedWorld createWorld(@NotNull final Random random)
+    {
+        final SimulatedWorld world = new SimulatedWorld(air);
+        world.fill(getFrom(), getTo(), stone);
+        return world;
+    }
+
+    @NotNull
+    @Override
+    public List<ISimulatedWorker> createWorkers(@NotNull final SimulatedWorld world, @NotNull final Random random, final int citizens)
+    {
+        final List<List<BlockPos>> columns = new ArrayList<>();
+        for (int i = 0; i < citizens; i++)
+        {
+            columns.add(new ArrayList<>());
+        }
+        for (int i = 0; i < size * size; i++)
+        {
+            columns.get(i % citizens).add(new BlockPos(i % size, SURFACE, i / size));
+        }
+
+        final List<ISimulatedWorker> workers = new ArrayList<>();
+        for (int i = 0; i < citizens; i++)
+        {
+            workers.add(new QuarryWorker(columns.get(i), new BlockPos(random.nextInt(size), SURFACE + 1, random.nextInt(size))));
+        }
+        return workers;
+    }
+
+    /**
+     * @return the lowest corner of the quarry.
+     */
+    @NotNull
+    public BlockPos getFrom()
+    {
+        return new BlockPos(0, SURFACE - depth + 1, 0);
+    }
+
+    /**
+     * @return the highest corner of the quarry.
+     */
+    @NotNull
+    public BlockPos getTo()
+    {
+        return new BlockPos(size - 1, SURFACE, size - 1);
+    }
+
+    /**
+     * A citizen mining its columns from the top down.
+     */
+    private final class QuarryWorker extends SimulatedAI
+    {
+        /**
+         * The top of the columns still to dig, the first one is dug now.
+         */
+        @NotNull
+        private final List<BlockPos> columns;
+        @NotNull
+        private       BlockPos       position;
+        @Nullable
+        private       BlockPos       target;
+        private       int            hitsLeft;
+
+        private QuarryWorker(@NotNull final List<BlockPos> columns, @NotNull final BlockPos position)
+        {
+            this.columns = columns;
+            this.position = position;
+            registerTargets(
+              new AITarget(AIState.INIT, AIState.IDLE),
+              new AITarget(AIState.IDLE, this::findWork),
+              new AITarget(AIState.START_WORKING, this::walkToTarget),
+              new AITarget(AIState.MINER_MINING_SHAFT, this::mine)
+            );
+        }
+
+        /**
+         * Picks the highest stone of the next column with stone left.
+         *
+         * @return the next state.
+         */
+        @NotNull
+        private AIState findWork()
+        {
+            while (!columns.isEmpty())
+            {
+                final BlockPos top = columns.get(0);
+                for (int y = top.getY(); y > SURFACE - depth; y--)
+                {
+                    final BlockPos pos = new BlockPos(top.getX(), y, top.getZ());
+                    if (getWorld().getBlockState(pos) == stone)
+                    {
+                        target = pos;
+                        return AIState.START_WORKING;
+                    }
+                }
+                columns.remove(0);
+            }
+            getCounters().increment(IDLE_TICKS);
+            return AIState.IDLE;
+        }
+
+        /**
+         * Walks one block towards the position above the target.
+         *
+         * @return the next state.
+         */
+        @NotNull
+        private AIState walkToTarget()
+        {
+            if (target == null)
+            {
+                return AIState.IDLE;
+            }
+
+            final BlockPos goal = target.up();
+            if (position.equals(goal))
+            {
+                hitsLeft = 1 + getRandom().nextInt(MAX_HITS);
+                return AIState.MINER_MINING_SHAFT;
+            }
+
+            position = position.add(Integer.signum(goal.getX() - position.getX()),
+              Integer.signum(goal.getY() - position.getY()),
+              Integer.signum(goal.getZ() - position.getZ()));
+            getCounters().increment(BLOCKS_WALKED);
+            return AIState.START_WORKING;
+        }
+
+        /**
+         * Hits the target, and mines it with the last hit.
+         *
+         * @return the next state.
+         */
+        @NotNull
+        private AIState mine()
+        {
+            getCounters().increment(HITS);
+            if (--hitsLeft > 0)
+            {
+                return AIState.MINER_MINING_SHAFT;
+            }
+
+            if (target != null && getWorld().getBlockState(target) == stone)
+            {
+                getWorld().setBlockState(target, air);
+                getCounters().increment(BLOCKS_MINED);
+            }
+            target = null;
+            return AIState.IDLE;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.minecolonies.simulation;
+
+import com.minecolonies.colony.CitizenData;
+import com.minecolonies.colony.jobs.AbstractJob;
+import com.minecolonies.entity.EntityCitizen;
+import com.minecolonies.entity.ai.basic.AbstractAISkeleton;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Random;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A simulated citizen whose work is a list of {@link com.minecolonies.entity.ai.util.AITarget}s, run by the target
+ * dispatch of {@link AbstractAISkeleton} itself. The job, citizen data and entity the skeleton expects are mocks, the
+ * targets only use the simulated world.
+ * <p>
+ * The targets are lambdas without arguments, so the world, the random source and the counters of the tick being run
+ * are available through the getters while the targets run.
+ */
+public abstract class SimulatedAI extends AbstractAISkeleton<AbstractJob> implements ISimulatedWorker
+{
+    /**
+     * Counter of the targets which threw an exception.
+     */
+    public static final String EXCEPTIONS = "ai exceptions";
+
+    private SimulatedWorld     simulatedWorld;
+    private Random             random;
+    private SimulationCounters counters;
+
+    /**
+     * Creates the ai with a mocked job.
+     */
+    protected SimulatedAI()
+    {
+        super(mockJob());
+    }
+
+    /**
+     * Creates a job whose citizen has an entity, the skeleton only keeps them.
+     *
+     * @return the job.
+     */
+    @NotNull
+    private static AbstractJob mockJob()
+    {
+        final EntityCitizen entity = mock(EntityCitizen.class);
+        final CitizenData citizen = mock(CitizenData.class);
+        when(citizen.getCitizenEntity()).thenReturn(entity);
+        final AbstractJob job = mock(AbstractJob.class);
+        when(job.getCitizen()).thenReturn(citizen);
+        return job;
+    }
+
+    @Override
+    public final void tick(@NotNull final SimulatedWorld world, @NotNull final Random random, @NotNull final SimulationCounters counters)
+    {
+        this.simulatedWorld = world;
+        this.random = random;
+        this.counters = counters;
+        updateTask();
+    }
+
+    @Override
+    protected void onException(final RuntimeException e)
+    {
+        counters.increment(EXCEPTIONS);
+    }
+
+    /**
+     * @return the world of the tick being run.
+     */
+    protected final SimulatedWorld getWorld()
+    {
+        return simulatedWorld;
+    }
+
+    /**
+     * @return the random source of the tick being run.
+     */
+    protected final Random getRandom()
+    {
+        return random;
+    }
+
+    /**
+     * @return the counters of the tick being run.
+     */
+    protected final SimulationCounters getCounters()
+    {
+        return counters;
+    }
+}
@@ -0,0 +1,229 @@
+package com.minecolonies.simulation;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.IBlockAccess;
+import net.minecraft.world.WorldType;
+import net.minecraft.world.biome.Biome;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * A block world kept in memory for simulations, without a server, chunk loading, lighting or entities.
+ * <p>
+ * Every chunk stores its blocks as indices into one palette of block states for the whole world. Chunks are created
+ * the first time a block is set in them, reading a chunk which was never written returns the air state. Code which only
+ * needs an {@link IBlockAccess}, like the tree and pond detection of the job AIs, can run against it directly.
+ */
+public class SimulatedWorld implements IBlockAccess
+{
+    /**
+     * Height of the world in blocks.
+     */
+    public static final int HEIGHT = 256;
+
+    private static final int CHUNK_SIZE   = 16;
+    private static final int CHUNK_VOLUME = CHUNK_SIZE * CHUNK_SIZE * HEIGHT;
+    private static final int FULL_LIGHT   = 15 << 20;
+
+    /**
+     * The block states by their index in the chunk arrays, the air state is index 0.
+     */
+    @NotNull
+    private final List<IBlockState>          palette        = new ArrayList<>();
+    @NotNull
+    private final Map<IBlockState, Integer>  paletteIndices = new HashMap<>();
+    /**
+     * The palette indices of the blocks by chunk, indexed by y, z and x.
+     */
+    @NotNull
+    private final Map<Long, short[]>         chunks         = new HashMap<>();
+    @NotNull
+    private final IBlockState                air;
+    private       long                       blockChanges   = 0;
+
+    /**
+     * Creates an empty world.
+     *
+     * @param air the state returned for every block which was not set.
+     */
+    public SimulatedWorld(@NotNull final IBlockState air)
+    {
+        this.air = air;
+        indexOf(air);
+    }
+
+    /**
+     * Sets a block.
+     *
+     * @param pos   the position, blocks below 0 and above the world height are ignored.
+     * @param state the new state.
+     */
+    public void setBlockState(@NotNull final BlockPos pos, @NotNull final IBlockState state)
+    {
+        if (pos.getY() < 0 || pos.getY() >= HEIGHT)
+        {
+            return;
+        }
+
+        final long chunk = ChunkPos.chunkXZ2Int(pos.getX() >> 4, pos.getZ() >> 4);
+        short[] blocks = chunks.get(chunk);
+        if (blocks == null)
+        {
+            if (state == air)
+            {
+                return;
+            }
+            blocks = new short[CHUNK_VOLUME];
+            chunks.put(chunk, blocks);
+        }
+
+        final int index = indexInChunk(pos);
+        final short block = (short) indexOf(state);
+        if (blocks[index] != block)
+        {
+            blocks[index] = block;
+            blockChanges++;
+        }
+    }
+
+    /**
+     * Sets all blocks in a box.
+     *
+     * @param from  one corner, inclusive.
+     * @param to    the opposite corner, inclusive.
+     * @param state the new state.
+     */
+    public void fill(@NotNull final BlockPos from, @NotNull final BlockPos to, @NotNull final IBlockState state)
+    {
+        for (@NotNull final BlockPos pos : BlockPos.getAllInBox(from, to))
+        {
+            setBlockState(pos, state);
+        }
+    }
+
+    /**
+     * Counts the blocks of a state in a box.
+     *
+     * @param from  one corner, inclusive.
+     * @param to    the opposite corner, inclusive.
+     * @param state the state to count.
+     * @return the amount of blocks.
+     */
+    public int count(@NotNull final BlockPos from, @NotNull final BlockPos to, @NotNull final IBlockState state)
+    {
+        int count = 0;
+        for (@NotNull final BlockPos pos : BlockPos.getAllInBox(from, to))
+        {
+            if (getBlockState(pos) == state)
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return how often a block changed its state since the world was created.
+     */
+    public long getBlockChanges()
+    {
+        return blockChanges;
+    }
+
+    /**
+     * @return the amount of chunks with blocks in them.
+     */
+    public int getChunkCount()
+    {
+        return chunks.size();
+    }
+
+    @Nullable
+    @Override
+    public TileEntity getTileEntity(@NotNull final BlockPos pos)
+    {
+        return null;
+    }
+
+    @Override
+    public int getCombinedLight(@NotNull final BlockPos pos, final int lightValue)
+    {
+        return FULL_LIGHT | lightValue << 4;
+    }
+
+    @NotNull
+    @Override
+    public IBlockState getBlockState(@NotNull final BlockPos pos)
+    {
+        if (pos.getY() < 0 || pos.getY() >= HEIGHT)
+        {
+            return air;
+        }
+
+        final short[] blocks = chunks.get(ChunkPos.chunkXZ2Int(pos.getX() >> 4, pos.getZ() >> 4));
+        return blocks == null ? air : palette.get(blocks[indexInChunk(pos)]);
+    }
+
+    @Override
+    public boolean isAirBlock(@NotNull final BlockPos pos)
+    {
+        return getBlockState(pos) == air;
+    }
+
+    /**
+     * Biomes are not simulated.
+     *
+     * @param pos the position.
+     * @return always null.
+     */
+    @Nullable
+    @Override
+    public Biome getBiome(@NotNull final BlockPos pos)
+    {
+        return null;
+    }
+
+    @Override
+    public int getStrongPower(@NotNull final BlockPos pos, @NotNull final EnumFacing direction)
+    {
+        return 0;
+    }
+
+    @NotNull
+    @Override
+    public WorldType getWorldType()
+    {
+        return WorldType.DEFAULT;
+    }
+
+    @Override
+    public boolean isSideSolid(@NotNull final BlockPos pos, @NotNull final EnumFacing side, final boolean _default)
+    {
+        if (pos.getY() < 0 || pos.getY() >= HEIGHT)
+        {
+            return _default;
+        }
+        final IBlockState state = getBlockState(pos);
+        return state != air && state.isSideSolid(this, pos, side);
+    }
+
+    private int indexOf(@NotNull final IBlockState state)
+    {
+        return paletteIndices.computeIfAbsent(state, key ->
+        {
+            palette.add(key);
+            return palette.size() - 1;
+        });
+    }
+
+    private static int indexInChunk(@NotNull final BlockPos pos)
+    {
+        return (pos.getY() * CHUNK_SIZE + (pos.getZ() & (CHUNK_SIZE - 1))) * CHUNK_SIZE + (pos.getX() & (CHUNK_SIZE - 1));
+    }
+}
@@ -0,0 +1,140 @@
+package com.minecolonies.simulation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Runs the citizens of a scenario tick by tick, without a server.
+ * <p>
+ * Everything random comes from one seeded {@link Random}, so two simulations of the same scenario, seed and citizen
+ * count do exactly the same work. A benchmark creates the simulation in its setup and calls {@link #tick()} as the
+ * measured method, a test calls {@link #run(int)} and checks the report.
+ */
+public class Simulation
+{
+    private static final double NANOS_PER_SECOND = 1_000_000_000D;
+
+    @NotNull
+    private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @NotNull
+    private final IScenario              scenario;
+    @NotNull
+    private final Random                 random;
+    @NotNull
+    private final SimulatedWorld         world;
+    @NotNull
+    private final List<ISimulatedWorker> workers;
+    @NotNull
+    private final SimulationCounters     counters = new SimulationCounters();
+    private       long                   ticks    = 0;
+
+    /**
+     * Creates the world and the citizens of a scenario.
+     *
+     * @param scenario the scenario.
+     * @param seed     the seed of the random source.
+     * @param citizens the amount of citizens.
+     */
+    public Simulation(@NotNull final IScenario scenario, final long seed, final int citizens)
+    {
+        this.scenario = scenario;
+        this.random = new Random(seed);
+        this.world = scenario.createWorld(random);
+        this.workers = scenario.createWorkers(world, random, citizens);
+    }
+
+    /**
+     * Ticks every citizen once.
+     */
+    public void tick()
+    {
+        for (@NotNull final ISimulatedWorker worker : workers)
+        {
+            worker.tick(world, random, counters);
+        }
+        ticks++;
+    }
+
+    /**
+     * Ticks every citizen a number of times and measures the time and the allocations.
+     *
+     * @param tickCount the amount of ticks.
+     * @return the report of these ticks, the counters include the work of earlier ticks.
+     */
+    @NotNull
+    public SimulationReport run(final int tickCount)
+    {
+        final long startBytes = getAllocatedBytes();
+        final long startNanos = System.nanoTime();
+        for (int i = 0; i < tickCount; i++)
+        {
+            tick();
+        }
+        final long nanos = System.nanoTime() - startNanos;
+        final long bytes = startBytes < 0 ? -1 : (getAllocatedBytes() - startBytes);
+
+        final double seconds = Math.max(1, nanos) / NANOS_PER_SECOND;
+        return new SimulationReport(scenario.getName(), workers.size(), tickCount, tickCount / seconds, bytes, counters.asMap());
+    }
+
+    /**
+     * @return the simulated world.
+     */
+    @NotNull
+    public SimulatedWorld getWorld()
+    {
+        return world;
+    }
+
+    /**
+     * @return the citizens, in the order they are ticked.
+     */
+    @NotNull
+    public List<ISimulatedWorker> getWorkers()
+    {
+        return Collections.unmodifiableList(workers);
+    }
+
+    /**
+     * @return the work done so far.
+     */
+    @NotNull
+    public SimulationCounters getCounters()
+    {
+        return counters;
+    }
+
+    /**
+     * @return the amount of ticks run so far.
+     */
+    public long getTicks()
+    {
+        return ticks;
+    }
+
+    /**
+     * @return the bytes the current thread allocated so far, -1 if the JVM doesn't count them.
+     */
+    private static long getAllocatedBytes()
+    {
+        if (threads instanceof com.sun.management.ThreadMXBean)
+        {
+            final com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+            if (allocations.isThreadAllocatedMemorySupported())
+            {
+                if (!allocations.isThreadAllocatedMemoryEnabled())
+                {
+                    allocations.setThreadAllocatedMemoryEnabled(true);
+                }
+                return allocations.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+}
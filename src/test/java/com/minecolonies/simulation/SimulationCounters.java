@@ -0,0 +1,61 @@
+package com.minecolonies.simulation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Named counters of the work done in a simulation, like blocks mined or trees cut.
+ */
+public class SimulationCounters
+{
+    /**
+     * The counters sorted by name, so reports and comparisons are stable.
+     */
+    @NotNull
+    private final Map<String, Long> counters = new TreeMap<>();
+
+    /**
+     * Adds one to a counter.
+     *
+     * @param name the counter.
+     */
+    public void increment(@NotNull final String name)
+    {
+        add(name, 1);
+    }
+
+    /**
+     * Adds an amount to a counter.
+     *
+     * @param name   the counter.
+     * @param amount the amount to add.
+     */
+    public void add(@NotNull final String name, final long amount)
+    {
+        counters.merge(name, amount, Long::sum);
+    }
+
+    /**
+     * Reads a counter.
+     *
+     * @param name the counter.
+     * @return the value, 0 if it was never counted.
+     */
+    public long get(@NotNull final String name)
+    {
+        final Long value = counters.get(name);
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * @return all counters sorted by name, don't change them.
+     */
+    @NotNull
+    public Map<String, Long> asMap()
+    {
+        return Collections.unmodifiableMap(counters);
+    }
+}
@@ -0,0 +1,120 @@
+package com.minecolonies.simulation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The result of a simulation run: its speed, its allocations and the work the citizens did.
+ */
+public class SimulationReport
+{
+    @NotNull
+    private final String            scenario;
+    private final int               citizens;
+    private final int               ticks;
+    private final double            ticksPerSecond;
+    private final long              allocatedBytes;
+    @NotNull
+    private final Map<String, Long> counters;
+
+    /**
+     * Creates a report.
+     *
+     * @param scenario       the scenario name.
+     * @param citizens       the amount of citizens.
+     * @param ticks          the amount of ticks run.
+     * @param ticksPerSecond the ticks run per second.
+     * @param allocatedBytes the bytes allocated by the run, -1 if unknown.
+     * @param counters       the work done counters, they are copied.
+     */
+    public SimulationReport(
+                             @NotNull final String scenario,
+                             final int citizens,
+                             final int ticks,
+                             final double ticksPerSecond,
+                             final long allocatedBytes,
+                             @NotNull final Map<String, Long> counters)
+    {
+        this.scenario = scenario;
+        this.citizens = citizens;
+        this.ticks = ticks;
+        this.ticksPerSecond = ticksPerSecond;
+        this.allocatedBytes = allocatedBytes;
+        this.counters = Collections.unmodifiableMap(new TreeMap<>(counters));
+    }
+
+    @NotNull
+    public String getScenario()
+    {
+        return scenario;
+    }
+
+    public int getCitizens()
+    {
+        return citizens;
+    }
+
+    public int getTicks()
+    {
+        return ticks;
+    }
+
+    public double getTicksPerSecond()
+    {
+        return ticksPerSecond;
+    }
+
+    /**
+     * @return the bytes allocated by the run, -1 if the JVM doesn't count them.
+     */
+    public long getAllocatedBytes()
+    {
+        return allocatedBytes;
+    }
+
+    /**
+     * @return the bytes allocated per tick, -1 if the JVM doesn't count them.
+     */
+    public long getAllocatedBytesPerTick()
+    {
+        return allocatedBytes < 0 ? -1 : allocatedBytes / Math.max(1, ticks);
+    }
+
+    /**
+     * @return the work done counters sorted by name.
+     */
+    @NotNull
+    public Map<String, Long> getCounters()
+    {
+        return counters;
+    }
+
+    /**
+     * Formats the report, one line for the run and one per counter.
+     *
+     * @return the report lines.
+     */
+    @NotNull
+    public List<String> getLines()
+    {
+        final List<String> lines = new ArrayList<>();
+        lines.add(String.format("%s: %d citizens, %d ticks, %.1f ticks/s, %d bytes/tick",
+          scenario, citizens, ticks, ticksPerSecond, getAllocatedBytesPerTick()));
+        for (@NotNull final Map.Entry<String, Long> entry : counters.entrySet())
+        {
+            lines.add(String.format("%s: %d", entry.getKey(), entry.getValue()));
+        }
+        return lines;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.join("\n", getLines());
+    }
+}
@@ -0,0 +1,150 @@
+package com.minecolonies.simulation;
+
+import com.minecolonies.test.AbstractTest;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.util.math.BlockPos;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Checks the simulation harness and uses the scenarios as a gate for the speed of the simulated AIs.
+ * The forest scenario runs the tree search of the lumberjack against the simulated world.
+ * The gates fail below 1000 ticks per second, run with -Dminecolonies.simulation.minTicksPerSecond=... to tighten them.
+ */
+public class SimulationTest extends AbstractTest
+{
+    private static final String MIN_TICKS_PER_SECOND = "minecolonies.simulation.minTicksPerSecond";
+    /**
+     * A server tick lasts 50 ms, the simulated citizens of one tick should take a small part of that.
+     */
+    private static final String DEFAULT_MIN_TPS      = "1000";
+    private static final long   SEED                 = 42L;
+    private static final int    CITIZENS             = 8;
+    private static final int    SIZE                 = 16;
+    private static final int    DEPTH                = 8;
+    private static final int    TICKS                = 20_000;
+    private static final int    FOREST_SIZE          = 32;
+
+    private IBlockState air;
+    private IBlockState stone;
+
+    @Override
+    public String getTestName()
+    {
+        return "SimulationTest";
+    }
+
+    @BeforeClass
+    public static void registerBlocks()
+    {
+        Bootstrap.register();
+    }
+
+    @Before
+    public void createStates()
+    {
+        air = mock(IBlockState.class);
+        stone = mock(IBlockState.class);
+    }
+
+    @Test
+    public void worldStoresBlocksAcrossChunks()
+    {
+        final SimulatedWorld world = new SimulatedWorld(air);
+        final BlockPos inFirstChunk = new BlockPos(15, 10, 15);
+        final BlockPos inOtherChunk = new BlockPos(-1, 10, 16);
+
+        world.setBlockState(inFirstChunk, stone);
+        world.setBlockState(inOtherChunk, stone);
+
+        assertThat(world.getBlockState(inFirstChunk), is(stone));
+        assertThat(world.getBlockState(inOtherChunk), is(stone));
+        assertThat(world.getBlockState(inFirstChunk.up()), is(air));
+        assertTrue(world.isAirBlock(new BlockPos(1000, 10, 1000)));
+        assertThat(world.getChunkCount(), is(2));
+        assertThat(world.getBlockChanges(), is(2L));
+    }
+
+    @Test
+    public void settingAirDoesNotCreateChunks()
+    {
+        final SimulatedWorld world = new SimulatedWorld(air);
+        world.setBlockState(new BlockPos(0, 10, 0), air);
+        world.setBlockState(new BlockPos(0, SimulatedWorld.HEIGHT, 0), stone);
+
+        assertThat(world.getChunkCount(), is(0));
+        assertThat(world.getBlockChanges(), is(0L));
+    }
+
+    @Test
+    public void quarryIsDugOut()
+    {
+        final QuarryScenario scenario = new QuarryScenario(air, stone, SIZE, DEPTH);
+        final Simulation simulation = new Simulation(scenario, SEED, CITIZENS);
+
+        final SimulationReport report = simulation.run(TICKS);
+
+        assertThat(report.getCounters().get(QuarryScenario.BLOCKS_MINED), is((long) (SIZE * SIZE * DEPTH)));
+        assertThat(simulation.getWorld().count(scenario.getFrom(), scenario.getTo(), stone), is(0));
+        assertThat(simulation.getCounters().get(SimulatedAI.EXCEPTIONS), is(0L));
+        assertTrue(report.getCounters().get(QuarryScenario.IDLE_TICKS) > 0);
+    }
+
+    @Test
+    public void forestIsCutDown()
+    {
+        final ForestScenario scenario = new ForestScenario(FOREST_SIZE);
+        final Simulation simulation = new Simulation(scenario, SEED, CITIZENS);
+        final int logs = simulation.getWorld().count(scenario.getFrom(), scenario.getTo(), Blocks.LOG.getDefaultState());
+
+        final SimulationReport report = simulation.run(TICKS);
+
+        assertTrue(report.getCounters().get(ForestScenario.TREES_FOUND) >= scenario.getTrunks().size());
+        assertTrue(report.getCounters().get(ForestScenario.BLOCKS_WALKED) > 0);
+        assertThat(report.getCounters().get(ForestScenario.LOGS_CUT), is((long) logs));
+        assertThat(simulation.getWorld().count(scenario.getFrom(), scenario.getTo(), Blocks.LOG.getDefaultState()), is(0));
+        assertThat(simulation.getCounters().get(SimulatedAI.EXCEPTIONS), is(0L));
+    }
+
+    @Test
+    public void sameSeedDoesTheSameWork()
+    {
+        final SimulationReport first = new Simulation(new QuarryScenario(air, stone, SIZE, DEPTH), SEED, CITIZENS).run(TICKS / 4);
+        final SimulationReport second = new Simulation(new QuarryScenario(air, stone, SIZE, DEPTH), SEED, CITIZENS).run(TICKS / 4);
+        final SimulationReport otherSeed = new Simulation(new QuarryScenario(air, stone, SIZE, DEPTH), SEED + 1, CITIZENS).run(TICKS / 4);
+
+        assertThat(first.getCounters(), is(second.getCounters()));
+        assertThat(first.getCounters(), is(not(otherSeed.getCounters())));
+    }
+
+    @Test
+    public void quarryIsFastEnough()
+    {
+        assertFastEnough(new Simulation(new QuarryScenario(air, stone, SIZE, DEPTH), SEED, CITIZENS));
+    }
+
+    @Test
+    public void forestIsFastEnough()
+    {
+        assertFastEnough(new Simulation(new ForestScenario(FOREST_SIZE), SEED, CITIZENS));
+    }
+
+    private static void assertFastEnough(final Simulation simulation)
+    {
+        //  Warm up before measuring
+        simulation.run(TICKS / 10);
+        final SimulationReport report = simulation.run(TICKS);
+
+        final double minTicksPerSecond = Double.parseDouble(System.getProperty(MIN_TICKS_PER_SECOND, DEFAULT_MIN_TPS));
+        assertTrue(report.toString(), report.getTicksPerSecond() >= minTicksPerSecond);
+    }
+}
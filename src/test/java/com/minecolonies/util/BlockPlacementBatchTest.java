@@ -0,0 +1,147 @@
+package com.minecolonies.util;
+
+import com.minecolonies.test.AbstractTest;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.*;
+
+public class BlockPlacementBatchTest extends AbstractTest
+{
+    private static final BlockPos FIRST  = new BlockPos(1, 64, 1);
+    private static final BlockPos SECOND = new BlockPos(2, 64, 1);
+
+    private World       world;
+    private Chunk       chunk;
+    private Block       block;
+    private IBlockState air;
+    private IBlockState stone;
+    private IBlockState glass;
+
+    @Override
+    public String getTestName()
+    {
+        return "BlockPlacementBatchTest";
+    }
+
+    @Before
+    public void setupWorld()
+    {
+        world = mock(World.class);
+        chunk = mock(Chunk.class);
+        block = mock(Block.class);
+        air = mockState(0, 0);
+        stone = mockState(255, 0);
+        glass = mockState(0, 0);
+    }
+
+    private IBlockState mockState(final int opacity, final int light)
+    {
+        final IBlockState state = mock(IBlockState.class);
+        when(state.getBlock()).thenReturn(block);
+        when(state.getLightOpacity()).thenReturn(opacity);
+        when(state.getLightValue()).thenReturn(light);
+        return state;
+    }
+
+    @Test
+    public void flushNotifiesListenersAndNeighboursOfEveryBlock()
+    {
+        final BlockPlacementBatch batch = new BlockPlacementBatch(world);
+        batch.recordChange(chunk, FIRST, air, stone);
+        batch.recordChange(chunk, SECOND, air, glass);
+
+        batch.flush();
+
+        verify(world).notifyBlockUpdate(FIRST, air, stone, 3);
+        verify(world).notifyBlockUpdate(SECOND, air, glass, 3);
+        verify(world).notifyNeighborsOfStateChange(FIRST, block);
+        verify(world).notifyNeighborsOfStateChange(SECOND, block);
+    }
+
+    @Test
+    public void flushRelightsBeforeNotifying()
+    {
+        final BlockPlacementBatch batch = new BlockPlacementBatch(world);
+        batch.recordChange(chunk, FIRST, air, stone);
+
+        batch.flush();
+
+        final InOrder order = inOrder(chunk, world);
+        order.verify(chunk).generateSkylightMap();
+        order.verify(world).checkLight(FIRST);
+        order.verify(world).notifyBlockUpdate(FIRST, air, stone, 3);
+    }
+
+    @Test
+    public void onlyBlocksChangingTheLightAreRelit()
+    {
+        final BlockPlacementBatch batch = new BlockPlacementBatch(world);
+        batch.recordChange(chunk, FIRST, air, stone);
+        batch.recordChange(chunk, SECOND, air, glass);
+
+        batch.flush();
+
+        verify(world).checkLight(FIRST);
+        verify(world, never()).checkLight(SECOND);
+    }
+
+    @Test
+    public void eachTouchedChunkIsRelitOnce()
+    {
+        final BlockPlacementBatch batch = new BlockPlacementBatch(world);
+        batch.recordChange(chunk, FIRST, air, stone);
+        batch.recordChange(chunk, SECOND, air, stone);
+
+        batch.flush();
+
+        verify(chunk, times(1)).generateSkylightMap();
+    }
+
+    @Test
+    public void flushEmptiesTheBatch()
+    {
+        final BlockPlacementBatch batch = new BlockPlacementBatch(world);
+        batch.recordChange(chunk, FIRST, air, stone);
+        batch.flush();
+        reset(world, chunk);
+
+        batch.flush();
+
+        assertThat(batch.size(), is(0));
+        verify(world, never()).notifyBlockUpdate(any(BlockPos.class), any(IBlockState.class), any(IBlockState.class), anyInt());
+        verify(chunk, never()).generateSkylightMap();
+    }
+
+    @Test
+    public void replacedBlockIsBrokenBeforeTheNewStateIsWritten()
+    {
+        final Block oldBlock = mock(Block.class);
+        final IBlockState chest = mock(IBlockState.class);
+        when(chest.getBlock()).thenReturn(oldBlock);
+        final ExtendedBlockStorage section = mock(ExtendedBlockStorage.class);
+        when(section.get(1, 0, 1)).thenReturn(chest);
+        final ExtendedBlockStorage[] sections = new ExtendedBlockStorage[16];
+        sections[FIRST.getY() >> 4] = section;
+        when(world.getHeight()).thenReturn(256);
+        when(world.getChunkFromBlockCoords(FIRST)).thenReturn(chunk);
+        when(chunk.getBlockStorageArray()).thenReturn(sections);
+
+        new BlockPlacementBatch(world).setBlockState(FIRST, stone);
+
+        final InOrder order = inOrder(oldBlock, section);
+        order.verify(oldBlock).breakBlock(world, FIRST, chest);
+        order.verify(section).set(1, 0, 1, stone);
+    }
+}
@@ -0,0 +1,79 @@
+package com.minecolonies.util;
+
+import com.minecolonies.test.AbstractTest;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class IntCounterMapTest extends AbstractTest
+{
+    @Override
+    public String getTestName()
+    {
+        return "IntCounterMapTest";
+    }
+
+    @Test
+    public void missingKeyIsZero()
+    {
+        final IntCounterMap map = new IntCounterMap();
+
+        assertThat(map.get(42), is(0));
+        assertThat(map.size(), is(0));
+    }
+
+    @Test
+    public void counterReachingZeroIsRemoved()
+    {
+        final IntCounterMap map = new IntCounterMap();
+        map.add(1 << 16, 5);
+        map.add(1 << 16, -5);
+
+        assertThat(map.isEmpty(), is(true));
+        assertThat(map.keys().length, is(0));
+    }
+
+    /**
+     * Compares random changes against a HashMap, item keys only differ in the upper bits.
+     */
+    @Test
+    public void randomChangesMatchHashMap()
+    {
+        final Random random = getRandom();
+        final IntCounterMap map = new IntCounterMap();
+        final Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 10_000; i++)
+        {
+            final int key = (random.nextInt(500) << 16) | random.nextInt(4);
+            final int delta = random.nextInt(7) - 3;
+            final int value = expected.getOrDefault(key, 0) + delta;
+            if (value == 0)
+            {
+                expected.remove(key);
+            }
+            else
+            {
+                expected.put(key, value);
+            }
+            map.add(key, delta);
+
+            if (i % 1000 == 0)
+            {
+                map.compact();
+            }
+        }
+
+        assertThat(map.size(), is(expected.size()));
+        for (final Map.Entry<Integer, Integer> entry : expected.entrySet())
+        {
+            assertThat(map.get(entry.getKey()), is(entry.getValue()));
+        }
+        map.forEach((key, value) -> assertThat(expected.get(key), is(value)));
+    }
+}
@@ -0,0 +1,90 @@
+package com.minecolonies.util;
+
+import com.minecolonies.test.AbstractTest;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class TickProfilerTest extends AbstractTest
+{
+    @Override
+    public String getTestName()
+    {
+        return "TickProfilerTest";
+    }
+
+    @After
+    public void stopProfiler()
+    {
+        TickProfiler.stop();
+        TickProfiler.reset();
+    }
+
+    @Test
+    public void nothingIsMeasuredWhileStopped()
+    {
+        TickProfiler.push(TickProfiler.COLONY, 1);
+        TickProfiler.pop();
+
+        final List<String> report = TickProfiler.getReport("colony 1", "colony 1", 10);
+        assertThat(report.size(), is(1));
+    }
+
+    @Test
+    public void nestedSectionsFormStacks()
+    {
+        TickProfiler.start();
+        for (int tick = 0; tick < 3; tick++)
+        {
+            TickProfiler.push(TickProfiler.COLONY, 1);
+            TickProfiler.push(TickProfiler.SERVER_TICK, "END");
+            TickProfiler.push(TickProfiler.BUILDING, String.class);
+            TickProfiler.pop();
+            TickProfiler.pop();
+            TickProfiler.pop();
+        }
+
+        final List<String> report = TickProfiler.getReport("colony 1", "colony 1;server tick END", 10);
+        assertThat(report.get(0), is("colony 1: 3 ticks measured"));
+        assertThat(report.size(), is(4));
+        assertTrue(report.stream().anyMatch(line -> line.startsWith("server tick END;building String: ")));
+    }
+
+    @Test
+    public void otherColoniesAreNotReported()
+    {
+        TickProfiler.start();
+        TickProfiler.push(TickProfiler.COLONY, 10);
+        TickProfiler.pop();
+
+        assertThat(TickProfiler.getReport("colony 1", "colony 1", 10).size(), is(1));
+    }
+
+    @Test
+    public void exportWritesFoldedStacks() throws IOException
+    {
+        TickProfiler.start();
+        TickProfiler.push(TickProfiler.COLONY, 2);
+        TickProfiler.push(TickProfiler.WORLD_TICK, "START");
+        TickProfiler.pop();
+        TickProfiler.pop();
+
+        final File file = File.createTempFile("profile", ".folded");
+        file.deleteOnExit();
+        TickProfiler.exportFolded("colony 2", file, false);
+
+        for (final String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8))
+        {
+            assertTrue(line.matches("colony_2(;world_tick_START)? \\d+"));
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.structures.helpers;
+
+import com.minecolonies.test.AbstractTest;
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.gen.structure.template.Template;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class CompactSchematicTest extends AbstractTest
+{
+    private static final BlockPos SIZE      = new BlockPos(3, 2, 2);
+    private static final String   AUTHOR    = "tester";
+    private static final short    LEGACY_ID = 7;
+
+    @Override
+    public String getTestName()
+    {
+        return "CompactSchematicTest";
+    }
+
+    @BeforeClass
+    public static void registerBlocks()
+    {
+        Bootstrap.register();
+    }
+
+    /**
+     * A template with its blocks in the order the format reads them, x fastest, then z, then y.
+     */
+    private static Template createTemplate()
+    {
+        final NBTTagCompound chest = new NBTTagCompound();
+        chest.setString("id", "Chest");
+        chest.setString("CustomName", "Supplies");
+        final NBTTagCompound frame = new NBTTagCompound();
+        frame.setString("id", "ItemFrame");
+
+        final Template template = new Template();
+        template.size = SIZE;
+        template.setAuthor(AUTHOR);
+        template.blocks.add(new Template.BlockInfo(new BlockPos(0, 0, 0), Blocks.STONE.getDefaultState(), null));
+        template.blocks.add(new Template.BlockInfo(new BlockPos(1, 0, 0), Blocks.STONE.getDefaultState(), null));
+        template.blocks.add(new Template.BlockInfo(new BlockPos(2, 0, 0), Blocks.PLANKS.getDefaultState(), null));
+        template.blocks.add(new Template.BlockInfo(new BlockPos(0, 0, 1), Blocks.CHEST.getDefaultState(), chest));
+        template.blocks.add(new Template.BlockInfo(new BlockPos(2, 1, 1), Blocks.TORCH.getDefaultState(), null));
+        template.entities.add(new Template.EntityInfo(new Vec3d(1.5, 1.0, 0.5), new BlockPos(1, 1, 0), frame));
+        return template;
+    }
+
+    private static byte[] write(final Template template) throws IOException
+    {
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        CompactSchematic.write(template, stream);
+        return stream.toByteArray();
+    }
+
+    private static Template read(final byte[] data) throws IOException
+    {
+        return CompactSchematic.read(new ByteArrayInputStream(data));
+    }
+
+    private static NBTTagCompound createSchematic(final String mappingTag, final NBTTagCompound mapping)
+    {
+        final NBTTagCompound schematic = new NBTTagCompound();
+        schematic.setShort("Width", (short) 1);
+        schematic.setShort("Height", (short) 1);
+        schematic.setShort("Length", (short) 1);
+        schematic.setByteArray("Blocks", new byte[] {LEGACY_ID});
+        schematic.setByteArray("Data", new byte[] {0});
+        schematic.setTag(mappingTag, mapping);
+        return schematic;
+    }
+
+    @Test
+    public void roundTripKeepsSizeAndAuthor() throws IOException
+    {
+        final Template template = read(write(createTemplate()));
+
+        assertThat(template.getSize(), is(SIZE));
+        assertThat(template.getAuthor(), is(AUTHOR));
+    }
+
+    @Test
+    public void roundTripKeepsBlocksAndTileEntities() throws IOException
+    {
+        final Template original = createTemplate();
+        final Template template = read(write(original));
+
+        assertThat(template.blocks.size(), is(original.blocks.size()));
+        for (int i = 0; i < original.blocks.size(); i++)
+        {
+            final Template.BlockInfo expected = original.blocks.get(i);
+            final Template.BlockInfo actual = template.blocks.get(i);
+            assertThat(actual.pos, is(expected.pos));
+            assertThat(actual.blockState, is(expected.blockState));
+            assertThat(actual.tileentityData, is(expected.tileentityData));
+        }
+    }
+
+    @Test
+    public void roundTripKeepsEntities() throws IOException
+    {
+        final Template original = createTemplate();
+        final Template template = read(write(original));
+
+        assertThat(template.entities.size(), is(1));
+        final Template.EntityInfo expected = original.entities.get(0);
+        final Template.EntityInfo actual = template.entities.get(0);
+        assertThat(actual.pos.xCoord, is(expected.pos.xCoord));
+        assertThat(actual.pos.yCoord, is(expected.pos.yCoord));
+        assertThat(actual.pos.zCoord, is(expected.pos.zCoord));
+        assertThat(actual.blockPos, is(expected.blockPos));
+        assertThat(actual.entityData, is(expected.entityData));
+    }
+
+    @Test
+    public void readTemplateIsWrittenTheSame() throws IOException
+    {
+        final byte[] data = write(createTemplate());
+
+        assertThat(Arrays.equals(write(read(data)), data), is(true));
+    }
+
+    @Test
+    public void schematicaIdsAreMappedByName()
+    {
+        final NBTTagCompound mapping = new NBTTagCompound();
+        mapping.setShort("minecraft:dirt", LEGACY_ID);
+
+        final Template template = CompactSchematic.fromSchematic(createSchematic("SchematicaMapping", mapping));
+
+        assertThat(template.blocks.size(), is(1));
+        assertThat(template.blocks.get(0).blockState, is(Blocks.DIRT.getDefaultState()));
+    }
+
+    @Test
+    public void mceditIdsAreMappedByName()
+    {
+        final NBTTagCompound mapping = new NBTTagCompound();
+        mapping.setString(Short.toString(LEGACY_ID), "minecraft:dirt");
+
+        final Template template = CompactSchematic.fromSchematic(createSchematic("BlockIDs", mapping));
+
+        assertThat(template.blocks.get(0).blockState, is(Blocks.DIRT.getDefaultState()));
+    }
+
+    @Test
+    public void unknownMappedBlocksAreLeftOut()
+    {
+        final NBTTagCompound mapping = new NBTTagCompound();
+        mapping.setShort("othermod:unknown", LEGACY_ID);
+
+        final Template template = CompactSchematic.fromSchematic(createSchematic("SchematicaMapping", mapping));
+
+        assertThat(template.blocks.size(), is(0));
+    }
+}